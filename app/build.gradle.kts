@@ -34,6 +34,18 @@ android {
         targetCompatibility = JavaVersion.VERSION_1_8
     }
 
+    testOptions {
+        unitTests.isIncludeAndroidResources = true
+        unitTests.all {
+            // Benchmarks are slow and machine-dependent; -Pbenchmarks runs them too.
+            if (!project.hasProperty("benchmarks")) {
+                it.useJUnit {
+                    excludeCategories("com.example.smartfeederapp.Benchmark")
+                }
+            }
+        }
+    }
+
     packaging {
         jniLibs {
             keepDebugSymbols.add("**/*.so")
@@ -56,10 +68,13 @@ dependencies {
     testImplementation("org.mockito:mockito-core:5.15.2")
     testImplementation("org.mockito:mockito-inline:5.2.0")
     testImplementation("androidx.arch.core:core-testing:2.2.0")
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
+    testImplementation("org.robolectric:robolectric:4.11.1")
 
     // Retrofit для HTTP-запросов
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
     implementation("com.squareup.retrofit2:converter-gson:2.9.0")
+    implementation("com.squareup.okhttp3:okhttp:4.12.0")
     implementation("com.squareup.okhttp3:logging-interceptor:4.12.0")
     implementation("com.google.code.gson:gson:2.10.1")
 
@@ -73,6 +88,7 @@ dependencies {
     implementation("androidx.media3:media3-exoplayer-rtsp:1.4.1")
     implementation("androidx.media3:media3-ui:1.4.1")
     implementation("androidx.media3:media3-session:1.4.1")
+    implementation("androidx.media3:media3-datasource-okhttp:1.4.1")
     
     // RTMP-поддержка для ExoPlayer
     implementation("androidx.media3:media3-datasource-rtmp:1.4.1")
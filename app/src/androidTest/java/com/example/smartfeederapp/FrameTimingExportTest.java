@@ -0,0 +1,87 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Instrumented test that flings a 10k-row rvVideoList and exports the frame timings
+ * collected meanwhile. The JSON report is sent as an instrumentation status under the
+ * "frame_timing" key and written to frame_timing.json in the app's external files dir,
+ * so CI can pull it with adb.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FrameTimingExportTest {
+
+    private static final String TAG = "FrameTimingExport";
+    private static final int ROW_COUNT = 10_000;
+    private static final int FLINGS = 4;
+    private static final long FLING_MS = 800;
+
+    @Rule
+    public ActivityScenarioRule<MainActivity> activityRule =
+            new ActivityScenarioRule<>(MainActivity.class);
+
+    private static List<VideoItem> videos() {
+        List<VideoItem> items = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            String filename = String.format(Locale.US, "video_20240307_%06d.mp4", ROW_COUNT - i);
+            items.add(new VideoItem(filename, "http://10.0.0.5:5000/videos/feeder-1/" + filename));
+        }
+        return items;
+    }
+
+    @Test
+    public void flingingList_recordsAndExportsScrollingFrames() throws IOException {
+        VideoAdapter adapter = new VideoAdapter();
+        adapter.setVideoList(videos());
+        RecyclerView[] list = new RecyclerView[1];
+        activityRule.getScenario().onActivity(activity -> {
+            list[0] = activity.findViewById(R.id.rvVideoList);
+            list[0].setAdapter(adapter);
+        });
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+
+        FrameTimingCollector collector = FrameTimingCollector.getInstance();
+        collector.reset();
+        for (int i = 0; i < FLINGS; i++) {
+            int velocity = i % 2 == 0 ? 8000 : -4000;
+            activityRule.getScenario().onActivity(activity -> list[0].fling(0, velocity));
+            SystemClock.sleep(FLING_MS);
+        }
+        activityRule.getScenario().onActivity(activity -> list[0].stopScroll());
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+
+        String json = collector.formatJson();
+        Log.i(TAG, json);
+        Bundle status = new Bundle();
+        status.putString("frame_timing", json);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+        File dir = InstrumentationRegistry.getInstrumentation().getTargetContext().getExternalFilesDir(null);
+        try (FileOutputStream out = new FileOutputStream(new File(dir, "frame_timing.json"))) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        FrameTimingCollector.StateStats scrolling = collector.get(FrameTimingCollector.UiState.LIST_SCROLLING);
+        assertTrue("no frames recorded while scrolling", scrolling.getFrameCount() > 0);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Instrumented tests for {@link VideoCatalogStore}, run against SQLite on the device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class VideoCatalogStoreInstrumentedTest {
+
+    private static final String DATABASE_NAME = "video_catalog_test.db";
+    private static final String SERVER = "http://10.0.0.5:5000/";
+    private static final int LARGE_CATALOG_SIZE = 100_000;
+    private static final int FEEDER_COUNT = 10;
+
+    private Context context;
+    private VideoCatalogStore store;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        store = new VideoCatalogStore(context, DATABASE_NAME);
+        store.bindServer(SERVER);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    /** Creates a video recorded the given number of minutes after 2024-01-01 00:00. */
+    private static VideoItem video(int minute, String feederId) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(2024, Calendar.JANUARY, 1, 0, 0, 0);
+        calendar.add(Calendar.MINUTE, minute);
+        String filename = String.format(Locale.US, "video_%1$tY%1$tm%1$td_%1$tH%1$tM%1$tS.mp4", calendar);
+        return new VideoItem(filename, SERVER + "videos/" + feederId + "/" + filename);
+    }
+
+    private static long minuteMillis(int minute) {
+        return video(minute, "f").getRecordedAtMillis();
+    }
+
+    @Test
+    public void loadNewest_pagesNewestFirstWithoutGapsOrDuplicates() {
+        List<VideoItem> videos = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            videos.add(video(i, "feeder-" + (i % 3)));
+        }
+        store.upsert(videos, 1);
+
+        List<VideoItem> read = new ArrayList<>();
+        VideoItem last = null;
+        List<VideoItem> batch;
+        while (!(batch = store.loadNewest(last, 10)).isEmpty()) {
+            read.addAll(batch);
+            last = batch.get(batch.size() - 1);
+        }
+
+        assertEquals(25, read.size());
+        assertEquals(videos.get(24).getFilename(), read.get(0).getFilename());
+        assertEquals(videos.get(0).getFilename(), read.get(24).getFilename());
+    }
+
+    @Test
+    public void queryRange_filtersByFeederAndTime() {
+        store.upsert(Arrays.asList(video(0, "a"), video(10, "a"), video(20, "b"), video(30, "a")), 1);
+
+        List<VideoItem> feederA = store.queryRange("a", minuteMillis(5), minuteMillis(30), 10);
+        List<VideoItem> all = store.queryRange(null, minuteMillis(5), minuteMillis(25), 10);
+
+        assertEquals(2, feederA.size());
+        assertEquals(video(30, "a").getFilename(), feederA.get(0).getFilename());
+        assertEquals(2, all.size());
+    }
+
+    @Test
+    public void completePass_prunesVideosNotSeenAndStoresToken() {
+        store.upsert(Arrays.asList(video(0, "a"), video(1, "a")), 1);
+
+        store.upsert(Collections.singletonList(video(1, "a")), 2);
+        store.completePass(2, "t1");
+
+        assertEquals(1, store.count());
+        assertEquals("t1", store.getSyncToken());
+    }
+
+    @Test
+    public void applyChanges_onlyAdvancesTokenOfCompleteStore() {
+        store.upsert(Collections.singletonList(video(0, "a")), 1);
+        store.applyChanges(Collections.singletonList(video(1, "a")), Collections.<String>emptyList(), "t2", 2);
+        assertNull(store.getSyncToken());
+
+        store.completePass(1, "t1");
+        store.applyChanges(Collections.singletonList(video(2, "a")),
+                Collections.singletonList(video(0, "a").getFilename()), "t3", 3);
+
+        assertEquals("t3", store.getSyncToken());
+        assertEquals(2, store.count());
+    }
+
+    @Test
+    public void bindServer_otherServer_dropsStoredCatalog() {
+        store.upsert(Collections.singletonList(video(0, "a")), 1);
+        store.completePass(1, "t1");
+
+        store.bindServer("http://10.0.0.6:5000/");
+
+        assertEquals(0, store.count());
+        assertNull(store.getSyncToken());
+    }
+
+    @Test
+    public void rangeQueries_on100kVideos_stayUnder10Milliseconds() {
+        List<VideoItem> batch = new ArrayList<>(1000);
+        for (int i = 0; i < LARGE_CATALOG_SIZE; i++) {
+            batch.add(video(i, "feeder-" + (i % FEEDER_COUNT)));
+            if (batch.size() == 1000) {
+                store.upsert(batch, 1);
+                batch.clear();
+            }
+        }
+        assertEquals(LARGE_CATALOG_SIZE, store.count());
+        store.queryRange(null, 0, Long.MAX_VALUE, 1);
+
+        long start = System.nanoTime();
+        List<VideoItem> day = store.queryRange("feeder-3", minuteMillis(50_000), minuteMillis(51_440), 500);
+        long feederRangeMs = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        List<VideoItem> hour = store.queryRange(null, minuteMillis(90_000), minuteMillis(90_059), 500);
+        long allRangeMs = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        List<VideoItem> deepPage = store.loadNewest(video(20_000, "feeder-0"), 50);
+        long keysetMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(144, day.size());
+        assertEquals(60, hour.size());
+        assertEquals(50, deepPage.size());
+        assertTrue("Feeder range query took " + feederRangeMs + " ms", feederRangeMs < 10);
+        assertTrue("Range query took " + allRangeMs + " ms", allRangeMs < 10);
+        assertTrue("Keyset page took " + keysetMs + " ms", keysetMs < 10);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import android.os.Debug;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Instrumented benchmark that scrolls a 10k-row rvVideoList and counts the objects
+ * allocated on the main thread while rows are bound.
+ * The first rows warm up the holder pool; after that, binding must not allocate.
+ */
+@RunWith(AndroidJUnit4.class)
+public class VideoListScrollAllocationTest {
+
+    private static final String TAG = "VideoListScrollAlloc";
+    private static final int ROW_COUNT = 10_000;
+    private static final int WARM_UP_ROWS = 500;
+
+    @Rule
+    public ActivityScenarioRule<MainActivity> activityRule =
+            new ActivityScenarioRule<>(MainActivity.class);
+
+    /**
+     * Adapter that counts binds and the allocations made by them.
+     */
+    private static final class CountingAdapter extends VideoAdapter {
+        boolean counting;
+        long binds;
+        long allocations;
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public void onBindViewHolder(@NonNull VideoViewHolder holder, int position) {
+            if (!counting) {
+                super.onBindViewHolder(holder, position);
+                return;
+            }
+            int before = Debug.getThreadAllocCount();
+            super.onBindViewHolder(holder, position);
+            allocations += Debug.getThreadAllocCount() - before;
+            binds++;
+        }
+    }
+
+    private static List<VideoItem> videos() {
+        List<VideoItem> items = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            String filename = String.format(Locale.US, "video_20240307_%06d.mp4", ROW_COUNT - i);
+            items.add(new VideoItem(filename, "http://10.0.0.5:5000/videos/feeder-1/" + filename));
+        }
+        return items;
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void scrolling10kRows_bindsWithoutAllocating() {
+        CountingAdapter adapter = new CountingAdapter();
+        adapter.setVideoList(videos());
+        RecyclerView[] list = new RecyclerView[1];
+        activityRule.getScenario().onActivity(activity -> {
+            list[0] = activity.findViewById(R.id.rvVideoList);
+            list[0].setAdapter(adapter);
+        });
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+
+        long[] scrollNanos = new long[1];
+        activityRule.getScenario().onActivity(activity -> {
+            RecyclerView recyclerView = list[0];
+            int step = recyclerView.getChildAt(0).getHeight() * 3;
+            while (recyclerView.getChildAdapterPosition(recyclerView.getChildAt(0)) < WARM_UP_ROWS) {
+                recyclerView.scrollBy(0, step);
+            }
+
+            Debug.resetThreadAllocCount();
+            Debug.startAllocCounting();
+            adapter.counting = true;
+            long start = System.nanoTime();
+            while (recyclerView.canScrollVertically(1)) {
+                recyclerView.scrollBy(0, step);
+            }
+            scrollNanos[0] = System.nanoTime() - start;
+            adapter.counting = false;
+            Debug.stopAllocCounting();
+        });
+
+        Log.i(TAG, String.format(Locale.US,
+                "Scrolled %d rows: %d binds, %d allocations (%.3f per bind), %.1f ms",
+                ROW_COUNT - WARM_UP_ROWS, adapter.binds, adapter.allocations,
+                adapter.allocations / (double) Math.max(1, adapter.binds), scrollNanos[0] / 1e6));
+        assertTrue("too few rows were bound: " + adapter.binds, adapter.binds > ROW_COUNT - WARM_UP_ROWS * 2);
+        assertEquals("objects allocated while binding", 0, adapter.allocations);
+    }
+}
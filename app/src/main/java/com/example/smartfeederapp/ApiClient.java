@@ -4,80 +4,214 @@ import android.content.Context;
 import android.text.TextUtils;
 import android.util.Log;
 
+import java.io.IOException;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 /**
  * Manages the creation and retrieval of the Retrofit ApiService instance.
  * Ensures that the ApiService is initialized with the correct server address
- * from SettingsManager and handles potential changes in the address.
+ * from SettingsManager and handles potential changes in the address, which are
+ * pushed by a SettingsManager listener rather than polled on every lookup.
+ * All requests go through the shared client from HttpClientProvider, and identical
+ * GET requests that are in flight at the same time share one network call.
+ * Calls are started in priority order by the provider's RequestScheduler.
+ * Transient failures are retried with backoff, each retry queued in the scheduler again,
+ * and a circuit breaker makes requests fail fast while the server is known to be unreachable.
+ * The server lists optional endpoints it offers in a capabilities response header;
+ * these are recorded in SettingsManager per server.
  */
 public class ApiClient {
 
     private static final String TAG = "ApiClient";
-    private ApiService apiService;
-    private String currentBaseUrl = null;
+    static final String CAPABILITIES_HEADER = "X-Feeder-Capabilities";
+    static final String CAPABILITY_BOOTSTRAP = "bootstrap";
+    static final String CAPABILITY_THUMBNAILS = "thumbnails";
+    static final String CAPABILITY_SPRITES = "sprites";
+    private static final String[] RECORDED_CAPABILITIES = {CAPABILITY_BOOTSTRAP, CAPABILITY_THUMBNAILS, CAPABILITY_SPRITES};
+    private static final Snapshot EMPTY = new Snapshot(null, false, null);
+
+    /**
+     * The base URL, protocol mode and the ApiService built for them. Never modified after
+     * construction, so readers see a consistent set through a single volatile read.
+     */
+    private static final class Snapshot {
+        final String baseUrl;
+        final boolean h2c;
+        final ApiService apiService;
+
+        Snapshot(String baseUrl, boolean h2c, ApiService apiService) {
+            this.baseUrl = baseUrl;
+            this.h2c = h2c;
+            this.apiService = apiService;
+        }
+    }
+
+    private volatile Snapshot snapshot = EMPTY;
+    private final SettingsManager.ServerAddressListener serverAddressListener = this::initializeApiService;
     private final Context context;
     private final SettingsManager settingsManager;
+    private final CoalescingCallAdapterFactory requestCoalescer = new CoalescingCallAdapterFactory();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private OkHttpClient apiHttpClient;
+    private OkHttpClient apiH2cClient;
 
     /**
      * Constructor for ApiClient.
-     * Initializes dependencies and performs the initial ApiService setup.
+     * Initializes dependencies, performs the initial ApiService setup and starts
+     * listening for server address changes.
      *
      * @param context The application context.
      */
     public ApiClient(Context context) {
         this.context = context.getApplicationContext();
         this.settingsManager = SettingsManager.getInstance(context);
-        initializeApiService();
+        initializeApiService(settingsManager.getServerAddress());
+        settingsManager.addServerAddressListener(serverAddressListener);
     }
 
     /**
-     * Gets the singleton instance of ApiService.
-     * If the server address has changed since the last initialization,
-     * or if the service hasn't been created yet, it attempts to re-initialize.
+     * Gets the ApiService for the configured server address.
+     * The service is rebuilt when SettingsManager reports an address change, so this
+     * method only performs a volatile read and neither locks nor allocates.
      * Returns null if the server address is not configured or invalid.
-     * This method is synchronized to handle concurrent access safely.
      *
      * @return The ApiService instance or null if unavailable.
      */
-    public synchronized ApiService getApiService() {
-        String serverAddress = settingsManager.getServerAddress();
-        String baseUrl = (serverAddress != null) ? "http://" + serverAddress + "/" : null;
-
-        if (apiService == null || (baseUrl != null && !baseUrl.equals(currentBaseUrl))) {
-            Log.d(TAG, "ApiService is not ready or URL changed. Attempting initialization...");
-            initializeApiService();
-        } else if (baseUrl == null) {
-            Log.w(TAG, "Server address is not set. ApiService cannot be used.");
-            apiService = null;
+    public ApiService getApiService() {
+        return snapshot.apiService;
+    }
+
+    /**
+     * @return The base URL the current ApiService was built for, or null.
+     */
+    String getBaseUrl() {
+        return snapshot.baseUrl;
+    }
+
+    /**
+     * Stops listening for server address changes. Call when the owner of this client is destroyed.
+     */
+    public void release() {
+        settingsManager.removeServerAddressListener(serverAddressListener);
+    }
+
+    /**
+     * Returns the coalescing layer shared by every ApiService this client creates,
+     * which counts joined (hit) and started (miss) requests.
+     *
+     * @return The CoalescingCallAdapterFactory instance.
+     */
+    public CoalescingCallAdapterFactory getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    /**
+     * Returns the circuit breaker guarding requests to the configured server.
+     * Observe {@link CircuitBreaker#getState()} to show when the server is unreachable.
+     *
+     * @return The CircuitBreaker instance.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Derives the client used for API calls from the shared client of the given mode,
+     * adding the interceptor that records the server's capabilities. The derived client
+     * keeps the shared connection pool and cache.
+     *
+     * @param h2c true to use HTTP/2 cleartext with prior knowledge.
+     * @return The OkHttpClient for Retrofit.
+     */
+    private OkHttpClient getApiHttpClient(boolean h2c) {
+        OkHttpClient client = h2c ? apiH2cClient : apiHttpClient;
+        if (client == null) {
+            OkHttpClient.Builder builder = HttpClientProvider.getInstance(context).getClient(h2c).newBuilder();
+            builder.interceptors().add(0, this::recordCapabilities);
+            client = builder.build();
+            if (h2c) {
+                apiH2cClient = client;
+            } else {
+                apiHttpClient = client;
+            }
         }
-        return apiService;
+        return client;
     }
 
     /**
-     * Initializes or re-initializes the Retrofit ApiService instance.
-     * Reads the server address from SettingsManager, builds the Retrofit client,
-     * and creates the ApiService interface. Handles invalid server addresses.
-     * This method is synchronized to prevent race conditions during initialization.
+     * Passes the request on and records the capabilities the server advertised with the
+     * response. Responses without the header leave the recorded capabilities unchanged.
      */
-    private synchronized void initializeApiService() {
-        String serverAddress = settingsManager.getServerAddress();
+    private Response recordCapabilities(Interceptor.Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        String capabilities = response.header(CAPABILITIES_HEADER);
+        if (capabilities != null) {
+            HttpUrl url = response.request().url();
+            String address = url.host() + ":" + url.port();
+            for (String capability : RECORDED_CAPABILITIES) {
+                settingsManager.setCapabilitySupported(address, capability, hasCapability(capabilities, capability));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Checks whether a comma-separated capabilities header lists the given capability.
+     * @param header The header value, e.g. "bootstrap, delta".
+     * @param capability The capability name.
+     * @return true if it is listed, ignoring case and whitespace.
+     */
+    static boolean hasCapability(String header, String capability) {
+        for (String entry : header.split(",")) {
+            if (entry.trim().equalsIgnoreCase(capability)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Initializes or re-initializes the Retrofit ApiService instance for the given address
+     * and publishes it as a new snapshot. Does nothing if the base URL and protocol mode are unchanged.
+     * Handles invalid server addresses.
+     * This method is synchronized so concurrent address changes are applied one at a time;
+     * readers are never blocked by it.
+     *
+     * @param serverAddress The server address ("ip:port"), or null if not configured.
+     */
+    private synchronized void initializeApiService(String serverAddress) {
         if (serverAddress != null && !serverAddress.isEmpty()) {
-            currentBaseUrl = "http://" + serverAddress + "/";
+            String newBaseUrl = "http://" + serverAddress + "/";
+            boolean h2c = settingsManager.isH2cPriorKnowledgeEnabled(serverAddress);
+            Snapshot current = snapshot;
+            if (newBaseUrl.equals(current.baseUrl) && h2c == current.h2c && current.apiService != null) {
+                return;
+            }
+            circuitBreaker.reset();
             try {
-                Retrofit retrofit = new Retrofit.Builder().baseUrl(currentBaseUrl).addConverterFactory(GsonConverterFactory.create()).build();
-                apiService = retrofit.create(ApiService.class);
-                Log.d(TAG, "ApiService initialized successfully for URL: " + currentBaseUrl);
+                Retrofit retrofit = new Retrofit.Builder()
+                        .baseUrl(newBaseUrl)
+                        .callFactory(new RetryingCallFactory(
+                                HttpClientProvider.getInstance(context).getRequestScheduler(h2c).callFactory(getApiHttpClient(h2c)),
+                                new RetryingCallFactory.Policy(), circuitBreaker))
+                        .addCallAdapterFactory(requestCoalescer)
+                        .addConverterFactory(GsonConverterFactory.create(GsonProvider.getGson()))
+                        .build();
+                snapshot = new Snapshot(newBaseUrl, h2c, retrofit.create(ApiService.class));
+                Log.d(TAG, "ApiService initialized successfully for URL: " + newBaseUrl + (h2c ? " (h2c)" : ""));
             } catch (IllegalArgumentException e) {
                 Log.e(TAG, "Invalid server address format during ApiService initialization: " + serverAddress, e);
-                apiService = null;
-                currentBaseUrl = null;
+                snapshot = EMPTY;
             }
         } else {
             Log.w(TAG, "Server address not configured. ApiService not initialized.");
-            apiService = null;
-            currentBaseUrl = null;
+            snapshot = EMPTY;
         }
     }
-}
\ No newline at end of file
+}
@@ -2,8 +2,11 @@ package com.example.smartfeederapp;
 
 import java.util.List;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.GET;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 /**
  * Retrofit service interface defining API endpoints.
@@ -17,6 +20,35 @@ public interface ApiService {
     @GET("videos")
     Call<List<VideoItem>> getVideos();
 
+    /**
+     * Retrieves the same list as {@link #getVideos()} as an unbuffered body,
+     * so it can be decoded incrementally while it is still downloading.
+     *
+     * @return A Call object for the raw response body.
+     */
+    @Streaming
+    @GET("videos")
+    Call<ResponseBody> getVideosStream();
+
+    /**
+     * Retrieves one page of the video catalog, newest first.
+     *
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of items to return.
+     * @return A Call object for the VideoPage.
+     */
+    @GET("videos/page")
+    Call<VideoPage> getVideosPage(@Query("cursor") String cursor, @Query("limit") int limit);
+
+    /**
+     * Retrieves the videos added and removed since the given sync token.
+     *
+     * @param syncToken The token returned by the previous sync or by the first page.
+     * @return A Call object for the VideoDelta.
+     */
+    @GET("videos/changes")
+    Call<VideoDelta> getVideoChanges(@Query("since") String syncToken);
+
     /**
      * Retrieves a list of currently active feeders from the server.
      *
@@ -24,4 +56,16 @@ public interface ApiService {
      */
     @GET("feeders")
     Call<List<String>> getFeeders();
-}
\ No newline at end of file
+
+    /**
+     * Retrieves everything the main screen needs on start in one request: the first page
+     * of the catalog, the active feeders and, if no client ID is passed, a newly assigned one.
+     * Only available on servers that advertise the "bootstrap" capability.
+     *
+     * @param limit The maximum number of catalog items to return.
+     * @param clientId The saved client ID, or null to have the server assign one.
+     * @return A Call object for the BootstrapResponse.
+     */
+    @GET("bootstrap")
+    Call<BootstrapResponse> getBootstrap(@Query("limit") int limit, @Query("client_id") String clientId);
+}
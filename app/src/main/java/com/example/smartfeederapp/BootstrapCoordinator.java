@@ -0,0 +1,303 @@
+package com.example.smartfeederapp;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs the start-up tasks of the main screen (catalog fetch, feeder fetch, client ID
+ * acquisition) in parallel and reports them as one operation.
+ * The listener gets aggregate progress and, when the last task finishes, a Report with
+ * per-task timings. Time to interactive is the time until the slowest task finished,
+ * i.e. the maximum of the task end times, and is also recorded in a process-wide histogram.
+ * {@link #cancel()} cancels every task that is still running.
+ * All methods and callbacks are confined to the main thread.
+ */
+public class BootstrapCoordinator {
+
+    private static final String TAG = "BootstrapCoordinator";
+
+    private static final Log2Histogram timeToInteractiveHistogram = new Log2Histogram();
+    private static volatile Report lastReport;
+
+    /**
+     * A unit of start-up work.
+     */
+    public interface Task {
+        /**
+         * Starts the task. The callback must be invoked exactly once, on the main thread;
+         * it may be invoked before this method returns.
+         * @param callback The callback to report completion to.
+         * @return A handle that cancels the task, or null if it cannot be cancelled.
+         */
+        Cancellable start(TaskCallback callback);
+    }
+
+    /**
+     * Cancels a running task.
+     */
+    public interface Cancellable {
+        void cancel();
+    }
+
+    /**
+     * Receives the outcome of a task.
+     */
+    public interface TaskCallback {
+        void onComplete(boolean success);
+    }
+
+    /**
+     * Receives progress and the final report.
+     */
+    public interface Listener {
+        /**
+         * Called after each task finished.
+         * @param finished The number of finished tasks.
+         * @param total The number of tasks.
+         */
+        void onProgress(int finished, int total);
+
+        /**
+         * Called once all tasks finished. Not called if the bootstrap was cancelled.
+         * @param report The timings of the bootstrap.
+         */
+        void onFinished(Report report);
+    }
+
+    /**
+     * Source of monotonic time in milliseconds. Replaced in tests.
+     */
+    interface Clock {
+        long nowMillis();
+    }
+
+    /**
+     * The timing of one task.
+     */
+    public static class TaskTiming {
+        public final String name;
+        public final long startOffsetMs;
+        public final long durationMs;
+        public final boolean success;
+
+        TaskTiming(String name, long startOffsetMs, long durationMs, boolean success) {
+            this.name = name;
+            this.startOffsetMs = startOffsetMs;
+            this.durationMs = durationMs;
+            this.success = success;
+        }
+    }
+
+    /**
+     * The result of a finished bootstrap.
+     */
+    public static class Report {
+        private final List<TaskTiming> tasks;
+        private final long timeToInteractiveMs;
+
+        Report(List<TaskTiming> tasks, long timeToInteractiveMs) {
+            this.tasks = Collections.unmodifiableList(tasks);
+            this.timeToInteractiveMs = timeToInteractiveMs;
+        }
+
+        /**
+         * @return The timings of all tasks, in the order they were added.
+         */
+        public List<TaskTiming> getTasks() {
+            return tasks;
+        }
+
+        /**
+         * @return The time from start until the last task finished.
+         */
+        public long getTimeToInteractiveMs() {
+            return timeToInteractiveMs;
+        }
+
+        /**
+         * @return The sum of all task durations, i.e. the time a sequential start-up would take.
+         */
+        public long getSequentialMs() {
+            long sum = 0;
+            for (TaskTiming timing : tasks) {
+                sum += timing.durationMs;
+            }
+            return sum;
+        }
+
+        /**
+         * @return true if every task succeeded.
+         */
+        public boolean isSuccessful() {
+            for (TaskTiming timing : tasks) {
+                if (!timing.success) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("time to interactive ").append(timeToInteractiveMs).append(" ms (sequential ").append(getSequentialMs()).append(" ms)");
+            for (TaskTiming timing : tasks) {
+                sb.append(String.format(Locale.US, "%n  %-10s %5d ms%s", timing.name, timing.durationMs, timing.success ? "" : " (failed)"));
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final class Entry {
+        final String name;
+        final Task task;
+        Cancellable cancellable;
+        long startedAt;
+        long finishedAt;
+        boolean done;
+        boolean success;
+
+        Entry(String name, Task task) {
+            this.name = name;
+            this.task = task;
+        }
+    }
+
+    private final Clock clock;
+    private final List<Entry> entries = new ArrayList<>();
+    private Listener listener;
+    private long startedAt;
+    private int finishedCount;
+    private boolean started;
+    private boolean running;
+
+    /**
+     * Constructor for BootstrapCoordinator.
+     */
+    public BootstrapCoordinator() {
+        this(() -> System.nanoTime() / 1_000_000);
+    }
+
+    BootstrapCoordinator(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Adds a task. Must be called before {@link #start(Listener)}.
+     * @param name The task name used in the report.
+     * @param task The task.
+     * @return This coordinator.
+     */
+    public BootstrapCoordinator addTask(String name, Task task) {
+        if (started) {
+            throw new IllegalStateException("Tasks must be added before start");
+        }
+        entries.add(new Entry(name, task));
+        return this;
+    }
+
+    /**
+     * Starts all tasks at once.
+     * @param listener The listener for progress and the final report.
+     */
+    public void start(Listener listener) {
+        if (started) {
+            throw new IllegalStateException("Bootstrap already started");
+        }
+        this.listener = listener;
+        started = true;
+        running = true;
+        startedAt = clock.nowMillis();
+        Log.d(TAG, "Starting " + entries.size() + " bootstrap tasks in parallel");
+        if (entries.isEmpty()) {
+            finish();
+            return;
+        }
+        for (final Entry entry : entries) {
+            entry.startedAt = clock.nowMillis();
+            entry.cancellable = entry.task.start(success -> onTaskComplete(entry, success));
+            if (!running) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Cancels all unfinished tasks. The listener is not called afterwards.
+     */
+    public void cancel() {
+        started = true;
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Entry entry : entries) {
+            if (!entry.done && entry.cancellable != null) {
+                Log.d(TAG, "Cancelling bootstrap task " + entry.name);
+                entry.cancellable.cancel();
+            }
+        }
+    }
+
+    /**
+     * @return true while tasks are still running.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void onTaskComplete(Entry entry, boolean success) {
+        if (!running || entry.done) {
+            return;
+        }
+        entry.done = true;
+        entry.success = success;
+        entry.finishedAt = clock.nowMillis();
+        finishedCount++;
+        Log.d(TAG, "Bootstrap task " + entry.name + " finished in " + (entry.finishedAt - entry.startedAt) + " ms (success: " + success + ")");
+        if (listener != null) {
+            listener.onProgress(finishedCount, entries.size());
+        }
+        if (finishedCount == entries.size()) {
+            finish();
+        }
+    }
+
+    private void finish() {
+        running = false;
+        long timeToInteractive = 0;
+        List<TaskTiming> timings = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            timeToInteractive = Math.max(timeToInteractive, entry.finishedAt - startedAt);
+            timings.add(new TaskTiming(entry.name, entry.startedAt - startedAt, entry.finishedAt - entry.startedAt, entry.success));
+        }
+        Report report = new Report(timings, timeToInteractive);
+        timeToInteractiveHistogram.record(timeToInteractive);
+        lastReport = report;
+        Log.i(TAG, "Bootstrap finished, " + report);
+        if (listener != null) {
+            listener.onFinished(report);
+        }
+    }
+
+    /**
+     * @return The histogram of time-to-interactive values of all bootstraps in this process, in ms.
+     */
+    public static Log2Histogram getTimeToInteractiveHistogram() {
+        return timeToInteractiveHistogram;
+    }
+
+    /**
+     * @return The report of the most recent finished bootstrap, or null.
+     */
+    public static Report getLastReport() {
+        return lastReport;
+    }
+}
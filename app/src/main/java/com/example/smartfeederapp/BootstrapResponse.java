@@ -0,0 +1,46 @@
+package com.example.smartfeederapp;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the combined start-up response of the bootstrap endpoint: the first page of
+ * the video catalog, the active feeders and the client session, fetched in one round trip.
+ * The client ID is only set if the request did not carry one and the server assigned a new one.
+ */
+public class BootstrapResponse {
+    @SerializedName("catalog")
+    private VideoPage catalog;
+
+    @SerializedName("feeders")
+    private List<String> feeders;
+
+    @SerializedName("client_id")
+    private String clientId;
+
+    public BootstrapResponse(VideoPage catalog, List<String> feeders, String clientId) {
+        this.catalog = catalog;
+        this.feeders = feeders;
+        this.clientId = clientId;
+    }
+
+    /**
+     * @return The first page of the catalog, or null if the server left it out.
+     */
+    public VideoPage getCatalog() {
+        return catalog;
+    }
+
+    public List<String> getFeeders() {
+        return feeders != null ? feeders : Collections.<String>emptyList();
+    }
+
+    /**
+     * @return The client ID assigned by the server, or null.
+     */
+    public String getClientId() {
+        return clientId;
+    }
+}
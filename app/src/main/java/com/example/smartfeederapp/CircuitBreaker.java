@@ -0,0 +1,168 @@
+package com.example.smartfeederapp;
+
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+/**
+ * Tracks whether the feeder server is currently reachable.
+ * After a number of consecutive failures the breaker opens and requests fail fast
+ * without touching the network. Once the open period has passed, a single trial
+ * request is let through (half-open); its outcome closes or re-opens the breaker.
+ * The state is exposed as LiveData so the UI can show "server unreachable".
+ */
+public class CircuitBreaker {
+
+    private static final String TAG = "CircuitBreaker";
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_DURATION_MS = 15_000;
+
+    /**
+     * Represents the possible states of the breaker.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Source of monotonic time in milliseconds. Replaced in tests.
+     */
+    interface Clock {
+        long nowMillis();
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final Clock clock;
+    private final MutableLiveData<State> stateLiveData = new MutableLiveData<>(State.CLOSED);
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAtMs = 0;
+    private boolean trialInFlight = false;
+
+    /**
+     * Constructor for CircuitBreaker with default thresholds.
+     */
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION_MS);
+    }
+
+    /**
+     * Constructor for CircuitBreaker.
+     * @param failureThreshold Consecutive failures after which the breaker opens.
+     * @param openDurationMs How long the breaker stays open before a trial request is allowed.
+     */
+    public CircuitBreaker(int failureThreshold, long openDurationMs) {
+        this(failureThreshold, openDurationMs, () -> System.nanoTime() / 1_000_000);
+    }
+
+    CircuitBreaker(int failureThreshold, long openDurationMs, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns LiveData representing the current breaker state.
+     * @return LiveData<State>
+     */
+    public LiveData<State> getState() {
+        return stateLiveData;
+    }
+
+    /**
+     * @return The current state, read directly rather than through LiveData.
+     */
+    public synchronized State getCurrentState() {
+        return state;
+    }
+
+    /**
+     * @return Milliseconds until a trial request will be allowed, or 0 if requests are allowed now.
+     */
+    public synchronized long getRetryAfterMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, openedAtMs + openDurationMs - clock.nowMillis());
+    }
+
+    /**
+     * Checks whether a request may go to the network. Moves an open breaker to
+     * half-open once the open period has passed and admits exactly one trial request.
+     * @return true if the request may proceed.
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.nowMillis() - openedAtMs < openDurationMs) {
+                    return false;
+                }
+                moveTo(State.HALF_OPEN);
+                trialInFlight = true;
+                return true;
+            case HALF_OPEN:
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * Records a request that reached the server.
+     */
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        if (state != State.CLOSED) {
+            moveTo(State.CLOSED);
+        }
+    }
+
+    /**
+     * Records a request that failed because the server could not be reached or was unavailable.
+     */
+    public synchronized void onFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            openedAtMs = clock.nowMillis();
+            moveTo(State.OPEN);
+        }
+    }
+
+    /**
+     * Releases an admitted request that ended without an outcome (e.g. it was canceled),
+     * so a half-open breaker can admit another trial.
+     */
+    public synchronized void onAbandoned() {
+        trialInFlight = false;
+    }
+
+    /**
+     * Closes the breaker and forgets all failures, e.g. after the server address changed.
+     */
+    public synchronized void reset() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        if (state != State.CLOSED) {
+            moveTo(State.CLOSED);
+        }
+    }
+
+    private void moveTo(State newState) {
+        Log.d(TAG, "Circuit " + state + " -> " + newState + " (consecutive failures: " + consecutiveFailures + ")");
+        state = newState;
+        stateLiveData.postValue(newState);
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.smartfeederapp;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Retrofit CallAdapter.Factory that coalesces identical in-flight GET requests.
+ * When a call is enqueued while another call for the same method and URL is still
+ * running, it does not open a new HTTP call; it waits for the running one and receives
+ * the same result. Successful bodies are shared between callers and must be treated
+ * as read-only. Calls that return a raw ResponseBody can only be consumed once and are
+ * never coalesced; neither are synchronous {@code execute()} calls.
+ */
+public class CoalescingCallAdapterFactory extends CallAdapter.Factory {
+
+    private static final String TAG = "RequestCoalescer";
+
+    private final Map<String, Flight<?>> flights = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Override
+    public CallAdapter<?, ?> get(@NonNull Type returnType, @NonNull Annotation[] annotations, @NonNull Retrofit retrofit) {
+        if (getRawType(returnType) != Call.class || !(returnType instanceof ParameterizedType)) {
+            return null;
+        }
+        Type responseType = getParameterUpperBound(0, (ParameterizedType) returnType);
+        if (getRawType(responseType) == ResponseBody.class) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        final CallAdapter<Object, Call<Object>> delegate =
+                (CallAdapter<Object, Call<Object>>) retrofit.nextCallAdapter(this, returnType, annotations);
+        return new CallAdapter<Object, Call<Object>>() {
+            @NonNull
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @NonNull
+            @Override
+            public Call<Object> adapt(@NonNull Call<Object> call) {
+                return new SharedCall<>(delegate.adapt(call));
+            }
+        };
+    }
+
+    /**
+     * @return The number of enqueued calls that joined a request already in flight.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of enqueued calls that started a new network request.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return The number of distinct requests currently in flight.
+     */
+    public synchronized int getInFlightCount() {
+        return flights.size();
+    }
+
+    /**
+     * Resets the hit and miss counters.
+     */
+    public void resetStats() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    private static String keyOf(Request request) {
+        return request.method() + " " + request.url();
+    }
+
+    /**
+     * One network request and the calls waiting for its result.
+     */
+    private static final class Flight<T> {
+        final Call<T> networkCall;
+        final List<SharedCall<T>> waiters = new ArrayList<>();
+
+        Flight(Call<T> networkCall) {
+            this.networkCall = networkCall;
+        }
+    }
+
+    /**
+     * The Call handed to ApiService callers. Enqueuing either starts a flight or joins one.
+     */
+    private final class SharedCall<T> implements Call<T> {
+        private final Call<T> delegate;
+        private Callback<T> callback;
+        private Flight<T> flight;
+        private volatile boolean executed;
+        private volatile boolean canceled;
+
+        SharedCall(Call<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback<T> callback) {
+            if (executed) {
+                throw new IllegalStateException("Already executed.");
+            }
+            executed = true;
+            this.callback = callback;
+
+            Request request = delegate.request();
+            if (!"GET".equals(request.method())) {
+                delegate.enqueue(callback);
+                return;
+            }
+
+            final String key = keyOf(request);
+            final Flight<T> started;
+            synchronized (CoalescingCallAdapterFactory.this) {
+                @SuppressWarnings("unchecked")
+                Flight<T> existing = (Flight<T>) flights.get(key);
+                if (existing != null) {
+                    hits.incrementAndGet();
+                    existing.waiters.add(this);
+                    flight = existing;
+                    Log.d(TAG, "Joined in-flight request " + key);
+                    return;
+                }
+                misses.incrementAndGet();
+                started = new Flight<>(delegate);
+                started.waiters.add(this);
+                flights.put(key, started);
+                flight = started;
+            }
+
+            delegate.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+                    List<SharedCall<T>> waiters = finish(key, started);
+                    if (response.isSuccessful() || response.errorBody() == null || waiters.size() == 1) {
+                        for (SharedCall<T> waiter : waiters) {
+                            waiter.callback.onResponse(waiter, response);
+                        }
+                        return;
+                    }
+                    // The error body can only be read once; give every caller its own copy.
+                    MediaType contentType = response.errorBody().contentType();
+                    byte[] errorBytes;
+                    try {
+                        errorBytes = response.errorBody().bytes();
+                    } catch (IOException e) {
+                        errorBytes = new byte[0];
+                    }
+                    for (SharedCall<T> waiter : waiters) {
+                        Response<T> copy = Response.error(ResponseBody.create(contentType, errorBytes), response.raw());
+                        waiter.callback.onResponse(waiter, copy);
+                    }
+                }
+
+                @Override
+                public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+                    for (SharedCall<T> waiter : finish(key, started)) {
+                        waiter.callback.onFailure(waiter, t);
+                    }
+                }
+            });
+        }
+
+        private List<SharedCall<T>> finish(String key, Flight<T> finished) {
+            synchronized (CoalescingCallAdapterFactory.this) {
+                if (flights.get(key) == finished) {
+                    flights.remove(key);
+                }
+                List<SharedCall<T>> waiters = new ArrayList<>();
+                for (SharedCall<T> waiter : finished.waiters) {
+                    if (!waiter.canceled) {
+                        waiters.add(waiter);
+                    }
+                }
+                return waiters;
+            }
+        }
+
+        @NonNull
+        @Override
+        public Response<T> execute() throws IOException {
+            executed = true;
+            return delegate.execute();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        /**
+         * Detaches this caller. The shared network request is only canceled
+         * once no caller is waiting for it anymore.
+         */
+        @Override
+        public void cancel() {
+            canceled = true;
+            Flight<T> current = flight;
+            if (current == null) {
+                delegate.cancel();
+                return;
+            }
+            boolean abandon;
+            synchronized (CoalescingCallAdapterFactory.this) {
+                current.waiters.remove(this);
+                abandon = current.waiters.isEmpty();
+                if (abandon) {
+                    flights.values().remove(current);
+                }
+            }
+            if (abandon) {
+                current.networkCall.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled || delegate.isCanceled();
+        }
+
+        @NonNull
+        @Override
+        public Call<T> clone() {
+            return new SharedCall<>(delegate.clone());
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return delegate.timeout();
+        }
+    }
+}
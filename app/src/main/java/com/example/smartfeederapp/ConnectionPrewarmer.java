@@ -0,0 +1,268 @@
+package com.example.smartfeederapp;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.socket.client.IO;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * Opens connections to the feeder server before the user needs them, so the first
+ * catalog request and the first Socket.IO connection do not pay for TCP setup.
+ * A warm-up runs two calls in parallel on the shared client: a HEAD request for the
+ * API and an Engine.IO polling handshake (closed right after) for Socket.IO. Both
+ * connections are then parked in the shared pool. Socket.IO transports are routed
+ * through the same pool, so they pick up the warm connection too.
+ * Warm-up failures are ignored; the real request simply connects itself.
+ * The setup time saved on the first real request is reported by
+ * {@link HttpClientProvider.ConnectionStats}. Implemented as a Singleton.
+ */
+public class ConnectionPrewarmer {
+
+    private static final String TAG = "ConnectionPrewarmer";
+    private static final String SOCKET_IO_PATH = "socket.io/";
+    private static final MediaType TEXT_PLAIN = MediaType.get("text/plain; charset=UTF-8");
+    private static final int WARMUP_CALLS = 2;
+    private static volatile ConnectionPrewarmer instance;
+
+    private final OkHttpClient client;
+    private final OkHttpClient h2cClient;
+    private String inFlightAddress;
+
+    /**
+     * Marks a request as a warm-up and carries the connection setup time measured for it.
+     */
+    static final class Warmup {
+        volatile long setupStartNanos;
+        volatile long setupNanos;
+    }
+
+    /**
+     * Receives the outcome of a warm-up.
+     */
+    interface Callback {
+        /**
+         * Called on a background thread once both warm-up calls finished.
+         * @param serverAddress The address that was warmed.
+         * @param succeeded The number of warm-up calls that got a response.
+         */
+        void onPrewarmed(String serverAddress, int succeeded);
+    }
+
+    /**
+     * Constructor for ConnectionPrewarmer. Package-private so tests can pass their own clients.
+     * @param client The shared OkHttpClient whose pool receives the warm connections.
+     * @param h2cClient The shared h2c client, used for the API warm-up of h2c servers.
+     */
+    ConnectionPrewarmer(OkHttpClient client, OkHttpClient h2cClient) {
+        this.client = client;
+        this.h2cClient = h2cClient;
+    }
+
+    /**
+     * Gets the singleton instance of ConnectionPrewarmer. On first use it also makes
+     * Socket.IO use the shared connection pool.
+     * @param context Application context.
+     * @return The singleton ConnectionPrewarmer instance.
+     */
+    public static ConnectionPrewarmer getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ConnectionPrewarmer.class) {
+                if (instance == null) {
+                    HttpClientProvider provider = HttpClientProvider.getInstance(context.getApplicationContext());
+                    OkHttpClient socketClient = createSocketIoClient(provider.getClient());
+                    IO.setDefaultOkHttpCallFactory(socketClient);
+                    IO.setDefaultOkHttpWebSocketFactory(socketClient);
+                    instance = new ConnectionPrewarmer(provider.getClient(false), provider.getClient(true));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Derives the client for Socket.IO transports from the shared client. It keeps the
+     * shared pool but has no cache and allows long-polling requests to wait up to a minute.
+     * @param shared The shared OkHttpClient.
+     * @return The client for Socket.IO.
+     */
+    static OkHttpClient createSocketIoClient(OkHttpClient shared) {
+        return shared.newBuilder()
+                .cache(null)
+                .readTimeout(1, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * Warms connections to the given server. Does nothing if the address is empty or a
+     * warm-up for the same address is still running.
+     * @param serverAddress The server address (ip:port), may be null.
+     * @param h2cPriorKnowledge true if API requests to the server use h2c, so the API
+     *                          connection is opened with the h2c client.
+     */
+    public void prewarm(String serverAddress, boolean h2cPriorKnowledge) {
+        prewarm(serverAddress, h2cPriorKnowledge, null);
+    }
+
+    void prewarm(String serverAddress, boolean h2cPriorKnowledge, Callback callback) {
+        if (serverAddress == null || serverAddress.trim().isEmpty()) {
+            return;
+        }
+        HttpUrl baseUrl = HttpUrl.parse("http://" + serverAddress.trim() + "/");
+        if (baseUrl == null) {
+            Log.w(TAG, "Not pre-warming, invalid server address: " + serverAddress);
+            return;
+        }
+        synchronized (this) {
+            if (serverAddress.equals(inFlightAddress)) {
+                return;
+            }
+            inFlightAddress = serverAddress;
+        }
+
+        final AtomicInteger remaining = new AtomicInteger(WARMUP_CALLS);
+        final AtomicInteger succeeded = new AtomicInteger();
+        final Runnable onCallDone = () -> {
+            if (remaining.decrementAndGet() == 0) {
+                synchronized (ConnectionPrewarmer.this) {
+                    if (serverAddress.equals(inFlightAddress)) {
+                        inFlightAddress = null;
+                    }
+                }
+                if (callback != null) {
+                    callback.onPrewarmed(serverAddress, succeeded.get());
+                }
+            }
+        };
+
+        warmApi(h2cPriorKnowledge ? h2cClient : client, baseUrl, succeeded, onCallDone);
+        warmSocketIo(baseUrl, succeeded, onCallDone);
+    }
+
+    private void warmApi(OkHttpClient apiClient, HttpUrl baseUrl, AtomicInteger succeeded, Runnable onCallDone) {
+        Request request = warmupRequest(baseUrl).head().build();
+        apiClient.newCall(request).enqueue(new okhttp3.Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                onCallDone.run();
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                response.close();
+                succeeded.incrementAndGet();
+                onCallDone.run();
+            }
+        });
+    }
+
+    /**
+     * Performs an Engine.IO polling handshake and closes the session it opened, so the
+     * server does not keep it until the ping timeout.
+     */
+    private void warmSocketIo(HttpUrl baseUrl, AtomicInteger succeeded, Runnable onCallDone) {
+        HttpUrl handshakeUrl = engineIoUrl(baseUrl, null);
+        Request request = warmupRequest(handshakeUrl).get().build();
+        client.newCall(request).enqueue(new okhttp3.Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                onCallDone.run();
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                String sessionId = null;
+                try (Response r = response) {
+                    if (r.isSuccessful() && r.body() != null) {
+                        sessionId = parseSessionId(r.body().string());
+                    }
+                } catch (IOException ignored) {
+                    // The connection is open either way; only the session close is skipped.
+                }
+                succeeded.incrementAndGet();
+                if (sessionId == null) {
+                    onCallDone.run();
+                    return;
+                }
+                Request close = warmupRequest(engineIoUrl(baseUrl, sessionId))
+                        .post(RequestBody.create("1", TEXT_PLAIN))
+                        .build();
+                client.newCall(close).enqueue(new okhttp3.Callback() {
+                    @Override
+                    public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                        onCallDone.run();
+                    }
+
+                    @Override
+                    public void onResponse(@NonNull Call call, @NonNull Response response) {
+                        response.close();
+                        onCallDone.run();
+                    }
+                });
+            }
+        });
+    }
+
+    private static Request.Builder warmupRequest(HttpUrl url) {
+        return new Request.Builder()
+                .url(url)
+                .cacheControl(CacheControl.FORCE_NETWORK)
+                .tag(Warmup.class, new Warmup());
+    }
+
+    /**
+     * Builds the Engine.IO polling URL for the server.
+     * @param baseUrl The server base URL.
+     * @param sessionId The session to address, or null for a new handshake.
+     * @return The polling URL.
+     */
+    static HttpUrl engineIoUrl(HttpUrl baseUrl, String sessionId) {
+        HttpUrl.Builder builder = baseUrl.newBuilder()
+                .addPathSegments(SOCKET_IO_PATH)
+                .addQueryParameter("EIO", String.valueOf(io.socket.engineio.client.Socket.PROTOCOL))
+                .addQueryParameter("transport", "polling");
+        if (sessionId != null) {
+            builder.addQueryParameter("sid", sessionId);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Extracts the session ID from an Engine.IO open packet ("0{...}").
+     * @param payload The polling response body.
+     * @return The session ID, or null if the payload is not an open packet.
+     */
+    static String parseSessionId(String payload) {
+        if (payload == null || !payload.startsWith("0")) {
+            return null;
+        }
+        try {
+            JsonElement element = JsonParser.parseString(payload.substring(1));
+            if (!element.isJsonObject()) {
+                return null;
+            }
+            JsonObject open = element.getAsJsonObject();
+            return open.has("sid") && open.get("sid").isJsonPrimitive() ? open.get("sid").getAsString() : null;
+        } catch (JsonSyntaxException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.smartfeederapp;
+
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.graphics.Insets;
+import androidx.core.view.ViewCompat;
+import androidx.core.view.WindowInsetsCompat;
+
+/**
+ * Debug screen that shows the runtime statistics collected by the app,
+ * such as start-up timings, per-endpoint network timings, request queueing delays, the
+ * thumbnail and sprite sheet caches and frame timings per UI state, and allows resetting
+ * the network counters and frame timings.
+ */
+public class DebugStatsActivity extends AppCompatActivity {
+
+    private TextView tvDebugStats;
+    private HttpClientProvider httpClientProvider;
+
+    /**
+     * Called when the activity is first created. Initializes UI and shows the current statistics.
+     * @param savedInstanceState If the activity is being re-initialized.
+     */
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_debug_stats);
+
+        ViewCompat.setOnApplyWindowInsetsListener(findViewById(R.id.debug_stats_layout), (v, insets) -> {
+            Insets systemBars = insets.getInsets(WindowInsetsCompat.Type.systemBars());
+            v.setPadding(systemBars.left, systemBars.top, systemBars.right, systemBars.bottom);
+            return insets;
+        });
+
+        tvDebugStats = findViewById(R.id.tvDebugStats);
+        Button btnRefresh = findViewById(R.id.btnDebugRefresh);
+        Button btnReset = findViewById(R.id.btnDebugReset);
+        httpClientProvider = HttpClientProvider.getInstance(getApplicationContext());
+
+        btnRefresh.setOnClickListener(v -> showStats());
+        btnReset.setOnClickListener(v -> {
+            httpClientProvider.getNetworkMetrics().reset();
+            httpClientProvider.getConnectionStats().reset();
+            httpClientProvider.getRequestScheduler(false).reset();
+            httpClientProvider.getRequestScheduler(true).reset();
+            FrameTimingCollector.getInstance().reset();
+            showStats();
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        showStats();
+    }
+
+    /**
+     * Renders the current statistics into the text view.
+     */
+    private void showStats() {
+        BootstrapCoordinator.Report bootstrap = BootstrapCoordinator.getLastReport();
+        String report = "STARTUP\n" +
+                (bootstrap != null ? bootstrap.toString() : "No start-up recorded yet.") + "\n" +
+                "time to interactive (ms): " + BootstrapCoordinator.getTimeToInteractiveHistogram() + "\n\n" +
+                "NETWORK\n" +
+                httpClientProvider.getConnectionStats() + "\n\n" +
+                httpClientProvider.getNetworkMetrics().formatReport() + "\n" +
+                "SCHEDULER\n" +
+                httpClientProvider.getRequestScheduler(false).formatReport() +
+                (SettingsManager.getInstance(this).isH2cPriorKnowledgeEnabled()
+                        ? "h2c\n" + httpClientProvider.getRequestScheduler(true).formatReport() : "") + "\n" +
+                "THUMBNAILS\n" +
+                ThumbnailLoader.getInstance(this).formatStats() + "\n" +
+                "SPRITE SHEETS\n" +
+                SpriteSheetLoader.getInstance(this).formatStats() + "\n" +
+                "FRAMES\n" +
+                FrameTimingCollector.getInstance().formatReport();
+        tvDebugStats.setText(report);
+    }
+}
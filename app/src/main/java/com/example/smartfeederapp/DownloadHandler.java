@@ -119,13 +119,13 @@ public class DownloadHandler {
      * @param videoItem The video item containing the URL and filename.
      */
     public void startDownload(VideoItem videoItem) {
-        if (videoItem == null || videoItem.getUrl() == null || videoItem.getFilename() == null) {
+        String url = videoItem != null ? videoItem.getUrl() : null;
+        if (url == null || videoItem.getFilename() == null) {
             Log.e(TAG, "Cannot start download: invalid VideoItem data.");
             Toast.makeText(activity, "Video data error for download", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        String url = videoItem.getUrl();
         String filename = videoItem.getFilename().replaceAll("[\\\\/:*?\"<>|]", "_");
 
         try {
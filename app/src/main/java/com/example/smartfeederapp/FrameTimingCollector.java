@@ -0,0 +1,322 @@
+package com.example.smartfeederapp;
+
+import android.app.Activity;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.Display;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import androidx.core.hardware.display.DisplayManagerCompat;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the durations of the frames drawn by the app's windows and attributes them to
+ * the UI state they were drawn in: the video list scrolling, the stream playing, a
+ * fullscreen transition, or any combination of these (e.g. scrolling while the stream
+ * plays). Each combination has its own histogram of frame durations, in microseconds,
+ * plus counts of slow frames (over the frame deadline) and frozen frames (over 700 ms,
+ * which are not counted as slow).
+ * Frame durations come from Window.OnFrameMetricsAvailableListener and are recorded on a
+ * background thread; the first frame of a window, which includes inflation and layout, is
+ * not recorded. A frame is attributed to the state at the time its metrics arrive, which
+ * is shortly after it was drawn.
+ * The states are set by the components that own them; a fullscreen transition is the
+ * second after the player enters or leaves fullscreen.
+ * Implemented as a Singleton.
+ */
+public class FrameTimingCollector {
+
+    /**
+     * The UI states frames are attributed to.
+     */
+    public enum UiState {
+        LIST_SCROLLING,
+        STREAM_PLAYING,
+        FULLSCREEN_TRANSITION
+    }
+
+    static final long FROZEN_FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(700);
+    static final long TRANSITION_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long DEFAULT_BUDGET_NANOS = TimeUnit.SECONDS.toNanos(1) / 60;
+    private static final FrameTimingCollector INSTANCE = new FrameTimingCollector();
+
+    /**
+     * Frame counters and durations of one combination of states.
+     */
+    public static class StateStats {
+        private final Log2Histogram frameMicros = new Log2Histogram();
+        private final AtomicLong slowCount = new AtomicLong();
+        private final AtomicLong frozenCount = new AtomicLong();
+
+        /**
+         * @return The durations of the frames, in microseconds.
+         */
+        public Log2Histogram getFrameMicros() {
+            return frameMicros;
+        }
+
+        public long getFrameCount() {
+            return frameMicros.getCount();
+        }
+
+        public long getSlowCount() {
+            return slowCount.get();
+        }
+
+        public long getFrozenCount() {
+            return frozenCount.get();
+        }
+
+        void reset() {
+            frameMicros.reset();
+            slowCount.set(0);
+            frozenCount.set(0);
+        }
+    }
+
+    // Indexed by the bit mask of the active states.
+    private final StateStats[] stats = new StateStats[1 << UiState.values().length];
+    private final AtomicInteger states = new AtomicInteger();
+    private final AtomicLong droppedReports = new AtomicLong();
+    private final Window.OnFrameMetricsAvailableListener listener =
+            (window, frameMetrics, dropCount) -> onFrameMetrics(frameMetrics, dropCount);
+    private volatile long transitionUntilNanos;
+    private volatile long budgetNanos = DEFAULT_BUDGET_NANOS;
+    private Handler handler;
+
+    /**
+     * Constructor for FrameTimingCollector. Package-private so tests can use their own instance.
+     */
+    FrameTimingCollector() {
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new StateStats();
+        }
+    }
+
+    /**
+     * @return The singleton FrameTimingCollector instance.
+     */
+    public static FrameTimingCollector getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts collecting the frames of an activity's window. Call from onResume.
+     * @param activity The activity.
+     */
+    public void attach(Activity activity) {
+        Display display = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? activity.getDisplay()
+                : DisplayManagerCompat.getInstance(activity).getDisplay(Display.DEFAULT_DISPLAY);
+        float refreshRate = display != null ? display.getRefreshRate() : 0;
+        if (refreshRate > 0) {
+            budgetNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refreshRate);
+        }
+        activity.getWindow().addOnFrameMetricsAvailableListener(listener, handler());
+    }
+
+    /**
+     * Stops collecting the frames of an activity's window. Call from onPause.
+     * @param activity The activity.
+     */
+    public void detach(Activity activity) {
+        try {
+            activity.getWindow().removeOnFrameMetricsAvailableListener(listener);
+        } catch (IllegalArgumentException e) {
+            // Not attached.
+        }
+    }
+
+    private synchronized Handler handler() {
+        if (handler == null) {
+            HandlerThread thread = new HandlerThread("FrameTimingCollector");
+            thread.start();
+            handler = new Handler(thread.getLooper());
+        }
+        return handler;
+    }
+
+    /**
+     * Marks a UI state as entered or left.
+     * @param state The state.
+     * @param active true when the state is entered.
+     */
+    public void setState(UiState state, boolean active) {
+        int bit = 1 << state.ordinal();
+        int current;
+        do {
+            current = states.get();
+        } while (!states.compareAndSet(current, active ? current | bit : current & ~bit));
+    }
+
+    /**
+     * Marks the start of a transition into or out of fullscreen playback; frames of the
+     * following second are attributed to it.
+     */
+    public void markTransition() {
+        transitionUntilNanos = System.nanoTime() + TRANSITION_WINDOW_NANOS;
+    }
+
+    /**
+     * @param nowNanos The current System.nanoTime().
+     * @return The bit mask of the states active at that time.
+     */
+    int currentStates(long nowNanos) {
+        int current = states.get();
+        if (nowNanos - transitionUntilNanos < 0) {
+            current |= 1 << UiState.FULLSCREEN_TRANSITION.ordinal();
+        }
+        return current;
+    }
+
+    private void onFrameMetrics(FrameMetrics frameMetrics, int dropCount) {
+        if (dropCount > 0) {
+            droppedReports.addAndGet(dropCount);
+        }
+        if (frameMetrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) {
+            return;
+        }
+        long budget = budgetNanos;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+            long deadline = frameMetrics.getMetric(FrameMetrics.DEADLINE);
+            if (deadline > 0) {
+                budget = deadline;
+            }
+        }
+        record(currentStates(System.nanoTime()), frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION), budget);
+    }
+
+    /**
+     * Records a frame.
+     * @param stateMask The bit mask of the states the frame is attributed to.
+     * @param durationNanos The time the frame took, from its vsync to its presentation.
+     * @param budgetNanos The time the frame had.
+     */
+    void record(int stateMask, long durationNanos, long budgetNanos) {
+        StateStats s = stats[stateMask];
+        s.frameMicros.record(durationNanos / 1000);
+        if (durationNanos > FROZEN_FRAME_NANOS) {
+            s.frozenCount.incrementAndGet();
+        } else if (durationNanos > budgetNanos) {
+            s.slowCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param states The states; none for frames drawn while no state was active.
+     * @return The stats of frames drawn in exactly that combination of states.
+     */
+    public StateStats get(UiState... states) {
+        return stats[mask(states)];
+    }
+
+    /**
+     * @return The number of frames whose metrics the system dropped before they were delivered.
+     */
+    public long getDroppedReportCount() {
+        return droppedReports.get();
+    }
+
+    /**
+     * Clears all recorded frames.
+     */
+    public void reset() {
+        for (StateStats s : stats) {
+            s.reset();
+        }
+        droppedReports.set(0);
+    }
+
+    static int mask(UiState... states) {
+        int mask = 0;
+        for (UiState state : states) {
+            mask |= 1 << state.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * @param stateMask A bit mask of states.
+     * @return The name of the combination, e.g. "list_scrolling+stream_playing", or "idle" for none.
+     */
+    static String stateName(int stateMask) {
+        if (stateMask == 0) {
+            return "idle";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (UiState state : UiState.values()) {
+            if ((stateMask & (1 << state.ordinal())) != 0) {
+                if (sb.length() > 0) {
+                    sb.append('+');
+                }
+                sb.append(state.name().toLowerCase(Locale.US));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Formats the collected frames as a plain-text report, one block per combination of
+     * states that saw at least one frame. Durations are shown in milliseconds.
+     * @return The report.
+     */
+    public String formatReport() {
+        StringBuilder sb = new StringBuilder();
+        for (int mask = 0; mask < stats.length; mask++) {
+            StateStats s = stats[mask];
+            long frames = s.getFrameCount();
+            if (frames == 0) {
+                continue;
+            }
+            Log2Histogram h = s.getFrameMicros();
+            sb.append(String.format(Locale.US, "%s: %d frames, %d slow (%.1f%%), %d frozen%n",
+                    stateName(mask), frames, s.getSlowCount(), 100.0 * s.getSlowCount() / frames, s.getFrozenCount()));
+            sb.append(String.format(Locale.US, "  p50=%6.1f p90=%6.1f p95=%6.1f p99=%6.1f max=%6.1f ms%n",
+                    h.getPercentile(50) / 1000.0, h.getPercentile(90) / 1000.0, h.getPercentile(95) / 1000.0,
+                    h.getPercentile(99) / 1000.0, h.getMax() / 1000.0));
+        }
+        if (droppedReports.get() > 0) {
+            sb.append("metrics of ").append(droppedReports.get()).append(" frames dropped\n");
+        }
+        return sb.length() == 0 ? "No frames recorded yet.\n" : sb.toString();
+    }
+
+    /**
+     * Formats the collected frames as JSON, for export from instrumentation tests:
+     * {"states": {"idle": {"frames": 120, "slow": 2, "frozen": 0, "p50_ms": 8.191, ...}}, "dropped_reports": 0}.
+     * Combinations without frames are left out.
+     * @return The JSON document.
+     */
+    public String formatJson() {
+        Map<String, Object> byState = new LinkedHashMap<>();
+        for (int mask = 0; mask < stats.length; mask++) {
+            StateStats s = stats[mask];
+            if (s.getFrameCount() == 0) {
+                continue;
+            }
+            Log2Histogram h = s.getFrameMicros();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("frames", s.getFrameCount());
+            entry.put("slow", s.getSlowCount());
+            entry.put("frozen", s.getFrozenCount());
+            entry.put("p50_ms", h.getPercentile(50) / 1000.0);
+            entry.put("p90_ms", h.getPercentile(90) / 1000.0);
+            entry.put("p95_ms", h.getPercentile(95) / 1000.0);
+            entry.put("p99_ms", h.getPercentile(99) / 1000.0);
+            entry.put("max_ms", h.getMax() / 1000.0);
+            byState.put(stateName(mask), entry);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("states", byState);
+        report.put("dropped_reports", droppedReports.get());
+        return GsonProvider.getGson().toJson(report);
+    }
+}
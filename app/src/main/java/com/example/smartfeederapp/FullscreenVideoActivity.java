@@ -8,20 +8,25 @@ import android.os.Bundle;
 import android.view.View;
 import android.view.WindowManager;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.view.WindowCompat;
 import androidx.core.view.WindowInsetsCompat;
 import androidx.core.view.WindowInsetsControllerCompat;
+import androidx.media3.common.C;
 import androidx.media3.common.MediaItem;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.common.util.Util;
 import androidx.media3.exoplayer.ExoPlayer;
 import androidx.media3.ui.PlayerView;
+import androidx.media3.ui.TimeBar;
 
 /**
  * Activity for displaying video playback in fullscreen landscape mode.
  * Receives video URI, start position, and playback state via Intent extras.
  * Returns the last playback position and state when finished.
+ * For recordings, dragging the seek bar shows a preview of the frame at the scrub position
+ * from the recording's sprite sheet, which is loaded when the activity is created.
  */
 @UnstableApi
 public class FullscreenVideoActivity extends AppCompatActivity {
@@ -31,10 +36,34 @@ public class FullscreenVideoActivity extends AppCompatActivity {
     private Uri videoUri;
     private long startPosition = 0;
     private boolean startPlayWhenReady = true;
+    private ScrubPreviewView scrubPreview;
+    private SpriteSheetLoader spriteSheetLoader;
+    private final int[] timeBarLocation = new int[2];
+    private final int[] rootLocation = new int[2];
 
     public static final String EXTRA_VIDEO_URI = "extra_video_uri";
     public static final String EXTRA_VIDEO_POSITION = "extra_video_position";
     public static final String EXTRA_PLAY_WHEN_READY = "extra_play_when_ready";
+    public static final String EXTRA_SCRUB_PREVIEW = "extra_scrub_preview";
+
+    private final SpriteSheetLoader.Callback spriteSheetCallback = (url, sheet) -> scrubPreview.setSpriteSheet(sheet);
+
+    private final TimeBar.OnScrubListener scrubListener = new TimeBar.OnScrubListener() {
+        @Override
+        public void onScrubStart(@NonNull TimeBar timeBar, long position) {
+            showScrubPreview(timeBar, position);
+        }
+
+        @Override
+        public void onScrubMove(@NonNull TimeBar timeBar, long position) {
+            showScrubPreview(timeBar, position);
+        }
+
+        @Override
+        public void onScrubStop(@NonNull TimeBar timeBar, long position, boolean canceled) {
+            scrubPreview.setVisibility(View.GONE);
+        }
+    };
 
     /**
      * Called when the activity is first created.
@@ -48,7 +77,9 @@ public class FullscreenVideoActivity extends AppCompatActivity {
         setContentView(R.layout.activity_fullscreen_video);
 
         playerView = findViewById(R.id.fullscreenPlayerView);
+        scrubPreview = findViewById(R.id.fullscreenScrubPreview);
 
+        boolean scrubPreviewEnabled = false;
         if (getIntent() != null) {
             String uriString = getIntent().getStringExtra(EXTRA_VIDEO_URI);
             if (uriString != null) {
@@ -56,6 +87,10 @@ public class FullscreenVideoActivity extends AppCompatActivity {
             }
             startPosition = getIntent().getLongExtra(EXTRA_VIDEO_POSITION, 0);
             startPlayWhenReady = getIntent().getBooleanExtra(EXTRA_PLAY_WHEN_READY, true);
+            scrubPreviewEnabled = getIntent().getBooleanExtra(EXTRA_SCRUB_PREVIEW, false);
+        }
+        if (scrubPreviewEnabled && videoUri != null) {
+            setUpScrubPreview();
         }
 
         hideSystemUi();
@@ -72,7 +107,10 @@ public class FullscreenVideoActivity extends AppCompatActivity {
             return;
         }
 
-        player = new ExoPlayer.Builder(this).build();
+        player = new ExoPlayer.Builder(this)
+                .setMediaSourceFactory(HttpClientProvider.getInstance(this).createMediaSourceFactory(this,
+                        SettingsManager.getInstance(this).isH2cPriorKnowledgeEnabled()))
+                .build();
         playerView.setPlayer(player);
 
         MediaItem mediaItem = MediaItem.fromUri(videoUri);
@@ -88,6 +126,49 @@ public class FullscreenVideoActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Starts loading the recording's sprite sheet and shows its frames while the seek bar is dragged.
+     */
+    private void setUpScrubPreview() {
+        View timeBar = playerView.findViewById(androidx.media3.ui.R.id.exo_progress);
+        if (!(timeBar instanceof TimeBar)) {
+            return;
+        }
+        ((TimeBar) timeBar).addListener(scrubListener);
+        spriteSheetLoader = SpriteSheetLoader.getInstance(this);
+        SpriteSheet sheet = spriteSheetLoader.get(videoUri.toString());
+        if (sheet != null) {
+            scrubPreview.setSpriteSheet(sheet);
+        } else {
+            spriteSheetLoader.load(videoUri.toString(), spriteSheetCallback);
+        }
+    }
+
+    /**
+     * Shows the frame at a scrub position above the seek bar, centered on the position.
+     * Nothing is shown until the sprite sheet is loaded.
+     * @param timeBar The seek bar being dragged.
+     * @param position The scrub position, in milliseconds.
+     */
+    private void showScrubPreview(TimeBar timeBar, long position) {
+        if (scrubPreview.getSpriteSheet() == null || !(timeBar instanceof View)) {
+            return;
+        }
+        scrubPreview.showPosition(position);
+        long duration = player != null ? player.getDuration() : C.TIME_UNSET;
+        float fraction = duration > 0 ? Math.min(1f, (float) position / duration) : 0f;
+        View bar = (View) timeBar;
+        View root = (View) scrubPreview.getParent();
+        bar.getLocationInWindow(timeBarLocation);
+        root.getLocationInWindow(rootLocation);
+        // The preview may not be laid out yet; its width is fixed in the layout.
+        int previewWidth = scrubPreview.getLayoutParams().width;
+        float center = timeBarLocation[0] - rootLocation[0] + fraction * bar.getWidth();
+        float maxX = Math.max(0, root.getWidth() - previewWidth);
+        scrubPreview.setX(Math.max(0, Math.min(maxX, center - previewWidth / 2f)));
+        scrubPreview.setVisibility(View.VISIBLE);
+    }
+
     /**
      * Releases the ExoPlayer instance to free up resources.
      * Saves the current playback position and state before releasing.
@@ -114,11 +195,12 @@ public class FullscreenVideoActivity extends AppCompatActivity {
 
     /**
      * Initializes or reinitializes the player when the activity comes to the foreground.
-     * Also ensures system UI remains hidden.
+     * Also ensures system UI remains hidden and starts collecting frame timings.
      */
     @Override
     protected void onResume() {
         super.onResume();
+        FrameTimingCollector.getInstance().attach(this);
         hideSystemUi();
         if (Util.SDK_INT <= 23 || player == null) {
             initializePlayer();
@@ -126,11 +208,13 @@ public class FullscreenVideoActivity extends AppCompatActivity {
     }
 
     /**
-     * Releases the player when the activity is no longer visible (for API <= 23).
+     * Stops collecting frame timings and releases the player when the activity is no
+     * longer visible (for API <= 23).
      */
     @Override
     protected void onPause() {
         super.onPause();
+        FrameTimingCollector.getInstance().detach(this);
         if (Util.SDK_INT <= 23) {
             releasePlayer();
         }
@@ -147,6 +231,17 @@ public class FullscreenVideoActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Withdraws the request for a sprite sheet still loading.
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (spriteSheetLoader != null) {
+            spriteSheetLoader.cancel(videoUri.toString(), spriteSheetCallback);
+        }
+    }
+
     /**
      * Configures the window for immersive fullscreen mode, hiding system bars.
      */
@@ -177,6 +272,7 @@ public class FullscreenVideoActivity extends AppCompatActivity {
      * sets the result code to RESULT_OK, and finishes the activity.
      */
     private void finishActivityWithResult() {
+        FrameTimingCollector.getInstance().markTransition();
         Intent resultIntent = new Intent();
         long position = startPosition;
         boolean playWhenReady = this.startPlayWhenReady;
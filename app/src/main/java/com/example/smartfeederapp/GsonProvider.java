@@ -0,0 +1,38 @@
+package com.example.smartfeederapp;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Holds the single Gson instance used for all JSON (de)serialization in the app.
+ * The hot types, VideoItem and the feeder ID list, are bound to hand-written adapters
+ * instead of Gson's reflective ones. Wrapper types such as VideoPage and VideoDelta
+ * still bind reflectively but pick up the VideoItem adapter for their item lists.
+ * Gson caches adapters per instance, so sharing one instance also avoids rebuilding them.
+ */
+public final class GsonProvider {
+
+    /**
+     * The type of the feeder ID list returned by the feeders endpoint.
+     */
+    public static final Type STRING_LIST_TYPE = new TypeToken<List<String>>() {}.getType();
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(VideoItem.class, new VideoItemTypeAdapter())
+            .registerTypeAdapter(STRING_LIST_TYPE, new StringListTypeAdapter())
+            .create();
+
+    private GsonProvider() {
+    }
+
+    /**
+     * @return The shared Gson instance.
+     */
+    public static Gson getGson() {
+        return GSON;
+    }
+}
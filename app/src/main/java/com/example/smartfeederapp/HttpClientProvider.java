@@ -0,0 +1,596 @@
+package com.example.smartfeederapp;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DefaultDataSource;
+import androidx.media3.datasource.okhttp.OkHttpDataSource;
+import androidx.media3.exoplayer.source.DefaultMediaSourceFactory;
+import androidx.media3.exoplayer.source.MediaSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.NoRouteToHostException;
+import java.net.Proxy;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Owns the single OkHttpClient shared by every HTTP consumer in the app
+ * (Retrofit in ApiClient, ExoPlayer data sources for recorded videos).
+ * Sharing one client means sharing one connection pool and dispatcher, so
+ * consecutive requests to the feeder server reuse the same TCP connection.
+ * The client also carries a bounded disk cache; catalog responses are always
+ * revalidated with If-None-Match/If-Modified-Since so an unchanged list costs a 304.
+ * Every call made through the client is timed per endpoint in NetworkMetrics.
+ * An h2c (HTTP/2 cleartext, prior knowledge) variant on the same pool is available for
+ * servers that are configured for it.
+ * API and media calls are started through a RequestScheduler per client, which runs
+ * interactive calls ahead of prefetch and background traffic.
+ * Implemented as a Singleton.
+ */
+public class HttpClientProvider {
+
+    private static final String TAG = "HttpClientProvider";
+    private static final String CACHE_DIR_NAME = "http_cache";
+    private static volatile HttpClientProvider instance;
+
+    private final OkHttpClient okHttpClient;
+    private final OkHttpClient h2cClient;
+    private final RequestScheduler requestScheduler;
+    private final RequestScheduler h2cRequestScheduler;
+    private final Cache cache;
+    private final ConnectionStats connectionStats = new ConnectionStats();
+    private final NetworkMetrics networkMetrics = new NetworkMetrics();
+
+    /**
+     * Tunables for the shared client. Defaults are sized for a single feeder server
+     * on a local network.
+     */
+    public static class Config {
+        int maxIdleConnections = 5;
+        long keepAliveSeconds = 300;
+        long connectTimeoutSeconds = 10;
+        long readTimeoutSeconds = 30;
+        long writeTimeoutSeconds = 30;
+        int maxRequests = 16;
+        int maxRequestsPerHost = 6;
+        int maxMultiplexedRequestsPerHost = 32;
+        int maxPrefetchRequests = 3;
+        int maxBackgroundRequests = 2;
+        long cacheSizeBytes = 10L * 1024 * 1024;
+
+        public Config setMaxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        public Config setKeepAliveSeconds(long keepAliveSeconds) {
+            this.keepAliveSeconds = keepAliveSeconds;
+            return this;
+        }
+
+        public Config setConnectTimeoutSeconds(long connectTimeoutSeconds) {
+            this.connectTimeoutSeconds = connectTimeoutSeconds;
+            return this;
+        }
+
+        public Config setReadTimeoutSeconds(long readTimeoutSeconds) {
+            this.readTimeoutSeconds = readTimeoutSeconds;
+            return this;
+        }
+
+        public Config setWriteTimeoutSeconds(long writeTimeoutSeconds) {
+            this.writeTimeoutSeconds = writeTimeoutSeconds;
+            return this;
+        }
+
+        public Config setMaxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        public Config setMaxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        public Config setMaxMultiplexedRequestsPerHost(int maxMultiplexedRequestsPerHost) {
+            this.maxMultiplexedRequestsPerHost = maxMultiplexedRequestsPerHost;
+            return this;
+        }
+
+        public Config setMaxPrefetchRequests(int maxPrefetchRequests) {
+            this.maxPrefetchRequests = maxPrefetchRequests;
+            return this;
+        }
+
+        public Config setMaxBackgroundRequests(int maxBackgroundRequests) {
+            this.maxBackgroundRequests = maxBackgroundRequests;
+            return this;
+        }
+
+        public Config setCacheSizeBytes(long cacheSizeBytes) {
+            this.cacheSizeBytes = cacheSizeBytes;
+            return this;
+        }
+    }
+
+    /**
+     * Constructor for HttpClientProvider without a disk cache.
+     *
+     * @param config The pool, timeout and dispatcher settings to apply.
+     */
+    HttpClientProvider(Config config) {
+        this(config, null);
+    }
+
+    /**
+     * Constructor for HttpClientProvider. Package-private so tests can build
+     * an isolated provider with their own configuration.
+     *
+     * @param config The pool, timeout, dispatcher and cache settings to apply.
+     * @param cacheDir Directory for the HTTP disk cache, or null to disable caching.
+     */
+    HttpClientProvider(Config config, File cacheDir) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(config.maxRequests);
+        dispatcher.setMaxRequestsPerHost(config.maxRequestsPerHost);
+
+        cache = (cacheDir != null && config.cacheSizeBytes > 0) ? new Cache(cacheDir, config.cacheSizeBytes) : null;
+
+        okHttpClient = new OkHttpClient.Builder()
+                .cache(cache)
+                .addNetworkInterceptor(new CatalogRevalidationInterceptor())
+                .connectionPool(new ConnectionPool(config.maxIdleConnections, config.keepAliveSeconds, TimeUnit.SECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(config.connectTimeoutSeconds, TimeUnit.SECONDS)
+                .readTimeout(config.readTimeoutSeconds, TimeUnit.SECONDS)
+                .writeTimeout(config.writeTimeoutSeconds, TimeUnit.SECONDS)
+                .eventListenerFactory(networkMetrics.eventListenerFactory(connectionStats))
+                .build();
+        Log.d(TAG, "Shared OkHttpClient created (pool: " + config.maxIdleConnections + " idle, keep-alive " + config.keepAliveSeconds + "s)");
+
+        Dispatcher h2cDispatcher = new Dispatcher();
+        h2cDispatcher.setMaxRequests(Math.max(config.maxRequests, config.maxMultiplexedRequestsPerHost));
+        h2cDispatcher.setMaxRequestsPerHost(config.maxMultiplexedRequestsPerHost);
+        h2cClient = okHttpClient.newBuilder()
+                .protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE))
+                .dispatcher(h2cDispatcher)
+                .addInterceptor(new H2cFallbackInterceptor(okHttpClient))
+                .build();
+
+        requestScheduler = new RequestScheduler(config.maxRequestsPerHost, config.maxPrefetchRequests, config.maxBackgroundRequests);
+        h2cRequestScheduler = new RequestScheduler(config.maxMultiplexedRequestsPerHost, config.maxPrefetchRequests, config.maxBackgroundRequests);
+    }
+
+    /**
+     * Gets the singleton instance of HttpClientProvider, creating it with default settings
+     * and a disk cache in the app's cache directory.
+     *
+     * @param context Application context.
+     * @return The singleton HttpClientProvider instance.
+     */
+    public static HttpClientProvider getInstance(Context context) {
+        if (instance == null) {
+            synchronized (HttpClientProvider.class) {
+                if (instance == null) {
+                    File baseCacheDir = context.getCacheDir();
+                    File httpCacheDir = baseCacheDir != null ? new File(baseCacheDir, CACHE_DIR_NAME) : null;
+                    instance = new HttpClientProvider(new Config(), httpCacheDir);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the shared OkHttpClient. Callers that need different per-call settings
+     * should derive a client with {@code newBuilder()}, which keeps the same pool.
+     *
+     * @return The shared OkHttpClient.
+     */
+    public OkHttpClient getClient() {
+        return okHttpClient;
+    }
+
+    /**
+     * Returns the shared client for the given protocol mode. In h2c mode requests use
+     * HTTP/2 over cleartext with prior knowledge, so concurrent requests to one server are
+     * multiplexed over a single connection; a server that refuses HTTP/2 is remembered
+     * and served over HTTP/1.1 instead. Both clients share one connection pool and cache.
+     *
+     * @param h2cPriorKnowledge true for the h2c client, false for the HTTP/1.1 client.
+     * @return The shared OkHttpClient for that mode.
+     */
+    public OkHttpClient getClient(boolean h2cPriorKnowledge) {
+        return h2cPriorKnowledge ? h2cClient : okHttpClient;
+    }
+
+    /**
+     * Returns the scheduler that orders calls made through the shared client of the given
+     * mode by priority. Its overall limit matches what the client can run at once per host.
+     *
+     * @param h2cPriorKnowledge true for the scheduler of the h2c client.
+     * @return The RequestScheduler instance.
+     */
+    public RequestScheduler getRequestScheduler(boolean h2cPriorKnowledge) {
+        return h2cPriorKnowledge ? h2cRequestScheduler : requestScheduler;
+    }
+
+    /**
+     * Returns the HTTP disk cache, which exposes request, network and hit counts.
+     *
+     * @return The Cache instance, or null if caching is disabled.
+     */
+    public Cache getCache() {
+        return cache;
+    }
+
+    /**
+     * Returns the connection counters collected from the shared client.
+     *
+     * @return The ConnectionStats instance.
+     */
+    public ConnectionStats getConnectionStats() {
+        return connectionStats;
+    }
+
+    /**
+     * Returns the per-endpoint timings of calls made through the shared client
+     * and every client derived from it.
+     *
+     * @return The NetworkMetrics instance.
+     */
+    public NetworkMetrics getNetworkMetrics() {
+        return networkMetrics;
+    }
+
+    /**
+     * Creates a DataSource.Factory for ExoPlayer that routes http(s) through the shared
+     * client. Other schemes (file, rtmp, ...) are still handled by DefaultDataSource.
+     *
+     * @param context Context for the DefaultDataSource.
+     * @return A DataSource.Factory backed by the shared OkHttpClient.
+     */
+    @OptIn(markerClass = UnstableApi.class)
+    public DataSource.Factory createDataSourceFactory(Context context) {
+        return createDataSourceFactory(context, false);
+    }
+
+    /**
+     * Creates a DataSource.Factory for ExoPlayer backed by the shared client of the given mode.
+     * Media requests are scheduled as interactive calls.
+     *
+     * @param context Context for the DefaultDataSource.
+     * @param h2cPriorKnowledge true to fetch http media over h2c, see {@link #getClient(boolean)}.
+     * @return A DataSource.Factory backed by the shared OkHttpClient.
+     */
+    @OptIn(markerClass = UnstableApi.class)
+    public DataSource.Factory createDataSourceFactory(Context context, boolean h2cPriorKnowledge) {
+        return new DefaultDataSource.Factory(context, new OkHttpDataSource.Factory(
+                getRequestScheduler(h2cPriorKnowledge).callFactory(getClient(h2cPriorKnowledge))));
+    }
+
+    /**
+     * Creates a MediaSource.Factory for ExoPlayer.Builder backed by
+     * {@link #createDataSourceFactory(Context)}.
+     *
+     * @param context Context for the data source.
+     * @return A MediaSource.Factory that uses the shared OkHttpClient.
+     */
+    @OptIn(markerClass = UnstableApi.class)
+    public MediaSource.Factory createMediaSourceFactory(Context context) {
+        return createMediaSourceFactory(context, false);
+    }
+
+    /**
+     * Creates a MediaSource.Factory for ExoPlayer.Builder backed by
+     * {@link #createDataSourceFactory(Context, boolean)}.
+     *
+     * @param context Context for the data source.
+     * @param h2cPriorKnowledge true to fetch http media over h2c.
+     * @return A MediaSource.Factory that uses the shared OkHttpClient of that mode.
+     */
+    @OptIn(markerClass = UnstableApi.class)
+    public MediaSource.Factory createMediaSourceFactory(Context context, boolean h2cPriorKnowledge) {
+        return new DefaultMediaSourceFactory(createDataSourceFactory(context, h2cPriorKnowledge));
+    }
+
+    /**
+     * Network interceptor that makes catalog responses (/videos, /feeders) stored but
+     * always revalidated. A response that carries a validator but no caching directives
+     * is marked "no-cache", so OkHttp keeps the body and sends If-None-Match next time
+     * instead of either serving a stale list or downloading the full JSON again.
+     */
+    static class CatalogRevalidationInterceptor implements Interceptor {
+        @NonNull
+        @Override
+        public Response intercept(@NonNull Chain chain) throws IOException {
+            Response response = chain.proceed(chain.request());
+            if (!isCatalogPath(chain.request().url().encodedPath())) {
+                return response;
+            }
+            boolean hasValidator = response.header("ETag") != null || response.header("Last-Modified") != null;
+            if (hasValidator && response.header("Cache-Control") == null) {
+                return response.newBuilder()
+                        .header("Cache-Control", "no-cache")
+                        .removeHeader("Pragma")
+                        .build();
+            }
+            return response;
+        }
+
+        /**
+         * Checks whether the path addresses one of the catalog endpoints.
+         * @param path The encoded URL path.
+         * @return true for /videos and /feeders (with or without trailing slash).
+         */
+        static boolean isCatalogPath(String path) {
+            String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+            return trimmed.endsWith("/videos") || trimmed.endsWith("/feeders");
+        }
+    }
+
+    /**
+     * Application interceptor of the h2c client. If a request fails over HTTP/2 prior
+     * knowledge, it is repeated over HTTP/1.1. When that succeeds and the HTTP/2 attempt
+     * did connect (the failure was not a connect error or timeout), the server is recorded
+     * as HTTP/1.1-only and requests to it skip the HTTP/2 attempt for
+     * {@link #HTTP1_ONLY_MILLIS}, after which HTTP/2 is tried again. If the HTTP/1.1
+     * attempt fails too, the original error is thrown, so an unreachable server is not
+     * mistaken for one that refuses HTTP/2.
+     */
+    static class H2cFallbackInterceptor implements Interceptor {
+        static final long HTTP1_ONLY_MILLIS = 10 * 60 * 1000;
+
+        private final OkHttpClient http1Client;
+        private final CircuitBreaker.Clock clock;
+        private final Map<String, Long> http1OnlyUntil = new ConcurrentHashMap<>();
+
+        H2cFallbackInterceptor(OkHttpClient http1Client) {
+            this(http1Client, () -> System.nanoTime() / 1_000_000);
+        }
+
+        H2cFallbackInterceptor(OkHttpClient http1Client, CircuitBreaker.Clock clock) {
+            this.http1Client = http1Client;
+            this.clock = clock;
+        }
+
+        @NonNull
+        @Override
+        public Response intercept(@NonNull Chain chain) throws IOException {
+            Request request = chain.request();
+            String host = request.url().host() + ":" + request.url().port();
+            if (isHttp1Only(host)) {
+                return http1Client.newCall(request).execute();
+            }
+            try {
+                return chain.proceed(request);
+            } catch (IOException h2cError) {
+                if (chain.call().isCanceled()) {
+                    throw h2cError;
+                }
+                Response response;
+                try {
+                    response = http1Client.newCall(request).execute();
+                } catch (IOException http1Error) {
+                    h2cError.addSuppressed(http1Error);
+                    throw h2cError;
+                }
+                if (isProtocolFailure(h2cError)
+                        && http1OnlyUntil.put(host, clock.nowMillis() + HTTP1_ONLY_MILLIS) == null) {
+                    Log.w(TAG, "Server " + host + " refused HTTP/2 prior knowledge (" + h2cError.getMessage() + "), using HTTP/1.1");
+                }
+                return response;
+            }
+        }
+
+        /**
+         * Checks whether an HTTP/2 failure says something about the server rather than the
+         * network: errors while connecting or waiting are transient and do not count.
+         * @param e The error of the HTTP/2 attempt.
+         * @return false for connect errors, unknown hosts and timeouts.
+         */
+        static boolean isProtocolFailure(IOException e) {
+            return !(e instanceof ConnectException
+                    || e instanceof NoRouteToHostException
+                    || e instanceof UnknownHostException
+                    || e instanceof InterruptedIOException);
+        }
+
+        private boolean isHttp1Only(String host) {
+            Long until = http1OnlyUntil.get(host);
+            if (until == null) {
+                return false;
+            }
+            if (clock.nowMillis() < until) {
+                return true;
+            }
+            http1OnlyUntil.remove(host, until);
+            return false;
+        }
+
+        /**
+         * @param url A URL on the server.
+         * @return true if the server was recently found to support only HTTP/1.1.
+         */
+        boolean isHttp1Only(HttpUrl url) {
+            return isHttp1Only(url.host() + ":" + url.port());
+        }
+    }
+
+    /**
+     * Counts connection events on the shared client. A connection that is acquired
+     * without a preceding connect is a pooled connection being reused.
+     * Also tracks connections opened by ConnectionPrewarmer: when a real call is served
+     * by one of them, the setup time measured during warm-up is counted as saved.
+     */
+    public static class ConnectionStats extends EventListener {
+        private final AtomicLong connectsStarted = new AtomicLong();
+        private final AtomicLong connectsSucceeded = new AtomicLong();
+        private final AtomicLong connectsFailed = new AtomicLong();
+        private final AtomicLong connectionsAcquired = new AtomicLong();
+        private final AtomicLong prewarmedConnections = new AtomicLong();
+        private final AtomicLong prewarmedConnectionsUsed = new AtomicLong();
+        private final AtomicLong prewarmSavedMillis = new AtomicLong();
+        private final AtomicLong firstPrewarmSavedMillis = new AtomicLong(-1);
+        private final Map<Connection, Long> warmedConnections = Collections.synchronizedMap(new WeakHashMap<>());
+
+        @Override
+        public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+            ConnectionPrewarmer.Warmup warmup = call.request().tag(ConnectionPrewarmer.Warmup.class);
+            if (warmup != null) {
+                warmup.setupStartNanos = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+            connectsStarted.incrementAndGet();
+            ConnectionPrewarmer.Warmup warmup = call.request().tag(ConnectionPrewarmer.Warmup.class);
+            if (warmup != null && warmup.setupStartNanos == 0) {
+                warmup.setupStartNanos = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, Protocol protocol) {
+            connectsSucceeded.incrementAndGet();
+            ConnectionPrewarmer.Warmup warmup = call.request().tag(ConnectionPrewarmer.Warmup.class);
+            if (warmup != null) {
+                warmup.setupNanos = System.nanoTime() - warmup.setupStartNanos;
+            }
+        }
+
+        @Override
+        public void connectFailed(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, Protocol protocol, @NonNull IOException ioe) {
+            connectsFailed.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(@NonNull Call call, @NonNull Connection connection) {
+            connectionsAcquired.incrementAndGet();
+            ConnectionPrewarmer.Warmup warmup = call.request().tag(ConnectionPrewarmer.Warmup.class);
+            if (warmup != null) {
+                if (warmup.setupNanos > 0) {
+                    warmedConnections.put(connection, TimeUnit.NANOSECONDS.toMillis(warmup.setupNanos));
+                    prewarmedConnections.incrementAndGet();
+                }
+                return;
+            }
+            Long savedMillis = warmedConnections.remove(connection);
+            if (savedMillis != null) {
+                prewarmedConnectionsUsed.incrementAndGet();
+                prewarmSavedMillis.addAndGet(savedMillis);
+                if (firstPrewarmSavedMillis.compareAndSet(-1, savedMillis)) {
+                    Log.d(TAG, "First request on a pre-warmed connection (" + call.request().url().encodedPath() + ") saved " + savedMillis + " ms of connection setup");
+                }
+            }
+        }
+
+        /**
+         * @return The number of TCP handshakes that were started.
+         */
+        public long getNewConnectionCount() {
+            return connectsStarted.get();
+        }
+
+        /**
+         * @return The number of TCP handshakes that failed.
+         */
+        public long getFailedConnectionCount() {
+            return connectsFailed.get();
+        }
+
+        /**
+         * @return The number of calls that were served by a connection, new or pooled.
+         */
+        public long getAcquiredConnectionCount() {
+            return connectionsAcquired.get();
+        }
+
+        /**
+         * @return The number of calls that were served by an already open, pooled connection.
+         */
+        public long getReusedConnectionCount() {
+            return Math.max(0, connectionsAcquired.get() - connectsSucceeded.get());
+        }
+
+        /**
+         * @return The number of connections opened by ConnectionPrewarmer.
+         */
+        public long getPrewarmedConnectionCount() {
+            return prewarmedConnections.get();
+        }
+
+        /**
+         * @return The number of pre-warmed connections that later served a real call.
+         */
+        public long getPrewarmedConnectionsUsedCount() {
+            return prewarmedConnectionsUsed.get();
+        }
+
+        /**
+         * @return The total connection setup time, in ms, that real calls skipped by using pre-warmed connections.
+         */
+        public long getPrewarmSavedMillis() {
+            return prewarmSavedMillis.get();
+        }
+
+        /**
+         * @return The setup time, in ms, saved by the first real call on a pre-warmed connection, or -1 if none yet.
+         */
+        public long getFirstPrewarmSavedMillis() {
+            return firstPrewarmSavedMillis.get();
+        }
+
+        /**
+         * Resets all counters to zero.
+         */
+        public void reset() {
+            connectsStarted.set(0);
+            connectsSucceeded.set(0);
+            connectsFailed.set(0);
+            connectionsAcquired.set(0);
+            prewarmedConnections.set(0);
+            prewarmedConnectionsUsed.set(0);
+            prewarmSavedMillis.set(0);
+            firstPrewarmSavedMillis.set(-1);
+            warmedConnections.clear();
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "ConnectionStats{new=" + getNewConnectionCount() + ", reused=" + getReusedConnectionCount() + ", failed=" + getFailedConnectionCount()
+                    + ", prewarmed=" + getPrewarmedConnectionCount() + ", prewarmUsed=" + getPrewarmedConnectionsUsedCount()
+                    + ", prewarmSavedMs=" + getPrewarmSavedMillis() + ", firstSavedMs=" + getFirstPrewarmSavedMillis() + "}";
+        }
+    }
+}
@@ -5,10 +5,13 @@ import android.app.Activity;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
+import android.text.Editable;
 import android.text.TextUtils;
+import android.text.TextWatcher;
 import android.util.Log;
 import android.view.View;
 import android.widget.Button;
+import android.widget.EditText;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -82,6 +85,7 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
     private TextView tvRecordedVideoTitle;
     private TextView tvConnectionStatusMain;
     private PlayerView streamPlayerView;
+    private EditText etVideoSearch;
     private RecyclerView rvVideoList;
     private ProgressBar progressBar;
     private PlayerView playerView;
@@ -99,6 +103,9 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
     private DownloadHandler downloadHandler;
     private Object activeFullscreenHandler = null;
     private String pendingStreamFeederId = null;
+    private BootstrapCoordinator bootstrapCoordinator;
+    private Call<List<String>> feederCall;
+    private Call<BootstrapResponse> bootstrapCall;
 
     private ActivityResultLauncher<Intent> fullscreenLauncher;
     private ActivityResultLauncher<Intent> settingsLauncher;
@@ -184,6 +191,7 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
         tvRecordedVideoTitle = findViewById(R.id.tvRecordedVideoTitle);
         tvConnectionStatusMain = findViewById(R.id.tvConnectionStatusMain);
         streamPlayerView = findViewById(R.id.streamPlayerView);
+        etVideoSearch = findViewById(R.id.etVideoSearch);
         rvVideoList = findViewById(R.id.rvVideoList);
         progressBar = findViewById(R.id.progressBar);
         playerView = findViewById(R.id.playerView);
@@ -198,7 +206,6 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
         settingsLauncher = registerForActivityResult(new ActivityResultContracts.StartActivityForResult(), result -> {
             Log.d(TAG, "Returned from Settings, result code: " + result.getResultCode());
             updateConnectionStatusDisplay();
-            apiClient.getApiService();
             if (connectionManager.isConnected()) {
                 loadFeederList();
             }
@@ -208,17 +215,34 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
 
     /**
      * Initializes singleton managers and creates handler instances, passing necessary dependencies.
-     * Also sets up fullscreen button listeners after handlers are created.
+     * Starts pre-warming connections to the saved server right away. Also sets up fullscreen button listeners and the video search box after handlers are created.
      */
     private void initializeManagersAndHandlers() {
         settingsManager = SettingsManager.getInstance(this);
         connectionManager = ConnectionManager.getInstance(getApplicationContext());
+        ConnectionPrewarmer.getInstance(this).prewarm(settingsManager.getServerAddress(), settingsManager.isH2cPriorKnowledgeEnabled());
         apiClient = new ApiClient(this);
 
         videoAdapter = new VideoAdapter();
 
         videoListHandler = new VideoListHandler(this, apiClient, rvVideoList, videoAdapter, progressBar);
         videoListHandler.setVideoActionListener(this);
+        videoListHandler.setThumbnailLoader(ThumbnailLoader.getInstance(this));
+        videoListHandler.setSpriteSheetLoader(SpriteSheetLoader.getInstance(this));
+        etVideoSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                videoListHandler.search(s.toString());
+            }
+        });
 
         videoPlaybackHandler = new VideoPlaybackHandler(this, playerView, tvRecordedVideoTitle, fullscreenLauncher);
         streamPlaybackHandler = new StreamPlaybackHandler(this, streamPlayerView, tvStreamTitle, btnStopStream, progressBar, connectionManager, settingsManager, fullscreenLauncher);
@@ -295,7 +319,7 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
 
     /**
      * Sets up LiveData observers to react to changes in connection state, client ID,
-     * and forced stream stop events from ConnectionManager.
+     * and forced stream stop events from ConnectionManager, and to the API circuit breaker.
      */
     private void setupObservers() {
         connectionManager.getConnectionState().observe(this, state -> {
@@ -330,6 +354,13 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
             }
         });
 
+        apiClient.getCircuitBreaker().getState().observe(this, breakerState -> {
+            updateConnectionStatusDisplay();
+            if (breakerState == CircuitBreaker.State.OPEN) {
+                Log.w(TAG, "Server marked unreachable, API requests fail fast until the next trial.");
+            }
+        });
+
         connectionManager.getForceStoppedFeederId().observe(this, stoppedFeederId -> {
             if (stoppedFeederId != null) {
                 Log.d(TAG, "Received forced stop event for feederId: " + stoppedFeederId);
@@ -361,25 +392,163 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
 
     /**
      * Performs initial actions when the activity starts: updates status display
-     * and attempts to load initial data like video/feeder lists if API is ready.
+     * and loads the video list, the feeder list and, if missing, the client ID through a
+     * BootstrapCoordinator that owns the progress bar until all of them finished.
+     * If the server advertised the bootstrap endpoint, all three arrive with one request;
+     * otherwise they are requested in parallel.
      */
     private void performInitialLoad() {
         updateConnectionStatusDisplay();
 
-        if (apiClient.getApiService() != null) {
-            videoListHandler.loadVideos();
-            loadFeederList();
+        bootstrapCoordinator = new BootstrapCoordinator();
+        if (apiClient.getApiService() != null && settingsManager.isCapabilitySupported(ApiClient.CAPABILITY_BOOTSTRAP)) {
+            bootstrapCoordinator.addTask("bootstrap", callback -> {
+                loadBootstrap(callback);
+                return this::cancelBootstrap;
+            });
         } else {
-            Log.w(TAG,"API Client not ready on initial load. Go to settings.");
+            if (apiClient.getApiService() != null) {
+                bootstrapCoordinator.addTask("catalog", callback -> {
+                    videoListHandler.loadVideos(callback::onComplete);
+                    return videoListHandler::cancel;
+                });
+                bootstrapCoordinator.addTask("feeders", callback -> {
+                    loadFeederList(callback);
+                    return this::cancelFeederList;
+                });
+            } else {
+                Log.w(TAG,"API Client not ready on initial load. Go to settings.");
+            }
+            if (needsClientId()) {
+                bootstrapCoordinator.addTask("client-id", callback -> {
+                    loadClientId(callback);
+                    // The ID socket belongs to the app-wide ConnectionManager; cancelling only drops the result.
+                    return null;
+                });
+            }
         }
-        if(settingsManager.getServerAddress() != null && settingsManager.getClientId() == null) {
-            Log.d(TAG,"Server address set but no client ID. Getting ID on startup...");
-            connectionManager.getClientIdFromServer(settingsManager.getServerAddress(), new ConnectionManager.ConnectionCallback() {
-                @Override public void onSuccess(String clientId) { Log.i(TAG,"Client ID obtained successfully on startup."); settingsManager.saveClientId(clientId); }
-                @Override public void onConnected() {}
-                @Override public void onError(String message) { Log.e(TAG,"Failed to get Client ID on startup: " + message); }
-            });
+
+        progressBar.setVisibility(View.VISIBLE);
+        bootstrapCoordinator.start(new BootstrapCoordinator.Listener() {
+            @Override
+            public void onProgress(int finished, int total) {
+                Log.d(TAG, "Initial load progress: " + finished + "/" + total);
+            }
+
+            @Override
+            public void onFinished(BootstrapCoordinator.Report report) {
+                progressBar.setVisibility(View.GONE);
+            }
+        });
+    }
+
+    /**
+     * @return true if a server address is saved but no client ID has been assigned yet.
+     */
+    private boolean needsClientId() {
+        return settingsManager.getServerAddress() != null && settingsManager.getClientId() == null;
+    }
+
+    /**
+     * Gets a client ID over the Socket.IO handshake and saves it.
+     * @param completion The callback to notify when the ID was obtained or the attempt failed.
+     */
+    private void loadClientId(BootstrapCoordinator.TaskCallback completion) {
+        Log.d(TAG,"Server address set but no client ID. Getting ID on startup...");
+        final SettingsManager settings = settingsManager;
+        connectionManager.getClientIdFromServer(settings.getServerAddress(), new ConnectionManager.ConnectionCallback() {
+            @Override public void onSuccess(String clientId) { Log.i(TAG,"Client ID obtained successfully on startup."); settings.saveClientId(clientId); completion.onComplete(true); }
+            @Override public void onConnected() {}
+            @Override public void onError(String message) { Log.e(TAG,"Failed to get Client ID on startup: " + message); completion.onComplete(false); }
+        });
+    }
+
+    /**
+     * Fetches the first catalog page, the feeder list and, if missing, a client ID with one
+     * request to the bootstrap endpoint. If the request fails or the server no longer offers
+     * the endpoint, the data is requested separately instead. The stored catalog is shown
+     * while the request runs.
+     * @param completion The callback to notify when the start-up data is shown.
+     */
+    private void loadBootstrap(BootstrapCoordinator.TaskCallback completion) {
+        ApiService service = apiClient.getApiService();
+        if (service == null) {
+            completion.onComplete(false);
+            return;
         }
+        videoListHandler.showStoredCatalog();
+        final String serverAddress = settingsManager.getServerAddress();
+        final String savedClientId = settingsManager.getClientId();
+        Log.d(TAG, "Requesting bootstrap data...");
+
+        bootstrapCall = service.getBootstrap(VideoPagingSource.DEFAULT_PAGE_SIZE, savedClientId);
+        bootstrapCall.enqueue(new Callback<BootstrapResponse>() {
+            @Override
+            public void onResponse(@NonNull Call<BootstrapResponse> call, @NonNull Response<BootstrapResponse> response) {
+                bootstrapCall = null;
+                BootstrapResponse body = response.body();
+                if (response.isSuccessful() && body != null && body.getCatalog() != null) {
+                    if (savedClientId == null && body.getClientId() != null) {
+                        Log.i(TAG, "Client ID assigned by bootstrap.");
+                        settingsManager.saveClientId(body.getClientId());
+                    }
+                    showFeederList(body.getFeeders());
+                    videoListHandler.showFirstPage(body.getCatalog(), completion::onComplete);
+                    return;
+                }
+                if (response.code() == 404) {
+                    Log.w(TAG, "Bootstrap endpoint not available, requesting start-up data separately");
+                    settingsManager.setCapabilitySupported(serverAddress, ApiClient.CAPABILITY_BOOTSTRAP, false);
+                } else {
+                    Log.w(TAG, "Bootstrap failed (HTTP " + response.code() + "), requesting start-up data separately");
+                }
+                loadSeparately(completion);
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<BootstrapResponse> call, @NonNull Throwable t) {
+                if (call.isCanceled()) {
+                    return;
+                }
+                bootstrapCall = null;
+                Log.w(TAG, "Bootstrap request failed, requesting start-up data separately", t);
+                loadSeparately(completion);
+            }
+        });
+    }
+
+    /**
+     * Loads the catalog, the feeder list and, if missing, the client ID with separate
+     * requests in parallel, and reports once all of them finished.
+     * @param completion The callback to notify; succeeds only if every request succeeded.
+     */
+    private void loadSeparately(BootstrapCoordinator.TaskCallback completion) {
+        final boolean loadId = needsClientId();
+        final int[] remaining = {loadId ? 3 : 2};
+        final boolean[] allSucceeded = {true};
+        BootstrapCoordinator.TaskCallback part = success -> {
+            allSucceeded[0] &= success;
+            if (--remaining[0] == 0) {
+                completion.onComplete(allSucceeded[0]);
+            }
+        };
+        videoListHandler.loadVideos(part::onComplete);
+        loadFeederList(part);
+        if (loadId) {
+            loadClientId(part);
+        }
+    }
+
+    /**
+     * Cancels the bootstrap request and the separate requests that may have replaced it.
+     */
+    private void cancelBootstrap() {
+        if (bootstrapCall != null) {
+            bootstrapCall.cancel();
+            bootstrapCall = null;
+        }
+        videoListHandler.cancel();
+        cancelFeederList();
     }
 
     /**
@@ -387,44 +556,82 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
      * Requires an active connection as per server logic.
      */
     private void loadFeederList() {
+        loadFeederList(null);
+    }
+
+    /**
+     * Loads the list of available feeders and reports the outcome.
+     * If a completion callback is given, the caller owns the progress bar.
+     * @param completion The callback to notify when the request finished, or null.
+     */
+    private void loadFeederList(BootstrapCoordinator.TaskCallback completion) {
         ApiService service = apiClient.getApiService();
         if (service == null) {
             Log.w(TAG, "ApiService not available, cannot load feeders.");
+            if (completion != null) completion.onComplete(false);
             return;
         }
 
-        progressBar.setVisibility(View.VISIBLE);
+        final boolean ownsProgress = completion == null;
+        if (ownsProgress) progressBar.setVisibility(View.VISIBLE);
         Log.d(TAG, "Loading feeder list...");
 
-        service.getFeeders().enqueue(new Callback<List<String>>() {
+        feederCall = service.getFeeders();
+        feederCall.enqueue(new Callback<List<String>>() {
             @Override
             public void onResponse(@NonNull Call<List<String>> call, @NonNull Response<List<String>> response) {
-                progressBar.setVisibility(View.GONE);
+                if (ownsProgress) progressBar.setVisibility(View.GONE);
                 if (response.isSuccessful() && response.body() != null) {
-                    List<String> feeders = response.body();
-                    availableFeederIds.clear();
-                    if (feeders.isEmpty()) {
-                        Toast.makeText(MainActivity.this, "No active feeders found", Toast.LENGTH_SHORT).show();
-                        availableFeederIds.add("No active feeders");
-                    } else {
-                        availableFeederIds.addAll(feeders);
-                        Toast.makeText(MainActivity.this, "Loaded " + feeders.size() + " feeders", Toast.LENGTH_SHORT).show();
+                    if (response.raw().networkResponse() != null && response.raw().networkResponse().code() == 304) {
+                        Log.d(TAG, "Feeder list not modified (304), served from HTTP cache");
                     }
-                    feederAdapter.notifyDataSetChanged();
+                    showFeederList(response.body());
+                    if (completion != null) completion.onComplete(true);
                 } else {
                     handleApiError(response, "loading feeders");
+                    if (completion != null) completion.onComplete(false);
                 }
             }
 
             @Override
             public void onFailure(@NonNull Call<List<String>> call, @NonNull Throwable t) {
-                progressBar.setVisibility(View.GONE);
+                if (call.isCanceled()) {
+                    return;
+                }
+                if (ownsProgress) progressBar.setVisibility(View.GONE);
                 Log.e(TAG, "Network error loading feeders", t);
                 Toast.makeText(MainActivity.this, "Network error loading feeders: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+                if (completion != null) completion.onComplete(false);
             }
         });
     }
 
+    /**
+     * Replaces the entries of the feeder dropdown.
+     * @param feeders The active feeder IDs.
+     */
+    private void showFeederList(List<String> feeders) {
+        availableFeederIds.clear();
+        if (feeders.isEmpty()) {
+            Toast.makeText(MainActivity.this, "No active feeders found", Toast.LENGTH_SHORT).show();
+            availableFeederIds.add("No active feeders");
+        } else {
+            availableFeederIds.addAll(feeders);
+            Toast.makeText(MainActivity.this, "Loaded " + feeders.size() + " feeders", Toast.LENGTH_SHORT).show();
+        }
+        feederAdapter.notifyDataSetChanged();
+    }
+
+    /**
+     * Cancels the feeder list request in flight, if any.
+     */
+    private void cancelFeederList() {
+        if (feederCall != null) {
+            feederCall.cancel();
+            feederCall = null;
+        }
+    }
+
     /**
      * Called when the video name/item is clicked in the list. Delegates playback to the handler.
      * @param videoItem The selected video item.
@@ -480,6 +687,7 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
 
     /**
      * Updates the connection status TextView based on the current state from ConnectionManager.
+     * Appends a notice while the API circuit breaker considers the server unreachable.
      */
     private void updateConnectionStatusDisplay() {
         ConnectionManager.ConnectionState state = connectionManager.getConnectionState().getValue();
@@ -496,6 +704,9 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
         } else {
             statusText += "Unknown";
         }
+        if (apiClient.getCircuitBreaker().getCurrentState() == CircuitBreaker.State.OPEN) {
+            statusText += " (server unreachable)";
+        }
         tvConnectionStatusMain.setText(statusText);
     }
 
@@ -570,11 +781,14 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
         }
         boolean playWhenReady = player.getPlayWhenReady();
         player.pause();
+        FrameTimingCollector.getInstance().markTransition();
 
         Intent intent = new Intent(this, FullscreenVideoActivity.class);
         intent.putExtra(FullscreenVideoActivity.EXTRA_VIDEO_URI, videoUri.toString());
         intent.putExtra(FullscreenVideoActivity.EXTRA_VIDEO_POSITION, currentPosition);
         intent.putExtra(FullscreenVideoActivity.EXTRA_PLAY_WHEN_READY, playWhenReady);
+        // Recordings can be scrubbed with sprite-sheet previews; live streams have none.
+        intent.putExtra(FullscreenVideoActivity.EXTRA_SCRUB_PREVIEW, activeFullscreenHandler == videoPlaybackHandler);
         fullscreenLauncher.launch(intent);
     }
 
@@ -594,6 +808,24 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
         }
     }
 
+    /**
+     * Starts collecting frame timings of the main screen.
+     */
+    @Override
+    protected void onResume() {
+        super.onResume();
+        FrameTimingCollector.getInstance().attach(this);
+    }
+
+    /**
+     * Stops collecting frame timings of the main screen.
+     */
+    @Override
+    protected void onPause() {
+        super.onPause();
+        FrameTimingCollector.getInstance().detach(this);
+    }
+
     /**
      * Pauses playback when the activity is stopped.
      */
@@ -604,6 +836,17 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
         streamPlaybackHandler.pause();
     }
 
+    /**
+     * Frees the memory held by cached thumbnails and sprite sheets when the system asks for it.
+     * @param level The memory trim level.
+     */
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        ThumbnailLoader.getInstance(this).onTrimMemory(level);
+        SpriteSheetLoader.getInstance(this).onTrimMemory(level);
+    }
+
     /**
      * Unregisters receivers and releases player resources when the activity is destroyed.
      */
@@ -617,6 +860,11 @@ public class MainActivity extends AppCompatActivity implements VideoAdapter.OnVi
         }
         super.onDestroy();
 
+        if (bootstrapCoordinator != null) {
+            bootstrapCoordinator.cancel();
+        }
+        cancelBootstrap();
+        apiClient.release();
         videoPlaybackHandler.releasePlayer();
         streamPlaybackHandler.releasePlayer();
         Log.d(TAG, "onDestroy MainActivity");
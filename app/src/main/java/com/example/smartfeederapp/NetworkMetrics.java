@@ -0,0 +1,368 @@
+package com.example.smartfeederapp;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+/**
+ * Per-endpoint network timings collected from OkHttp call events.
+ * For every call a small listener records DNS, connect (including TLS), time to first
+ * byte, body transfer and total call duration, in microseconds, plus response sizes in
+ * bytes, into Log2Histograms of the endpoint the call belongs to.
+ * Phases that did not happen (e.g. DNS and connect on a pooled connection) are not recorded.
+ */
+public class NetworkMetrics {
+
+    /**
+     * The endpoints timings are grouped by.
+     */
+    public enum Endpoint {
+        VIDEOS,
+        VIDEO_PAGE,
+        VIDEO_CHANGES,
+        FEEDERS,
+        BOOTSTRAP,
+        MEDIA,
+        OTHER
+    }
+
+    /**
+     * The measured phases of a call.
+     */
+    public enum Phase {
+        DNS,
+        CONNECT,
+        TTFB,
+        BODY,
+        TOTAL
+    }
+
+    /**
+     * Counters and histograms of one endpoint.
+     */
+    public static class EndpointStats {
+        private final EnumMap<Phase, Log2Histogram> phases = new EnumMap<>(Phase.class);
+        private final Log2Histogram responseBytes = new Log2Histogram();
+        private final AtomicLong requestBytes = new AtomicLong();
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong cacheHits = new AtomicLong();
+        private final AtomicLong reusedConnections = new AtomicLong();
+
+        EndpointStats() {
+            for (Phase phase : Phase.values()) {
+                phases.put(phase, new Log2Histogram());
+            }
+        }
+
+        /**
+         * @param phase The phase.
+         * @return The histogram of the phase durations in microseconds.
+         */
+        public Log2Histogram getPhase(Phase phase) {
+            return phases.get(phase);
+        }
+
+        /**
+         * @return The histogram of response body sizes in bytes.
+         */
+        public Log2Histogram getResponseBytes() {
+            return responseBytes;
+        }
+
+        /**
+         * @return The total number of request body bytes sent.
+         */
+        public long getRequestBytes() {
+            return requestBytes.get();
+        }
+
+        /**
+         * @return The number of finished calls, successful or not.
+         */
+        public long getCallCount() {
+            return calls.get();
+        }
+
+        /**
+         * @return The number of failed calls.
+         */
+        public long getFailureCount() {
+            return failures.get();
+        }
+
+        /**
+         * @return The number of calls answered from the HTTP cache without the network.
+         */
+        public long getCacheHitCount() {
+            return cacheHits.get();
+        }
+
+        /**
+         * @return The number of calls that used an already open connection.
+         */
+        public long getReusedConnectionCount() {
+            return reusedConnections.get();
+        }
+
+        void reset() {
+            for (Log2Histogram histogram : phases.values()) {
+                histogram.reset();
+            }
+            responseBytes.reset();
+            requestBytes.set(0);
+            calls.set(0);
+            failures.set(0);
+            cacheHits.set(0);
+            reusedConnections.set(0);
+        }
+    }
+
+    private final Map<Endpoint, EndpointStats> stats;
+
+    /**
+     * Constructor for NetworkMetrics.
+     */
+    public NetworkMetrics() {
+        EnumMap<Endpoint, EndpointStats> map = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            map.put(endpoint, new EndpointStats());
+        }
+        stats = map;
+    }
+
+    /**
+     * Creates the EventListener.Factory to install on an OkHttpClient.
+     * @param delegate A client-wide listener that keeps receiving the connection events, or null.
+     * @return The factory creating one timing listener per call.
+     */
+    public EventListener.Factory eventListenerFactory(EventListener delegate) {
+        final EventListener forward = delegate != null ? delegate : EventListener.NONE;
+        return call -> new CallTimer(stats.get(classify(call.request().url())), forward);
+    }
+
+    /**
+     * @param endpoint The endpoint.
+     * @return The stats of the endpoint.
+     */
+    public EndpointStats get(Endpoint endpoint) {
+        return stats.get(endpoint);
+    }
+
+    /**
+     * Clears all recorded timings and counters.
+     */
+    public void reset() {
+        for (EndpointStats endpointStats : stats.values()) {
+            endpointStats.reset();
+        }
+    }
+
+    /**
+     * Maps a URL to the endpoint its timings are recorded under.
+     * @param url The request URL.
+     * @return The endpoint.
+     */
+    static Endpoint classify(HttpUrl url) {
+        List<String> segments = url.pathSegments();
+        int last = segments.size() - 1;
+        if (last >= 0 && segments.get(last).isEmpty()) {
+            last--;
+        }
+        if (last < 0) {
+            return Endpoint.OTHER;
+        }
+        String name = segments.get(last);
+        String parent = last > 0 ? segments.get(last - 1) : "";
+        if (name.equals("videos")) {
+            return Endpoint.VIDEOS;
+        }
+        if (name.equals("feeders")) {
+            return Endpoint.FEEDERS;
+        }
+        if (name.equals("bootstrap")) {
+            return Endpoint.BOOTSTRAP;
+        }
+        if (parent.equals("videos") && name.equals("page")) {
+            return Endpoint.VIDEO_PAGE;
+        }
+        if (parent.equals("videos") && name.equals("changes")) {
+            return Endpoint.VIDEO_CHANGES;
+        }
+        if (parent.equals("videos") || name.indexOf('.') > 0) {
+            return Endpoint.MEDIA;
+        }
+        return Endpoint.OTHER;
+    }
+
+    /**
+     * Formats the collected timings as a plain-text report, one block per endpoint
+     * that saw at least one call. Durations are shown in milliseconds.
+     * @return The report.
+     */
+    public String formatReport() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats s = entry.getValue();
+            if (s.getCallCount() == 0) {
+                continue;
+            }
+            sb.append(entry.getKey().name().toLowerCase(Locale.US))
+                    .append(": ").append(s.getCallCount()).append(" calls, ")
+                    .append(s.getFailureCount()).append(" failed, ")
+                    .append(s.getCacheHitCount()).append(" cached, ")
+                    .append(s.getReusedConnectionCount()).append(" reused\n");
+            for (Phase phase : Phase.values()) {
+                Log2Histogram h = s.getPhase(phase);
+                if (h.getCount() == 0) {
+                    continue;
+                }
+                sb.append(String.format(Locale.US, "  %-7s n=%-5d p50=%7.1f p90=%7.1f p99=%7.1f max=%7.1f ms%n",
+                        phase.name().toLowerCase(Locale.US), h.getCount(),
+                        h.getPercentile(50) / 1000.0, h.getPercentile(90) / 1000.0,
+                        h.getPercentile(99) / 1000.0, h.getMax() / 1000.0));
+            }
+            Log2Histogram bytes = s.getResponseBytes();
+            if (bytes.getCount() > 0) {
+                sb.append(String.format(Locale.US, "  bytes   total=%d p50=%d max=%d%n",
+                        bytes.getSum(), bytes.getPercentile(50), bytes.getMax()));
+            }
+        }
+        return sb.length() == 0 ? "No requests recorded yet.\n" : sb.toString();
+    }
+
+    /**
+     * Records the events of a single call. OkHttp delivers the events of one call
+     * sequentially, so the timestamps need no synchronization.
+     */
+    static final class CallTimer extends EventListener {
+        private final EndpointStats target;
+        private final EventListener delegate;
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        private long requestStart;
+        private long bodyStart;
+        private boolean connected;
+
+        CallTimer(EndpointStats target, EventListener delegate) {
+            this.target = target;
+            this.delegate = delegate;
+        }
+
+        private static long micros(long startNanos) {
+            return (System.nanoTime() - startNanos) / 1000;
+        }
+
+        @Override
+        public void callStart(@NonNull Call call) {
+            callStart = System.nanoTime();
+            delegate.callStart(call);
+        }
+
+        @Override
+        public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+            dnsStart = System.nanoTime();
+            delegate.dnsStart(call, domainName);
+        }
+
+        @Override
+        public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> inetAddressList) {
+            target.getPhase(Phase.DNS).record(micros(dnsStart));
+            delegate.dnsEnd(call, domainName, inetAddressList);
+        }
+
+        @Override
+        public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+            connectStart = System.nanoTime();
+            connected = true;
+            delegate.connectStart(call, inetSocketAddress, proxy);
+        }
+
+        @Override
+        public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, Protocol protocol) {
+            target.getPhase(Phase.CONNECT).record(micros(connectStart));
+            delegate.connectEnd(call, inetSocketAddress, proxy, protocol);
+        }
+
+        @Override
+        public void connectFailed(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, Protocol protocol, @NonNull IOException ioe) {
+            delegate.connectFailed(call, inetSocketAddress, proxy, protocol, ioe);
+        }
+
+        @Override
+        public void connectionAcquired(@NonNull Call call, @NonNull Connection connection) {
+            if (!connected) {
+                target.reusedConnections.incrementAndGet();
+            }
+            connected = false;
+            delegate.connectionAcquired(call, connection);
+        }
+
+        @Override
+        public void requestHeadersStart(@NonNull Call call) {
+            requestStart = System.nanoTime();
+            delegate.requestHeadersStart(call);
+        }
+
+        @Override
+        public void requestBodyEnd(@NonNull Call call, long byteCount) {
+            target.requestBytes.addAndGet(byteCount);
+            delegate.requestBodyEnd(call, byteCount);
+        }
+
+        @Override
+        public void responseHeadersStart(@NonNull Call call) {
+            target.getPhase(Phase.TTFB).record(micros(requestStart));
+            delegate.responseHeadersStart(call);
+        }
+
+        @Override
+        public void responseBodyStart(@NonNull Call call) {
+            bodyStart = System.nanoTime();
+            delegate.responseBodyStart(call);
+        }
+
+        @Override
+        public void responseBodyEnd(@NonNull Call call, long byteCount) {
+            target.getPhase(Phase.BODY).record(micros(bodyStart));
+            target.responseBytes.record(byteCount);
+            delegate.responseBodyEnd(call, byteCount);
+        }
+
+        @Override
+        public void cacheHit(@NonNull Call call, @NonNull Response response) {
+            target.cacheHits.incrementAndGet();
+            delegate.cacheHit(call, response);
+        }
+
+        @Override
+        public void callEnd(@NonNull Call call) {
+            target.getPhase(Phase.TOTAL).record(micros(callStart));
+            target.calls.incrementAndGet();
+            delegate.callEnd(call);
+        }
+
+        @Override
+        public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+            target.calls.incrementAndGet();
+            target.failures.incrementAndGet();
+            delegate.callFailed(call, ioe);
+        }
+    }
+}
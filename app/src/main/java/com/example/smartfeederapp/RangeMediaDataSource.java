@@ -0,0 +1,221 @@
+package com.example.smartfeederapp;
+
+import android.media.MediaDataSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import okhttp3.Call;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * MediaDataSource that reads a recording over HTTP range requests, so MediaMetadataRetriever
+ * can extract a frame after reading the container header and the first keyframe instead of
+ * downloading the whole file.
+ * The file is read in blocks of {@link #BLOCK_SIZE} bytes, and the most recently read blocks
+ * are kept, as the retriever reads small pieces at nearby positions. The number of bytes
+ * fetched is bounded, so a file whose frame cannot be found early fails instead of being
+ * downloaded. Requests are tagged with a RequestScheduler priority.
+ * Servers that ignore the Range header are only accepted for files that fit into one block.
+ */
+public class RangeMediaDataSource extends MediaDataSource {
+
+    static final int BLOCK_SIZE = 64 * 1024;
+    private static final int MAX_CACHED_BLOCKS = 16;
+
+    private final Call.Factory callFactory;
+    private final String url;
+    private final RequestScheduler.Priority priority;
+    private final long maxFetchBytes;
+    private final Map<Long, byte[]> blocks = new LinkedHashMap<Long, byte[]>(MAX_CACHED_BLOCKS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+            return size() > MAX_CACHED_BLOCKS;
+        }
+    };
+    private long size = -1;
+    private long fetchedBytes;
+    private int requestCount;
+    private volatile Call currentCall;
+    private volatile boolean closed;
+
+    /**
+     * Constructor for RangeMediaDataSource.
+     * @param callFactory The factory that runs the range requests.
+     * @param url The URL of the recording.
+     * @param priority The scheduling class of the requests.
+     * @param maxFetchBytes The maximum number of bytes to fetch before reads fail.
+     */
+    public RangeMediaDataSource(Call.Factory callFactory, String url, RequestScheduler.Priority priority, long maxFetchBytes) {
+        this.callFactory = callFactory;
+        this.url = url;
+        this.priority = priority;
+        this.maxFetchBytes = maxFetchBytes;
+    }
+
+    /**
+     * Reads bytes of the recording, fetching the blocks that are not held yet.
+     * @param position The position in the file.
+     * @param buffer The buffer to read into.
+     * @param offset The offset in the buffer.
+     * @param length The number of bytes to read.
+     * @return The number of bytes read, or -1 at the end of the file.
+     * @throws IOException If a request fails, the server does not support ranges, the
+     *                     fetch limit is reached or the source was closed.
+     */
+    @Override
+    public synchronized int readAt(long position, byte[] buffer, int offset, int length) throws IOException {
+        long total = getSize();
+        if (position >= total) {
+            return -1;
+        }
+        int wanted = (int) Math.min(length, total - position);
+        int read = 0;
+        while (read < wanted) {
+            long index = (position + read) / BLOCK_SIZE;
+            byte[] block = block(index);
+            int inBlock = (int) ((position + read) - index * BLOCK_SIZE);
+            if (inBlock >= block.length) {
+                break;
+            }
+            int n = Math.min(wanted - read, block.length - inBlock);
+            System.arraycopy(block, inBlock, buffer, offset + read, n);
+            read += n;
+        }
+        return read > 0 ? read : -1;
+    }
+
+    /**
+     * Returns the size of the recording, which the first range response reports.
+     * @return The size in bytes.
+     * @throws IOException If the first block cannot be fetched.
+     */
+    @Override
+    public synchronized long getSize() throws IOException {
+        if (size < 0) {
+            block(0);
+        }
+        return size;
+    }
+
+    /**
+     * Stops reading: a request in flight is cancelled and later reads fail.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Call call = currentCall;
+        if (call != null) {
+            call.cancel();
+        }
+        synchronized (this) {
+            blocks.clear();
+        }
+    }
+
+    /**
+     * @return The number of bytes fetched from the server so far.
+     */
+    public synchronized long getFetchedBytes() {
+        return fetchedBytes;
+    }
+
+    /**
+     * @return The number of range requests made so far.
+     */
+    public synchronized int getRequestCount() {
+        return requestCount;
+    }
+
+    private byte[] block(long index) throws IOException {
+        byte[] block = blocks.get(index);
+        if (block == null) {
+            block = fetch(index);
+            blocks.put(index, block);
+        }
+        return block;
+    }
+
+    private byte[] fetch(long index) throws IOException {
+        if (closed) {
+            throw new IOException("Data source closed");
+        }
+        if (fetchedBytes >= maxFetchBytes) {
+            throw new IOException("Fetched " + fetchedBytes + " bytes without finding a frame");
+        }
+        long start = index * BLOCK_SIZE;
+        Request request = new Request.Builder()
+                .url(url)
+                .header("Range", "bytes=" + start + "-" + (start + BLOCK_SIZE - 1))
+                .tag(RequestScheduler.Priority.class, priority)
+                .build();
+        Call call = callFactory.newCall(request);
+        currentCall = call;
+        requestCount++;
+        try (Response response = call.execute()) {
+            ResponseBody body = response.body();
+            if (response.code() == 416) {
+                size = Math.max(size, 0);
+                return new byte[0];
+            }
+            if (body == null || !response.isSuccessful()) {
+                throw new IOException("HTTP " + response.code() + " for range request");
+            }
+            if (response.code() == 206) {
+                long total = parseTotalSize(response.header("Content-Range"));
+                if (total < 0) {
+                    throw new IOException("Missing size in Content-Range");
+                }
+                size = total;
+            } else if (start == 0 && body.contentLength() >= 0 && body.contentLength() <= BLOCK_SIZE) {
+                size = body.contentLength();
+            } else {
+                throw new IOException("Server does not support range requests");
+            }
+            byte[] block = readBlock(body, (int) Math.min(BLOCK_SIZE, Math.max(0, size - start)));
+            fetchedBytes += block.length;
+            return block;
+        } finally {
+            currentCall = null;
+        }
+    }
+
+    private static byte[] readBlock(ResponseBody body, int expected) throws IOException {
+        byte[] block = new byte[expected];
+        int read = 0;
+        try (InputStream in = body.byteStream()) {
+            while (read < expected) {
+                int n = in.read(block, read, expected - read);
+                if (n < 0) {
+                    throw new IOException("Range response ended after " + read + " of " + expected + " bytes");
+                }
+                read += n;
+            }
+        }
+        return block;
+    }
+
+    /**
+     * Parses the total size from a Content-Range header such as "bytes 0-65535/1048576".
+     * @param header The header value, may be null.
+     * @return The total size, or -1 if it is missing or unknown ("*").
+     */
+    static long parseTotalSize(String header) {
+        if (header == null) {
+            return -1;
+        }
+        int slash = header.lastIndexOf('/');
+        if (slash < 0) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(header.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
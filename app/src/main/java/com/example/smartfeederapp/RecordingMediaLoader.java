@@ -0,0 +1,309 @@
+package com.example.smartfeederapp;
+
+import android.content.ComponentCallbacks2;
+import android.media.MediaMetadataRetriever;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+
+/**
+ * Base of the loaders of images derived from recordings, such as thumbnails and sprite sheets.
+ * An image is looked up in the subclass's memory cache, then in a disk cache, and is otherwise
+ * fetched from a server endpoint if the server advertises the matching capability, or else
+ * made from the recording itself. Requests for the same video share one job, and a job
+ * nobody waits for any more is skipped before it starts. An image that could not be loaded
+ * is not requested again for a minute.
+ * Jobs are tracked on the main thread; the work runs on the work executor.
+ * @param <V> The decoded image.
+ * @param <W> The receiver an image is delivered to.
+ */
+abstract class RecordingMediaLoader<V, W> {
+
+    static final int FROM_DISK = 0;
+    static final int FROM_SERVER = 1;
+    static final int FROM_RECORDING = 2;
+    private static final long RETRY_AFTER_MILLIS = 60_000;
+
+    /**
+     * Supplies the call factory for requests to a server, following its protocol setting.
+     */
+    interface CallFactoryProvider {
+        /**
+         * @param address The server address ("host:port").
+         * @return The factory for calls to that server.
+         */
+        Call.Factory forServer(String address);
+    }
+
+    /**
+     * The loading of one image, shared by every receiver that waits for it.
+     */
+    static final class Job<W> {
+        final String url;
+        final List<W> receivers = new ArrayList<>(2);
+        volatile boolean visible;
+        volatile boolean cancelled;
+
+        Job(String url) {
+            this.url = url;
+        }
+    }
+
+    private final String tag;
+    private final String kind;
+    private final String capability;
+    final ThumbnailDiskCache diskCache;
+    private final SettingsManager settingsManager;
+    final CallFactoryProvider callFactories;
+    private final Executor workExecutor;
+    private final Executor mainExecutor;
+    final Map<String, Job<W>> jobs = new HashMap<>();
+    // Video URL to the time its image failed to load.
+    private final Map<String, Long> failedAt = new HashMap<>();
+    int downloadedCount;
+    int fromRecordingCount;
+
+    /**
+     * Constructor for RecordingMediaLoader.
+     * @param tag The log tag of the subclass.
+     * @param kind What is loaded, for log messages, e.g. "thumbnail".
+     * @param capability The server capability that offers the endpoint, one of ApiClient's CAPABILITY_ constants.
+     * @param diskCache The cache of encoded images.
+     * @param settingsManager Where the server's capabilities are recorded.
+     * @param callFactories Supplies the call factories for endpoint and range requests.
+     * @param workExecutor Executor that reads, fetches and decodes images.
+     * @param mainExecutor Executor that delivers images on the main thread.
+     */
+    RecordingMediaLoader(String tag, String kind, String capability, ThumbnailDiskCache diskCache,
+                         SettingsManager settingsManager, CallFactoryProvider callFactories,
+                         Executor workExecutor, Executor mainExecutor) {
+        this.tag = tag;
+        this.kind = kind;
+        this.capability = capability;
+        this.diskCache = diskCache;
+        this.settingsManager = settingsManager;
+        this.callFactories = callFactories;
+        this.workExecutor = workExecutor;
+        this.mainExecutor = mainExecutor;
+    }
+
+    /**
+     * Creates the call factories the singletons use: requests go through the scheduler of
+     * the shared client that matches the server's h2c setting.
+     * @param provider The shared HTTP clients.
+     * @param settingsManager Where the h2c setting of each server is stored.
+     * @return The provider of call factories.
+     */
+    static CallFactoryProvider serverCallFactories(HttpClientProvider provider, SettingsManager settingsManager) {
+        return address -> {
+            boolean h2c = settingsManager.isH2cPriorKnowledgeEnabled(address);
+            return provider.getRequestScheduler(h2c).callFactory(provider.getClient(h2c));
+        };
+    }
+
+    /**
+     * Fetches the server's encoded image of a recording. Called on a worker thread.
+     * @return The encoded image, or null if the server has none for it.
+     */
+    abstract byte[] download(Job<W> job, String address) throws IOException;
+
+    /**
+     * Makes the encoded image from the recording itself. Called on a worker thread.
+     * @return The encoded image, or null if the recording yields none.
+     */
+    abstract byte[] fromRecording(Job<W> job, String address) throws IOException;
+
+    /**
+     * Decodes an encoded image for display. Called on a worker thread.
+     * @return The image, or null if the data is not valid.
+     */
+    abstract V decode(byte[] data);
+
+    /**
+     * Puts a loaded image into the memory cache. Called on the main thread.
+     */
+    abstract void remember(String url, V value);
+
+    /**
+     * Hands a loaded image to a receiver that waits for it. Called on the main thread.
+     */
+    abstract void deliver(W receiver, String url, V value);
+
+    /**
+     * Empties the memory cache.
+     */
+    abstract void clearMemory();
+
+    /**
+     * Adds a receiver to the job of an image, starting the job if none runs for it.
+     * Must be called on the main thread.
+     * @param url The video URL.
+     * @param receiver The receiver to deliver the image to.
+     */
+    void join(String url, W receiver) {
+        if (url == null || recentlyFailed(url)) {
+            return;
+        }
+        Job<W> job = jobs.get(url);
+        if (job == null) {
+            job = start(url, true);
+        } else {
+            job.visible = true;
+        }
+        if (!job.receivers.contains(receiver)) {
+            job.receivers.add(receiver);
+        }
+    }
+
+    /**
+     * Withdraws a receiver's request. A job no receiver waits for any more is skipped if it
+     * has not started yet. Must be called on the main thread.
+     * @param url The video URL.
+     * @param receiver The receiver that requested it.
+     */
+    void leave(String url, W receiver) {
+        Job<W> job = url != null ? jobs.get(url) : null;
+        if (job != null && job.receivers.remove(receiver) && job.receivers.isEmpty()) {
+            job.cancelled = true;
+            jobs.remove(url);
+        }
+    }
+
+    /**
+     * Submits a job for an image. Visibility is set before the job is submitted, so a
+     * worker that picks it up right away sends it at the right priority.
+     */
+    Job<W> start(String url, boolean visible) {
+        Job<W> job = new Job<>(url);
+        job.visible = visible;
+        jobs.put(url, job);
+        workExecutor.execute(() -> run(job));
+        return job;
+    }
+
+    boolean recentlyFailed(String url) {
+        Long time = failedAt.get(url);
+        if (time == null) {
+            return false;
+        }
+        if (SystemClock.elapsedRealtime() - time < RETRY_AFTER_MILLIS) {
+            return true;
+        }
+        failedAt.remove(url);
+        return false;
+    }
+
+    /**
+     * @return The number of videos whose image recently failed to load.
+     */
+    int failedCount() {
+        return failedAt.size();
+    }
+
+    /**
+     * Frees memory when the system asks for it: the memory cache is emptied once the app
+     * is in the background or memory runs low.
+     * @param level The level passed to onTrimMemory.
+     */
+    // The RUNNING_ levels are deprecated in API 34 but still delivered to foreground apps before it.
+    @SuppressWarnings("deprecation")
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            clearMemory();
+        }
+    }
+
+    /**
+     * Loads an image on a worker thread and hands the result to the main thread.
+     */
+    private void run(Job<W> job) {
+        if (job.cancelled) {
+            return;
+        }
+        V value = null;
+        int source = FROM_DISK;
+        try {
+            byte[] data = diskCache.get(job.url);
+            if (data == null) {
+                String address = serverAddress(job.url);
+                if (address != null && settingsManager.isCapabilitySupported(address, capability)) {
+                    data = download(job, address);
+                    source = FROM_SERVER;
+                }
+                if (data == null && address != null && !job.cancelled) {
+                    data = fromRecording(job, address);
+                    source = FROM_RECORDING;
+                }
+                if (data != null) {
+                    diskCache.put(job.url, data);
+                }
+            }
+            if (data != null) {
+                value = decode(data);
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.w(tag, "Could not load " + kind + " for " + job.url + ": " + e.getMessage());
+        }
+        final V result = value;
+        final int from = source;
+        mainExecutor.execute(() -> finish(job, result, from));
+    }
+
+    private void finish(Job<W> job, V value, int source) {
+        if (jobs.get(job.url) == job) {
+            jobs.remove(job.url);
+        }
+        if (value == null) {
+            if (!job.cancelled) {
+                failedAt.put(job.url, SystemClock.elapsedRealtime());
+            }
+            return;
+        }
+        if (source == FROM_SERVER) {
+            downloadedCount++;
+        } else if (source == FROM_RECORDING) {
+            fromRecordingCount++;
+        }
+        remember(job.url, value);
+        if (job.cancelled) {
+            return;
+        }
+        for (W receiver : job.receivers) {
+            deliver(receiver, job.url, value);
+        }
+    }
+
+    static RequestScheduler.Priority priority(Job<?> job) {
+        return job.visible ? RequestScheduler.Priority.VISIBLE_PREFETCH : RequestScheduler.Priority.BACKGROUND;
+    }
+
+    /**
+     * Releases a retriever, logging instead of throwing if that fails.
+     */
+    void releaseQuietly(MediaMetadataRetriever retriever) {
+        try {
+            retriever.release();
+        } catch (IOException e) {
+            Log.w(tag, "Could not release MediaMetadataRetriever: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param url A video URL.
+     * @return The address ("host:port") of the server the video is on, or null if the URL is invalid.
+     */
+    static String serverAddress(String url) {
+        HttpUrl parsed = HttpUrl.parse(url);
+        return parsed != null ? parsed.host() + ":" + parsed.port() : null;
+    }
+}
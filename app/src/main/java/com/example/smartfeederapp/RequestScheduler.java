@@ -0,0 +1,415 @@
+package com.example.smartfeederapp;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Timeout;
+
+/**
+ * Orders HTTP calls by priority before they reach OkHttp's Dispatcher, which runs calls
+ * strictly in arrival order. Every call belongs to one of three classes: interactive
+ * (the user is waiting for it), visible prefetch (data for rows about to scroll into view)
+ * and background (refreshes nobody is looking at). Each class has its own concurrency
+ * limit and all classes share an overall limit. When a slot frees up, queued interactive
+ * calls are started before any queued prefetch or background call, and prefetch and
+ * background calls together leave one overall slot free for interactive calls, so a tap on
+ * play never waits behind a backlog of background work, even while that work fills the
+ * other slots. Running calls are not preempted.
+ * The class of a call is taken from a {@link Priority} tag on its request, or derived from
+ * the endpoint. The time each call spent queued is recorded per class.
+ * Calls are handed out through {@link #callFactory(OkHttpClient)}, which Retrofit and
+ * ExoPlayer's OkHttpDataSource both accept. A call holds its slot until its response
+ * headers arrive; reading the body does not count against the limits.
+ */
+public class RequestScheduler {
+
+    /**
+     * The priority classes, highest first.
+     */
+    public enum Priority {
+        INTERACTIVE,
+        VISIBLE_PREFETCH,
+        BACKGROUND
+    }
+
+    /**
+     * Counters and the queueing delay histogram of one priority class.
+     */
+    public static class ClassStats {
+        private final Log2Histogram queueDelayMs = new Log2Histogram();
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong cancelledInQueue = new AtomicLong();
+
+        /**
+         * @return The time calls of this class waited before being started, in ms.
+         */
+        public Log2Histogram getQueueDelayMs() {
+            return queueDelayMs;
+        }
+
+        /**
+         * @return The number of calls of this class that were started.
+         */
+        public long getStartedCount() {
+            return started.get();
+        }
+
+        /**
+         * @return The number of calls of this class cancelled before they were started.
+         */
+        public long getCancelledInQueueCount() {
+            return cancelledInQueue.get();
+        }
+
+        void reset() {
+            queueDelayMs.reset();
+            started.set(0);
+            cancelledInQueue.set(0);
+        }
+    }
+
+    // Package-private so tests can hold it while a waiting call is admitted.
+    final Object lock = new Object();
+    private final int maxInFlight;
+    private final int interactiveReserve;
+    private final EnumMap<Priority, Integer> limits = new EnumMap<>(Priority.class);
+    private final EnumMap<Priority, ArrayDeque<ScheduledCall>> queues = new EnumMap<>(Priority.class);
+    private final EnumMap<Priority, Integer> inFlight = new EnumMap<>(Priority.class);
+    private final EnumMap<Priority, ClassStats> stats = new EnumMap<>(Priority.class);
+    private int totalInFlight = 0;
+
+    /**
+     * Constructor for RequestScheduler.
+     * @param maxInFlight The maximum number of calls running at once; also the limit of interactive calls.
+     *                    If it is above 1, one of these slots is only used by interactive calls.
+     * @param maxPrefetch The maximum number of visible-prefetch calls running at once.
+     * @param maxBackground The maximum number of background calls running at once.
+     */
+    public RequestScheduler(int maxInFlight, int maxPrefetch, int maxBackground) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight < 1: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        this.interactiveReserve = maxInFlight > 1 ? 1 : 0;
+        limits.put(Priority.INTERACTIVE, maxInFlight);
+        limits.put(Priority.VISIBLE_PREFETCH, Math.max(1, Math.min(maxPrefetch, maxInFlight)));
+        limits.put(Priority.BACKGROUND, Math.max(1, Math.min(maxBackground, maxInFlight)));
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            inFlight.put(priority, 0);
+            stats.put(priority, new ClassStats());
+        }
+    }
+
+    /**
+     * Wraps a client so that every call it creates is scheduled here.
+     * @param client The client that performs the calls.
+     * @return A Call.Factory for Retrofit or OkHttpDataSource.
+     */
+    public Call.Factory callFactory(OkHttpClient client) {
+        return request -> new ScheduledCall(this, client.newCall(request), priorityOf(request));
+    }
+
+    /**
+     * Determines the class of a request. An explicit {@link Priority} tag wins; otherwise
+     * follow-up catalog pages count as visible prefetch, delta syncs as background, and
+     * everything else (first pages, feeders, media) as interactive.
+     * @param request The request.
+     * @return The priority class.
+     */
+    static Priority priorityOf(Request request) {
+        Priority tagged = request.tag(Priority.class);
+        if (tagged != null) {
+            return tagged;
+        }
+        switch (NetworkMetrics.classify(request.url())) {
+            case VIDEO_PAGE:
+                return request.url().queryParameter("cursor") != null ? Priority.VISIBLE_PREFETCH : Priority.INTERACTIVE;
+            case VIDEO_CHANGES:
+                return Priority.BACKGROUND;
+            default:
+                return Priority.INTERACTIVE;
+        }
+    }
+
+    /**
+     * @param priority The class.
+     * @return The number of calls of the class waiting for a slot.
+     */
+    public int getQueuedCount(Priority priority) {
+        synchronized (lock) {
+            return queues.get(priority).size();
+        }
+    }
+
+    /**
+     * @param priority The class.
+     * @return The number of calls of the class currently running.
+     */
+    public int getRunningCount(Priority priority) {
+        synchronized (lock) {
+            return inFlight.get(priority);
+        }
+    }
+
+    /**
+     * @param priority The class.
+     * @return The stats of the class.
+     */
+    public ClassStats getStats(Priority priority) {
+        return stats.get(priority);
+    }
+
+    /**
+     * Clears the recorded delays and counters. Queued and running calls are not affected.
+     */
+    public void reset() {
+        for (ClassStats classStats : stats.values()) {
+            classStats.reset();
+        }
+    }
+
+    /**
+     * Formats the queueing statistics as plain text, one line per class.
+     * @return The report.
+     */
+    public String formatReport() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Priority, ClassStats> entry : stats.entrySet()) {
+            ClassStats s = entry.getValue();
+            sb.append(entry.getKey().name().toLowerCase(Locale.US))
+                    .append(" (limit ").append(limits.get(entry.getKey())).append("): started ").append(s.getStartedCount())
+                    .append(", cancelled in queue ").append(s.getCancelledInQueueCount())
+                    .append(", queued now ").append(getQueuedCount(entry.getKey()))
+                    .append("\n  queue delay (ms): ").append(s.getQueueDelayMs()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private void enqueue(ScheduledCall call) {
+        List<ScheduledCall> ready;
+        synchronized (lock) {
+            call.enqueuedAtNanos = System.nanoTime();
+            queues.get(call.priority).add(call);
+            ready = promote();
+        }
+        startAll(ready);
+    }
+
+    private void finished(ScheduledCall call) {
+        List<ScheduledCall> ready;
+        synchronized (lock) {
+            inFlight.put(call.priority, inFlight.get(call.priority) - 1);
+            totalInFlight--;
+            ready = promote();
+        }
+        startAll(ready);
+    }
+
+    /**
+     * Removes a call that has not been started yet from its queue.
+     * @return true if the call was still queued.
+     */
+    private boolean removeQueued(ScheduledCall call) {
+        synchronized (lock) {
+            boolean removed = queues.get(call.priority).remove(call);
+            if (removed) {
+                stats.get(call.priority).cancelledInQueue.incrementAndGet();
+            }
+            lock.notifyAll();
+            return removed;
+        }
+    }
+
+    /**
+     * Moves queued calls into free slots, highest class first; prefetch and background
+     * calls do not take the slot reserved for interactive calls. Must hold the lock.
+     * Synchronous callers are woken here; asynchronous calls are returned for starting
+     * outside the lock.
+     */
+    private List<ScheduledCall> promote() {
+        List<ScheduledCall> ready = null;
+        long now = System.nanoTime();
+        boolean wakeWaiters = false;
+        for (Priority priority : Priority.values()) {
+            ArrayDeque<ScheduledCall> queue = queues.get(priority);
+            int limit = limits.get(priority);
+            int totalLimit = priority == Priority.INTERACTIVE ? maxInFlight : maxInFlight - interactiveReserve;
+            while (!queue.isEmpty() && totalInFlight < totalLimit && inFlight.get(priority) < limit) {
+                ScheduledCall call = queue.poll();
+                inFlight.put(priority, inFlight.get(priority) + 1);
+                totalInFlight++;
+                ClassStats classStats = stats.get(priority);
+                classStats.started.incrementAndGet();
+                classStats.queueDelayMs.record(TimeUnit.NANOSECONDS.toMillis(now - call.enqueuedAtNanos));
+                call.admitted = true;
+                if (call.callback == null) {
+                    wakeWaiters = true;
+                } else {
+                    if (ready == null) {
+                        ready = new ArrayList<>();
+                    }
+                    ready.add(call);
+                }
+            }
+        }
+        if (wakeWaiters) {
+            lock.notifyAll();
+        }
+        return ready;
+    }
+
+    private void startAll(List<ScheduledCall> ready) {
+        if (ready == null) {
+            return;
+        }
+        for (ScheduledCall call : ready) {
+            call.start();
+        }
+    }
+
+    /**
+     * A Call that waits for a slot of its class before it is passed to OkHttp.
+     */
+    static final class ScheduledCall implements Call {
+        private final RequestScheduler scheduler;
+        private final Call delegate;
+        final Priority priority;
+        private final AtomicBoolean executed = new AtomicBoolean();
+        private volatile boolean canceled;
+        volatile Callback callback;
+        long enqueuedAtNanos;
+        boolean admitted;
+
+        ScheduledCall(RequestScheduler scheduler, Call delegate, Priority priority) {
+            this.scheduler = scheduler;
+            this.delegate = delegate;
+            this.priority = priority;
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @NonNull
+        @Override
+        public Response execute() throws IOException {
+            if (!executed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Already Executed");
+            }
+            scheduler.enqueue(this);
+            boolean interrupted = false;
+            synchronized (scheduler.lock) {
+                while (!admitted && !canceled && !interrupted) {
+                    try {
+                        scheduler.lock.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+                cancel();
+                boolean holdsSlot;
+                synchronized (scheduler.lock) {
+                    // The call may have been admitted right as the wait was interrupted.
+                    holdsSlot = admitted;
+                }
+                if (holdsSlot) {
+                    scheduler.finished(this);
+                }
+                throw new InterruptedIOException("Interrupted while queued");
+            }
+            if (!admitted) {
+                throw new IOException("Canceled");
+            }
+            try {
+                return delegate.execute();
+            } finally {
+                scheduler.finished(this);
+            }
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback responseCallback) {
+            if (!executed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Already Executed");
+            }
+            callback = responseCallback;
+            scheduler.enqueue(this);
+        }
+
+        /**
+         * Hands the call to OkHttp once it has a slot. The slot is released before the
+         * caller's callback runs, so a slow callback does not hold up queued calls.
+         */
+        void start() {
+            final Callback responseCallback = callback;
+            delegate.enqueue(new Callback() {
+                @Override
+                public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                    scheduler.finished(ScheduledCall.this);
+                    responseCallback.onFailure(ScheduledCall.this, e);
+                }
+
+                @Override
+                public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
+                    scheduler.finished(ScheduledCall.this);
+                    responseCallback.onResponse(ScheduledCall.this, response);
+                }
+            });
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            boolean wasQueued = scheduler.removeQueued(this);
+            delegate.cancel();
+            Callback responseCallback = callback;
+            if (wasQueued && responseCallback != null) {
+                responseCallback.onFailure(this, new IOException("Canceled"));
+            }
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed.get();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled || delegate.isCanceled();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return delegate.timeout();
+        }
+
+        @NonNull
+        @Override
+        public Call clone() {
+            return new ScheduledCall(scheduler, delegate.clone(), priority);
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package com.example.smartfeederapp;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Timeout;
+
+/**
+ * Call.Factory for the API client that retries transient failures and consults a
+ * CircuitBreaker before every attempt.
+ * Connection failures and 502/503/504 responses are retried with exponential backoff
+ * and full jitter; 429 and 503 honour a Retry-After header given in seconds. A read timeout
+ * is not retried: the server is reachable but slow, and retrying would only multiply the wait.
+ * Only idempotent requests are retried (GET, HEAD, OPTIONS, PUT, DELETE, or any request
+ * that carries an Idempotency-Key header). Only failures to connect and 502/503/504
+ * responses count toward the CircuitBreaker; while it is open, requests fail
+ * immediately with a {@link CircuitOpenException}.
+ * Every attempt is a new call from the wrapped factory, so it is queued by the
+ * RequestScheduler like any other call. Between the attempts of an enqueued call no
+ * thread waits: the next attempt is scheduled on a timer and OkHttp's dispatcher threads
+ * stay free for other requests. Only a synchronous execute() sleeps, on the caller's thread.
+ */
+public class RetryingCallFactory implements Call.Factory {
+
+    private static final String TAG = "RetryingCallFactory";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final Delays DEFAULT_DELAYS = new TimerDelays();
+
+    private final Call.Factory delegate;
+    private final Policy policy;
+    private final CircuitBreaker circuitBreaker;
+    private final Random random;
+    private final Delays delays;
+
+    /**
+     * Retry settings. Defaults allow three retries within roughly five seconds.
+     */
+    public static class Policy {
+        int maxRetries = 3;
+        long baseDelayMs = 250;
+        long maxDelayMs = 4000;
+
+        public Policy setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        public Policy setBaseDelayMs(long baseDelayMs) {
+            this.baseDelayMs = baseDelayMs;
+            return this;
+        }
+
+        public Policy setMaxDelayMs(long maxDelayMs) {
+            this.maxDelayMs = maxDelayMs;
+            return this;
+        }
+    }
+
+    /**
+     * Waits between attempts. Replaced in tests.
+     */
+    interface Delays {
+        /**
+         * Blocks the calling thread; used by execute().
+         */
+        void sleep(long millis) throws InterruptedException;
+
+        /**
+         * Runs a task after a delay without blocking the calling thread; used by enqueue().
+         */
+        void schedule(Runnable task, long delayMs);
+    }
+
+    /**
+     * Delays backed by one shared timer thread. The scheduled tasks only enqueue the
+     * next attempt, so a single thread serves all retrying calls.
+     */
+    private static final class TimerDelays implements Delays {
+        private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "ApiRetryTimer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        @Override
+        public void sleep(long millis) throws InterruptedException {
+            Thread.sleep(millis);
+        }
+
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            timer.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Thrown when a request is rejected because the circuit breaker is open.
+     */
+    public static class CircuitOpenException extends IOException {
+        private final long retryAfterMillis;
+
+        public CircuitOpenException(long retryAfterMillis) {
+            super("Server unreachable, retrying in " + ((retryAfterMillis + 999) / 1000) + " s");
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        /**
+         * @return Milliseconds until the breaker admits a trial request.
+         */
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+
+    /**
+     * Constructor for RetryingCallFactory.
+     * @param delegate The factory that creates the call of each attempt.
+     * @param policy The retry settings.
+     * @param circuitBreaker The breaker shared by all requests to the server.
+     */
+    public RetryingCallFactory(Call.Factory delegate, Policy policy, CircuitBreaker circuitBreaker) {
+        this(delegate, policy, circuitBreaker, new Random(), DEFAULT_DELAYS);
+    }
+
+    RetryingCallFactory(Call.Factory delegate, Policy policy, CircuitBreaker circuitBreaker, Random random, Delays delays) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.circuitBreaker = circuitBreaker;
+        this.random = random;
+        this.delays = delays;
+    }
+
+    @NonNull
+    @Override
+    public Call newCall(@NonNull Request request) {
+        return new RetryingCall(request);
+    }
+
+    /**
+     * Computes the backoff for the given attempt: a random value between zero and
+     * {@code min(maxDelay, baseDelay * 2^attempt)}.
+     * @param attempt The zero-based number of the retry.
+     * @return The delay in milliseconds.
+     */
+    long computeDelay(int attempt) {
+        long cap = policy.maxDelayMs;
+        if (attempt < 31) {
+            cap = Math.min(cap, policy.baseDelayMs << attempt);
+        }
+        return (long) (random.nextDouble() * cap);
+    }
+
+    /**
+     * Checks whether the request may be sent more than once.
+     * @param request The request.
+     * @return true for idempotent methods or requests with an Idempotency-Key header.
+     */
+    static boolean isIdempotent(Request request) {
+        switch (request.method()) {
+            case "GET":
+            case "HEAD":
+            case "OPTIONS":
+            case "PUT":
+            case "DELETE":
+                return true;
+            default:
+                return request.header(IDEMPOTENCY_KEY_HEADER) != null;
+        }
+    }
+
+    /**
+     * Checks whether a failure happened before a connection to the server was made, which
+     * says the server is unreachable rather than slow.
+     * @param e The failure of an attempt.
+     * @return true for refused connections, unreachable or unknown hosts and connect timeouts.
+     */
+    static boolean isConnectFailure(IOException e) {
+        if (e instanceof SocketTimeoutException) {
+            String message = e.getMessage();
+            return message != null && message.toLowerCase(Locale.ROOT).contains("connect");
+        }
+        return e instanceof ConnectException || e instanceof NoRouteToHostException || e instanceof UnknownHostException;
+    }
+
+    /**
+     * @param e The failure of an attempt.
+     * @return true if the attempt timed out after the connection was made.
+     */
+    static boolean isReadTimeout(IOException e) {
+        return e instanceof InterruptedIOException && !isConnectFailure(e);
+    }
+
+    private static boolean isServerUnavailable(int code) {
+        return code == 502 || code == 503 || code == 504;
+    }
+
+    private static boolean isRetryableStatus(int code) {
+        return code == 429 || isServerUnavailable(code);
+    }
+
+    /**
+     * Parses a Retry-After header given in seconds.
+     * @param value The header value, may be null.
+     * @return The delay in milliseconds, or -1 if absent or not a number of seconds.
+     */
+    static long parseRetryAfterMillis(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            long seconds = Long.parseLong(value.trim());
+            return seconds >= 0 ? seconds * 1000 : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A Call that makes up to {@code maxRetries + 1} attempts. Attempts run one at a time,
+     * each on a new call from the wrapped factory.
+     */
+    private final class RetryingCall implements Call {
+        private final Request request;
+        private final boolean retryable;
+        private final AtomicBoolean executed = new AtomicBoolean();
+        private volatile boolean canceled;
+        private volatile Call current;
+        private int attempt = 0;
+
+        RetryingCall(Request request) {
+            this.request = request;
+            this.retryable = isIdempotent(request);
+        }
+
+        /**
+         * Creates the call of the next attempt, or throws if the breaker is open or the call
+         * was canceled while it waited.
+         */
+        private Call nextAttempt() throws IOException {
+            if (canceled) {
+                throw new IOException("Canceled");
+            }
+            if (!circuitBreaker.allowRequest()) {
+                throw new CircuitOpenException(circuitBreaker.getRetryAfterMillis());
+            }
+            Call call = delegate.newCall(request);
+            current = call;
+            if (canceled) {
+                call.cancel();
+            }
+            return call;
+        }
+
+        /**
+         * Records a failed attempt.
+         * @return The delay before the next attempt.
+         * @throws IOException The failure, if it is not retried.
+         */
+        private long onAttemptFailed(Call call, IOException e) throws IOException {
+            if (canceled || call.isCanceled()) {
+                circuitBreaker.onAbandoned();
+                throw e;
+            }
+            if (isConnectFailure(e)) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onAbandoned();
+            }
+            if (!retryable || attempt >= policy.maxRetries || isReadTimeout(e)) {
+                throw e;
+            }
+            Log.d(TAG, request.method() + " " + request.url().encodedPath() + " failed (" + e.getMessage() + "), retry " + (attempt + 1));
+            return computeDelay(attempt++);
+        }
+
+        /**
+         * Records a response. A response that is retried is closed.
+         * @return The delay before the next attempt, or -1 if the response is final.
+         */
+        private long onAttemptResponse(Response response) {
+            int code = response.code();
+            if (isServerUnavailable(code)) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            if (!isRetryableStatus(code) || !retryable || attempt >= policy.maxRetries || canceled) {
+                return -1;
+            }
+            long retryAfter = parseRetryAfterMillis(response.header("Retry-After"));
+            long delay = retryAfter >= 0 ? Math.min(retryAfter, policy.maxDelayMs) : computeDelay(attempt);
+            response.close();
+            Log.d(TAG, request.method() + " " + request.url().encodedPath() + " returned " + code + ", retry " + (attempt + 1));
+            attempt++;
+            return delay;
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @NonNull
+        @Override
+        public Response execute() throws IOException {
+            if (!executed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Already Executed");
+            }
+            while (true) {
+                Call call = nextAttempt();
+                long delay;
+                try {
+                    Response response = call.execute();
+                    delay = onAttemptResponse(response);
+                    if (delay < 0) {
+                        return response;
+                    }
+                } catch (IOException e) {
+                    delay = onAttemptFailed(call, e);
+                }
+                try {
+                    delays.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting to retry (attempt " + attempt + ")");
+                }
+            }
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback responseCallback) {
+            if (!executed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Already Executed");
+            }
+            enqueueAttempt(responseCallback);
+        }
+
+        private void enqueueAttempt(Callback responseCallback) {
+            Call call;
+            try {
+                call = nextAttempt();
+            } catch (IOException e) {
+                responseCallback.onFailure(this, e);
+                return;
+            }
+            call.enqueue(new Callback() {
+                @Override
+                public void onFailure(@NonNull Call failed, @NonNull IOException e) {
+                    long delay;
+                    try {
+                        delay = onAttemptFailed(failed, e);
+                    } catch (IOException failure) {
+                        responseCallback.onFailure(RetryingCall.this, failure);
+                        return;
+                    }
+                    delays.schedule(() -> enqueueAttempt(responseCallback), delay);
+                }
+
+                @Override
+                public void onResponse(@NonNull Call answered, @NonNull Response response) throws IOException {
+                    long delay = onAttemptResponse(response);
+                    if (delay < 0) {
+                        responseCallback.onResponse(RetryingCall.this, response);
+                        return;
+                    }
+                    delays.schedule(() -> enqueueAttempt(responseCallback), delay);
+                }
+            });
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            Call call = current;
+            if (call != null) {
+                call.cancel();
+            }
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed.get();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            Call call = current;
+            return call != null ? call.timeout() : Timeout.NONE;
+        }
+
+        @NonNull
+        @Override
+        public Call clone() {
+            return new RetryingCall(request);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.smartfeederapp;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.view.Gravity;
+import android.view.View;
+import android.widget.PopupWindow;
+
+/**
+ * Floating scrub preview for a row of the video list. While the user holds a row after a
+ * long-press and moves the finger across it, the preview follows the finger above the row
+ * and shows the frame at that fraction of the recording.
+ * One popup is shared by all rows of a list, as only one row can be scrubbed at a time.
+ * Must be used on the main thread.
+ */
+final class ScrubPreviewPopup implements SpriteSheetLoader.Callback {
+
+    private final SpriteSheetLoader loader;
+    private final ScrubPreviewView previewView;
+    private final PopupWindow popup;
+    private final int width;
+    private final int height;
+    private final int margin;
+    private final int[] location = new int[2];
+    private View anchor;
+    private String url;
+    private float fraction;
+
+    /**
+     * Constructor for ScrubPreviewPopup.
+     * @param context The context of the list.
+     * @param loader The loader of the sprite sheets.
+     */
+    ScrubPreviewPopup(Context context, SpriteSheetLoader loader) {
+        this.loader = loader;
+        Resources resources = context.getResources();
+        width = resources.getDimensionPixelSize(R.dimen.scrub_preview_width);
+        height = resources.getDimensionPixelSize(R.dimen.scrub_preview_height);
+        margin = resources.getDimensionPixelSize(R.dimen.scrub_preview_margin);
+        previewView = new ScrubPreviewView(context);
+        popup = new PopupWindow(previewView, width, height, false);
+        popup.setTouchable(false);
+        popup.setElevation(margin);
+    }
+
+    /**
+     * Shows the preview of a recording above its row, loading the sprite sheet if needed.
+     * @param anchor The row.
+     * @param url The video URL.
+     * @param fraction The position of the finger across the row, from 0 to 1.
+     */
+    void show(View anchor, String url, float fraction) {
+        dismiss();
+        this.anchor = anchor;
+        this.url = url;
+        this.fraction = clamp(fraction);
+        SpriteSheet sheet = loader.get(url);
+        previewView.setSpriteSheet(sheet);
+        if (sheet == null) {
+            loader.load(url, this);
+        } else {
+            previewView.showFraction(this.fraction);
+        }
+        anchor.getLocationInWindow(location);
+        popup.showAtLocation(anchor, Gravity.NO_GRAVITY, x(), y());
+    }
+
+    /**
+     * Moves the preview along the row and shows the frame at the new position.
+     * @param fraction The position of the finger across the row, from 0 to 1.
+     */
+    void moveTo(float fraction) {
+        if (anchor == null) {
+            return;
+        }
+        this.fraction = clamp(fraction);
+        previewView.showFraction(this.fraction);
+        popup.update(x(), y(), -1, -1);
+    }
+
+    /**
+     * Hides the preview and withdraws the request for a sheet still loading.
+     */
+    void dismiss() {
+        if (url != null) {
+            loader.cancel(url, this);
+        }
+        anchor = null;
+        url = null;
+        previewView.setSpriteSheet(null);
+        popup.dismiss();
+    }
+
+    /**
+     * @return true while the preview is shown.
+     */
+    boolean isShowing() {
+        return anchor != null;
+    }
+
+    @Override
+    public void onSpriteSheetLoaded(String url, SpriteSheet sheet) {
+        if (url.equals(this.url)) {
+            previewView.setSpriteSheet(sheet);
+            previewView.showFraction(fraction);
+        }
+    }
+
+    private int x() {
+        return location[0] + Math.round(fraction * Math.max(0, anchor.getWidth() - width));
+    }
+
+    private int y() {
+        int above = location[1] - height - margin;
+        return above >= 0 ? above : location[1] + anchor.getHeight() + margin;
+    }
+
+    private static float clamp(float fraction) {
+        return Math.max(0f, Math.min(1f, fraction));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.smartfeederapp;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+/**
+ * View that shows one frame of a sprite sheet with the time it was taken at, as the
+ * preview of a scrub position. Moving the preview only changes which part of the sheet is
+ * drawn: nothing is decoded or allocated per frame, so scrubbing keeps up with the display.
+ * Shows a plain color while the sheet is not loaded yet.
+ */
+public class ScrubPreviewView extends View {
+
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint placeholderPaint = new Paint();
+    private final Paint labelBackgroundPaint = new Paint();
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Rect source = new Rect();
+    private final Rect destination = new Rect();
+    private final char[] label = new char[16];
+    private SpriteSheet sheet;
+    private int frame = -1;
+    private int labelLength;
+
+    public ScrubPreviewView(Context context) {
+        this(context, null);
+    }
+
+    public ScrubPreviewView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        placeholderPaint.setColor(ContextCompat.getColor(context, R.color.video_thumbnail_placeholder));
+        labelBackgroundPaint.setColor(ContextCompat.getColor(context, R.color.scrub_preview_label_background));
+        labelPaint.setColor(Color.WHITE);
+        labelPaint.setTextAlign(Paint.Align.CENTER);
+        labelPaint.setTextSize(getResources().getDimension(R.dimen.scrub_preview_text_size));
+    }
+
+    /**
+     * Sets the sheet to show frames of, or null to show the placeholder color.
+     * @param sheet The sprite sheet.
+     */
+    public void setSpriteSheet(SpriteSheet sheet) {
+        if (this.sheet != sheet) {
+            this.sheet = sheet;
+            frame = -1;
+            invalidate();
+        }
+    }
+
+    public SpriteSheet getSpriteSheet() {
+        return sheet;
+    }
+
+    /**
+     * Shows a frame of the sheet. Does nothing while there is no sheet.
+     * @param frame The frame index.
+     */
+    public void showFrame(int frame) {
+        if (sheet == null || frame == this.frame) {
+            return;
+        }
+        this.frame = frame;
+        labelLength = formatTime(sheet.positionOf(frame), label);
+        invalidate();
+    }
+
+    /**
+     * Shows the frame for a playback position.
+     * @param positionMs The position, in milliseconds.
+     */
+    public void showPosition(long positionMs) {
+        if (sheet != null) {
+            showFrame(sheet.frameAt(positionMs));
+        }
+    }
+
+    /**
+     * Shows the frame for a position given as a fraction of the recording.
+     * @param fraction The position, from 0 to 1.
+     */
+    public void showFraction(float fraction) {
+        if (sheet != null) {
+            showFrame(sheet.frameAtFraction(fraction));
+        }
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        destination.set(0, 0, getWidth(), getHeight());
+        Bitmap bitmap = sheet != null ? sheet.getBitmap() : null;
+        if (bitmap == null || bitmap.isRecycled() || frame < 0) {
+            canvas.drawRect(destination, placeholderPaint);
+            return;
+        }
+        int left = sheet.frameLeft(frame);
+        int top = sheet.frameTop(frame);
+        source.set(left, top, left + sheet.getFrameWidth(), top + sheet.getFrameHeight());
+        canvas.drawBitmap(bitmap, source, destination, bitmapPaint);
+
+        float textSize = labelPaint.getTextSize();
+        float labelTop = getHeight() - textSize * 1.5f;
+        canvas.drawRect(0, labelTop, getWidth(), getHeight(), labelBackgroundPaint);
+        canvas.drawText(label, 0, labelLength, getWidth() / 2f, getHeight() - textSize * 0.4f, labelPaint);
+    }
+
+    /**
+     * Formats a position as "m:ss", or "h:mm:ss" from an hour on, into a buffer.
+     * @param positionMs The position, in milliseconds.
+     * @param out The buffer, at least 12 characters long.
+     * @return The number of characters written.
+     */
+    static int formatTime(long positionMs, char[] out) {
+        long seconds = Math.max(0, positionMs / 1000);
+        long hours = seconds / 3600;
+        long minutes = (seconds / 60) % 60;
+        int length = 0;
+        if (hours > 0) {
+            length = appendNumber(hours, 1, out, length);
+            out[length++] = ':';
+            length = appendNumber(minutes, 2, out, length);
+        } else {
+            length = appendNumber(minutes, 1, out, length);
+        }
+        out[length++] = ':';
+        return appendNumber(seconds % 60, 2, out, length);
+    }
+
+    private static int appendNumber(long value, int minDigits, char[] out, int offset) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        digits = Math.max(digits, minDigits);
+        for (int i = digits - 1; i >= 0; i--) {
+            out[offset + i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + digits;
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.smartfeederapp;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.text.TextUtils;
 import android.util.Log;
 import android.view.View;
 import android.widget.Button;
+import android.widget.CheckBox;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -36,6 +38,8 @@ public class SettingsActivity extends AppCompatActivity {
     private TextView tvStatus;
     private Button btnDisconnectSettings;
     private Button btnGoToMain;
+    private Button btnDebugStats;
+    private CheckBox cbH2c;
     private SettingsManager settingsManager;
     private ConnectionManager connectionManager;
 
@@ -62,6 +66,8 @@ public class SettingsActivity extends AppCompatActivity {
         tvStatus = findViewById(R.id.tvStatusSettings);
         btnDisconnectSettings = findViewById(R.id.btnDisconnectSettings);
         btnGoToMain = findViewById(R.id.btnGoToMain);
+        btnDebugStats = findViewById(R.id.btnDebugStats);
+        cbH2c = findViewById(R.id.cbH2cSettings);
 
         settingsManager = SettingsManager.getInstance(this);
         connectionManager = ConnectionManager.getInstance(getApplicationContext());
@@ -71,6 +77,7 @@ public class SettingsActivity extends AppCompatActivity {
 
         btnConnectAndSave.setOnClickListener(v -> getIdAndSave());
         btnGoToMain.setOnClickListener(v -> finish());
+        btnDebugStats.setOnClickListener(v -> startActivity(new Intent(this, DebugStatsActivity.class)));
 
         btnDisconnectSettings.setOnClickListener(v -> {
             Log.d(TAG, "Disconnect button clicked");
@@ -88,12 +95,14 @@ public class SettingsActivity extends AppCompatActivity {
     }
 
     /**
-     * Loads the server address and client ID from SettingsManager and populates the input fields.
+     * Loads the server address, its protocol mode and the client ID from SettingsManager
+     * and populates the input fields.
      * Uses default server address if none is saved.
      */
     private void loadSettings() {
         String savedAddress = settingsManager.getServerAddress();
         etServerAddress.setText(savedAddress != null ? savedAddress : DEFAULT_SERVER_ADDRESS);
+        cbH2c.setChecked(settingsManager.isH2cPriorKnowledgeEnabled(savedAddress));
         etClientId.setText(settingsManager.getClientId());
     }
 
@@ -142,7 +151,8 @@ public class SettingsActivity extends AppCompatActivity {
 
     /**
      * Initiates the process to obtain/update the client ID when the button is clicked.
-     * Saves the entered server address first, then calls ConnectionManager to get the client ID.
+     * Saves the entered server address and its protocol mode first and starts pre-warming connections to it,
+     * then calls ConnectionManager to get the client ID.
      * This method does NOT establish a persistent connection.
      */
     private void getIdAndSave() {
@@ -153,8 +163,11 @@ public class SettingsActivity extends AppCompatActivity {
             return;
         }
 
+        boolean h2c = cbH2c.isChecked();
+        settingsManager.setH2cPriorKnowledgeEnabled(serverAddress, h2c);
         settingsManager.saveServerAddress(serverAddress);
-        Log.d(TAG, "Server address saved: " + serverAddress);
+        Log.d(TAG, "Server address saved: " + serverAddress + (h2c ? " (h2c)" : ""));
+        ConnectionPrewarmer.getInstance(this).prewarm(serverAddress, h2c);
 
         connectionManager.getClientIdFromServer(serverAddress, new ConnectionManager.ConnectionCallback() {
             @Override
@@ -3,18 +3,52 @@ package com.example.smartfeederapp;
 import android.content.Context;
 import android.content.SharedPreferences;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import okhttp3.HttpUrl;
+
 /**
  * Manages persistent storage of application settings (server address, client ID)
  * using SharedPreferences. Implemented as a Singleton.
+ * Components that cache something derived from the server address register a
+ * ServerAddressListener instead of reading the preference on every use.
  */
 public class SettingsManager {
 
     private static final String PREFS_NAME = "AppPrefs";
     private static final String KEY_SERVER_ADDRESS = "server_address";
     private static final String KEY_CLIENT_ID = "client_id";
+    private static final String KEY_H2C_PREFIX = "h2c_prior_knowledge:";
+    private static final String KEY_CAPABILITY_SUFFIX = "_supported:";
 
     private static volatile SettingsManager instance;
     private final SharedPreferences sharedPreferences;
+    private final List<ServerAddressListener> serverAddressListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Kept in a field because SharedPreferences only holds its listeners weakly.
+     */
+    private final SharedPreferences.OnSharedPreferenceChangeListener preferenceChangeListener = (prefs, key) -> {
+        if (key == null || KEY_SERVER_ADDRESS.equals(key) || key.startsWith(KEY_H2C_PREFIX)) {
+            String address = getServerAddress();
+            for (ServerAddressListener listener : serverAddressListeners) {
+                listener.onServerAddressChanged(address);
+            }
+        }
+    };
+
+    /**
+     * Interface for receiving changes of the saved server address.
+     */
+    public interface ServerAddressListener {
+        /**
+         * Called on the main thread after the server address was saved or cleared, or the
+         * protocol settings of a server changed.
+         * @param address The new server address, or null if it was cleared.
+         */
+        void onServerAddressChanged(String address);
+    }
 
     /**
      * Private constructor for Singleton pattern.
@@ -22,6 +56,7 @@ public class SettingsManager {
      */
     private SettingsManager(Context context) {
         sharedPreferences = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        sharedPreferences.registerOnSharedPreferenceChangeListener(preferenceChangeListener);
     }
 
     /**
@@ -56,6 +91,100 @@ public class SettingsManager {
         return sharedPreferences.getString(KEY_SERVER_ADDRESS, null);
     }
 
+    /**
+     * Saves whether requests to the given server use HTTP/2 cleartext with prior knowledge (h2c).
+     * The setting is stored per server address, so each server keeps its own mode.
+     * @param address The server address ("ip:port").
+     * @param enabled true to use h2c, false for HTTP/1.1.
+     */
+    public void setH2cPriorKnowledgeEnabled(String address, boolean enabled) {
+        sharedPreferences.edit().putBoolean(KEY_H2C_PREFIX + address, enabled).apply();
+    }
+
+    /**
+     * Checks whether h2c is enabled for the given server. Defaults to false.
+     * @param address The server address ("ip:port"), may be null.
+     * @return true if requests to the server should use h2c.
+     */
+    public boolean isH2cPriorKnowledgeEnabled(String address) {
+        return address != null && sharedPreferences.getBoolean(KEY_H2C_PREFIX + address, false);
+    }
+
+    /**
+     * Checks whether h2c is enabled for the currently saved server.
+     * @return true if requests to the saved server should use h2c.
+     */
+    public boolean isH2cPriorKnowledgeEnabled() {
+        return isH2cPriorKnowledgeEnabled(getServerAddress());
+    }
+
+    /**
+     * Normalizes a server address to the "host:port" form of the URLs sent to it, so that
+     * a capability recorded from a response is found again under the address typed in
+     * Settings, which may lack the port or use uppercase letters.
+     * @param address The server address, not null.
+     * @return The lowercase host and the port, or the address itself if it is not a valid host.
+     */
+    static String serverKey(String address) {
+        HttpUrl url = HttpUrl.parse("http://" + address.trim());
+        return url != null ? url.host() + ":" + url.port() : address;
+    }
+
+    /**
+     * Records whether the given server advertised a capability, under the key
+     * "<capability>_supported:<host:port>".
+     * Only writes the preference if the value changed, so it can be called for every response.
+     * @param address The server address ("host" or "host:port").
+     * @param capability The capability, one of ApiClient's CAPABILITY_ constants.
+     * @param supported true if the server offers it.
+     */
+    public void setCapabilitySupported(String address, String capability, boolean supported) {
+        if (address == null || isCapabilitySupported(address, capability) == supported) {
+            return;
+        }
+        sharedPreferences.edit().putBoolean(capabilityKey(address, capability), supported).apply();
+    }
+
+    /**
+     * Checks whether the given server is known to offer a capability. Defaults to false
+     * until the server has advertised it, so callers fall back to what every server offers.
+     * @param address The server address ("host" or "host:port"), may be null.
+     * @param capability The capability, one of ApiClient's CAPABILITY_ constants.
+     * @return true if the server advertised the capability.
+     */
+    public boolean isCapabilitySupported(String address, String capability) {
+        return address != null && sharedPreferences.getBoolean(capabilityKey(address, capability), false);
+    }
+
+    /**
+     * Checks whether the currently saved server is known to offer a capability.
+     * @param capability The capability, one of ApiClient's CAPABILITY_ constants.
+     * @return true if the saved server advertised the capability.
+     */
+    public boolean isCapabilitySupported(String capability) {
+        return isCapabilitySupported(getServerAddress(), capability);
+    }
+
+    private static String capabilityKey(String address, String capability) {
+        return capability + KEY_CAPABILITY_SUFFIX + serverKey(address);
+    }
+
+    /**
+     * Registers a listener for changes of the server address.
+     * @param listener The listener to add.
+     */
+    public void addServerAddressListener(ServerAddressListener listener) {
+        serverAddressListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener added with {@link #addServerAddressListener(ServerAddressListener)}.
+     * @param listener The listener to remove.
+     */
+    public void removeServerAddressListener(ServerAddressListener listener) {
+        serverAddressListeners.remove(listener);
+    }
+
     /**
      * Saves the client ID to SharedPreferences.
      * @param clientId The client ID string, or null to clear it.
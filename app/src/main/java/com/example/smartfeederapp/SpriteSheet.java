@@ -0,0 +1,112 @@
+package com.example.smartfeederapp;
+
+import android.graphics.Bitmap;
+
+/**
+ * A sprite sheet of a recording: one bitmap holding low-resolution frames taken at a
+ * fixed interval, laid out row by row in a grid. Used to show a scrub preview without
+ * decoding the video. Immutable; the bitmap must not be modified once the sheet is built.
+ */
+public final class SpriteSheet {
+
+    private final Bitmap bitmap;
+    private final int columns;
+    private final int frameWidth;
+    private final int frameHeight;
+    private final int frameCount;
+    private final long intervalMs;
+
+    /**
+     * Constructor for SpriteSheet.
+     * @param bitmap The decoded sheet.
+     * @param columns The number of frames per row of the grid.
+     * @param frameWidth The width of one frame in the bitmap, in pixels.
+     * @param frameHeight The height of one frame in the bitmap, in pixels.
+     * @param frameCount The number of frames; the last row of the grid may be incomplete.
+     * @param intervalMs The time between two frames, in milliseconds.
+     */
+    public SpriteSheet(Bitmap bitmap, int columns, int frameWidth, int frameHeight, int frameCount, long intervalMs) {
+        this.bitmap = bitmap;
+        this.columns = columns;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+        this.frameCount = frameCount;
+        this.intervalMs = intervalMs;
+    }
+
+    public Bitmap getBitmap() {
+        return bitmap;
+    }
+
+    public int getFrameWidth() {
+        return frameWidth;
+    }
+
+    public int getFrameHeight() {
+        return frameHeight;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    /**
+     * @return The memory held by the bitmap, in bytes.
+     */
+    public int getByteCount() {
+        return bitmap != null ? bitmap.getAllocationByteCount() : 0;
+    }
+
+    /**
+     * Finds the frame to show for a playback position: the last frame taken at or before it.
+     * @param positionMs The position, in milliseconds.
+     * @return The frame index.
+     */
+    public int frameAt(long positionMs) {
+        if (positionMs <= 0 || intervalMs <= 0) {
+            return 0;
+        }
+        return (int) Math.min(frameCount - 1, positionMs / intervalMs);
+    }
+
+    /**
+     * Finds the frame to show for a position given as a fraction of the recording,
+     * e.g. of the width of a row the finger is moved across.
+     * @param fraction The position, from 0 to 1; values outside are clamped.
+     * @return The frame index.
+     */
+    public int frameAtFraction(float fraction) {
+        if (fraction <= 0) {
+            return 0;
+        }
+        return Math.min(frameCount - 1, (int) (fraction * frameCount));
+    }
+
+    /**
+     * @param frame The frame index.
+     * @return The playback position the frame was taken at, in milliseconds.
+     */
+    public long positionOf(int frame) {
+        return frame * intervalMs;
+    }
+
+    /**
+     * @param frame The frame index.
+     * @return The x coordinate of the frame's left edge in the bitmap.
+     */
+    public int frameLeft(int frame) {
+        return (frame % columns) * frameWidth;
+    }
+
+    /**
+     * @param frame The frame index.
+     * @return The y coordinate of the frame's top edge in the bitmap.
+     */
+    public int frameTop(int frame) {
+        return (frame / columns) * frameHeight;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.smartfeederapp;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory LRU cache of decoded sprite sheets, bounded by the bytes their bitmaps hold.
+ * Kept apart from the thumbnail cache: a sheet is many times the size of a thumbnail, and
+ * a few sheets must not push out the thumbnails of the whole visible list.
+ * Evicted sheets are not recycled, as a preview may still be drawing one; they are left to
+ * the garbage collector. Thread-safe.
+ */
+public class SpriteSheetCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, SpriteSheet> sheets = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes;
+    private int hits;
+    private int misses;
+
+    /**
+     * Constructor for SpriteSheetCache.
+     * @param maxBytes The maximum number of bytes the cached bitmaps may hold.
+     */
+    public SpriteSheetCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param key The video URL.
+     * @return The cached sheet, or null.
+     */
+    public synchronized SpriteSheet get(String key) {
+        SpriteSheet sheet = sheets.get(key);
+        if (sheet != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return sheet;
+    }
+
+    /**
+     * Adds a sheet, replacing the one cached for the same key, and evicts the least recently
+     * used sheets beyond the size limit. A sheet larger than the limit is not cached.
+     * @param key The video URL.
+     * @param sheet The sheet.
+     */
+    public synchronized void put(String key, SpriteSheet sheet) {
+        SpriteSheet previous = sheets.remove(key);
+        if (previous != null) {
+            sizeBytes -= previous.getByteCount();
+        }
+        if (sheet.getByteCount() > maxBytes) {
+            return;
+        }
+        sheets.put(key, sheet);
+        sizeBytes += sheet.getByteCount();
+        trimToSize(maxBytes);
+    }
+
+    /**
+     * Evicts the least recently used sheets until the cache holds at most the given size.
+     * @param bytes The size to trim to.
+     */
+    public synchronized void trimToSize(long bytes) {
+        Iterator<Map.Entry<String, SpriteSheet>> iterator = sheets.entrySet().iterator();
+        while (sizeBytes > bytes && iterator.hasNext()) {
+            sizeBytes -= iterator.next().getValue().getByteCount();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Evicts every sheet.
+     */
+    public synchronized void clear() {
+        trimToSize(0);
+    }
+
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public synchronized int getCount() {
+        return sheets.size();
+    }
+
+    /**
+     * @return A one-line summary of the cache, for the debug screen.
+     */
+    public synchronized String formatStats() {
+        return String.format(Locale.US, "%d sheets, %d KB of %d KB, %d hits, %d misses",
+                sheets.size(), sizeBytes / 1024, maxBytes / 1024, hits, misses);
+    }
+}
@@ -0,0 +1,438 @@
+package com.example.smartfeederapp;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.media.MediaMetadataRetriever;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.core.content.ContextCompat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Loads the sprite sheets shown as scrub previews of recordings.
+ * A sheet is looked up in memory, then on disk, and is otherwise fetched from the server's
+ * sprite endpoint if the server advertises the "sprites" capability, or else generated
+ * from the recording: keyframes at a fixed interval are extracted over range requests and
+ * drawn into a grid. On disk a sheet is a small header describing the grid followed by the
+ * JPEG image. Sheets are decoded downsampled to the preview size on a worker thread, so
+ * scrubbing only draws parts of a ready bitmap.
+ * The work runs on a single thread, as one sheet is usually wanted at a time and
+ * generating one is expensive.
+ * Implemented as a Singleton.
+ */
+public class SpriteSheetLoader extends RecordingMediaLoader<SpriteSheet, SpriteSheetLoader.Callback> {
+
+    private static final String TAG = "SpriteSheetLoader";
+    private static final String DISK_CACHE_DIR = "sprites";
+    private static final long DISK_CACHE_BYTES = 30L * 1024 * 1024;
+    private static final long MEMORY_CACHE_BYTES = 12L * 1024 * 1024;
+    private static final long MAX_GENERATION_BYTES = 24L * 1024 * 1024;
+    private static final int JPEG_QUALITY = 80;
+    private static final Bitmap.Config DECODE_CONFIG = Bitmap.Config.RGB_565;
+    static final int HEADER_MAGIC = 0x53505231; // "SPR1"
+    static final int HEADER_SIZE = 16;
+    static final int MAX_FRAMES = 30;
+    static final int COLUMNS = 6;
+    static final long MIN_INTERVAL_MS = 2000;
+    static final int GENERATED_FRAME_WIDTH = 256;
+    static final int GENERATED_FRAME_HEIGHT = 144;
+    static final String COLUMNS_HEADER = "X-Sprite-Columns";
+    static final String COUNT_HEADER = "X-Sprite-Count";
+    static final String INTERVAL_HEADER = "X-Sprite-Interval-Ms";
+    private static volatile SpriteSheetLoader instance;
+
+    /**
+     * Receives a sprite sheet requested with {@link #load(String, Callback)}.
+     */
+    public interface Callback {
+        /**
+         * Called on the main thread when the sheet is ready.
+         * @param url The video URL the sheet was requested for.
+         * @param sheet The sheet.
+         */
+        void onSpriteSheetLoaded(String url, SpriteSheet sheet);
+    }
+
+    /**
+     * The grid of an encoded sheet, read from its header.
+     */
+    static final class Header {
+        final int columns;
+        final int frameCount;
+        final long intervalMs;
+
+        Header(int columns, int frameCount, long intervalMs) {
+            this.columns = columns;
+            this.frameCount = frameCount;
+            this.intervalMs = intervalMs;
+        }
+    }
+
+    private final SpriteSheetCache memoryCache;
+    private final int frameWidth;
+    private final int frameHeight;
+
+    /**
+     * Constructor for SpriteSheetLoader. Package-private so tests can pass their own caches and executors.
+     * @param memoryCache The cache of decoded sheets.
+     * @param diskCache The cache of encoded sheets.
+     * @param settingsManager Where the server's sprite capability is recorded.
+     * @param callFactories Supplies the call factories for sprite and range requests.
+     * @param workExecutor Executor that reads, fetches, generates and decodes sheets.
+     * @param mainExecutor Executor that delivers sheets on the main thread.
+     * @param frameWidth The width of the preview a frame is shown in, in pixels.
+     * @param frameHeight The height of the preview a frame is shown in, in pixels.
+     */
+    SpriteSheetLoader(SpriteSheetCache memoryCache, ThumbnailDiskCache diskCache, SettingsManager settingsManager,
+                      CallFactoryProvider callFactories, Executor workExecutor, Executor mainExecutor,
+                      int frameWidth, int frameHeight) {
+        super(TAG, "sprite sheet", ApiClient.CAPABILITY_SPRITES, diskCache, settingsManager, callFactories,
+                workExecutor, mainExecutor);
+        this.memoryCache = memoryCache;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+    }
+
+    /**
+     * Gets the singleton instance of SpriteSheetLoader.
+     * @param context Application context.
+     * @return The singleton SpriteSheetLoader instance.
+     */
+    public static SpriteSheetLoader getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SpriteSheetLoader.class) {
+                if (instance == null) {
+                    Context appContext = context.getApplicationContext();
+                    HttpClientProvider provider = HttpClientProvider.getInstance(appContext);
+                    SettingsManager settingsManager = SettingsManager.getInstance(appContext);
+                    instance = new SpriteSheetLoader(
+                            new SpriteSheetCache(MEMORY_CACHE_BYTES),
+                            new ThumbnailDiskCache(new File(appContext.getCacheDir(), DISK_CACHE_DIR), DISK_CACHE_BYTES),
+                            settingsManager,
+                            serverCallFactories(provider, settingsManager),
+                            Executors.newSingleThreadExecutor(),
+                            ContextCompat.getMainExecutor(appContext),
+                            appContext.getResources().getDimensionPixelSize(R.dimen.scrub_preview_width),
+                            appContext.getResources().getDimensionPixelSize(R.dimen.scrub_preview_height));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns a sheet from the memory cache.
+     * @param url The video URL.
+     * @return The sheet, or null if it is not in memory.
+     */
+    public SpriteSheet get(String url) {
+        return url != null ? memoryCache.get(url) : null;
+    }
+
+    /**
+     * Loads a sheet that is not in memory and delivers it to the callback. A sheet that
+     * could not be loaded is not requested again for a minute.
+     * Must be called on the main thread.
+     * @param url The video URL.
+     * @param callback The callback to deliver the sheet to.
+     */
+    public void load(String url, Callback callback) {
+        join(url, callback);
+    }
+
+    /**
+     * Withdraws a callback's request, e.g. when the preview is closed.
+     * A job no callback waits for any more is skipped if it has not started yet.
+     * Must be called on the main thread.
+     * @param url The video URL.
+     * @param callback The callback that requested it.
+     */
+    public void cancel(String url, Callback callback) {
+        leave(url, callback);
+    }
+
+    /**
+     * @return A summary of the caches and of where sheets came from, for the debug screen.
+     */
+    public String formatStats() {
+        return "memory: " + memoryCache.formatStats() + "\n"
+                + "disk: " + diskCache.getCount() + " sheets, " + diskCache.getSizeBytes() / 1024 + " KB\n"
+                + "from server: " + downloadedCount + ", generated: " + fromRecordingCount + ", failed: " + failedCount() + "\n";
+    }
+
+    @Override
+    void remember(String url, SpriteSheet sheet) {
+        memoryCache.put(url, sheet);
+    }
+
+    @Override
+    void deliver(Callback callback, String url, SpriteSheet sheet) {
+        callback.onSpriteSheetLoaded(url, sheet);
+    }
+
+    @Override
+    void clearMemory() {
+        memoryCache.clear();
+    }
+
+    /**
+     * Fetches the server's sprite sheet of a recording. The grid is described by response
+     * headers and stored in front of the image.
+     * @return The encoded sheet, or null if the server has none for it.
+     */
+    @Override
+    byte[] download(Job<Callback> job, String address) throws IOException {
+        String url = spriteSheetUrl(job.url);
+        if (url == null) {
+            return null;
+        }
+        Request request = new Request.Builder()
+                .url(url)
+                .tag(RequestScheduler.Priority.class, priority(job))
+                .build();
+        try (Response response = callFactories.forServer(address).newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (response.code() == 404) {
+                return null;
+            }
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("HTTP " + response.code() + " for sprite sheet");
+            }
+            Header header = parseHeaders(response.header(COLUMNS_HEADER), response.header(COUNT_HEADER),
+                    response.header(INTERVAL_HEADER));
+            if (header == null) {
+                throw new IOException("Sprite sheet response without a valid grid description");
+            }
+            return encode(header, body.bytes());
+        }
+    }
+
+    /**
+     * Generates a sheet from the keyframes of a recording, read over range requests.
+     * Stops at the first frame that cannot be extracted and keeps the frames before it.
+     * @return The encoded sheet, or null if not even the first frame could be extracted.
+     */
+    @Override
+    byte[] fromRecording(Job<Callback> job, String address) throws IOException {
+        RangeMediaDataSource source = new RangeMediaDataSource(callFactories.forServer(address), job.url,
+                priority(job), MAX_GENERATION_BYTES);
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        Bitmap sheet = null;
+        try {
+            retriever.setDataSource(source);
+            String duration = retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION);
+            long durationMs = duration != null ? Long.parseLong(duration) : 0;
+            long intervalMs = intervalFor(durationMs);
+            int frameCount = frameCount(durationMs, intervalMs);
+            int columns = Math.min(COLUMNS, frameCount);
+            int rows = (frameCount + columns - 1) / columns;
+            sheet = Bitmap.createBitmap(columns * GENERATED_FRAME_WIDTH, rows * GENERATED_FRAME_HEIGHT, DECODE_CONFIG);
+            Canvas canvas = new Canvas(sheet);
+            Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+            Rect src = new Rect();
+            Rect dst = new Rect();
+            int extracted = 0;
+            while (extracted < frameCount && !job.cancelled) {
+                Bitmap frame = extractFrame(retriever, extracted * intervalMs * 1000);
+                if (frame == null) {
+                    break;
+                }
+                centerCrop(frame.getWidth(), frame.getHeight(), GENERATED_FRAME_WIDTH, GENERATED_FRAME_HEIGHT, src);
+                int left = (extracted % columns) * GENERATED_FRAME_WIDTH;
+                int top = (extracted / columns) * GENERATED_FRAME_HEIGHT;
+                dst.set(left, top, left + GENERATED_FRAME_WIDTH, top + GENERATED_FRAME_HEIGHT);
+                canvas.drawBitmap(frame, src, dst, paint);
+                frame.recycle();
+                extracted++;
+            }
+            if (extracted == 0 || job.cancelled) {
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            sheet.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+            Log.d(TAG, "Generated " + extracted + " frame sprite sheet of " + job.url + " from "
+                    + source.getFetchedBytes() / 1024 + " KB in " + source.getRequestCount() + " range requests");
+            return encode(new Header(columns, extracted, intervalMs), out.toByteArray());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unreadable recording: " + e.getMessage(), e);
+        } finally {
+            if (sheet != null) {
+                sheet.recycle();
+            }
+            releaseQuietly(retriever);
+            source.close();
+        }
+    }
+
+    private static Bitmap extractFrame(MediaMetadataRetriever retriever, long timeUs) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
+            return retriever.getScaledFrameAtTime(timeUs, MediaMetadataRetriever.OPTION_CLOSEST_SYNC,
+                    GENERATED_FRAME_WIDTH * 2, GENERATED_FRAME_HEIGHT * 2);
+        }
+        return retriever.getFrameAtTime(timeUs, MediaMetadataRetriever.OPTION_CLOSEST_SYNC);
+    }
+
+    /**
+     * Decodes an encoded sheet downsampled so each frame is still at least the preview size.
+     * @return The sheet, or null if the data is not a sheet.
+     */
+    @Override
+    SpriteSheet decode(byte[] data) {
+        Header header = readHeader(data);
+        if (header == null) {
+            return null;
+        }
+        int rows = (header.frameCount + header.columns - 1) / header.columns;
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, HEADER_SIZE, data.length - HEADER_SIZE, options);
+        if (options.outWidth < header.columns || options.outHeight < rows) {
+            return null;
+        }
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = ThumbnailLoader.calculateSampleSize(options.outWidth / header.columns,
+                options.outHeight / rows, frameWidth, frameHeight);
+        options.inPreferredConfig = DECODE_CONFIG;
+        Bitmap bitmap = BitmapFactory.decodeByteArray(data, HEADER_SIZE, data.length - HEADER_SIZE, options);
+        if (bitmap == null) {
+            return null;
+        }
+        return new SpriteSheet(bitmap, header.columns, bitmap.getWidth() / header.columns, bitmap.getHeight() / rows,
+                header.frameCount, header.intervalMs);
+    }
+
+    /**
+     * Prepends the grid description to an encoded image.
+     * @param header The grid.
+     * @param image The encoded image.
+     * @return The sheet as stored on disk.
+     */
+    static byte[] encode(Header header, byte[] image) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + image.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(HEADER_MAGIC);
+            out.writeShort(header.columns);
+            out.writeShort(header.frameCount);
+            out.writeLong(header.intervalMs);
+            out.write(image);
+        } catch (IOException e) {
+            // Cannot happen when writing to memory.
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads the grid description of a sheet stored on disk.
+     * @param data The stored sheet.
+     * @return The grid, or null if the data does not start with a valid header.
+     */
+    static Header readHeader(byte[] data) {
+        if (data.length <= HEADER_SIZE) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, HEADER_SIZE))) {
+            if (in.readInt() != HEADER_MAGIC) {
+                return null;
+            }
+            return validHeader(in.readUnsignedShort(), in.readUnsignedShort(), in.readLong());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses the grid description the server sends with a sheet.
+     * @return The grid, or null if a header is missing or invalid.
+     */
+    static Header parseHeaders(String columns, String frameCount, String intervalMs) {
+        if (columns == null || frameCount == null || intervalMs == null) {
+            return null;
+        }
+        try {
+            return validHeader(Integer.parseInt(columns.trim()), Integer.parseInt(frameCount.trim()),
+                    Long.parseLong(intervalMs.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Header validHeader(int columns, int frameCount, long intervalMs) {
+        if (columns <= 0 || frameCount <= 0 || intervalMs <= 0 || columns > 0xFFFF || frameCount > 0xFFFF) {
+            return null;
+        }
+        return new Header(columns, frameCount, intervalMs);
+    }
+
+    /**
+     * Derives the URL of the server's sprite sheet of a recording by replacing the "videos"
+     * path segment with "sprites": ".../videos/feeder-1/a.mp4" gives ".../sprites/feeder-1/a.mp4".
+     * @param videoUrl The video URL.
+     * @return The sheet URL, or null if the video URL has no "videos" segment.
+     */
+    static String spriteSheetUrl(String videoUrl) {
+        HttpUrl url = HttpUrl.parse(videoUrl);
+        if (url == null) {
+            return null;
+        }
+        int segment = url.pathSegments().indexOf("videos");
+        if (segment < 0) {
+            return null;
+        }
+        return url.newBuilder().setPathSegment(segment, "sprites").build().toString();
+    }
+
+    /**
+     * Chooses the time between the frames of a generated sheet: at most {@link #MAX_FRAMES}
+     * frames cover the recording, at least {@link #MIN_INTERVAL_MS} apart, in whole seconds.
+     * @param durationMs The duration of the recording, in milliseconds.
+     * @return The interval, in milliseconds.
+     */
+    static long intervalFor(long durationMs) {
+        long interval = (durationMs + MAX_FRAMES - 1) / MAX_FRAMES;
+        interval = (interval + 999) / 1000 * 1000;
+        return Math.max(MIN_INTERVAL_MS, interval);
+    }
+
+    /**
+     * @param durationMs The duration of the recording, in milliseconds; 0 if unknown.
+     * @param intervalMs The time between frames.
+     * @return The number of frames taken at that interval before the end of the recording, at least one.
+     */
+    static int frameCount(long durationMs, long intervalMs) {
+        long count = (durationMs + intervalMs - 1) / intervalMs;
+        return (int) Math.max(1, Math.min(MAX_FRAMES, count));
+    }
+
+    /**
+     * Calculates the part of a frame to draw into a cell of another aspect ratio, keeping the middle.
+     * @param out Receives the source rectangle.
+     */
+    private static void centerCrop(int width, int height, int cellWidth, int cellHeight, Rect out) {
+        if ((long) width * cellHeight > (long) height * cellWidth) {
+            int cropped = (int) ((long) height * cellWidth / cellHeight);
+            out.set((width - cropped) / 2, 0, (width + cropped) / 2, height);
+        } else {
+            int cropped = (int) ((long) width * cellHeight / cellWidth);
+            out.set(0, (height - cropped) / 2, width, (height + cropped) / 2);
+        }
+    }
+}
@@ -13,10 +13,12 @@ import android.widget.Toast;
 import androidx.activity.result.ActivityResult;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
 import androidx.media3.common.C;
 import androidx.media3.common.MediaItem;
 import androidx.media3.common.PlaybackException;
 import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
 import androidx.media3.exoplayer.ExoPlayer;
 import androidx.media3.ui.PlayerView;
 
@@ -68,8 +70,11 @@ public class StreamPlaybackHandler {
     /**
      * Initializes the ExoPlayer instance for streaming and sets up listeners.
      */
+    @OptIn(markerClass = UnstableApi.class)
     private void initializePlayer() {
-        streamPlayer = new ExoPlayer.Builder(context).build();
+        streamPlayer = new ExoPlayer.Builder(context)
+                .setMediaSourceFactory(HttpClientProvider.getInstance(context).createMediaSourceFactory(context))
+                .build();
         streamPlayerView.setPlayer(streamPlayer);
         streamPlayer.addListener(createStreamPlayerListener());
         streamPlayerView.setFullscreenButtonClickListener(isFullscreen -> {
@@ -334,10 +339,12 @@ public class StreamPlaybackHandler {
             streamPlayer.release();
             streamPlayer = null;
         }
+        FrameTimingCollector.getInstance().setState(FrameTimingCollector.UiState.STREAM_PLAYING, false);
     }
 
     /**
      * Creates and returns a Player.Listener for handling stream player events.
+     * Also tells the FrameTimingCollector whether the stream is playing.
      * @return A configured Player.Listener instance.
      */
     private Player.Listener createStreamPlayerListener() {
@@ -361,6 +368,10 @@ public class StreamPlaybackHandler {
                     Log.d(TAG, "Stream ready for playback.");
                 }
             }
+            @Override
+            public void onIsPlayingChanged(boolean isPlaying) {
+                FrameTimingCollector.getInstance().setState(FrameTimingCollector.UiState.STREAM_PLAYING, isPlaying);
+            }
         };
     }
 
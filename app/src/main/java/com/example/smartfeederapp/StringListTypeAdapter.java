@@ -0,0 +1,52 @@
+package com.example.smartfeederapp;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written Gson adapter for a JSON array of strings, such as the feeder ID list.
+ * Replaces Gson's generic collection adapter, which looks up the element adapter and
+ * the collection constructor through reflection. Null elements are kept as null.
+ * Stateless and thread-safe.
+ */
+public final class StringListTypeAdapter extends TypeAdapter<List<String>> {
+
+    @Override
+    public void write(JsonWriter out, List<String> list) throws IOException {
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (String value : list) {
+            out.value(value);
+        }
+        out.endArray();
+    }
+
+    @Override
+    public List<String> read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<String> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                list.add(null);
+            } else {
+                list.add(in.nextString());
+            }
+        }
+        in.endArray();
+        return list;
+    }
+}
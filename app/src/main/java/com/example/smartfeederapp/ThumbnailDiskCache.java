@@ -0,0 +1,210 @@
+package com.example.smartfeederapp;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Disk cache of encoded thumbnails, keyed by video URL, so thumbnails survive restarts
+ * and are not fetched or extracted from the recording again.
+ * Each thumbnail is one file named after the SHA-1 of its key, written to a temporary file
+ * and renamed, so a crash never leaves a truncated thumbnail behind. The total size is
+ * bounded; the least recently used files are deleted first. Use order is tracked in memory
+ * and carried across restarts by the file modification times, read once on first use.
+ * All methods do file I/O and must not be called on the main thread; they are synchronized.
+ */
+public class ThumbnailDiskCache {
+
+    private static final String TAG = "ThumbnailDiskCache";
+    private static final String SUFFIX = ".thumb";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final long maxBytes;
+    // File name to file size, least recently used first.
+    private final LinkedHashMap<String, Long> files = new LinkedHashMap<>(64, 0.75f, true);
+    private boolean initialized;
+    private long sizeBytes;
+
+    /**
+     * Constructor for ThumbnailDiskCache. The directory is created on first use.
+     * @param directory The directory that holds only this cache.
+     * @param maxBytes The maximum total size of the cached files.
+     */
+    public ThumbnailDiskCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Reads a cached thumbnail.
+     * @param key The video URL.
+     * @return The encoded thumbnail, or null if it is not cached or cannot be read.
+     */
+    public synchronized byte[] get(String key) {
+        initialize();
+        String name = fileName(key);
+        if (files.get(name) == null) {
+            return null;
+        }
+        File file = new File(directory, name);
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] data = new byte[(int) file.length()];
+            int read = 0;
+            while (read < data.length) {
+                int n = in.read(data, read, data.length - read);
+                if (n < 0) {
+                    throw new IOException("Unexpected end of " + file.getName());
+                }
+                read += n;
+            }
+            file.setLastModified(System.currentTimeMillis());
+            return data;
+        } catch (IOException e) {
+            Log.w(TAG, "Could not read cached thumbnail, dropping it: " + e.getMessage());
+            remove(name);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a thumbnail, replacing the one cached for the key, and deletes the least
+     * recently used thumbnails if the cache grows beyond its size.
+     * Failures are logged and otherwise ignored; the thumbnail is simply not cached.
+     * @param key The video URL.
+     * @param data The encoded thumbnail.
+     */
+    public synchronized void put(String key, byte[] data) {
+        initialize();
+        String name = fileName(key);
+        File temp = new File(directory, name + TEMP_SUFFIX);
+        try (OutputStream out = new FileOutputStream(temp)) {
+            out.write(data);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not write thumbnail: " + e.getMessage());
+            temp.delete();
+            return;
+        }
+        remove(name);
+        if (!temp.renameTo(new File(directory, name))) {
+            Log.w(TAG, "Could not move thumbnail into place");
+            temp.delete();
+            return;
+        }
+        files.put(name, (long) data.length);
+        sizeBytes += data.length;
+        trim();
+    }
+
+    /**
+     * @return The total size of the cached files, in bytes.
+     */
+    public synchronized long getSizeBytes() {
+        initialize();
+        return sizeBytes;
+    }
+
+    /**
+     * @return The number of cached thumbnails.
+     */
+    public synchronized int getCount() {
+        initialize();
+        return files.size();
+    }
+
+    /**
+     * Deletes all cached thumbnails.
+     */
+    public synchronized void clear() {
+        initialize();
+        for (String name : files.keySet()) {
+            new File(directory, name).delete();
+        }
+        files.clear();
+        sizeBytes = 0;
+    }
+
+    /**
+     * Reads the files left by earlier runs, oldest first, and deletes leftover temporary files.
+     */
+    private void initialize() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.w(TAG, "Could not create thumbnail cache directory " + directory);
+            return;
+        }
+        File[] existing = directory.listFiles();
+        if (existing == null) {
+            return;
+        }
+        long[] modified = new long[existing.length];
+        for (int i = 0; i < existing.length; i++) {
+            modified[i] = existing[i].lastModified();
+        }
+        Integer[] order = new Integer[existing.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(modified[a], modified[b]));
+        for (Integer i : order) {
+            File file = existing[i];
+            if (file.getName().endsWith(SUFFIX)) {
+                files.put(file.getName(), file.length());
+                sizeBytes += file.length();
+            } else {
+                file.delete();
+            }
+        }
+        trim();
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Long>> iterator = files.entrySet().iterator();
+        while (sizeBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            new File(directory, eldest.getKey()).delete();
+            sizeBytes -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    private void remove(String name) {
+        Long size = files.remove(name);
+        if (size != null) {
+            sizeBytes -= size;
+            new File(directory, name).delete();
+        }
+    }
+
+    /**
+     * @param key The video URL.
+     * @return The file name of the key's thumbnail: the hex SHA-1 of the key.
+     */
+    static String fileName(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(digest.length * 2 + SUFFIX.length());
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return name.append(SUFFIX).toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.smartfeederapp;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Drawable that shows a thumbnail center-cropped to its bounds, or a plain color while
+ * there is none. Each row owns one and only swaps its bitmap, so showing a cached
+ * thumbnail allocates nothing, unlike ImageView.setImageBitmap, which wraps every
+ * bitmap in a new BitmapDrawable.
+ * It has no intrinsic size; the ImageView gives it its own bounds with scaleType fitXY.
+ */
+final class ThumbnailDrawable extends Drawable {
+
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint placeholderPaint = new Paint();
+    private final Rect source = new Rect();
+    private Bitmap bitmap;
+
+    /**
+     * Constructor for ThumbnailDrawable.
+     * @param placeholderColor The color shown while there is no thumbnail.
+     */
+    ThumbnailDrawable(int placeholderColor) {
+        placeholderPaint.setColor(placeholderColor);
+    }
+
+    /**
+     * Shows a thumbnail, or the placeholder color.
+     * @param bitmap The thumbnail, or null.
+     */
+    void setBitmap(Bitmap bitmap) {
+        if (this.bitmap != bitmap) {
+            this.bitmap = bitmap;
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+        Rect bounds = getBounds();
+        if (bitmap == null || bitmap.isRecycled() || bounds.isEmpty()) {
+            canvas.drawRect(bounds, placeholderPaint);
+            return;
+        }
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        // Crop the side that is too long for the bounds, keeping the middle.
+        if ((long) width * bounds.height() > (long) height * bounds.width()) {
+            int cropped = (int) ((long) height * bounds.width() / bounds.height());
+            source.set((width - cropped) / 2, 0, (width + cropped) / 2, height);
+        } else {
+            int cropped = (int) ((long) width * bounds.height() / bounds.width());
+            source.set(0, (height - cropped) / 2, width, (height + cropped) / 2);
+        }
+        canvas.drawBitmap(bitmap, source, bounds, bitmapPaint);
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        bitmapPaint.setAlpha(alpha);
+        placeholderPaint.setAlpha(alpha);
+        invalidateSelf();
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        bitmapPaint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.OPAQUE;
+    }
+}
@@ -0,0 +1,364 @@
+package com.example.smartfeederapp;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.media.MediaMetadataRetriever;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.core.content.ContextCompat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Loads the thumbnails shown in the rows of the video list.
+ * A thumbnail is looked up in the memory cache, then in the disk cache, and is otherwise
+ * fetched: from the server's thumbnail endpoint if the server advertises the "thumbnails"
+ * capability, or else extracted from the first keyframe of the recording, which is read
+ * with range requests. Fetched thumbnails are scaled to the row size, stored on disk as JPEG
+ * and decoded downsampled to the row size, into a pooled bitmap where possible.
+ * Rows request thumbnails as a {@link Target}; requests for the same video share one job,
+ * and a job nobody waits for any more is skipped before it starts. Rows about to scroll
+ * into view are loaded ahead by {@link ThumbnailPrefetcher}; their network requests are
+ * scheduled as background traffic, those of visible rows as visible prefetch.
+ * The work runs on a small pool of threads.
+ * Implemented as a Singleton.
+ */
+public class ThumbnailLoader extends RecordingMediaLoader<Bitmap, ThumbnailLoader.Target> {
+
+    private static final String TAG = "ThumbnailLoader";
+    private static final String DISK_CACHE_DIR = "thumbnails";
+    private static final long DISK_CACHE_BYTES = 50L * 1024 * 1024;
+    private static final long MAX_MEMORY_CACHE_BYTES = 32L * 1024 * 1024;
+    private static final long MAX_EXTRACTION_BYTES = 4L * 1024 * 1024;
+    private static final int JPEG_QUALITY = 85;
+    private static final int WORKER_THREADS = 2;
+    private static final Bitmap.Config DECODE_CONFIG = Bitmap.Config.RGB_565;
+    private static volatile ThumbnailLoader instance;
+
+    /**
+     * Receives a thumbnail requested with {@link #request(String, Target)}.
+     */
+    public interface Target {
+        /**
+         * Called on the main thread when the thumbnail is ready. The bitmap has been acquired
+         * for the target, which must hand it back with {@link #release(Bitmap)} when it stops
+         * showing it, including when it no longer wants it.
+         * @param url The video URL the thumbnail was requested for.
+         * @param bitmap The thumbnail.
+         */
+        void onThumbnailLoaded(String url, Bitmap bitmap);
+    }
+
+    private final ThumbnailMemoryCache memoryCache;
+    private final int width;
+    private final int height;
+
+    /**
+     * Constructor for ThumbnailLoader. Package-private so tests can pass their own caches and executors.
+     * @param memoryCache The cache of decoded thumbnails.
+     * @param diskCache The cache of encoded thumbnails.
+     * @param settingsManager Where the server's thumbnail capability is recorded.
+     * @param callFactories Supplies the call factories for thumbnail and range requests.
+     * @param workExecutor Executor that reads, fetches and decodes thumbnails.
+     * @param mainExecutor Executor that delivers thumbnails on the main thread.
+     * @param width The width of a row's thumbnail, in pixels.
+     * @param height The height of a row's thumbnail, in pixels.
+     */
+    ThumbnailLoader(ThumbnailMemoryCache memoryCache, ThumbnailDiskCache diskCache, SettingsManager settingsManager,
+                    CallFactoryProvider callFactories, Executor workExecutor, Executor mainExecutor, int width, int height) {
+        super(TAG, "thumbnail", ApiClient.CAPABILITY_THUMBNAILS, diskCache, settingsManager, callFactories,
+                workExecutor, mainExecutor);
+        this.memoryCache = memoryCache;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Gets the singleton instance of ThumbnailLoader. The memory cache takes up to an eighth
+     * of the heap, and the disk cache lives in the app's cache directory.
+     * @param context Application context.
+     * @return The singleton ThumbnailLoader instance.
+     */
+    public static ThumbnailLoader getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ThumbnailLoader.class) {
+                if (instance == null) {
+                    Context appContext = context.getApplicationContext();
+                    long memoryBytes = Math.min(Runtime.getRuntime().maxMemory() / 8, MAX_MEMORY_CACHE_BYTES);
+                    HttpClientProvider provider = HttpClientProvider.getInstance(appContext);
+                    SettingsManager settingsManager = SettingsManager.getInstance(appContext);
+                    ExecutorService workers = Executors.newFixedThreadPool(WORKER_THREADS);
+                    instance = new ThumbnailLoader(
+                            new ThumbnailMemoryCache(memoryBytes, memoryBytes / 4),
+                            new ThumbnailDiskCache(new File(appContext.getCacheDir(), DISK_CACHE_DIR), DISK_CACHE_BYTES),
+                            settingsManager,
+                            serverCallFactories(provider, settingsManager),
+                            workers,
+                            ContextCompat.getMainExecutor(appContext),
+                            appContext.getResources().getDimensionPixelSize(R.dimen.video_thumbnail_width),
+                            appContext.getResources().getDimensionPixelSize(R.dimen.video_thumbnail_height));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns a thumbnail from the memory cache and marks it as shown.
+     * Must be called on the main thread.
+     * @param url The video URL.
+     * @return The thumbnail, to be released with {@link #release(Bitmap)}, or null if it is not in memory.
+     */
+    public Bitmap acquire(String url) {
+        return memoryCache.acquire(url);
+    }
+
+    /**
+     * Releases a thumbnail obtained from {@link #acquire(String)} or a Target callback.
+     * @param bitmap The thumbnail; null is ignored.
+     */
+    public void release(Bitmap bitmap) {
+        memoryCache.release(bitmap);
+    }
+
+    /**
+     * Loads a thumbnail that is not in memory and delivers it to the target. A thumbnail that
+     * could not be loaded is not requested again for a minute, so rows of videos without a
+     * thumbnail do not start a request on every bind.
+     * Must be called on the main thread.
+     * @param url The video URL.
+     * @param target The target to deliver the thumbnail to.
+     */
+    public void request(String url, Target target) {
+        join(url, target);
+    }
+
+    /**
+     * Withdraws a target's request, e.g. when its row is bound to another video.
+     * A job no target waits for any more is skipped if it has not started yet.
+     * Must be called on the main thread.
+     * @param url The video URL.
+     * @param target The target that requested it.
+     */
+    public void cancel(String url, Target target) {
+        leave(url, target);
+    }
+
+    /**
+     * Loads a thumbnail into the memory cache ahead of its row being shown.
+     * Must be called on the main thread.
+     * @param url The video URL.
+     */
+    public void prefetch(String url) {
+        if (url == null || jobs.containsKey(url) || recentlyFailed(url) || memoryCache.contains(url)) {
+            return;
+        }
+        start(url, false);
+    }
+
+    /**
+     * Skips every prefetch that has not started yet and no row waits for, e.g. when the
+     * list changes scroll direction. Must be called on the main thread.
+     * @return The number of prefetches cancelled.
+     */
+    public int cancelPrefetches() {
+        int cancelled = 0;
+        Iterator<Job<Target>> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            Job<Target> job = iterator.next();
+            if (job.receivers.isEmpty()) {
+                job.cancelled = true;
+                iterator.remove();
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * @return A summary of the caches and of where thumbnails came from, for the debug screen.
+     */
+    public String formatStats() {
+        return "memory: " + memoryCache.formatStats() + "\n"
+                + "disk: " + diskCache.getCount() + " thumbnails, " + diskCache.getSizeBytes() / 1024 + " KB\n"
+                + "from server: " + downloadedCount + ", extracted: " + fromRecordingCount + ", failed: " + failedCount() + "\n";
+    }
+
+    @Override
+    void remember(String url, Bitmap bitmap) {
+        memoryCache.put(url, bitmap);
+    }
+
+    @Override
+    void deliver(Target target, String url, Bitmap bitmap) {
+        Bitmap acquired = memoryCache.acquire(url);
+        if (acquired != null) {
+            target.onThumbnailLoaded(url, acquired);
+        }
+    }
+
+    @Override
+    void clearMemory() {
+        memoryCache.clear();
+    }
+
+    /**
+     * Fetches the server's thumbnail of a recording.
+     * @return The encoded thumbnail, or null if the server has none for it.
+     */
+    @Override
+    byte[] download(Job<Target> job, String address) throws IOException {
+        String url = thumbnailUrl(job.url, width);
+        if (url == null) {
+            return null;
+        }
+        Request request = new Request.Builder()
+                .url(url)
+                .tag(RequestScheduler.Priority.class, priority(job))
+                .build();
+        try (Response response = callFactories.forServer(address).newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (response.code() == 404) {
+                return null;
+            }
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("HTTP " + response.code() + " for thumbnail");
+            }
+            return body.bytes();
+        }
+    }
+
+    /**
+     * Extracts the first keyframe of a recording, scaled to the row size and encoded as JPEG.
+     * @return The encoded frame, or null if the recording has no frame.
+     */
+    @Override
+    byte[] fromRecording(Job<Target> job, String address) throws IOException {
+        RangeMediaDataSource source = new RangeMediaDataSource(callFactories.forServer(address), job.url, priority(job), MAX_EXTRACTION_BYTES);
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        Bitmap frame = null;
+        try {
+            retriever.setDataSource(source);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
+                frame = retriever.getScaledFrameAtTime(0, MediaMetadataRetriever.OPTION_CLOSEST_SYNC, width * 2, height * 2);
+            } else {
+                frame = retriever.getFrameAtTime(0, MediaMetadataRetriever.OPTION_CLOSEST_SYNC);
+            }
+            if (frame == null) {
+                return null;
+            }
+            int[] size = scaledSize(frame.getWidth(), frame.getHeight(), width, height);
+            Bitmap scaled = Bitmap.createScaledBitmap(frame, size[0], size[1], true);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            scaled.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+            if (scaled != frame) {
+                scaled.recycle();
+            }
+            Log.d(TAG, "Extracted thumbnail of " + job.url + " from " + source.getFetchedBytes() / 1024 + " KB in "
+                    + source.getRequestCount() + " range requests");
+            return out.toByteArray();
+        } finally {
+            if (frame != null) {
+                frame.recycle();
+            }
+            releaseQuietly(retriever);
+            source.close();
+        }
+    }
+
+    /**
+     * Decodes a thumbnail downsampled to the row size, into a pooled bitmap if one fits.
+     * @return The bitmap, or null if the data is not an image.
+     */
+    @Override
+    Bitmap decode(byte[] data) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+        int sampleSize = calculateSampleSize(options.outWidth, options.outHeight, width, height);
+        int decodedWidth = (options.outWidth + sampleSize - 1) / sampleSize;
+        int decodedHeight = (options.outHeight + sampleSize - 1) / sampleSize;
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        options.inPreferredConfig = DECODE_CONFIG;
+        options.inMutable = true;
+        options.inBitmap = memoryCache.obtainReusable(decodedWidth * decodedHeight * 2, DECODE_CONFIG);
+        try {
+            return BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        } catch (IllegalArgumentException e) {
+            // The pooled bitmap did not fit after all; decode into a new one.
+            options.inBitmap = null;
+            return BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        }
+    }
+
+    /**
+     * Derives the URL of the server's thumbnail of a recording by replacing the "videos"
+     * path segment with "thumbnails": ".../videos/feeder-1/a.mp4" gives
+     * ".../thumbnails/feeder-1/a.mp4?width=192".
+     * @param videoUrl The video URL.
+     * @param width The wanted thumbnail width, in pixels.
+     * @return The thumbnail URL, or null if the video URL has no "videos" segment.
+     */
+    static String thumbnailUrl(String videoUrl, int width) {
+        HttpUrl url = HttpUrl.parse(videoUrl);
+        if (url == null) {
+            return null;
+        }
+        int segment = url.pathSegments().indexOf("videos");
+        if (segment < 0) {
+            return null;
+        }
+        return url.newBuilder()
+                .setPathSegment(segment, "thumbnails")
+                .setQueryParameter("width", String.valueOf(width))
+                .build()
+                .toString();
+    }
+
+    /**
+     * Calculates the largest power-of-two sample size that keeps the decoded image at least
+     * as large as the requested size in both directions.
+     * @param width The width of the encoded image.
+     * @param height The height of the encoded image.
+     * @param requestedWidth The width to decode for.
+     * @param requestedHeight The height to decode for.
+     * @return The inSampleSize to decode with.
+     */
+    static int calculateSampleSize(int width, int height, int requestedWidth, int requestedHeight) {
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= requestedWidth && height / (sampleSize * 2) >= requestedHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * Calculates the size a frame is scaled to before it is stored: the aspect ratio is
+     * kept and the frame just covers the row's thumbnail. Frames smaller than that keep their size.
+     * @return The width and height.
+     */
+    static int[] scaledSize(int width, int height, int requestedWidth, int requestedHeight) {
+        double scale = Math.max((double) requestedWidth / width, (double) requestedHeight / height);
+        if (scale >= 1) {
+            return new int[]{width, height};
+        }
+        return new int[]{Math.max(1, (int) Math.round(width * scale)), Math.max(1, (int) Math.round(height * scale))};
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.smartfeederapp;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bounded in-memory LRU of decoded thumbnails, keyed by video URL.
+ * Rows that show a thumbnail acquire it and release it when they are rebound or recycled.
+ * A bitmap pushed out of the LRU while a row still shows it stays on screen; once it is
+ * neither cached nor shown, it goes to a pool of bitmaps that the next decode draws on
+ * as BitmapFactory.Options.inBitmap, so scrolling through thumbnails does not allocate
+ * a new pixel buffer per row once the pool is warm.
+ * All methods are synchronized; decodes run on background threads, rows bind on the main thread.
+ */
+public class ThumbnailMemoryCache {
+
+    /**
+     * A cached or shown bitmap.
+     */
+    private static final class Entry {
+        final Bitmap bitmap;
+        final int bytes;
+        int users;
+        boolean cached = true;
+
+        Entry(Bitmap bitmap) {
+            this.bitmap = bitmap;
+            this.bytes = bitmap.getAllocationByteCount();
+        }
+    }
+
+    private final long maxBytes;
+    private final long maxPoolBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Bitmap, Entry> shown = new IdentityHashMap<>();
+    private final List<Bitmap> pool = new ArrayList<>();
+    private long sizeBytes;
+    private long poolBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long reuseCount;
+
+    /**
+     * Constructor for ThumbnailMemoryCache.
+     * @param maxBytes The maximum total size of the cached bitmaps.
+     * @param maxPoolBytes The maximum total size of the bitmaps kept for reuse.
+     */
+    public ThumbnailMemoryCache(long maxBytes, long maxPoolBytes) {
+        this.maxBytes = maxBytes;
+        this.maxPoolBytes = maxPoolBytes;
+    }
+
+    /**
+     * Returns the thumbnail of a video and marks it as shown until {@link #release(Bitmap)}.
+     * @param key The video URL.
+     * @return The bitmap, or null if it is not cached.
+     */
+    public synchronized Bitmap acquire(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        if (entry.users++ == 0) {
+            shown.put(entry.bitmap, entry);
+        }
+        return entry.bitmap;
+    }
+
+    /**
+     * Checks whether a thumbnail is cached, without counting a hit or changing the LRU order.
+     * @param key The video URL.
+     * @return true if it is cached.
+     */
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Adds a thumbnail, evicting the least recently used ones if the cache is full.
+     * A thumbnail already cached for the key is replaced.
+     * @param key The video URL.
+     * @param bitmap The decoded thumbnail.
+     */
+    public synchronized void put(String key, Bitmap bitmap) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            uncache(previous);
+        }
+        Entry entry = new Entry(bitmap);
+        entries.put(key, entry);
+        sizeBytes += entry.bytes;
+        trimToSize(maxBytes);
+    }
+
+    /**
+     * Releases a thumbnail acquired with {@link #acquire(String)}. A bitmap that is no
+     * longer cached goes to the reuse pool once the last row showing it releases it.
+     * @param bitmap The bitmap; null and unknown bitmaps are ignored.
+     */
+    public synchronized void release(Bitmap bitmap) {
+        Entry entry = bitmap != null ? shown.get(bitmap) : null;
+        if (entry == null) {
+            return;
+        }
+        if (--entry.users == 0) {
+            shown.remove(bitmap);
+            if (!entry.cached) {
+                recycle(entry);
+            }
+        }
+    }
+
+    /**
+     * Takes a pooled bitmap that can hold a decoded image of the given size, for use as
+     * BitmapFactory.Options.inBitmap. The smallest fitting bitmap is chosen.
+     * @param byteCount The size of the decoded image: width * height * bytes per pixel.
+     * @param config The config of the decoded image.
+     * @return A mutable bitmap that is no longer used, or null if none fits.
+     */
+    public synchronized Bitmap obtainReusable(int byteCount, Bitmap.Config config) {
+        int best = -1;
+        for (int i = 0; i < pool.size(); i++) {
+            Bitmap candidate = pool.get(i);
+            if (candidate.getConfig() == config && candidate.getAllocationByteCount() >= byteCount
+                    && (best < 0 || candidate.getAllocationByteCount() < pool.get(best).getAllocationByteCount())) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        Bitmap bitmap = pool.remove(best);
+        poolBytes -= bitmap.getAllocationByteCount();
+        reuseCount++;
+        return bitmap;
+    }
+
+    /**
+     * Evicts least recently used thumbnails until the cache holds at most the given size.
+     * @param bytes The size to trim to; 0 empties the cache.
+     */
+    public synchronized void trimToSize(long bytes) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (sizeBytes > bytes && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            uncache(eldest);
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Empties the cache and the reuse pool, e.g. when the system is low on memory.
+     * Bitmaps still shown are kept until they are released.
+     */
+    public synchronized void clear() {
+        trimToSize(0);
+        pool.clear();
+        poolBytes = 0;
+    }
+
+    private void uncache(Entry entry) {
+        entry.cached = false;
+        sizeBytes -= entry.bytes;
+        if (entry.users == 0) {
+            recycle(entry);
+        }
+    }
+
+    /**
+     * Moves a bitmap nobody uses any more to the reuse pool, dropping the oldest pooled
+     * bitmaps if the pool is full.
+     */
+    private void recycle(Entry entry) {
+        Bitmap bitmap = entry.bitmap;
+        if (!bitmap.isMutable() || bitmap.isRecycled() || entry.bytes > maxPoolBytes) {
+            return;
+        }
+        while (poolBytes + entry.bytes > maxPoolBytes && !pool.isEmpty()) {
+            poolBytes -= pool.remove(0).getAllocationByteCount();
+        }
+        pool.add(bitmap);
+        poolBytes += entry.bytes;
+    }
+
+    /**
+     * @return The total size of the cached bitmaps, in bytes.
+     */
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    /**
+     * @return The number of cached thumbnails.
+     */
+    public synchronized int getCount() {
+        return entries.size();
+    }
+
+    /**
+     * @return The total size of the bitmaps kept for reuse, in bytes.
+     */
+    public synchronized long getPoolBytes() {
+        return poolBytes;
+    }
+
+    /**
+     * @return A one-line summary of hits, misses, evictions and reuses, for logs.
+     */
+    public synchronized String formatStats() {
+        return String.format(Locale.US, "%d thumbnails, %d KB (pool %d KB), %d hits, %d misses, %d evicted, %d reused",
+                entries.size(), sizeBytes / 1024, poolBytes / 1024, hitCount, missCount, evictionCount, reuseCount);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.smartfeederapp;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Scroll listener that loads the thumbnails of the rows about to scroll into view.
+ * Only rows ahead in the scroll direction are prefetched: scrolling down prefetches the
+ * rows below the last visible one, scrolling up the rows above the first. When the
+ * direction changes, prefetches still queued for the other direction are cancelled, so
+ * a quick fling back does not wait behind thumbnails nobody will see.
+ * Placeholder rows have no video yet and are skipped.
+ */
+public class ThumbnailPrefetcher extends RecyclerView.OnScrollListener {
+
+    static final int DEFAULT_DISTANCE = 12;
+
+    private final LinearLayoutManager layoutManager;
+    private final VideoAdapter adapter;
+    private final ThumbnailLoader loader;
+    private final int distance;
+    private int direction;
+    private int windowStart = -1;
+    private int windowEnd = -1;
+
+    /**
+     * Constructor for ThumbnailPrefetcher.
+     * @param layoutManager The layout manager of the list, which reports the visible rows.
+     * @param adapter The adapter whose rows are prefetched.
+     * @param loader The loader to prefetch with.
+     * @param distance The number of rows to prefetch ahead of the visible ones.
+     */
+    public ThumbnailPrefetcher(LinearLayoutManager layoutManager, VideoAdapter adapter, ThumbnailLoader loader, int distance) {
+        this.layoutManager = layoutManager;
+        this.adapter = adapter;
+        this.loader = loader;
+        this.distance = distance;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy == 0) {
+            return;
+        }
+        int newDirection = dy > 0 ? 1 : -1;
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) {
+            return;
+        }
+        if (newDirection != direction) {
+            loader.cancelPrefetches();
+            direction = newDirection;
+            windowStart = -1;
+            windowEnd = -1;
+        }
+        int[] window = prefetchWindow(first, last, direction, distance, adapter.getItemCount());
+        if (window[0] == windowStart && window[1] == windowEnd) {
+            return;
+        }
+        // Nearest rows first; rows that were already in the previous window have been requested.
+        for (int i = 0; i < window[1] - window[0]; i++) {
+            int position = direction > 0 ? window[0] + i : window[1] - 1 - i;
+            if (position >= windowStart && position < windowEnd) {
+                continue;
+            }
+            String url = adapter.getUrlAt(position);
+            if (url != null) {
+                loader.prefetch(url);
+            }
+        }
+        windowStart = window[0];
+        windowEnd = window[1];
+    }
+
+    /**
+     * Calculates the rows to prefetch.
+     * @param first The first visible position.
+     * @param last The last visible position.
+     * @param direction 1 when scrolling down, -1 when scrolling up.
+     * @param distance The number of rows to prefetch.
+     * @param itemCount The number of rows in the list.
+     * @return The start (inclusive) and end (exclusive) position of the rows to prefetch.
+     */
+    static int[] prefetchWindow(int first, int last, int direction, int distance, int itemCount) {
+        if (direction > 0) {
+            int start = Math.min(last + 1, itemCount);
+            return new int[]{start, Math.min(start + distance, itemCount)};
+        }
+        int end = Math.max(first, 0);
+        return new int[]{Math.max(0, end - distance), end};
+    }
+}
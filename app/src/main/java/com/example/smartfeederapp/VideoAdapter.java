@@ -1,26 +1,122 @@
 package com.example.smartfeederapp;
 
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
+import android.graphics.Bitmap;
 import android.view.ViewGroup;
+import android.view.ViewParent;
 import android.widget.ImageButton;
+import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * RecyclerView Adapter for displaying a list of video items.
  * Handles binding video data to the view holder and provides callbacks
  * for user actions (play, download) via the OnVideoActionListener interface.
+ * When the catalog is loaded page by page, rows that are not loaded yet
+ * are shown as placeholders so the list has its final size from the first page.
+ * Very large catalogs can be shown from a column-oriented VideoCatalog instead of a list
+ * of VideoItems; rows are then bound from its arrays. Changing the rows of such a
+ * catalog converts it back to a list first.
+ * The search box can narrow the list to a subset of its loaded rows; changes of the subset
+ * are notified as the inserted and removed row ranges.
+ * Replacing the list (a new list, first page or catalog) is diffed against the rows shown
+ * on a background thread, and only the rows that changed are notified once the diff is
+ * applied on the main thread, like AsyncListDiffer does. Item IDs are stable and derived
+ * from the filename, so RecyclerView keeps views and animations across refreshes.
+ * Any other change made while a diff is pending shows the pending rows right away first.
+ * With a ThumbnailLoader set, each row also shows the thumbnail of its video. With a
+ * SpriteSheetLoader set, long-pressing a row and moving the finger across it shows a
+ * scrub preview of the recording.
  */
 public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHolder> {
 
+    private static final ExecutorService DIFF_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
     private List<VideoItem> videoList = new ArrayList<>();
+    private VideoCatalog catalog;
+    private int placeholderCount = 0;
+    private int[] visibleRows;
     private OnVideoActionListener actionListener;
+    private ThumbnailLoader thumbnailLoader;
+    private SpriteSheetLoader spriteSheetLoader;
+    private ScrubPreviewPopup scrubPreview;
+    private final Executor diffExecutor;
+    private Executor mainExecutor;
+    private int submitGeneration = 0;
+    private Rows pendingRows;
+    private char[] idBuffer = new char[32];
+
+    /**
+     * One version of the rows: either a list or a catalog, followed by placeholders.
+     * Never modified once created, so it can be diffed on another thread.
+     */
+    private static final class Rows implements VideoListDiff.Rows {
+        final List<VideoItem> list;
+        final VideoCatalog catalog;
+        final int placeholders;
+
+        Rows(List<VideoItem> list, VideoCatalog catalog, int placeholders) {
+            this.list = list;
+            this.catalog = catalog;
+            this.placeholders = placeholders;
+        }
+
+        @Override
+        public int size() {
+            return catalog != null ? catalog.size() : list.size();
+        }
+
+        @Override
+        public String getFilename(int row) {
+            return catalog != null ? catalog.getFilename(row) : list.get(row).getFilename();
+        }
+
+        @Override
+        public String getUrl(int row) {
+            return catalog != null ? catalog.getUrl(row) : list.get(row).getUrl();
+        }
+    }
+
+    /**
+     * Creates an adapter that diffs on a shared background thread and applies the result
+     * on the main thread.
+     */
+    public VideoAdapter() {
+        this(DIFF_EXECUTOR, null);
+    }
+
+    /**
+     * Constructor with explicit executors. Package-private so tests can diff synchronously.
+     * @param diffExecutor Executor that calculates diffs.
+     * @param mainExecutor Executor that applies diffs on the main thread, or null for the main looper.
+     */
+    VideoAdapter(Executor diffExecutor, Executor mainExecutor) {
+        this.diffExecutor = diffExecutor;
+        this.mainExecutor = mainExecutor;
+        setHasStableIds(true);
+    }
 
     /**
      * Interface definition for callbacks to be invoked when actions are performed on a video item.
@@ -48,12 +144,380 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
     }
 
     /**
-     * Updates the list of videos displayed by the adapter.
+     * Sets the loader of the thumbnails shown in the rows. Without one, rows show no thumbnail.
+     * Set it before the list is shown.
+     * @param loader The ThumbnailLoader, or null.
+     */
+    public void setThumbnailLoader(ThumbnailLoader loader) {
+        this.thumbnailLoader = loader;
+    }
+
+    /**
+     * Sets the loader of the sprite sheets shown as scrub previews on long-press.
+     * Without one, long-pressing a row does nothing.
+     * @param loader The SpriteSheetLoader, or null.
+     */
+    public void setSpriteSheetLoader(SpriteSheetLoader loader) {
+        if (scrubPreview != null) {
+            scrubPreview.dismiss();
+            scrubPreview = null;
+        }
+        this.spriteSheetLoader = loader;
+    }
+
+    /**
+     * Returns the scrub preview shared by the rows, creating it on first use.
+     */
+    private ScrubPreviewPopup scrubPreview(Context context) {
+        if (scrubPreview == null) {
+            scrubPreview = new ScrubPreviewPopup(context, spriteSheetLoader);
+        }
+        return scrubPreview;
+    }
+
+    /**
+     * Updates the list of videos displayed by the adapter. The change is diffed in the
+     * background; see the class description.
      * @param videoList The new list of VideoItem objects.
      */
     public void setVideoList(List<VideoItem> videoList) {
-        this.videoList = videoList != null ? videoList : new ArrayList<>();
-        notifyDataSetChanged();
+        submit(new Rows(videoList != null ? new ArrayList<>(videoList) : new ArrayList<>(), null, 0));
+    }
+
+    /**
+     * Replaces the list with the first page of a paged load.
+     * Rows beyond the page, up to the total count, are shown as placeholders.
+     * The change is diffed in the background; see the class description.
+     * @param firstPage The items of the first page.
+     * @param totalCount The total number of videos in the catalog.
+     */
+    public void setFirstPage(List<VideoItem> firstPage, int totalCount) {
+        submit(new Rows(new ArrayList<>(firstPage), null, Math.max(0, totalCount - firstPage.size())));
+    }
+
+    /**
+     * Shows new rows. A diff is only calculated if rows are shown now and will be shown
+     * afterwards; otherwise, and while a subset is shown, the rows are replaced right away.
+     * @param next The rows to show.
+     */
+    private void submit(Rows next) {
+        final int generation = ++submitGeneration;
+        pendingRows = null;
+        int shown = getItemCount();
+        if (visibleRows != null || getLoadedCount() == 0 || next.size() == 0) {
+            boolean subset = visibleRows != null;
+            show(next);
+            if (subset) {
+                notifyDataSetChanged();
+                return;
+            }
+            if (shown > 0) {
+                notifyItemRangeRemoved(0, shown);
+            }
+            if (getItemCount() > 0) {
+                notifyItemRangeInserted(0, getItemCount());
+            }
+            return;
+        }
+
+        final Rows current = new Rows(catalog != null ? null : new ArrayList<>(videoList), catalog, placeholderCount);
+        pendingRows = next;
+        diffExecutor.execute(() -> {
+            final VideoListDiff diff = VideoListDiff.calculate(current, next);
+            mainExecutor().execute(() -> {
+                if (generation == submitGeneration) {
+                    pendingRows = null;
+                    apply(next, diff);
+                }
+            });
+        });
+    }
+
+    /**
+     * Shows rows whose diff against the rows shown now has been calculated. The placeholder
+     * tail is resized first; the diff then moves it along with the loaded rows.
+     */
+    private void apply(Rows next, VideoListDiff diff) {
+        int loaded = getLoadedCount();
+        int oldTail = placeholderCount;
+        show(next);
+        if (next.placeholders < oldTail) {
+            notifyItemRangeRemoved(loaded + next.placeholders, oldTail - next.placeholders);
+        } else if (next.placeholders > oldTail) {
+            notifyItemRangeInserted(loaded + oldTail, next.placeholders - oldTail);
+        }
+        diff.dispatchUpdatesTo(new AdapterListUpdateCallback(this));
+    }
+
+    /**
+     * Shows the rows of a pending diff at once, before the rows are changed in another way.
+     * The list is copied, as the diff may still be reading it.
+     */
+    private void settlePendingDiff() {
+        if (pendingRows != null) {
+            Rows next = pendingRows;
+            pendingRows = null;
+            submitGeneration++;
+            show(new Rows(next.list != null ? new ArrayList<>(next.list) : null, next.catalog, next.placeholders));
+            notifyDataSetChanged();
+        }
+    }
+
+    private void show(Rows rows) {
+        this.videoList = rows.list != null ? rows.list : new ArrayList<>();
+        this.catalog = rows.catalog;
+        this.placeholderCount = rows.placeholders;
+        this.visibleRows = null;
+    }
+
+    private Executor mainExecutor() {
+        if (mainExecutor == null) {
+            Handler handler = new Handler(Looper.getMainLooper());
+            mainExecutor = handler::post;
+        }
+        return mainExecutor;
+    }
+
+    /**
+     * Appends a page after the loaded items, replacing placeholders in place.
+     * Only the affected row range is notified. While a subset of rows is shown, nothing
+     * changes on screen until the subset is updated.
+     * @param page The items of the page.
+     * @param totalCount The total number of videos in the catalog.
+     */
+    public void appendPage(List<VideoItem> page, int totalCount) {
+        settlePendingDiff();
+        leaveCatalogMode();
+        int start = videoList.size();
+        int oldTail = placeholderCount;
+        videoList.addAll(page);
+        placeholderCount = Math.max(0, totalCount - videoList.size());
+        int newTail = page.size() + placeholderCount;
+        if (visibleRows != null) {
+            return;
+        }
+
+        int changed = Math.min(oldTail, newTail);
+        if (changed > 0) {
+            notifyItemRangeChanged(start, changed);
+        }
+        if (newTail > oldTail) {
+            notifyItemRangeInserted(start + changed, newTail - oldTail);
+        } else if (oldTail > newTail) {
+            notifyItemRangeRemoved(start + changed, oldTail - newTail);
+        }
+    }
+
+    /**
+     * Applies an incremental catalog change. New videos are inserted at the top,
+     * removed videos are taken out where they are; consecutive removals are notified
+     * as one range. Removed videos that are not loaded yet shrink the placeholder tail.
+     * A subset of rows shown at the time is dropped, as its rows have moved.
+     * @param added The new videos, newest first.
+     * @param removedFilenames The filenames of the videos removed on the server.
+     */
+    public void applyChanges(List<VideoItem> added, Collection<String> removedFilenames) {
+        settlePendingDiff();
+        leaveCatalogMode();
+        boolean notifyRanges = visibleRows == null;
+        if (!removedFilenames.isEmpty()) {
+            Set<String> pending = new HashSet<>(removedFilenames);
+            int i = videoList.size() - 1;
+            while (i >= 0 && !pending.isEmpty()) {
+                if (pending.remove(videoList.get(i).getFilename())) {
+                    int end = i;
+                    while (i > 0 && pending.remove(videoList.get(i - 1).getFilename())) {
+                        i--;
+                    }
+                    videoList.subList(i, end + 1).clear();
+                    if (notifyRanges) {
+                        notifyItemRangeRemoved(i, end - i + 1);
+                    }
+                }
+                i--;
+            }
+            int unloaded = Math.min(pending.size(), placeholderCount);
+            if (unloaded > 0) {
+                placeholderCount -= unloaded;
+                if (notifyRanges) {
+                    notifyItemRangeRemoved(videoList.size() + placeholderCount, unloaded);
+                }
+            }
+        }
+
+        if (!added.isEmpty()) {
+            Set<String> present = new HashSet<>(videoList.size());
+            for (VideoItem item : videoList) {
+                present.add(item.getFilename());
+            }
+            List<VideoItem> fresh = new ArrayList<>(added.size());
+            for (VideoItem item : added) {
+                if (present.add(item.getFilename())) {
+                    fresh.add(item);
+                }
+            }
+            if (!fresh.isEmpty()) {
+                videoList.addAll(0, fresh);
+                if (notifyRanges) {
+                    notifyItemRangeInserted(0, fresh.size());
+                }
+            }
+        }
+        if (!notifyRanges) {
+            visibleRows = null;
+            notifyDataSetChanged();
+        }
+    }
+
+    /**
+     * Shows all rows of a column-oriented catalog, replacing the current list. When the
+     * catalog holds the rows already shown, the diff is empty and no row is rebound.
+     * @param catalog The catalog to show.
+     */
+    public void setCatalog(VideoCatalog catalog) {
+        submit(new Rows(null, catalog, 0));
+    }
+
+    /**
+     * Shows only the given loaded rows, or all rows again. The old and new rows are compared
+     * in one pass and only the rows that appear or disappear are notified, as ranges.
+     * Placeholders are hidden while a subset is shown.
+     * @param rows The rows to show, in ascending order, or null to show all rows.
+     */
+    public void setVisibleRows(int[] rows) {
+        settlePendingDiff();
+        int loaded = catalog != null ? catalog.size() : videoList.size();
+        int[] old = visibleRows;
+        if (old == null && rows == null) {
+            return;
+        }
+        visibleRows = rows;
+        if (old == null && placeholderCount > 0) {
+            notifyItemRangeRemoved(loaded, placeholderCount);
+        }
+
+        int oldCount = old != null ? old.length : loaded;
+        int newCount = rows != null ? rows.length : loaded;
+        int position = 0;
+        int runStart = 0;
+        int runCount = 0;
+        boolean runInserts = false;
+        int i = 0;
+        int j = 0;
+        while (i < oldCount || j < newCount) {
+            int oldRow = i < oldCount ? (old != null ? old[i] : i) : Integer.MAX_VALUE;
+            int newRow = j < newCount ? (rows != null ? rows[j] : j) : Integer.MAX_VALUE;
+            if (oldRow == newRow) {
+                notifyRun(runInserts, runStart, runCount);
+                runCount = 0;
+                position++;
+                i++;
+                j++;
+                continue;
+            }
+            boolean insert = newRow < oldRow;
+            if (runCount > 0 && runInserts != insert) {
+                notifyRun(runInserts, runStart, runCount);
+                runCount = 0;
+            }
+            if (runCount == 0) {
+                runStart = position;
+                runInserts = insert;
+            }
+            runCount++;
+            if (insert) {
+                position++;
+                j++;
+            } else {
+                i++;
+            }
+        }
+        notifyRun(runInserts, runStart, runCount);
+
+        if (rows == null && placeholderCount > 0) {
+            notifyItemRangeInserted(loaded, placeholderCount);
+        }
+    }
+
+    private void notifyRun(boolean inserted, int start, int count) {
+        if (count == 0) {
+            return;
+        }
+        if (inserted) {
+            notifyItemRangeInserted(start, count);
+        } else {
+            notifyItemRangeRemoved(start, count);
+        }
+    }
+
+    /**
+     * @return The loaded items in row order; read-only.
+     */
+    public List<VideoItem> getLoadedItems() {
+        return catalog != null ? catalog.asList() : Collections.unmodifiableList(videoList);
+    }
+
+    /**
+     * Moves the rows of the shown catalog into the list, so they can be changed.
+     * The rows on screen stay the same, so nothing is notified.
+     */
+    private void leaveCatalogMode() {
+        if (catalog != null) {
+            videoList = new ArrayList<>(catalog.asList());
+            catalog = null;
+        }
+    }
+
+    /**
+     * @return The number of rows backed by loaded items (excluding placeholders);
+     *         while a subset is shown, the size of the subset.
+     */
+    public int getLoadedCount() {
+        if (visibleRows != null) {
+            return visibleRows.length;
+        }
+        return catalog != null ? catalog.size() : videoList.size();
+    }
+
+    /**
+     * Returns a stable ID for the row at a position: a 64-bit FNV-1a hash of the filename,
+     * which is never negative, or a negative number for placeholders.
+     * @param position The position of the row.
+     * @return The ID of the row.
+     */
+    @Override
+    public long getItemId(int position) {
+        int row = visibleRows != null ? visibleRows[position] : position;
+        if (catalog != null) {
+            int length = catalog.getNameLength(row);
+            if (length > idBuffer.length) {
+                idBuffer = new char[Math.max(length, idBuffer.length * 2)];
+            }
+            return nameId(idBuffer, catalog.getName(row, idBuffer));
+        }
+        if (row >= videoList.size()) {
+            return -1L - (row - videoList.size());
+        }
+        return nameId(videoList.get(row).getFilename());
+    }
+
+    private static long nameId(String filename) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0, length = filename != null ? filename.length() : 0; i < length; i++) {
+            hash = (hash ^ filename.charAt(i)) * FNV_PRIME;
+        }
+        return hash & Long.MAX_VALUE;
+    }
+
+    /**
+     * Hashes a filename held in a buffer the same way as {@link #nameId(String)}.
+     */
+    private static long nameId(char[] name, int length) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ name[i]) * FNV_PRIME;
+        }
+        return hash & Long.MAX_VALUE;
     }
 
     /**
@@ -66,19 +530,81 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
     @Override
     public VideoViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View itemView = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_video, parent, false);
-        return new VideoViewHolder(itemView);
+        return new VideoViewHolder(itemView, this);
     }
 
     /**
      * Called by RecyclerView to display the data at the specified position.
-     * Binds the video data to the ViewHolder.
+     * Binds the video data to the ViewHolder. Click listeners are set once per holder, and
+     * a list row whose thumbnail is in memory (or that shows none) is bound without
+     * allocating, so scrolling through a long list produces no garbage.
      * @param holder The ViewHolder which should be updated to represent the contents of the item at the given position.
      * @param position The position of the item within the adapter's data set.
      */
     @Override
     public void onBindViewHolder(@NonNull VideoViewHolder holder, int position) {
-        VideoItem videoItem = videoList.get(position);
-        holder.bind(videoItem, actionListener);
+        int row = visibleRows != null ? visibleRows[position] : position;
+        if (catalog != null) {
+            holder.bind(catalog, row);
+            if (thumbnailLoader != null) {
+                holder.bindThumbnail(position);
+            }
+            return;
+        }
+        if (row >= videoList.size()) {
+            holder.bindPlaceholder();
+            return;
+        }
+        VideoItem videoItem = videoList.get(row);
+        holder.bind(videoItem);
+        if (thumbnailLoader != null) {
+            holder.bindThumbnail(position);
+        }
+    }
+
+    /**
+     * Releases the thumbnail of a row that scrolled out of view, so it can be evicted and
+     * reused, and ends a scrub preview the row still showed.
+     * @param holder The ViewHolder being recycled.
+     */
+    @Override
+    public void onViewRecycled(@NonNull VideoViewHolder holder) {
+        holder.clearThumbnail();
+        holder.stopScrub();
+    }
+
+    /**
+     * Returns the video shown at a position, for click handling. For catalog rows the
+     * VideoItem is created by this call.
+     * @param position The position of the row.
+     * @return The video, or null for placeholders and positions outside the list.
+     */
+    VideoItem getItemAt(int position) {
+        if (position < 0 || position >= getItemCount()) {
+            return null;
+        }
+        int row = visibleRows != null ? visibleRows[position] : position;
+        if (catalog != null) {
+            return catalog.getItem(row);
+        }
+        return row < videoList.size() ? videoList.get(row) : null;
+    }
+
+    /**
+     * Returns the URL of the video shown at a position. Catalog rows are read from the
+     * catalog, so no VideoItem is created.
+     * @param position The position of the row.
+     * @return The URL, or null for placeholders, positions outside the list and videos without one.
+     */
+    String getUrlAt(int position) {
+        if (position < 0 || position >= getItemCount()) {
+            return null;
+        }
+        int row = visibleRows != null ? visibleRows[position] : position;
+        if (catalog != null) {
+            return catalog.getUrl(row);
+        }
+        return row < videoList.size() ? videoList.get(row).getUrl() : null;
     }
 
     /**
@@ -87,46 +613,253 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
      */
     @Override
     public int getItemCount() {
-        return videoList.size();
+        if (visibleRows != null) {
+            return visibleRows.length;
+        }
+        return catalog != null ? catalog.size() : videoList.size() + placeholderCount;
     }
 
     /**
      * ViewHolder class for video items in the RecyclerView.
      * Holds references to the UI elements within each item's layout.
+     * The click listeners are created once, with the holder, and look up the video at the
+     * holder's current adapter position when clicked, so binding sets no listeners and
+     * captures nothing.
+     * The thumbnail is drawn by a ThumbnailDrawable the holder creates once; the bitmap it
+     * shows is acquired from the ThumbnailLoader and released when the row is rebound or recycled.
+     * A long-press starts a scrub preview that follows the finger until it is lifted; the
+     * list is kept from scrolling meanwhile.
      */
-    static class VideoViewHolder extends RecyclerView.ViewHolder {
+    static class VideoViewHolder extends RecyclerView.ViewHolder implements ThumbnailLoader.Target {
+        static final String PLACEHOLDER_TEXT = "Loading...";
+
         private final TextView videoNameTextView;
         private final ImageButton downloadButton;
+        private final ImageView thumbnailView;
+        private final VideoAdapter adapter;
+        private ThumbnailDrawable thumbnailDrawable;
+        private ThumbnailLoader shownLoader;
+        private String thumbnailUrl;
+        private long thumbnailId;
+        private Bitmap thumbnail;
+        private char[] nameBuffer = new char[32];
+        private float touchX;
+        private boolean scrubbing;
 
         /**
          * Constructor for the ViewHolder.
          * @param itemView The view of the inflated layout for a single item.
+         * @param adapter The adapter whose rows this holder shows; clicks are resolved through it.
          */
-        VideoViewHolder(@NonNull View itemView) {
+        VideoViewHolder(@NonNull View itemView, @NonNull VideoAdapter adapter) {
             super(itemView);
+            this.adapter = adapter;
+            thumbnailView = itemView.findViewById(R.id.ivVideoThumbnail);
             videoNameTextView = itemView.findViewById(R.id.tvVideoName);
             downloadButton = itemView.findViewById(R.id.btnDownloadVideo);
-        }
-
-        /**
-         * Binds a VideoItem's data to the ViewHolder's views and sets click listeners.
-         * @param videoItem The VideoItem data to bind.
-         * @param listener The listener to notify of actions.
-         */
-        void bind(final VideoItem videoItem, final OnVideoActionListener listener) {
-            videoNameTextView.setText(videoItem.getFilename());
 
             itemView.setOnClickListener(v -> {
-                if (listener != null) {
+                VideoItem videoItem = adapter.getItemAt(adapterPosition());
+                OnVideoActionListener listener = adapter.actionListener;
+                if (videoItem != null && listener != null) {
                     listener.onVideoPlayClick(videoItem);
                 }
             });
 
             downloadButton.setOnClickListener(v -> {
-                if (listener != null) {
+                VideoItem videoItem = adapter.getItemAt(adapterPosition());
+                OnVideoActionListener listener = adapter.actionListener;
+                if (videoItem != null && listener != null) {
                     listener.onVideoDownloadClick(videoItem);
                 }
             });
+
+            itemView.setOnLongClickListener(v -> startScrub());
+            itemView.setOnTouchListener((v, event) -> {
+                onScrubTouch(event);
+                return false;
+            });
+        }
+
+        /**
+         * Returns the position of the row this holder shows now, which may differ from the
+         * position it was bound at if rows were inserted or removed since.
+         * Package-private so tests can place a holder without a RecyclerView.
+         * @return The adapter position, or RecyclerView.NO_POSITION while it is not known.
+         */
+        int adapterPosition() {
+            return getBindingAdapterPosition();
+        }
+
+        /**
+         * Binds a VideoItem's data to the ViewHolder's views.
+         * @param videoItem The VideoItem data to bind.
+         */
+        void bind(VideoItem videoItem) {
+            videoNameTextView.setText(videoItem.getFilename());
+            downloadButton.setVisibility(View.VISIBLE);
+        }
+
+        /**
+         * Binds a row of a column-oriented catalog. The name is copied into a buffer owned by
+         * this holder, which TextView allows to be changed right before the next setText;
+         * a VideoItem is only created when the row is clicked.
+         * @param catalog The catalog holding the row.
+         * @param row The row to bind.
+         */
+        void bind(VideoCatalog catalog, int row) {
+            int length = catalog.getNameLength(row);
+            if (length > nameBuffer.length) {
+                nameBuffer = new char[Math.max(length, nameBuffer.length * 2)];
+            }
+            videoNameTextView.setText(nameBuffer, 0, catalog.getName(row, nameBuffer));
+            downloadButton.setVisibility(View.VISIBLE);
+        }
+
+        /**
+         * Shows the row as a placeholder for a video that is not loaded yet.
+         * Clicks on placeholders are ignored, as there is no video at their position.
+         */
+        void bindPlaceholder() {
+            videoNameTextView.setText(PLACEHOLDER_TEXT);
+            downloadButton.setVisibility(View.INVISIBLE);
+            if (prepareThumbnail() != null) {
+                clearThumbnail();
+            }
+        }
+
+        /**
+         * Shows the thumbnail of the video at a position: right away if it is in memory,
+         * otherwise once it is loaded. The shown thumbnail is keyed by the row's item ID, so
+         * rebinding the row to the same video keeps it without building the URL again.
+         * Does nothing while the adapter has no ThumbnailLoader.
+         * @param position The adapter position of a row that shows a video.
+         */
+        void bindThumbnail(int position) {
+            ThumbnailLoader loader = prepareThumbnail();
+            if (loader == null) {
+                return;
+            }
+            long id = adapter.getItemId(position);
+            if (thumbnailUrl != null && id == thumbnailId && loader == shownLoader) {
+                return;
+            }
+            clearThumbnail();
+            String url = adapter.getUrlAt(position);
+            if (url == null) {
+                return;
+            }
+            shownLoader = loader;
+            thumbnailUrl = url;
+            thumbnailId = id;
+            Bitmap cached = loader.acquire(url);
+            if (cached != null) {
+                showThumbnail(cached);
+            } else {
+                loader.request(url, this);
+            }
+        }
+
+        /**
+         * Creates the drawable the thumbnail is shown in, the first time a loader is set.
+         * @return The adapter's ThumbnailLoader, or null if it has none.
+         */
+        private ThumbnailLoader prepareThumbnail() {
+            ThumbnailLoader loader = adapter.thumbnailLoader;
+            if (loader != null && thumbnailDrawable == null) {
+                thumbnailDrawable = new ThumbnailDrawable(ContextCompat.getColor(itemView.getContext(), R.color.video_thumbnail_placeholder));
+                thumbnailView.setImageDrawable(thumbnailDrawable);
+                thumbnailView.setVisibility(View.VISIBLE);
+            }
+            return loader;
+        }
+
+        /**
+         * Releases the thumbnail the row shows or waits for and shows the placeholder color.
+         */
+        void clearThumbnail() {
+            if (shownLoader != null) {
+                shownLoader.cancel(thumbnailUrl, this);
+                shownLoader.release(thumbnail);
+            }
+            shownLoader = null;
+            thumbnailUrl = null;
+            showThumbnail(null);
+        }
+
+        /**
+         * Shows the scrub preview of the row's video at the position of the finger.
+         * @return true if the long-press started a preview.
+         */
+        boolean startScrub() {
+            SpriteSheetLoader loader = adapter.spriteSheetLoader;
+            VideoItem videoItem = loader != null ? adapter.getItemAt(adapterPosition()) : null;
+            if (videoItem == null) {
+                return false;
+            }
+            ViewParent parent = itemView.getParent();
+            if (parent != null) {
+                parent.requestDisallowInterceptTouchEvent(true);
+            }
+            scrubbing = true;
+            adapter.scrubPreview(itemView.getContext()).show(itemView, videoItem.getUrl(), fraction());
+            return true;
+        }
+
+        /**
+         * Follows the finger: moves the preview while scrubbing and ends it when the finger is lifted.
+         * The event is left to the row, so clicks and long-presses are detected as usual.
+         */
+        private void onScrubTouch(MotionEvent event) {
+            switch (event.getActionMasked()) {
+                case MotionEvent.ACTION_DOWN:
+                    touchX = event.getX();
+                    break;
+                case MotionEvent.ACTION_MOVE:
+                    touchX = event.getX();
+                    if (scrubbing && adapter.scrubPreview != null) {
+                        adapter.scrubPreview.moveTo(fraction());
+                    }
+                    break;
+                case MotionEvent.ACTION_UP:
+                case MotionEvent.ACTION_CANCEL:
+                    stopScrub();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Hides the scrub preview if this row shows it.
+         */
+        void stopScrub() {
+            if (scrubbing) {
+                scrubbing = false;
+                if (adapter.scrubPreview != null) {
+                    adapter.scrubPreview.dismiss();
+                }
+            }
+        }
+
+        private float fraction() {
+            return itemView.getWidth() > 0 ? touchX / itemView.getWidth() : 0f;
+        }
+
+        @Override
+        public void onThumbnailLoaded(String url, Bitmap bitmap) {
+            if (thumbnail != null || !url.equals(thumbnailUrl)) {
+                shownLoader.release(bitmap);
+                return;
+            }
+            showThumbnail(bitmap);
+        }
+
+        private void showThumbnail(Bitmap bitmap) {
+            thumbnail = bitmap;
+            if (thumbnailDrawable != null) {
+                thumbnailDrawable.setBitmap(bitmap);
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,563 @@
+package com.example.smartfeederapp;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column-oriented, read-only copy of a video catalog for lists of 100k videos and more.
+ * Instead of one VideoItem with its own Strings per row, the rows are kept in parallel
+ * primitive arrays: recording times in a long[], feeder and URL folder as int indices into
+ * small dictionaries, and all filenames in one pool with an offsets array. The pool holds
+ * one byte per character while all names are Latin-1, which is the usual case, and one
+ * char otherwise.
+ * Rows can be sorted, filtered and searched by time without creating objects per row,
+ * and names can be copied into a reusable buffer for binding (see {@link #getName(int, char[])}).
+ * Immutable and thread-safe once built. Create instances with {@link Builder}.
+ */
+public final class VideoCatalog {
+
+    private static final String[] NO_STRINGS = new String[0];
+    private static final int ROW_BITS = 24;
+    private static final long MAX_SORT_SECONDS = 1L << 33;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private final int size;
+    private final long[] recordedAt;
+    private final int[] feederIndex;
+    private final int[] prefixIndex;
+    private final int[] nameOffsets;
+    /** The name pool if all names are Latin-1, otherwise null. */
+    private final byte[] latin1Names;
+    /** The name pool if some name is not Latin-1, otherwise null. */
+    private final char[] charNames;
+    /** URL parts after the prefix that differ from the filename, or null if none do. */
+    private final String[] urlSuffixes;
+    private final String[] feeders;
+    private final String[] prefixes;
+    private final boolean newestFirst;
+
+    private VideoCatalog(int size, long[] recordedAt, int[] feederIndex, int[] prefixIndex, int[] nameOffsets,
+                         byte[] latin1Names, char[] charNames, String[] urlSuffixes, String[] feeders, String[] prefixes,
+                         boolean newestFirst) {
+        this.size = size;
+        this.recordedAt = recordedAt;
+        this.feederIndex = feederIndex;
+        this.prefixIndex = prefixIndex;
+        this.nameOffsets = nameOffsets;
+        this.latin1Names = latin1Names;
+        this.charNames = charNames;
+        this.urlSuffixes = urlSuffixes;
+        this.feeders = feeders;
+        this.prefixes = prefixes;
+        this.newestFirst = newestFirst;
+    }
+
+    /**
+     * Collects rows for a VideoCatalog. Not thread-safe; build on one thread, then share the catalog.
+     */
+    public static final class Builder {
+        private int size;
+        private long[] recordedAt;
+        private int[] feederIndex;
+        private int[] prefixIndex;
+        private int[] nameOffsets;
+        private byte[] latin1Names;
+        private char[] charNames;
+        private String[] urlSuffixes;
+        private String[] feeders = NO_STRINGS;
+        private String[] prefixes = NO_STRINGS;
+        private int feederCount;
+        private int prefixCount;
+
+        /**
+         * @param expectedSize The expected number of rows, used to size the arrays.
+         */
+        public Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            recordedAt = new long[capacity];
+            feederIndex = new int[capacity];
+            prefixIndex = new int[capacity];
+            nameOffsets = new int[capacity + 1];
+            latin1Names = new byte[capacity * 25];
+        }
+
+        /**
+         * Appends a row with the fields of the given item. A null filename is stored as an empty name.
+         * @param item The video to add.
+         * @return This builder.
+         */
+        public Builder add(VideoItem item) {
+            if (size == recordedAt.length) {
+                int capacity = size * 2;
+                recordedAt = Arrays.copyOf(recordedAt, capacity);
+                feederIndex = Arrays.copyOf(feederIndex, capacity);
+                prefixIndex = Arrays.copyOf(prefixIndex, capacity);
+                nameOffsets = Arrays.copyOf(nameOffsets, capacity + 1);
+                if (urlSuffixes != null) {
+                    urlSuffixes = Arrays.copyOf(urlSuffixes, capacity);
+                }
+            }
+            appendName(item.getFilename() != null ? item.getFilename() : "");
+
+            recordedAt[size] = item.getRecordedAtMillis();
+            feederIndex[size] = feederIndexOf(item.getFeederId());
+            prefixIndex[size] = item.getUrlPrefix() != null ? prefixIndexOf(item.getUrlPrefix()) : -1;
+            if (item.getUrlSuffix() != null) {
+                if (urlSuffixes == null) {
+                    urlSuffixes = new String[recordedAt.length];
+                }
+                urlSuffixes[size] = item.getUrlSuffix();
+            }
+            size++;
+            return this;
+        }
+
+        /**
+         * Appends a name to the pool, switching the pool to chars at the first name that is not Latin-1.
+         */
+        private void appendName(String filename) {
+            int start = nameOffsets[size];
+            int end = start + filename.length();
+            if (latin1Names != null) {
+                if (end > latin1Names.length) {
+                    latin1Names = Arrays.copyOf(latin1Names, Math.max(latin1Names.length * 2, end));
+                }
+                for (int i = 0; i < filename.length(); i++) {
+                    char c = filename.charAt(i);
+                    if (c > 0xFF) {
+                        charNames = new char[latin1Names.length];
+                        for (int j = 0; j < start; j++) {
+                            charNames[j] = (char) (latin1Names[j] & 0xFF);
+                        }
+                        latin1Names = null;
+                        break;
+                    }
+                    latin1Names[start + i] = (byte) c;
+                }
+            }
+            if (charNames != null) {
+                if (end > charNames.length) {
+                    charNames = Arrays.copyOf(charNames, Math.max(charNames.length * 2, end));
+                }
+                filename.getChars(0, filename.length(), charNames, start);
+            }
+            nameOffsets[size + 1] = end;
+        }
+
+        /**
+         * Appends a row for each item, in order.
+         * @param items The videos to add.
+         * @return This builder.
+         */
+        public Builder addAll(List<VideoItem> items) {
+            for (int i = 0; i < items.size(); i++) {
+                add(items.get(i));
+            }
+            return this;
+        }
+
+        /**
+         * @return The number of rows added so far.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Creates the catalog with the rows added so far, trimming the arrays to size.
+         * @return The new catalog.
+         */
+        public VideoCatalog build() {
+            int chars = nameOffsets[size];
+            return new VideoCatalog(size, Arrays.copyOf(recordedAt, size), Arrays.copyOf(feederIndex, size),
+                    Arrays.copyOf(prefixIndex, size), Arrays.copyOf(nameOffsets, size + 1),
+                    latin1Names != null ? Arrays.copyOf(latin1Names, chars) : null,
+                    charNames != null ? Arrays.copyOf(charNames, chars) : null,
+                    urlSuffixes != null ? Arrays.copyOf(urlSuffixes, size) : null,
+                    Arrays.copyOf(feeders, feederCount), Arrays.copyOf(prefixes, prefixCount), false);
+        }
+
+        /**
+         * Looks up the feeder in the dictionary by identity, which works because
+         * VideoNameParser interns feeder IDs. Consecutive rows usually share a feeder,
+         * so the last entry used is checked first.
+         */
+        private int feederIndexOf(String feederId) {
+            int last = size > 0 ? feederIndex[size - 1] : -1;
+            if (last >= 0 && feeders[last] == feederId) {
+                return last;
+            }
+            for (int i = 0; i < feederCount; i++) {
+                if (feeders[i] == feederId || feeders[i].equals(feederId)) {
+                    return i;
+                }
+            }
+            if (feederCount == feeders.length) {
+                feeders = Arrays.copyOf(feeders, Math.max(4, feederCount * 2));
+            }
+            feeders[feederCount] = feederId;
+            return feederCount++;
+        }
+
+        private int prefixIndexOf(String prefix) {
+            int last = size > 0 ? prefixIndex[size - 1] : -1;
+            if (last >= 0 && prefixes[last] == prefix) {
+                return last;
+            }
+            for (int i = 0; i < prefixCount; i++) {
+                if (prefixes[i] == prefix || prefixes[i].equals(prefix)) {
+                    return i;
+                }
+            }
+            if (prefixCount == prefixes.length) {
+                prefixes = Arrays.copyOf(prefixes, Math.max(4, prefixCount * 2));
+            }
+            prefixes[prefixCount] = prefix;
+            return prefixCount++;
+        }
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The recording time of the row in epoch milliseconds, or {@link VideoNameParser#UNKNOWN_TIME}.
+     */
+    public long getRecordedAtMillis(int row) {
+        return recordedAt[checkRow(row)];
+    }
+
+    /**
+     * @return The feeder ID of the row, or an empty string if unknown.
+     */
+    public String getFeederId(int row) {
+        return feeders[feederIndex[checkRow(row)]];
+    }
+
+    /**
+     * Creates the filename String of the row. Prefer {@link #getName(int, char[])} when binding rows.
+     * @return The filename.
+     */
+    public String getFilename(int row) {
+        int start = nameOffsets[checkRow(row)];
+        int length = nameOffsets[row + 1] - start;
+        return latin1Names != null
+                ? new String(latin1Names, start, length, StandardCharsets.ISO_8859_1)
+                : new String(charNames, start, length);
+    }
+
+    /**
+     * @return The length of the row's filename.
+     */
+    public int getNameLength(int row) {
+        checkRow(row);
+        return nameOffsets[row + 1] - nameOffsets[row];
+    }
+
+    /**
+     * Copies the row's filename into a buffer without creating objects.
+     * @param row The row.
+     * @param buffer The destination; must hold at least {@link #getNameLength(int)} chars.
+     * @return The number of chars copied.
+     */
+    public int getName(int row, char[] buffer) {
+        int start = nameOffsets[checkRow(row)];
+        int length = nameOffsets[row + 1] - start;
+        if (latin1Names != null) {
+            for (int i = 0; i < length; i++) {
+                buffer[i] = (char) (latin1Names[start + i] & 0xFF);
+            }
+        } else {
+            System.arraycopy(charNames, start, buffer, 0, length);
+        }
+        return length;
+    }
+
+    /**
+     * @return The full URL of the row, or null if the video has none.
+     */
+    public String getUrl(int row) {
+        int prefix = prefixIndex[checkRow(row)];
+        if (prefix < 0) {
+            return null;
+        }
+        String suffix = urlSuffixes != null && urlSuffixes[row] != null ? urlSuffixes[row] : getFilename(row);
+        return prefixes[prefix].concat(suffix);
+    }
+
+    /**
+     * Creates a VideoItem for the row, e.g. to hand it to playback or download.
+     * @return A new VideoItem equal to the one the row was built from.
+     */
+    public VideoItem getItem(int row) {
+        int prefix = prefixIndex[checkRow(row)];
+        return new VideoItem(getFilename(row), prefix >= 0 ? prefixes[prefix] : null,
+                urlSuffixes != null ? urlSuffixes[row] : null, recordedAt[row], feeders[feederIndex[row]]);
+    }
+
+    /**
+     * @return true if the rows are known to be ordered by {@link VideoItem#NEWEST_FIRST}.
+     */
+    public boolean isNewestFirst() {
+        return newestFirst;
+    }
+
+    /**
+     * Returns the rows ordered like {@link VideoItem#NEWEST_FIRST}. The sort is stable.
+     * When all times are whole seconds, which is the case for times parsed from filenames,
+     * each row is packed with its time into one long and the long[] is sorted; filenames
+     * are then only compared within runs of equal times. Otherwise an int[] of row numbers
+     * is merge-sorted, comparing the long[] times directly.
+     * @return A sorted catalog, or this catalog if it is already sorted.
+     */
+    public VideoCatalog sortedNewestFirst() {
+        if (newestFirst) {
+            return this;
+        }
+        int[] rows = sortByPackedKeys();
+        if (rows == null) {
+            rows = identity(size);
+            mergeSort(rows, new int[size], 0, size);
+        }
+        return select(rows, size, true);
+    }
+
+    /**
+     * Sorts the rows by keys holding the inverted time in seconds above the row number.
+     * @return The sorted rows, or null if a time or the row count does not fit the key.
+     */
+    private int[] sortByPackedKeys() {
+        if (size >= 1 << ROW_BITS) {
+            return null;
+        }
+        long[] keys = new long[size];
+        for (int row = 0; row < size; row++) {
+            long time = recordedAt[row];
+            long seconds = time / 1000;
+            if (time % 1000 != 0 || seconds < 0 || seconds >= MAX_SORT_SECONDS) {
+                return null;
+            }
+            keys[row] = ((MAX_SORT_SECONDS - 1 - seconds) << ROW_BITS) | row;
+        }
+        Arrays.sort(keys);
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = (int) (keys[i] & ((1 << ROW_BITS) - 1));
+        }
+        int[] buffer = null;
+        int runStart = 0;
+        for (int i = 1; i <= size; i++) {
+            if (i == size || recordedAt[rows[i]] != recordedAt[rows[runStart]]) {
+                if (i - runStart > 1) {
+                    if (buffer == null) {
+                        buffer = new int[size];
+                    }
+                    mergeSort(rows, buffer, runStart, i);
+                }
+                runStart = i;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the rows of one feeder, in the current order.
+     * @param feederId The feeder ID; an empty string selects videos without a known feeder.
+     * @return The matching rows as a new catalog.
+     */
+    public VideoCatalog filterByFeeder(String feederId) {
+        int feeder = -1;
+        for (int i = 0; i < feeders.length; i++) {
+            if (feeders[i].equals(feederId)) {
+                feeder = i;
+                break;
+            }
+        }
+        int[] rows = new int[size];
+        int count = 0;
+        if (feeder >= 0) {
+            for (int row = 0; row < size; row++) {
+                if (feederIndex[row] == feeder) {
+                    rows[count++] = row;
+                }
+            }
+        }
+        return select(rows, count, newestFirst);
+    }
+
+    /**
+     * Finds the first row recorded at or before the given time by binary search.
+     * The catalog must be sorted newest first.
+     * @param timeMillis The time in epoch milliseconds.
+     * @return The row, or {@link #size()} if all rows are newer.
+     * @throws IllegalStateException if the catalog is not sorted newest first.
+     */
+    public int indexAtOrBefore(long timeMillis) {
+        if (!newestFirst) {
+            throw new IllegalStateException("Catalog is not sorted by time");
+        }
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (recordedAt[mid] > timeMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the rows recorded in a time range by binary search. The catalog must be sorted newest first.
+     * @param fromMillis The start of the range (inclusive).
+     * @param toMillis The end of the range (inclusive).
+     * @return The matching rows, newest first.
+     */
+    public VideoCatalog range(long fromMillis, long toMillis) {
+        int start = indexAtOrBefore(toMillis);
+        int end = fromMillis == Long.MIN_VALUE ? size : indexAtOrBefore(fromMillis - 1);
+        int count = Math.max(0, end - start);
+        int[] rows = new int[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = start + i;
+        }
+        return select(rows, count, true);
+    }
+
+    /**
+     * Returns a read-only list view that creates a VideoItem for each row it is asked for.
+     * @return The list view.
+     */
+    public List<VideoItem> asList() {
+        return new AbstractList<VideoItem>() {
+            @Override
+            public VideoItem get(int index) {
+                return getItem(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + ", size " + size);
+        }
+        return row;
+    }
+
+    /**
+     * Copies the given rows, in the given order, into a new catalog sharing the dictionaries.
+     */
+    private VideoCatalog select(int[] rows, int count, boolean sorted) {
+        long[] newRecordedAt = new long[count];
+        int[] newFeederIndex = new int[count];
+        int[] newPrefixIndex = new int[count];
+        int[] newOffsets = new int[count + 1];
+        String[] newSuffixes = urlSuffixes != null ? new String[count] : null;
+        int chars = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            chars += nameOffsets[row + 1] - nameOffsets[row];
+        }
+        byte[] newLatin1 = latin1Names != null ? new byte[chars] : null;
+        char[] newChars = charNames != null ? new char[chars] : null;
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            newRecordedAt[i] = recordedAt[row];
+            newFeederIndex[i] = feederIndex[row];
+            newPrefixIndex[i] = prefixIndex[row];
+            int length = nameOffsets[row + 1] - nameOffsets[row];
+            if (newLatin1 != null) {
+                System.arraycopy(latin1Names, nameOffsets[row], newLatin1, position, length);
+            } else {
+                System.arraycopy(charNames, nameOffsets[row], newChars, position, length);
+            }
+            newOffsets[i] = position;
+            position += length;
+            if (newSuffixes != null) {
+                newSuffixes[i] = urlSuffixes[row];
+            }
+        }
+        newOffsets[count] = position;
+        return new VideoCatalog(count, newRecordedAt, newFeederIndex, newPrefixIndex, newOffsets, newLatin1, newChars,
+                newSuffixes, feeders, prefixes, sorted);
+    }
+
+    private static int[] identity(int count) {
+        int[] rows = new int[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+
+    private void mergeSort(int[] rows, int[] buffer, int from, int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                int j = i - 1;
+                while (j >= from && compareRows(rows[j], row) > 0) {
+                    rows[j + 1] = rows[j];
+                    j--;
+                }
+                rows[j + 1] = row;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, mid);
+        mergeSort(rows, buffer, mid, to);
+        if (compareRows(rows[mid - 1], rows[mid]) <= 0) {
+            return;
+        }
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && compareRows(buffer[left], buffer[right]) <= 0)) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+
+    private char nameChar(int position) {
+        return latin1Names != null ? (char) (latin1Names[position] & 0xFF) : charNames[position];
+    }
+
+    /**
+     * Compares two rows like {@link VideoItem#NEWEST_FIRST}: newer first, then filename descending.
+     */
+    private int compareRows(int a, int b) {
+        int byTime = Long.compare(recordedAt[b], recordedAt[a]);
+        if (byTime != 0) {
+            return byTime;
+        }
+        int aStart = nameOffsets[a];
+        int aLength = nameOffsets[a + 1] - aStart;
+        int bStart = nameOffsets[b];
+        int bLength = nameOffsets[b + 1] - bStart;
+        int common = Math.min(aLength, bLength);
+        for (int i = 0; i < common; i++) {
+            int diff = nameChar(bStart + i) - nameChar(aStart + i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return bLength - aLength;
+    }
+}
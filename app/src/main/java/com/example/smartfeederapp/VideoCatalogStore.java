@@ -0,0 +1,295 @@
+package com.example.smartfeederapp;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Persistent copy of the video catalog of the configured server, kept in SQLite so the
+ * list can be shown on launch before the network answers. Rows are indexed by recording
+ * time and by feeder and recording time, so the newest rows and time ranges of one feeder
+ * are read through an index instead of a table scan.
+ * The stored sync token is only set while the store holds the complete catalog as of that
+ * token; a partial copy (for example, only the first pages) has no token and is replaced by
+ * the next full load.
+ * All methods do disk I/O and must be called off the main thread. Implemented as a Singleton.
+ */
+public class VideoCatalogStore extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "video_catalog.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE_VIDEOS = "videos";
+    private static final String TABLE_META = "meta";
+    private static final String META_SERVER = "server";
+    private static final String META_SYNC_TOKEN = "sync_token";
+
+    private static volatile VideoCatalogStore instance;
+
+    /**
+     * Constructor for VideoCatalogStore. Package-private so instrumented tests can use
+     * their own database file.
+     * @param context Application context.
+     * @param databaseName The database file name, or null for an in-memory database.
+     */
+    VideoCatalogStore(Context context, String databaseName) {
+        super(context, databaseName, null, DATABASE_VERSION);
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    /**
+     * Gets the singleton instance of VideoCatalogStore.
+     * @param context Application context.
+     * @return The singleton VideoCatalogStore instance.
+     */
+    public static VideoCatalogStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (VideoCatalogStore.class) {
+                if (instance == null) {
+                    instance = new VideoCatalogStore(context.getApplicationContext(), DATABASE_NAME);
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_VIDEOS + " ("
+                + "filename TEXT PRIMARY KEY NOT NULL, "
+                + "url TEXT NOT NULL, "
+                + "feeder_id TEXT NOT NULL, "
+                + "recorded_at INTEGER NOT NULL, "
+                + "synced_at INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX idx_videos_time ON " + TABLE_VIDEOS + " (recorded_at, filename)");
+        db.execSQL("CREATE INDEX idx_videos_feeder_time ON " + TABLE_VIDEOS + " (feeder_id, recorded_at)");
+        db.execSQL("CREATE TABLE " + TABLE_META + " (key TEXT PRIMARY KEY NOT NULL, value TEXT)");
+    }
+
+    /**
+     * The store is a cache of server data, so an upgrade simply starts over.
+     */
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_VIDEOS);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_META);
+        onCreate(db);
+    }
+
+    /**
+     * Makes the store hold the catalog of the given server. If it held another server's
+     * catalog, that catalog is dropped.
+     * @param serverKey Identifies the server, e.g. its base URL.
+     */
+    public void bindServer(String serverKey) {
+        if (serverKey == null || serverKey.equals(getMeta(META_SERVER))) {
+            return;
+        }
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_VIDEOS, null, null);
+            db.delete(TABLE_META, null, null);
+            putMeta(db, META_SERVER, serverKey);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * @return The number of stored videos.
+     */
+    public int count() {
+        return (int) DatabaseUtils.queryNumEntries(getReadableDatabase(), TABLE_VIDEOS);
+    }
+
+    /**
+     * Reads stored videos newest first, continuing after the given video. Uses keyset
+     * paging on the time index, so reading deep into the catalog costs the same as the start.
+     * @param after The last video of the previous batch, or null to start with the newest.
+     * @param limit The maximum number of videos to return.
+     * @return The videos, newest first.
+     */
+    public List<VideoItem> loadNewest(VideoItem after, int limit) {
+        Cursor cursor;
+        if (after == null) {
+            cursor = getReadableDatabase().rawQuery("SELECT filename, url FROM " + TABLE_VIDEOS
+                    + " ORDER BY recorded_at DESC, filename DESC LIMIT " + limit, null);
+        } else {
+            String recordedAt = Long.toString(after.getRecordedAtMillis());
+            cursor = getReadableDatabase().rawQuery("SELECT filename, url FROM " + TABLE_VIDEOS
+                    + " WHERE recorded_at < ? OR (recorded_at = ? AND filename < ?)"
+                    + " ORDER BY recorded_at DESC, filename DESC LIMIT " + limit,
+                    new String[]{recordedAt, recordedAt, after.getFilename()});
+        }
+        return readItems(cursor);
+    }
+
+    /**
+     * Reads the videos recorded in a time range, newest first.
+     * @param feederId The feeder to restrict the query to, or null for all feeders.
+     * @param fromMillis The start of the range (inclusive), in epoch milliseconds.
+     * @param toMillis The end of the range (inclusive), in epoch milliseconds.
+     * @param limit The maximum number of videos to return.
+     * @return The videos, newest first.
+     */
+    public List<VideoItem> queryRange(String feederId, long fromMillis, long toMillis, int limit) {
+        String from = Long.toString(fromMillis);
+        String to = Long.toString(toMillis);
+        Cursor cursor;
+        if (feederId == null) {
+            cursor = getReadableDatabase().rawQuery("SELECT filename, url FROM " + TABLE_VIDEOS
+                    + " WHERE recorded_at BETWEEN ? AND ? ORDER BY recorded_at DESC LIMIT " + limit,
+                    new String[]{from, to});
+        } else {
+            cursor = getReadableDatabase().rawQuery("SELECT filename, url FROM " + TABLE_VIDEOS
+                    + " WHERE feeder_id = ? AND recorded_at BETWEEN ? AND ? ORDER BY recorded_at DESC LIMIT " + limit,
+                    new String[]{feederId, from, to});
+        }
+        return readItems(cursor);
+    }
+
+    /**
+     * Inserts or updates videos in one transaction.
+     * @param items The videos to store.
+     * @param syncedAt The start time of the load the videos belong to, see {@link #completePass(long, String)}.
+     */
+    public void upsert(List<VideoItem> items, long syncedAt) {
+        if (items.isEmpty()) {
+            return;
+        }
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            upsert(db, items, syncedAt);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Applies a delta sync in one transaction. The sync token is only advanced if the store
+     * was complete before, so a partial copy never gains a token.
+     * @param added The videos added on the server.
+     * @param removedFilenames The filenames of the videos removed on the server.
+     * @param syncToken The token returned with the delta.
+     * @param syncedAt The time of the sync.
+     */
+    public void applyChanges(List<VideoItem> added, Collection<String> removedFilenames, String syncToken, long syncedAt) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            upsert(db, added, syncedAt);
+            if (!removedFilenames.isEmpty()) {
+                SQLiteStatement delete = db.compileStatement("DELETE FROM " + TABLE_VIDEOS + " WHERE filename = ?");
+                for (String filename : removedFilenames) {
+                    delete.bindString(1, filename);
+                    delete.executeUpdateDelete();
+                }
+            }
+            if (getMeta(META_SYNC_TOKEN) != null) {
+                putMeta(db, META_SYNC_TOKEN, syncToken);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Marks a load of the whole catalog as complete: every video not stored or refreshed
+     * since the load started no longer exists on the server and is deleted, and the token
+     * of the load is stored.
+     * @param passStartedAt The start time passed to {@link #upsert(List, long)} by the load.
+     * @param syncToken The sync token of the load, or null if the server has none.
+     */
+    public void completePass(long passStartedAt, String syncToken) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_VIDEOS, "synced_at < ?", new String[]{Long.toString(passStartedAt)});
+            putMeta(db, META_SYNC_TOKEN, syncToken);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * @return The sync token of the complete stored catalog, or null if the store is partial or empty.
+     */
+    public String getSyncToken() {
+        return getMeta(META_SYNC_TOKEN);
+    }
+
+    /**
+     * Deletes all stored videos and the sync token.
+     */
+    public void clear() {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_VIDEOS, null, null);
+            db.delete(TABLE_META, "key = ?", new String[]{META_SYNC_TOKEN});
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static void upsert(SQLiteDatabase db, List<VideoItem> items, long syncedAt) {
+        SQLiteStatement insert = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_VIDEOS
+                + " (filename, url, feeder_id, recorded_at, synced_at) VALUES (?, ?, ?, ?, ?)");
+        for (VideoItem item : items) {
+            String url = item.getUrl();
+            if (item.getFilename() == null || url == null) {
+                continue;
+            }
+            insert.bindString(1, item.getFilename());
+            insert.bindString(2, url);
+            insert.bindString(3, item.getFeederId());
+            insert.bindLong(4, item.getRecordedAtMillis());
+            insert.bindLong(5, syncedAt);
+            insert.executeInsert();
+        }
+    }
+
+    private static List<VideoItem> readItems(Cursor cursor) {
+        try {
+            List<VideoItem> items = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                items.add(new VideoItem(cursor.getString(0), cursor.getString(1)));
+            }
+            return items;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private String getMeta(String key) {
+        try (Cursor cursor = getReadableDatabase().rawQuery("SELECT value FROM " + TABLE_META + " WHERE key = ?", new String[]{key})) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    private static void putMeta(SQLiteDatabase db, String key, String value) {
+        if (value == null) {
+            db.delete(TABLE_META, "key = ?", new String[]{key});
+            return;
+        }
+        ContentValues values = new ContentValues(2);
+        values.put("key", key);
+        values.put("value", value);
+        db.insertWithOnConflict(TABLE_META, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.smartfeederapp;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the changes to the video catalog since a given sync token.
+ * If reset is true the token was no longer known to the server and the client
+ * has to reload the whole catalog.
+ */
+public class VideoDelta {
+    @SerializedName("added")
+    private List<VideoItem> added;
+
+    @SerializedName("removed")
+    private List<VideoItem> removed;
+
+    @SerializedName("sync_token")
+    private String syncToken;
+
+    @SerializedName("reset")
+    private boolean reset;
+
+    public VideoDelta(List<VideoItem> added, List<VideoItem> removed, String syncToken, boolean reset) {
+        this.added = added;
+        this.removed = removed;
+        this.syncToken = syncToken;
+        this.reset = reset;
+    }
+
+    /**
+     * @return The videos recorded since the last sync, newest first.
+     */
+    public List<VideoItem> getAdded() {
+        return added != null ? added : Collections.<VideoItem>emptyList();
+    }
+
+    /**
+     * @return The videos deleted on the server since the last sync.
+     */
+    public List<VideoItem> getRemoved() {
+        return removed != null ? removed : Collections.<VideoItem>emptyList();
+    }
+
+    /**
+     * @return The filenames of the removed videos.
+     */
+    public List<String> getRemovedFilenames() {
+        List<String> filenames = new ArrayList<>(getRemoved().size());
+        for (VideoItem item : getRemoved()) {
+            filenames.add(item.getFilename());
+        }
+        return filenames;
+    }
+
+    public String getSyncToken() {
+        return syncToken;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+}
@@ -1,30 +1,110 @@
 package com.example.smartfeederapp;
 
+import java.util.Comparator;
+
 /**
  * Represents a video item obtained from the server, containing its filename and URL.
+ * The recording time and feeder are parsed from the filename and URL once, when the item
+ * is created, so sorting and grouping only compare the parsed fields.
+ * Items are immutable and can be shared between threads. To keep large catalogs small,
+ * the URL is not stored as one String: its folder prefix is shared by all items of the
+ * folder, and the rest is omitted when it equals the filename. The full URL is built
+ * when {@link #getUrl()} is called, which only playback and download need.
  */
-public class VideoItem {
-    private String filename;
-    private String url;
+public final class VideoItem {
+
+    /**
+     * Orders videos newest first by recording time. Videos with the same time, including
+     * those whose time is unknown, are ordered by filename, descending.
+     */
+    public static final Comparator<VideoItem> NEWEST_FIRST = (a, b) -> {
+        int byTime = Long.compare(b.recordedAtMillis, a.recordedAtMillis);
+        if (byTime != 0) {
+            return byTime;
+        }
+        String left = a.filename != null ? a.filename : "";
+        String right = b.filename != null ? b.filename : "";
+        return right.compareTo(left);
+    };
+
+    private final String filename;
+    /** The shared folder part of the URL, or null if the item has no URL. */
+    private final String urlPrefix;
+    /** The part of the URL after the prefix, or null if it equals the filename. */
+    private final String urlSuffix;
+    private final long recordedAtMillis;
+    private final String feederId;
 
     public VideoItem(String filename, String url) {
         this.filename = filename;
-        this.url = url;
+        this.recordedAtMillis = VideoNameParser.parseRecordedAt(filename);
+        this.feederId = VideoNameParser.parseFeederId(url);
+        if (url == null) {
+            this.urlPrefix = null;
+            this.urlSuffix = null;
+        } else {
+            this.urlPrefix = VideoNameParser.parseUrlPrefix(url);
+            int suffixStart = urlPrefix.length();
+            boolean suffixIsFilename = filename != null && url.length() - suffixStart == filename.length()
+                    && url.startsWith(filename, suffixStart);
+            this.urlSuffix = suffixIsFilename ? null : url.substring(suffixStart);
+        }
+    }
+
+    /**
+     * Creates an item from parts that were already parsed, e.g. a row of a VideoCatalog.
+     */
+    VideoItem(String filename, String urlPrefix, String urlSuffix, long recordedAtMillis, String feederId) {
+        this.filename = filename;
+        this.urlPrefix = urlPrefix;
+        this.urlSuffix = urlSuffix;
+        this.recordedAtMillis = recordedAtMillis;
+        this.feederId = feederId;
     }
 
     public String getFilename() {
         return filename;
     }
 
-    public void setFilename(String filename) {
-        this.filename = filename;
+    /**
+     * Builds the full URL of the video. Allocates a new String on every call, so callers
+     * that need it repeatedly should keep the result.
+     * @return The URL, or null if the server did not provide one.
+     */
+    public String getUrl() {
+        if (urlPrefix == null) {
+            return null;
+        }
+        String suffix = urlSuffix != null ? urlSuffix : filename;
+        return urlPrefix.isEmpty() ? suffix : urlPrefix.concat(suffix);
     }
 
-    public String getUrl() {
-        return url;
+    /**
+     * @return The shared folder part of the URL, or null if the item has no URL.
+     */
+    String getUrlPrefix() {
+        return urlPrefix;
+    }
+
+    /**
+     * @return The part of the URL after the prefix, or null if it equals the filename.
+     */
+    String getUrlSuffix() {
+        return urlSuffix;
+    }
+
+    /**
+     * @return The recording time in epoch milliseconds, or {@link VideoNameParser#UNKNOWN_TIME}
+     *         if the filename does not follow the naming scheme.
+     */
+    public long getRecordedAtMillis() {
+        return recordedAtMillis;
     }
 
-    public void setUrl(String url) {
-        this.url = url;
+    /**
+     * @return The interned feeder ID, or an empty string if the URL does not name a feeder.
+     */
+    public String getFeederId() {
+        return feederId;
     }
-} 
\ No newline at end of file
+}
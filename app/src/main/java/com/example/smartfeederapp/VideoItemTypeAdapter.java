@@ -0,0 +1,60 @@
+package com.example.smartfeederapp;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Hand-written Gson adapter for VideoItem.
+ * Reads the fields by name with a switch instead of Gson's reflective binding, so no
+ * field lookups, reflective sets or unsafe allocations happen per item.
+ * Unknown fields and null values are skipped. Stateless and thread-safe.
+ */
+public final class VideoItemTypeAdapter extends TypeAdapter<VideoItem> {
+
+    @Override
+    public void write(JsonWriter out, VideoItem item) throws IOException {
+        if (item == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("filename").value(item.getFilename());
+        out.name("url").value(item.getUrl());
+        out.endObject();
+    }
+
+    @Override
+    public VideoItem read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String filename = null;
+        String url = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "filename":
+                    filename = in.nextString();
+                    break;
+                case "url":
+                    url = in.nextString();
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return new VideoItem(filename, url);
+    }
+}
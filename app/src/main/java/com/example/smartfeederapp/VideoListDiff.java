@@ -0,0 +1,219 @@
+package com.example.smartfeederapp;
+
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The row changes that turn one version of the video list into another.
+ * Videos are matched by filename, which is unique within a catalog, so the diff is computed
+ * in linear time plus a longest increasing subsequence over the kept videos; DiffUtil's
+ * O((N + M) * D) search would take seconds for 100k rows even with little churn.
+ * Kept videos that changed order are reported as removed and inserted again, and kept
+ * videos with a different URL as changed. Removals come first, back to front, then
+ * insertions front to back, then changes at their new positions; consecutive rows are
+ * reported as one range.
+ * Calculating is safe on a background thread as long as both versions are not modified.
+ */
+final class VideoListDiff {
+
+    private static final int REMOVED = 0;
+    private static final int INSERTED = 1;
+    private static final int CHANGED = 2;
+
+    /**
+     * Read access to one version of the list.
+     */
+    interface Rows {
+        /**
+         * @return The number of rows.
+         */
+        int size();
+
+        /**
+         * @return The filename of a row, which identifies the video.
+         */
+        String getFilename(int row);
+
+        /**
+         * @return The URL of a row, compared to detect changed videos.
+         */
+        String getUrl(int row);
+    }
+
+    // Operations as (type, position, count) triples, in dispatch order.
+    private final int[] operations;
+    private final int operationCount;
+
+    private VideoListDiff(int[] operations, int operationCount) {
+        this.operations = operations;
+        this.operationCount = operationCount;
+    }
+
+    /**
+     * Calculates the changes from one version of the list to another.
+     * @param oldRows The version shown now.
+     * @param newRows The version to show.
+     * @return The changes.
+     */
+    static VideoListDiff calculate(Rows oldRows, Rows newRows) {
+        int oldSize = oldRows.size();
+        int newSize = newRows.size();
+        Map<String, Integer> oldPositions = new HashMap<>(oldSize * 4 / 3 + 1);
+        for (int i = 0; i < oldSize; i++) {
+            oldPositions.put(oldRows.getFilename(i), i);
+        }
+
+        // For each new row, the old row of the same video, or -1 for a new video.
+        int[] source = new int[newSize];
+        boolean[] oldUsed = new boolean[oldSize];
+        for (int j = 0; j < newSize; j++) {
+            Integer old = oldPositions.get(newRows.getFilename(j));
+            if (old != null && !oldUsed[old]) {
+                oldUsed[old] = true;
+                source[j] = old;
+            } else {
+                source[j] = -1;
+            }
+        }
+
+        boolean[] staying = longestIncreasingRun(source);
+        boolean[] oldStays = new boolean[oldSize];
+        for (int j = 0; j < newSize; j++) {
+            if (staying[j]) {
+                oldStays[source[j]] = true;
+            }
+        }
+
+        Builder builder = new Builder();
+        for (int i = oldSize - 1; i >= 0; i--) {
+            if (!oldStays[i]) {
+                int end = i;
+                while (i > 0 && !oldStays[i - 1]) {
+                    i--;
+                }
+                builder.add(REMOVED, i, end - i + 1);
+            }
+        }
+        for (int j = 0; j < newSize; j++) {
+            if (!staying[j]) {
+                builder.add(INSERTED, j, 1);
+            }
+        }
+        for (int j = 0; j < newSize; j++) {
+            if (staying[j] && !equal(oldRows.getUrl(source[j]), newRows.getUrl(j))) {
+                builder.add(CHANGED, j, 1);
+            }
+        }
+        return new VideoListDiff(builder.operations, builder.count);
+    }
+
+    /**
+     * Marks the new rows whose old rows form a longest increasing sequence, which can stay in
+     * place while all other rows are removed and inserted.
+     * @param source The old row of each new row, or -1.
+     */
+    private static boolean[] longestIncreasingRun(int[] source) {
+        int n = source.length;
+        int[] tails = new int[n];
+        int[] previous = new int[n];
+        int length = 0;
+        for (int j = 0; j < n; j++) {
+            int value = source[j];
+            if (value < 0) {
+                continue;
+            }
+            // Most refreshes keep the order, so try extending the run before searching.
+            int slot;
+            if (length == 0 || source[tails[length - 1]] < value) {
+                slot = length;
+            } else {
+                int low = 0;
+                int high = length - 1;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (source[tails[mid]] < value) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                slot = low;
+            }
+            previous[j] = slot > 0 ? tails[slot - 1] : -1;
+            tails[slot] = j;
+            if (slot == length) {
+                length++;
+            }
+        }
+        boolean[] staying = new boolean[n];
+        for (int j = length > 0 ? tails[length - 1] : -1; j >= 0; j = previous[j]) {
+            staying[j] = true;
+        }
+        return staying;
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * @return true if the two versions show the same rows.
+     */
+    boolean isEmpty() {
+        return operationCount == 0;
+    }
+
+    /**
+     * Reports the changes in order.
+     * @param callback The callback to notify, usually an AdapterListUpdateCallback.
+     */
+    void dispatchUpdatesTo(ListUpdateCallback callback) {
+        for (int i = 0; i < operationCount; i += 3) {
+            int position = operations[i + 1];
+            int count = operations[i + 2];
+            switch (operations[i]) {
+                case REMOVED:
+                    callback.onRemoved(position, count);
+                    break;
+                case INSERTED:
+                    callback.onInserted(position, count);
+                    break;
+                default:
+                    callback.onChanged(position, count, null);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Collects operations, merging each into the previous one where they form one range.
+     */
+    private static final class Builder {
+        int[] operations = new int[48];
+        int count;
+
+        void add(int type, int position, int rows) {
+            if (count > 0 && operations[count - 3] == type) {
+                int last = count - 3;
+                if (type == REMOVED && position + rows == operations[last + 1]) {
+                    operations[last + 1] = position;
+                    operations[last + 2] += rows;
+                    return;
+                }
+                if (type != REMOVED && operations[last + 1] + operations[last + 2] == position) {
+                    operations[last + 2] += rows;
+                    return;
+                }
+            }
+            if (count == operations.length) {
+                operations = Arrays.copyOf(operations, count * 2);
+            }
+            operations[count++] = type;
+            operations[count++] = position;
+            operations[count++] = rows;
+        }
+    }
+}
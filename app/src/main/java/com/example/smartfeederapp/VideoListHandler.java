@@ -6,9 +6,17 @@ import android.view.View;
 import android.widget.ProgressBar;
 import android.widget.Toast;
 import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -16,16 +24,63 @@ import retrofit2.Response;
 /**
  * Handles loading the list of recorded videos from the API
  * and managing the RecyclerView and its adapter.
+ * The catalog is loaded page by page; the next page is requested as the list
+ * is scrolled towards the last loaded row. Servers without the paged endpoint
+ * fall back to a single full-list request, which is decoded as a stream off the
+ * main thread and shown batch by batch.
+ * Once a sync token is known, later loads only fetch the videos added and removed
+ * since then and apply them to the adapter as range updates.
+ * Everything loaded is also written to a VideoCatalogStore. The first load after launch
+ * shows the stored catalog right away and then revalidates it against the server in the
+ * background, with a delta sync if the stored copy is complete.
  */
 public class VideoListHandler {
 
     private static final String TAG = "VideoListHandler";
+    private static final int PREFETCH_DISTANCE = 10;
+    private static final int RESTORE_FIRST_BATCH_SIZE = 50;
+    private static final int RESTORE_BATCH_SIZE = 1000;
+    /** Full lists with at least this many videos are shown from a column-oriented VideoCatalog. */
+    static final int COLUMNAR_CATALOG_THRESHOLD = 10_000;
+    private static final ExecutorService DECODE_EXECUTOR = Executors.newSingleThreadExecutor();
 
     private final Context context;
     private final ApiClient apiClient;
     private final VideoAdapter videoAdapter;
     private final ProgressBar progressBar;
     private final RecyclerView rvVideoList;
+    private final VideoPagingSource pagingSource;
+    private LinearLayoutManager layoutManager;
+    private ApiService pagingCheckedService = null;
+    private boolean pagingSupported = true;
+    private String syncToken = null;
+    private final Executor decodeExecutor;
+    private final Executor mainExecutor;
+    private volatile int fullListGeneration = 0;
+    private boolean fullListInFlight = false;
+    private Call<VideoDelta> syncCall;
+    private Call<ResponseBody> fullListCall;
+    private LoadListener pendingLoadListener;
+    private final VideoCatalogStore catalogStore;
+    private boolean storeRestored = false;
+    private boolean revalidating = false;
+    private int restoreGeneration = 0;
+    private long passStartedAt = 0;
+    private String passServerKey;
+    private VideoSearchIndex searchIndex = new VideoSearchIndex();
+    private boolean searchIndexStale = false;
+    private String searchQuery = "";
+
+    /**
+     * Callback for the outcome of a load started with {@link #loadVideos(LoadListener)}.
+     */
+    public interface LoadListener {
+        /**
+         * Called once the first visible rows are in place, or the load failed.
+         * @param success true if the list was loaded or brought up to date.
+         */
+        void onLoadFinished(boolean success);
+    }
 
     /**
      * Constructor for VideoListHandler.
@@ -36,66 +91,738 @@ public class VideoListHandler {
      * @param pb ProgressBar instance to show loading state.
      */
     public VideoListHandler(Context context, ApiClient apiClient, RecyclerView rv, VideoAdapter adapter, ProgressBar pb) {
+        this(context, apiClient, rv, adapter, pb, DECODE_EXECUTOR, ContextCompat.getMainExecutor(context),
+                VideoCatalogStore.getInstance(context));
+    }
+
+    /**
+     * Constructor for VideoListHandler with explicit executors. Package-private so tests
+     * can decode synchronously.
+     * @param context Context for displaying Toasts.
+     * @param apiClient ApiClient instance for making network requests.
+     * @param rv RecyclerView instance to display the video list.
+     * @param adapter VideoAdapter instance associated with the RecyclerView.
+     * @param pb ProgressBar instance to show loading state.
+     * @param decodeExecutor Executor that decodes the full video list.
+     * @param mainExecutor Executor that applies decoded batches on the main thread.
+     */
+    VideoListHandler(Context context, ApiClient apiClient, RecyclerView rv, VideoAdapter adapter, ProgressBar pb,
+                     Executor decodeExecutor, Executor mainExecutor) {
+        this(context, apiClient, rv, adapter, pb, decodeExecutor, mainExecutor, null);
+    }
+
+    /**
+     * Constructor for VideoListHandler with explicit executors and catalog store.
+     * @param context Context for displaying Toasts.
+     * @param apiClient ApiClient instance for making network requests.
+     * @param rv RecyclerView instance to display the video list.
+     * @param adapter VideoAdapter instance associated with the RecyclerView.
+     * @param pb ProgressBar instance to show loading state.
+     * @param decodeExecutor Executor that decodes the full video list and accesses the store.
+     * @param mainExecutor Executor that applies decoded batches on the main thread.
+     * @param catalogStore The store the catalog is persisted in, or null to keep it in memory only.
+     */
+    VideoListHandler(Context context, ApiClient apiClient, RecyclerView rv, VideoAdapter adapter, ProgressBar pb,
+                     Executor decodeExecutor, Executor mainExecutor, VideoCatalogStore catalogStore) {
         this.context = context;
         this.apiClient = apiClient;
         this.rvVideoList = rv;
         this.videoAdapter = adapter;
         this.progressBar = pb;
+        this.decodeExecutor = decodeExecutor;
+        this.mainExecutor = mainExecutor;
+        this.catalogStore = catalogStore;
+        this.pagingSource = new VideoPagingSource(VideoPagingSource.DEFAULT_PAGE_SIZE, pagingListener);
         setupRecyclerView();
     }
 
     /**
-     * Sets up the RecyclerView with a LinearLayoutManager and the VideoAdapter.
+     * Sets up the RecyclerView with a LinearLayoutManager and the VideoAdapter,
+     * and requests the next page when the list is scrolled near the last loaded row.
+     * While the list scrolls, drawn frames are attributed to scrolling by the FrameTimingCollector.
      */
     private void setupRecyclerView() {
-        LinearLayoutManager layoutManager = new LinearLayoutManager(context);
+        layoutManager = new LinearLayoutManager(context);
         layoutManager.setInitialPrefetchItemCount(4);
         rvVideoList.setLayoutManager(layoutManager);
-        rvVideoList.setNestedScrollingEnabled(false);
+        rvVideoList.setHasFixedSize(true);
         rvVideoList.setAdapter(videoAdapter);
+        rvVideoList.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                maybeLoadNextPage();
+            }
+
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                FrameTimingCollector.getInstance().setState(FrameTimingCollector.UiState.LIST_SCROLLING,
+                        newState != RecyclerView.SCROLL_STATE_IDLE);
+            }
+        });
     }
 
     /**
-     * Fetches the list of videos from the server using the ApiClient
-     * and updates the VideoAdapter upon successful retrieval. Checks API availability.
+     * Starts loading the list of videos from the server, first page first.
+     * Falls back to the full list if the server has no paged endpoint. Checks API availability.
      */
     public void loadVideos() {
+        loadVideos(null);
+    }
+
+    /**
+     * Starts loading the list of videos and reports when the first rows are shown.
+     * While a listener is pending, the caller owns the progress indicator and this handler
+     * does not toggle it. A load started while another listener is pending keeps that
+     * listener, which is then notified by the newer load.
+     * The first load shows the stored catalog first; the listener is then notified as soon
+     * as stored rows are shown and the server is queried in the background.
+     * @param listener The listener to notify, or null.
+     */
+    public void loadVideos(LoadListener listener) {
+        if (listener != null) {
+            pendingLoadListener = listener;
+        }
         ApiService service = apiClient.getApiService();
         if (service == null) {
             Log.w(TAG, "ApiService not available, cannot load videos.");
             Toast.makeText(context, "API not available. Check server address in Settings.", Toast.LENGTH_SHORT).show();
+            finishLoad(false);
+            return;
+        }
+        if (catalogStore != null && !storeRestored) {
+            storeRestored = true;
+            restoreFromStore(true);
+            return;
+        }
+
+        if (service != pagingCheckedService) {
+            pagingCheckedService = service;
+            pagingSupported = true;
+            syncToken = null;
+        }
+        if (!pagingSupported && syncToken == null) {
+            loadFullList(service);
+            return;
+        }
+        cancelFullList();
+        if (syncToken != null) {
+            syncChanges(service);
             return;
         }
 
         showProgress(true);
-        Log.d(TAG, "Requesting video list...");
+        Log.d(TAG, "Requesting first page of video list...");
+        passServerKey = apiClient.getBaseUrl();
+        pagingSource.start(service);
+    }
 
-        service.getVideos().enqueue(new Callback<List<VideoItem>>() {
+    /**
+     * Shows a first catalog page that arrived with another response, such as the bootstrap
+     * endpoint, instead of requesting it. Later pages and delta syncs continue from it.
+     * @param firstPage The first page of the catalog.
+     * @param listener The listener to notify once the page is shown, or null.
+     */
+    public void showFirstPage(VideoPage firstPage, LoadListener listener) {
+        if (listener != null) {
+            pendingLoadListener = listener;
+        }
+        ApiService service = apiClient.getApiService();
+        if (service == null) {
+            Log.w(TAG, "ApiService not available, cannot continue paging.");
+            finishLoad(false);
+            return;
+        }
+        storeRestored = true;
+        restoreGeneration++;
+        pagingCheckedService = service;
+        pagingSupported = true;
+        syncToken = null;
+        cancelFullList();
+        if (syncCall != null) {
+            syncCall.cancel();
+            syncCall = null;
+        }
+        passServerKey = apiClient.getBaseUrl();
+        pagingSource.startWithFirstPage(service, firstPage);
+    }
+
+    /**
+     * Shows the stored catalog without querying the server, for callers that fetch the
+     * first page themselves (see {@link #showFirstPage(VideoPage, LoadListener)}).
+     * Does nothing if the store was already read or there is no store.
+     */
+    public void showStoredCatalog() {
+        if (catalogStore != null && !storeRestored) {
+            storeRestored = true;
+            restoreFromStore(false);
+        }
+    }
+
+    /**
+     * Reads the stored catalog on the decode executor and shows it batch by batch, newest
+     * first; the first batch is small so the first rows appear quickly. Batches are dropped
+     * once data from the server has replaced the list.
+     * @param revalidate true to load from the server once the stored catalog is shown.
+     */
+    private void restoreFromStore(boolean revalidate) {
+        final int generation = ++restoreGeneration;
+        final String serverKey = apiClient.getBaseUrl();
+        showProgress(true);
+        decodeExecutor.execute(() -> {
+            String storedToken = null;
+            int loaded = 0;
+            try {
+                catalogStore.bindServer(serverKey);
+                storedToken = catalogStore.getSyncToken();
+                final int total = catalogStore.count();
+                VideoItem last = null;
+                int batchSize = RESTORE_FIRST_BATCH_SIZE;
+                List<VideoItem> batch;
+                while (!(batch = catalogStore.loadNewest(last, batchSize)).isEmpty()) {
+                    final List<VideoItem> rows = batch;
+                    final boolean first = loaded == 0;
+                    loaded += rows.size();
+                    final int shownTotal = Math.max(total, loaded);
+                    mainExecutor.execute(() -> {
+                        if (generation != restoreGeneration) {
+                            return;
+                        }
+                        if (first) {
+                            showFirstRows(rows, shownTotal);
+                            showProgress(false);
+                            finishLoad(true);
+                            revalidating = revalidate;
+                        } else {
+                            appendRows(rows, shownTotal);
+                        }
+                    });
+                    last = rows.get(rows.size() - 1);
+                    batchSize = RESTORE_BATCH_SIZE;
+                }
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error reading stored video catalog", e);
+            }
+            final String token = loaded > 0 ? storedToken : null;
+            final int restored = loaded;
+            mainExecutor.execute(() -> {
+                if (generation != restoreGeneration) {
+                    return;
+                }
+                Log.d(TAG, "Restored " + restored + " videos from the catalog store");
+                syncToken = token;
+                pagingCheckedService = apiClient.getApiService();
+                pagingSupported = true;
+                if (revalidate) {
+                    loadVideos();
+                } else {
+                    showProgress(false);
+                }
+            });
+        });
+    }
+
+    /**
+     * Runs a store update on the decode executor, after any store reads queued before it.
+     * The store is bound to the server the data came from first, so data loaded before a
+     * server address change never lands in the new server's catalog.
+     * Store errors are logged; the list on screen is not affected by them.
+     * @param serverKey The base URL the data was requested from.
+     * @param update The update to run.
+     */
+    private void persist(String serverKey, Runnable update) {
+        if (catalogStore == null) {
+            return;
+        }
+        decodeExecutor.execute(() -> {
+            try {
+                catalogStore.bindServer(serverKey);
+                update.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error updating stored video catalog", e);
+            }
+        });
+    }
+
+    /**
+     * Fetches the changes since the current sync token and merges them into the list.
+     * Falls back to a full reload if the server no longer knows the token or has no delta endpoint.
+     * @param service The ApiService to use.
+     */
+    private void syncChanges(ApiService service) {
+        final String sentToken = syncToken;
+        final String serverKey = apiClient.getBaseUrl();
+        showProgress(true);
+        Log.d(TAG, "Requesting video list changes since " + sentToken);
+
+        syncCall = service.getVideoChanges(sentToken);
+        syncCall.enqueue(new Callback<VideoDelta>() {
             @Override
-            public void onResponse(@NonNull Call<List<VideoItem>> call, @NonNull Response<List<VideoItem>> response) {
+            public void onResponse(@NonNull Call<VideoDelta> call, @NonNull Response<VideoDelta> response) {
                 showProgress(false);
+                if (!sentToken.equals(syncToken)) {
+                    // Another load replaced the token meanwhile and brought the list up to date.
+                    finishLoad(true);
+                    return;
+                }
+                boolean tokenRejected = response.code() == 404 || response.code() == 410
+                        || (response.isSuccessful() && response.body() != null && response.body().isReset());
+                if (tokenRejected) {
+                    Log.w(TAG, "Delta sync not possible (HTTP " + response.code() + "), reloading full list");
+                    syncToken = null;
+                    loadVideos();
+                    return;
+                }
                 if (response.isSuccessful() && response.body() != null) {
-                    List<VideoItem> videos = response.body();
-                    videoAdapter.setVideoList(videos);
-                    if (videos.isEmpty()) {
-                        Toast.makeText(context, "Video list is empty", Toast.LENGTH_SHORT).show();
+                    VideoDelta delta = response.body();
+                    List<String> removedFilenames = delta.getRemovedFilenames();
+                    videoAdapter.applyChanges(delta.getAdded(), removedFilenames);
+                    searchIndexStale = true;
+                    refreshSearch();
+                    syncToken = delta.getSyncToken();
+                    final String newToken = syncToken;
+                    final long syncedAt = System.currentTimeMillis();
+                    persist(serverKey, () -> catalogStore.applyChanges(delta.getAdded(), removedFilenames, newToken, syncedAt));
+                    int added = delta.getAdded().size();
+                    int removed = delta.getRemoved().size();
+                    if (added == 0 && removed == 0) {
+                        Toast.makeText(context, "Video list is up to date", Toast.LENGTH_SHORT).show();
                     } else {
-                        Toast.makeText(context, "Loaded " + videos.size() + " videos", Toast.LENGTH_SHORT).show();
+                        Toast.makeText(context, added + " new, " + removed + " removed videos", Toast.LENGTH_SHORT).show();
+                    }
+                    finishLoad(true);
+                } else {
+                    handleApiError(response, "syncing videos");
+                    finishLoad(false);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<VideoDelta> call, @NonNull Throwable t) {
+                if (call.isCanceled()) {
+                    // Canceled by cancel(), which drops the listener, or by a newer load, which reports to it.
+                    return;
+                }
+                showProgress(false);
+                Log.e(TAG, "Network error syncing videos", t);
+                Toast.makeText(context, "Network error: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+                finishLoad(false);
+            }
+        });
+    }
+
+    /**
+     * Requests the next page if the last visible row is within PREFETCH_DISTANCE
+     * of the last loaded row.
+     */
+    private void maybeLoadNextPage() {
+        if (!pagingSource.hasMore() || pagingSource.isLoading()) {
+            return;
+        }
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible != RecyclerView.NO_POSITION && lastVisible >= videoAdapter.getLoadedCount() - PREFETCH_DISTANCE) {
+            pagingSource.loadNextPage();
+        }
+    }
+
+    /**
+     * Receives pages from the VideoPagingSource and applies them to the adapter.
+     */
+    private final VideoPagingSource.Listener pagingListener = new VideoPagingSource.Listener() {
+        @Override
+        public void onPageLoaded(List<VideoItem> items, int totalCount, boolean firstPage) {
+            if (firstPage) {
+                restoreGeneration++;
+                passStartedAt = System.currentTimeMillis();
+                persistPage(items);
+                showProgress(false);
+                syncToken = pagingSource.getSyncToken();
+                showFirstRows(items, totalCount);
+                if (totalCount == 0) {
+                    Toast.makeText(context, "Video list is empty", Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(context, "Found " + totalCount + " videos", Toast.LENGTH_SHORT).show();
+                }
+                finishLoad(true);
+            } else {
+                persistPage(items);
+                appendRows(items, totalCount);
+                maybeLoadNextPage();
+            }
+        }
+
+        /**
+         * Stores a page of the current pass and, after the last page, completes the pass.
+         */
+        private void persistPage(List<VideoItem> items) {
+            final long pass = passStartedAt;
+            final String serverKey = passServerKey;
+            final boolean complete = !pagingSource.hasMore();
+            final String token = pagingSource.getSyncToken();
+            persist(serverKey, () -> {
+                catalogStore.upsert(items, pass);
+                if (complete) {
+                    catalogStore.completePass(pass, token);
+                }
+            });
+        }
+
+        @Override
+        public void onPagingUnsupported() {
+            pagingSupported = false;
+            loadFullList(pagingCheckedService);
+        }
+
+        @Override
+        public void onPageError(Response<?> response) {
+            showProgress(false);
+            handleApiError(response, "loading videos");
+            finishLoad(false);
+        }
+
+        @Override
+        public void onPageFailure(Throwable t) {
+            showProgress(false);
+            Log.e(TAG, "Network error loading videos", t);
+            Toast.makeText(context, "Network error: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+            finishLoad(false);
+        }
+    };
+
+    /**
+     * Fetches the complete list of videos in one request. The body is decoded on a
+     * background thread as it downloads and handed to the VideoAdapter in batches,
+     * so the first rows appear before the whole list has arrived.
+     * A call while a full-list load is still running joins that load instead of
+     * downloading the list again. A refresh of a list already on screen is collected in
+     * full instead and handed over once, so the adapter only updates the rows that changed.
+     * @param service The ApiService to use.
+     */
+    void loadFullList(ApiService service) {
+        if (fullListInFlight) {
+            Log.d(TAG, "Video list request already in flight, joining it");
+            return;
+        }
+        fullListInFlight = true;
+        final int generation = ++fullListGeneration;
+        final long pass = System.currentTimeMillis();
+        final String serverKey = apiClient.getBaseUrl();
+        final boolean refresh = videoAdapter.getLoadedCount() > 0;
+        showProgress(true);
+        Log.d(TAG, "Requesting video list...");
+
+        fullListCall = service.getVideosStream();
+        fullListCall.enqueue(new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
+                if (generation != fullListGeneration) {
+                    closeQuietly(response.body());
+                    return;
+                }
+                if (response.isSuccessful() && response.body() != null) {
+                    if (response.raw().networkResponse() != null && response.raw().networkResponse().code() == 304) {
+                        Log.d(TAG, "Video list not modified (304), served from HTTP cache");
                     }
+                    final ResponseBody body = response.body();
+                    decodeExecutor.execute(() -> decodeFullList(body, generation, pass, serverKey, refresh));
                 } else {
+                    fullListInFlight = false;
+                    showProgress(false);
                     handleApiError(response, "loading videos");
+                    finishLoad(false);
                 }
             }
 
             @Override
-            public void onFailure(@NonNull Call<List<VideoItem>> call, @NonNull Throwable t) {
+            public void onFailure(@NonNull Call<ResponseBody> call, @NonNull Throwable t) {
+                if (generation != fullListGeneration || call.isCanceled()) {
+                    return;
+                }
+                fullListInFlight = false;
                 showProgress(false);
                 Log.e(TAG, "Network error loading videos", t);
                 Toast.makeText(context, "Network error: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+                finishLoad(false);
             }
         });
     }
 
+    /**
+     * Decodes the full list body on the decode executor and posts each batch to the
+     * main executor. Stops early if a newer full-list load has started.
+     * Large lists are also collected into a VideoCatalog, which replaces the batches in
+     * the adapter once the list is complete.
+     * On a refresh, batches are not posted; the complete list (or, for a large list, only
+     * its VideoCatalog) and a search index for it are built here and replace the list on
+     * screen at the end.
+     * @param body The unbuffered response body; closed when decoding ends.
+     * @param generation The load this body belongs to.
+     * @param pass The start time of the load, used to prune the store once the list is complete.
+     * @param serverKey The base URL the list was requested from.
+     * @param refresh true if a list is already shown.
+     */
+    private void decodeFullList(ResponseBody body, int generation, long pass, String serverKey, boolean refresh) {
+        final int[] delivered = {0};
+        final RowCollector rows = new RowCollector();
+        final VideoSearchIndex freshIndex = refresh ? new VideoSearchIndex() : null;
+        try (ResponseBody ignored = body) {
+            final int total = VideoListStreamDecoder.decode(body.charStream(),
+                    VideoListStreamDecoder.DEFAULT_BATCH_SIZE,
+                    VideoListStreamDecoder.DEFAULT_BATCH_INTERVAL_MS,
+                    batch -> {
+                        if (generation != fullListGeneration) {
+                            return false;
+                        }
+                        final boolean first = delivered[0] == 0;
+                        delivered[0] += batch.size();
+                        final int loaded = delivered[0];
+                        storeQuietly(serverKey, () -> catalogStore.upsert(batch, pass));
+                        rows.addAll(batch);
+                        if (refresh) {
+                            freshIndex.addAll(batch);
+                            return true;
+                        }
+                        mainExecutor.execute(() -> {
+                            if (generation != fullListGeneration) {
+                                return;
+                            }
+                            if (first) {
+                                restoreGeneration++;
+                                showFirstRows(batch, loaded);
+                            } else {
+                                appendRows(batch, loaded);
+                            }
+                        });
+                        return true;
+                    });
+            if (generation == fullListGeneration) {
+                storeQuietly(serverKey, () -> catalogStore.completePass(pass, null));
+            }
+            final VideoCatalog catalog = rows.buildCatalog();
+            final List<VideoItem> all = rows.list;
+            mainExecutor.execute(() -> {
+                if (generation != fullListGeneration) {
+                    return;
+                }
+                if (total == 0 || refresh) {
+                    restoreGeneration++;
+                }
+                if (refresh && total > 0) {
+                    if (catalog != null) {
+                        videoAdapter.setCatalog(catalog);
+                    } else {
+                        videoAdapter.setVideoList(all);
+                    }
+                    searchIndex = freshIndex;
+                    searchIndexStale = false;
+                    refreshSearch();
+                } else if (catalog != null) {
+                    // Same rows in the same order, so the search index stays valid.
+                    videoAdapter.setCatalog(catalog);
+                    refreshSearch();
+                }
+                fullListInFlight = false;
+                showProgress(false);
+                if (total == 0) {
+                    videoAdapter.setVideoList(new ArrayList<>());
+                    searchIndex.clear();
+                    searchIndexStale = false;
+                    Toast.makeText(context, "Video list is empty", Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(context, "Loaded " + total + " videos", Toast.LENGTH_SHORT).show();
+                }
+                finishLoad(true);
+            });
+        } catch (IOException | RuntimeException e) {
+            mainExecutor.execute(() -> {
+                if (generation != fullListGeneration) {
+                    return;
+                }
+                fullListInFlight = false;
+                showProgress(false);
+                Log.e(TAG, "Error decoding video list", e);
+                Toast.makeText(context, "Error loading videos: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                finishLoad(false);
+            });
+        }
+    }
+
+    /**
+     * Collects the rows of a full-list load as a list while it is small and as a
+     * VideoCatalog from {@link #COLUMNAR_CATALOG_THRESHOLD} rows on, so a large list is
+     * never held in both forms. Used on the decode executor only.
+     */
+    private static final class RowCollector {
+        private List<VideoItem> list = new ArrayList<>();
+        private VideoCatalog.Builder columns;
+
+        void addAll(List<VideoItem> batch) {
+            if (columns != null) {
+                columns.addAll(batch);
+                return;
+            }
+            list.addAll(batch);
+            if (list.size() >= COLUMNAR_CATALOG_THRESHOLD) {
+                columns = new VideoCatalog.Builder(2 * list.size());
+                columns.addAll(list);
+                list = null;
+            }
+        }
+
+        /**
+         * @return The catalog, or null if the list stayed below the threshold.
+         */
+        VideoCatalog buildCatalog() {
+            return columns != null ? columns.build() : null;
+        }
+    }
+
+    /**
+     * Runs a store update on the current thread, which must be the decode executor,
+     * after binding the store to the server the data came from (see {@link #persist}).
+     * Store errors are logged so they do not abort the decode.
+     * @param serverKey The base URL the data was requested from.
+     * @param update The update to run.
+     */
+    private void storeQuietly(String serverKey, Runnable update) {
+        if (catalogStore == null) {
+            return;
+        }
+        try {
+            catalogStore.bindServer(serverKey);
+            update.run();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Error updating stored video catalog", e);
+        }
+    }
+
+    /**
+     * Replaces the list with its first rows and restarts the search index from them.
+     * @param items The first rows.
+     * @param totalCount The total number of videos in the catalog.
+     */
+    private void showFirstRows(List<VideoItem> items, int totalCount) {
+        videoAdapter.setFirstPage(items, totalCount);
+        searchIndex.clear();
+        searchIndexStale = false;
+        searchIndex.addAll(items);
+        refreshSearch();
+    }
+
+    /**
+     * Appends rows to the list and adds them to the search index.
+     * @param items The rows to append.
+     * @param totalCount The total number of videos in the catalog.
+     */
+    private void appendRows(List<VideoItem> items, int totalCount) {
+        videoAdapter.appendPage(items, totalCount);
+        if (!searchIndexStale) {
+            searchIndex.addAll(items);
+        }
+        refreshSearch();
+    }
+
+    /**
+     * Shows thumbnails in the rows, loaded with the given loader, and prefetches the
+     * thumbnails of the rows ahead in the scroll direction.
+     * @param loader The ThumbnailLoader.
+     */
+    public void setThumbnailLoader(ThumbnailLoader loader) {
+        videoAdapter.setThumbnailLoader(loader);
+        rvVideoList.addOnScrollListener(new ThumbnailPrefetcher(layoutManager, videoAdapter, loader, ThumbnailPrefetcher.DEFAULT_DISTANCE));
+    }
+
+    /**
+     * Shows a scrub preview of a recording while its row is long-pressed.
+     * @param loader The SpriteSheetLoader.
+     */
+    public void setSpriteSheetLoader(SpriteSheetLoader loader) {
+        videoAdapter.setSpriteSheetLoader(loader);
+    }
+
+    /**
+     * Narrows the list to the loaded videos whose filename contains words starting with the
+     * words of the query, e.g. "0307 mp4". Rows loaded later are matched as they arrive.
+     * @param query The text of the search box; blank shows all videos.
+     */
+    public void search(String query) {
+        String normalized = query != null ? query.trim().toLowerCase(Locale.ROOT) : "";
+        if (normalized.equals(searchQuery)) {
+            return;
+        }
+        searchQuery = normalized;
+        if (normalized.isEmpty()) {
+            videoAdapter.setVisibleRows(null);
+        } else {
+            refreshSearch();
+        }
+    }
+
+    /**
+     * Applies the current query to the loaded rows. After an incremental sync has moved rows,
+     * the index is rebuilt from the adapter first.
+     */
+    private void refreshSearch() {
+        if (searchQuery.isEmpty()) {
+            return;
+        }
+        if (searchIndexStale) {
+            searchIndex.clear();
+            searchIndex.addAll(videoAdapter.getLoadedItems());
+            searchIndexStale = false;
+            Log.d(TAG, String.format(Locale.US, "Search index rebuilt: %d videos, %d nodes, %d KB, %.1f ms",
+                    searchIndex.size(), searchIndex.getNodeCount(), searchIndex.getMemoryBytes() / 1024,
+                    searchIndex.getBuildNanos() / 1e6));
+        }
+        videoAdapter.setVisibleRows(searchIndex.search(searchQuery));
+    }
+
+    /**
+     * Abandons a running full-list load; batches that are still being decoded are dropped.
+     */
+    private void cancelFullList() {
+        fullListGeneration++;
+        fullListInFlight = false;
+        if (fullListCall != null) {
+            fullListCall.cancel();
+            fullListCall = null;
+        }
+    }
+
+    /**
+     * Cancels every request this handler has in flight and drops the pending load listener
+     * without notifying it. Used when the owning screen is torn down.
+     */
+    public void cancel() {
+        pendingLoadListener = null;
+        restoreGeneration++;
+        pagingSource.cancel();
+        cancelFullList();
+        if (syncCall != null) {
+            syncCall.cancel();
+            syncCall = null;
+        }
+        showProgress(false);
+    }
+
+    /**
+     * Notifies and clears the pending load listener, if any.
+     * @param success The outcome of the load.
+     */
+    private void finishLoad(boolean success) {
+        LoadListener listener = pendingLoadListener;
+        pendingLoadListener = null;
+        revalidating = false;
+        if (listener != null) {
+            listener.onLoadFinished(success);
+        }
+    }
+
+    private static void closeQuietly(ResponseBody body) {
+        if (body != null) {
+            body.close();
+        }
+    }
+
     /**
      * Sets the listener for actions performed on video items within the RecyclerView.
      * @param listener The listener implementing VideoAdapter.OnVideoActionListener.
@@ -105,11 +832,12 @@ public class VideoListHandler {
     }
 
     /**
-     * Shows or hides the progress bar.
+     * Shows or hides the progress bar, unless the caller of a pending load owns it.
+     * A background revalidation of the stored catalog does not show it.
      * @param show True to show, false to hide.
      */
     private void showProgress(boolean show) {
-        if (progressBar != null) {
+        if (progressBar != null && pendingLoadListener == null && !(show && revalidating)) {
             progressBar.setVisibility(show ? View.VISIBLE : View.GONE);
         }
     }
@@ -0,0 +1,76 @@
+package com.example.smartfeederapp;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes the JSON array returned by the videos endpoint incrementally with Gson's JsonReader.
+ * Each element is read with the same VideoItemTypeAdapter the Retrofit converter uses.
+ * Items are handed out in batches (by count or by elapsed time, whichever comes first)
+ * while the rest of the body is still being read, so only the current batch is held
+ * by the decoder instead of the whole response.
+ */
+public final class VideoListStreamDecoder {
+
+    public static final int DEFAULT_BATCH_SIZE = 200;
+    public static final long DEFAULT_BATCH_INTERVAL_MS = 16;
+
+    private static final VideoItemTypeAdapter ITEM_ADAPTER = new VideoItemTypeAdapter();
+
+    /**
+     * Receives decoded batches on the decoding thread.
+     */
+    public interface BatchListener {
+        /**
+         * Called with each decoded batch. The list is not used by the decoder afterwards.
+         * @param batch The decoded items, in response order.
+         * @return true to continue decoding, false to stop.
+         */
+        boolean onBatch(List<VideoItem> batch);
+    }
+
+    private VideoListStreamDecoder() {
+    }
+
+    /**
+     * Decodes a JSON array of video objects from the reader.
+     *
+     * @param reader The character stream of the response body.
+     * @param maxBatchSize The maximum number of items per batch.
+     * @param maxBatchIntervalMs The maximum time to hold a non-empty batch before handing it out.
+     * @param listener The listener that receives the batches.
+     * @return The number of items decoded.
+     * @throws IOException If reading fails or the JSON is malformed.
+     */
+    public static int decode(Reader reader, int maxBatchSize, long maxBatchIntervalMs, BatchListener listener) throws IOException {
+        JsonReader jsonReader = new JsonReader(reader);
+        long maxIntervalNanos = TimeUnit.MILLISECONDS.toNanos(maxBatchIntervalMs);
+        List<VideoItem> batch = new ArrayList<>(maxBatchSize);
+        long batchStartNanos = System.nanoTime();
+        int count = 0;
+
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            batch.add(ITEM_ADAPTER.read(jsonReader));
+            count++;
+            if (batch.size() >= maxBatchSize || System.nanoTime() - batchStartNanos >= maxIntervalNanos) {
+                if (!listener.onBatch(batch)) {
+                    return count;
+                }
+                batch = new ArrayList<>(maxBatchSize);
+                batchStartNanos = System.nanoTime();
+            }
+        }
+        jsonReader.endArray();
+
+        if (!batch.isEmpty()) {
+            listener.onBatch(batch);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.smartfeederapp;
+
+import java.util.Arrays;
+import java.util.TimeZone;
+
+/**
+ * Derives the recording time and feeder of a video from its filename and URL.
+ * Runs once per item when a VideoItem is created, so sorting and grouping can use the
+ * parsed fields instead of parsing strings again.
+ * The time is parsed in a single pass over the characters without substrings or Calendar
+ * instances. Feeder IDs and URL prefixes are interned, so all items of a feeder or folder
+ * share one String.
+ * Thread-safe.
+ */
+public final class VideoNameParser {
+
+    /** Recording time of videos whose filename does not follow the naming scheme. */
+    public static final long UNKNOWN_TIME = 0;
+
+    private static final String PREFIX = "video_";
+    private static final String VIDEO_PATH_SEGMENT = "videos";
+    private static final int NAME_LENGTH = 21;
+    private static final int MAX_POOL_SIZE = 256;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private static final Pool FEEDER_IDS = new Pool();
+    private static final Pool URL_PREFIXES = new Pool();
+
+    /**
+     * A small set of shared Strings. Lookups scan a copy-on-write array and compare regions,
+     * so known entries are found without locking or allocating. Once the pool is full, new
+     * values are returned as plain substrings.
+     */
+    private static final class Pool {
+        private final Object lock = new Object();
+        private volatile String[] entries = new String[0];
+
+        /**
+         * Returns the shared String equal to the given region, adding it if it is new.
+         */
+        String intern(String source, int start, int end) {
+            int length = end - start;
+            String found = find(entries, source, start, length);
+            if (found != null) {
+                return found;
+            }
+            synchronized (lock) {
+                String[] known = entries;
+                found = find(known, source, start, length);
+                if (found != null) {
+                    return found;
+                }
+                String value = source.substring(start, end);
+                if (known.length < MAX_POOL_SIZE) {
+                    String[] grown = Arrays.copyOf(known, known.length + 1);
+                    grown[known.length] = value;
+                    entries = grown;
+                }
+                return value;
+            }
+        }
+
+        private static String find(String[] known, String source, int start, int length) {
+            for (String value : known) {
+                if (value.length() == length && source.regionMatches(start, value, 0, length)) {
+                    return value;
+                }
+            }
+            return null;
+        }
+    }
+
+    private VideoNameParser() {
+    }
+
+    /**
+     * Parses the recording time from a filename of the form "video_YYYYMMDD_HHMMSS.mp4",
+     * interpreted in the device time zone. The zone is looked up on every call, so names
+     * parsed after the user changes the time zone follow the new one.
+     * @param filename The video filename.
+     * @return The recording time in epoch milliseconds, or {@link #UNKNOWN_TIME} if the name does not match.
+     */
+    public static long parseRecordedAt(String filename) {
+        return parseRecordedAt(filename, TimeZone.getDefault());
+    }
+
+    /**
+     * Parses the recording time from a filename of the form "video_YYYYMMDD_HHMMSS.mp4".
+     * @param filename The video filename.
+     * @param zone The time zone the camera clock runs in.
+     * @return The recording time in epoch milliseconds, or {@link #UNKNOWN_TIME} if the name does not match.
+     */
+    static long parseRecordedAt(String filename, TimeZone zone) {
+        if (filename == null || filename.length() < NAME_LENGTH || !filename.startsWith(PREFIX) || filename.charAt(14) != '_') {
+            return UNKNOWN_TIME;
+        }
+        int year = digits(filename, 6, 4);
+        int month = digits(filename, 10, 2);
+        int day = digits(filename, 12, 2);
+        int hour = digits(filename, 15, 2);
+        int minute = digits(filename, 17, 2);
+        int second = digits(filename, 19, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return UNKNOWN_TIME;
+        }
+        long local = daysFromCivil(year, month, day) * MILLIS_PER_DAY + ((hour * 60L + minute) * 60L + second) * 1000L;
+        return local - zone.getOffset(local - zone.getRawOffset());
+    }
+
+    /**
+     * Derives the feeder of a video from its URL. Videos served from a per-feeder folder
+     * ("/videos/{feeder}/{file}") belong to that feeder; videos directly under "/videos/"
+     * have no known feeder. Only the path is considered, never the host.
+     * @param url The video URL.
+     * @return The interned feeder ID, or an empty string if unknown.
+     */
+    public static String parseFeederId(String url) {
+        if (url == null) {
+            return "";
+        }
+        int scheme = url.indexOf("://");
+        int pathStart = scheme >= 0 ? url.indexOf('/', scheme + 3) : 0;
+        int end = url.lastIndexOf('/');
+        if (pathStart < 0 || end <= pathStart) {
+            return "";
+        }
+        int start = url.lastIndexOf('/', end - 1) + 1;
+        if (start == end || (end - start == VIDEO_PATH_SEGMENT.length() && url.startsWith(VIDEO_PATH_SEGMENT, start))) {
+            return "";
+        }
+        return FEEDER_IDS.intern(url, start, end);
+    }
+
+    /**
+     * Returns the folder part of a URL, up to and including the last '/', as a shared String.
+     * All videos of a catalog folder, e.g. "http://host:port/videos/", get the same instance.
+     * @param url The video URL.
+     * @return The interned prefix, or an empty string if the URL has no '/'.
+     */
+    public static String parseUrlPrefix(String url) {
+        return URL_PREFIXES.intern(url, 0, url.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Reads a fixed number of ASCII digits.
+     * @return The value, or -1 if a character is not a digit.
+     */
+    private static int digits(String s, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * @return The number of days of the month in the proleptic Gregorian calendar.
+     */
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Counts the days from 1970-01-01 to the given date of the proleptic Gregorian calendar.
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.smartfeederapp;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents one page of the video catalog returned by the paged videos endpoint.
+ * A null next cursor means this is the last page.
+ */
+public class VideoPage {
+    @SerializedName("items")
+    private List<VideoItem> items;
+
+    @SerializedName("next_cursor")
+    private String nextCursor;
+
+    @SerializedName("total")
+    private int total = -1;
+
+    @SerializedName("sync_token")
+    private String syncToken;
+
+    public VideoPage(List<VideoItem> items, String nextCursor, int total) {
+        this(items, nextCursor, total, null);
+    }
+
+    public VideoPage(List<VideoItem> items, String nextCursor, int total, String syncToken) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.total = total;
+        this.syncToken = syncToken;
+    }
+
+    public List<VideoItem> getItems() {
+        return items != null ? items : Collections.<VideoItem>emptyList();
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return The total number of videos in the catalog, or -1 if the server did not report it.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return The token describing the catalog snapshot this page belongs to, for later
+     *         delta syncs, or null if the server does not support them.
+     */
+    public String getSyncToken() {
+        return syncToken;
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.smartfeederapp;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Loads the video catalog page by page from the paged videos endpoint.
+ * Keeps the cursor of the next page and makes sure only one page request is in flight.
+ * Results are reported to a Listener on the thread Retrofit delivers callbacks on (the main thread).
+ */
+public class VideoPagingSource {
+
+    private static final String TAG = "VideoPagingSource";
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    private final int pageSize;
+    private final Listener listener;
+
+    private ApiService service;
+    private String nextCursor = null;
+    private String syncToken = null;
+    private int loadedCount = 0;
+    private boolean loading = false;
+    private boolean endReached = false;
+    private int generation = 0;
+    private Call<VideoPage> inFlightCall;
+
+    /**
+     * Callback interface for paging results.
+     */
+    public interface Listener {
+        /**
+         * Called when a page has been loaded.
+         * @param items The items of the page.
+         * @param totalCount The best known total size of the catalog (never less than the loaded count).
+         * @param firstPage True if this is the first page of a new load.
+         */
+        void onPageLoaded(List<VideoItem> items, int totalCount, boolean firstPage);
+
+        /**
+         * Called when the server does not provide the paged endpoint (HTTP 404).
+         */
+        void onPagingUnsupported();
+
+        /**
+         * Called when the server answered a page request with an error.
+         * @param response The unsuccessful response.
+         */
+        void onPageError(Response<?> response);
+
+        /**
+         * Called when a page request failed at the network level.
+         * @param t The failure cause.
+         */
+        void onPageFailure(Throwable t);
+    }
+
+    /**
+     * Constructor for VideoPagingSource.
+     * @param pageSize The number of items requested per page.
+     * @param listener The listener that receives paging results.
+     */
+    public VideoPagingSource(int pageSize, Listener listener) {
+        this.pageSize = pageSize;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts a new load from the first page, discarding any results of an earlier load
+     * that are still in flight.
+     * @param apiService The ApiService to fetch pages from.
+     */
+    public void start(ApiService apiService) {
+        generation++;
+        service = apiService;
+        nextCursor = null;
+        syncToken = null;
+        loadedCount = 0;
+        endReached = false;
+        loading = false;
+        loadPage();
+    }
+
+    /**
+     * Requests the next page unless a request is already running or the last page was loaded.
+     * @return true if a request was started.
+     */
+    public boolean loadNextPage() {
+        if (service == null || loading || endReached) {
+            return false;
+        }
+        loadPage();
+        return true;
+    }
+
+    /**
+     * Stops the current load and cancels the page request in flight, if any.
+     * Responses that arrive later are ignored.
+     */
+    public void cancel() {
+        generation++;
+        loading = false;
+        if (inFlightCall != null) {
+            inFlightCall.cancel();
+            inFlightCall = null;
+        }
+    }
+
+    /**
+     * @return true if a page request is in flight.
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * @return true if further pages can be requested.
+     */
+    public boolean hasMore() {
+        return service != null && !endReached;
+    }
+
+    /**
+     * @return The number of items loaded since the last {@link #start(ApiService)}.
+     */
+    public int getLoadedCount() {
+        return loadedCount;
+    }
+
+    /**
+     * @return The sync token reported with the first page of the current load, or null.
+     */
+    public String getSyncToken() {
+        return syncToken;
+    }
+
+    /**
+     * Starts a new load with a first page that was fetched by another request, such as the
+     * bootstrap endpoint. The page is reported to the listener as if it had been requested
+     * here, and later pages continue from its cursor.
+     * @param apiService The ApiService to fetch the following pages from.
+     * @param firstPage The first page of the catalog.
+     */
+    public void startWithFirstPage(ApiService apiService, VideoPage firstPage) {
+        cancel();
+        service = apiService;
+        nextCursor = null;
+        syncToken = null;
+        loadedCount = 0;
+        endReached = false;
+        applyPage(firstPage, true);
+    }
+
+    private void applyPage(VideoPage page, boolean firstPage) {
+        List<VideoItem> items = page.getItems();
+        loadedCount += items.size();
+        nextCursor = page.getNextCursor();
+        if (firstPage) {
+            syncToken = page.getSyncToken();
+        }
+        endReached = nextCursor == null || items.isEmpty();
+        int totalCount = endReached ? loadedCount : Math.max(page.getTotal(), loadedCount);
+        listener.onPageLoaded(items, totalCount, firstPage);
+    }
+
+    private void loadPage() {
+        loading = true;
+        final int requestGeneration = generation;
+        final boolean firstPage = loadedCount == 0 && nextCursor == null;
+        Log.d(TAG, "Requesting page (cursor: " + nextCursor + ", limit: " + pageSize + ")");
+
+        inFlightCall = service.getVideosPage(nextCursor, pageSize);
+        inFlightCall.enqueue(new Callback<VideoPage>() {
+            @Override
+            public void onResponse(@NonNull Call<VideoPage> call, @NonNull Response<VideoPage> response) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading = false;
+                inFlightCall = null;
+                if (response.code() == 404) {
+                    Log.w(TAG, "Paged endpoint not available on this server");
+                    endReached = true;
+                    listener.onPagingUnsupported();
+                    return;
+                }
+                if (!response.isSuccessful() || response.body() == null) {
+                    listener.onPageError(response);
+                    return;
+                }
+                applyPage(response.body(), firstPage);
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<VideoPage> call, @NonNull Throwable t) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading = false;
+                inFlightCall = null;
+                listener.onPageFailure(t);
+            }
+        });
+    }
+}
@@ -12,15 +12,19 @@ import android.widget.Toast;
 import androidx.activity.result.ActivityResult;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
 import androidx.media3.common.C;
 import androidx.media3.common.MediaItem;
 import androidx.media3.common.PlaybackException;
 import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
 import androidx.media3.exoplayer.ExoPlayer;
 import androidx.media3.ui.PlayerView;
 
 /**
  * Handles the playback of recorded video files using ExoPlayer.
+ * Media is fetched through the shared OkHttpClient so playback reuses the
+ * connection already opened for the video list.
  * Manages the player lifecycle, UI visibility, and fullscreen transitions for recorded videos.
  */
 public class VideoPlaybackHandler {
@@ -52,8 +56,12 @@ public class VideoPlaybackHandler {
     /**
      * Initializes the ExoPlayer instance for recorded video playback and sets up listeners.
      */
+    @OptIn(markerClass = UnstableApi.class)
     private void initializePlayer() {
-        player = new ExoPlayer.Builder(context).build();
+        player = new ExoPlayer.Builder(context)
+                .setMediaSourceFactory(HttpClientProvider.getInstance(context).createMediaSourceFactory(context,
+                        SettingsManager.getInstance(context).isH2cPriorKnowledgeEnabled()))
+                .build();
         playerView.setPlayer(player);
         player.addListener(createPlayerListener());
         playerView.setFullscreenButtonClickListener(isFullscreen -> {
@@ -66,7 +74,8 @@ public class VideoPlaybackHandler {
      * @param videoItem The VideoItem containing the URL to play.
      */
     public void startPlayback(VideoItem videoItem) {
-        if (videoItem == null || videoItem.getUrl() == null) {
+        final String url = videoItem != null ? videoItem.getUrl() : null;
+        if (url == null) {
             Log.e(TAG, "Invalid VideoItem for playback.");
             return;
         }
@@ -76,7 +85,7 @@ public class VideoPlaybackHandler {
         tvRecordedVideoTitle.setVisibility(View.VISIBLE);
 
         try {
-            Uri videoUri = Uri.parse(videoItem.getUrl());
+            Uri videoUri = Uri.parse(url);
             MediaItem mediaItem = MediaItem.fromUri(videoUri);
 
             if (player == null) {
@@ -89,7 +98,7 @@ public class VideoPlaybackHandler {
             player.prepare();
             player.play();
         } catch (Exception e) {
-            Log.e(TAG, "Error preparing recorded video: " + videoItem.getUrl(), e);
+            Log.e(TAG, "Error preparing recorded video: " + url, e);
             Toast.makeText(context, "Failed to play video", Toast.LENGTH_SHORT).show();
             playerView.setVisibility(View.GONE);
             tvRecordedVideoTitle.setVisibility(View.GONE);
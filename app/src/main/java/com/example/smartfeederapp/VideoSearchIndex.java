@@ -0,0 +1,306 @@
+package com.example.smartfeederapp;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory prefix index over the filenames of the loaded videos, used by the search box.
+ * Each filename is split into words at every character that is not a letter or digit
+ * ("video_20240307_181500.mp4" gives "video", "20240307", "181500" and "mp4"), and each
+ * word is added to a trie. A query matches the rows that have, for every word of the query,
+ * a word starting with it; matching ignores case.
+ * Rows are numbered in the order they are added, which is the order of the list on screen,
+ * so the index grows page by page with the list and search results come out in list order.
+ * The trie and its postings are kept in primitive arrays, so a search allocates only its
+ * result and a 100k-video index takes a few MB. The rows of a word are stored in blocks that
+ * double in size, and the fields of a node are stored next to each other, so collecting the
+ * rows below a prefix reads memory mostly in sequence.
+ * Not thread-safe. The index on screen is used on the main thread; a new one may be built
+ * on another thread and then handed over.
+ */
+public final class VideoSearchIndex {
+
+    private static final int[] NO_ROWS = new int[0];
+    private static final int NONE = -1;
+    private static final int ROOT = 0;
+    private static final int FIRST_BLOCK_SIZE = 2;
+    private static final int MAX_BLOCK_SIZE = 512;
+
+    // Trie nodes, NODE_FIELDS ints each: first child, next sibling, newest block of rows of the
+    // words ending at the node, and the number of rows in that block. The character leading to
+    // a node is kept apart, as only lookups need it.
+    private static final int NODE_FIELDS = 4;
+    private static final int FIRST_CHILD = 0;
+    private static final int NEXT_SIBLING = 1;
+    private static final int BLOCK = 2;
+    private static final int BLOCK_FILL = 3;
+    private char[] nodeChar = new char[256];
+    private int[] nodes = new int[256 * NODE_FIELDS];
+    private int nodeCount;
+
+    // Blocks of rows: the next older block, the capacity, then the rows in ascending order.
+    // All blocks but the newest of a node are full.
+    private static final int BLOCK_HEADER = 2;
+    private int[] blocks = new int[4096];
+    private int blocksUsed;
+
+    private int rowCount;
+    private long buildNanos;
+
+    private long[] matches = new long[0];
+    private long[] wordMatches = new long[0];
+    private int[] stack = new int[64];
+
+    /**
+     * Creates an empty index.
+     */
+    public VideoSearchIndex() {
+        clear();
+    }
+
+    /**
+     * Removes all rows, keeping the allocated arrays for the next list.
+     */
+    public void clear() {
+        nodeCount = 0;
+        blocksUsed = 0;
+        rowCount = 0;
+        buildNanos = 0;
+        newNode('\0');
+    }
+
+    /**
+     * Adds videos as the next rows of the index.
+     * @param items The videos, in list order.
+     */
+    public void addAll(List<VideoItem> items) {
+        long start = System.nanoTime();
+        for (int i = 0; i < items.size(); i++) {
+            addName(items.get(i).getFilename());
+        }
+        buildNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Adds a filename as the next row of the index.
+     * @param filename The filename; null adds a row that matches nothing.
+     * @return The row of the filename.
+     */
+    public int add(String filename) {
+        long start = System.nanoTime();
+        int row = addName(filename);
+        buildNanos += System.nanoTime() - start;
+        return row;
+    }
+
+    private int addName(String filename) {
+        int row = rowCount++;
+        if (filename == null) {
+            return row;
+        }
+        int node = ROOT;
+        for (int i = 0, length = filename.length(); i <= length; i++) {
+            char c = i < length ? filename.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                node = child(node, Character.toLowerCase(c), true);
+            } else if (node != ROOT) {
+                addPosting(node, row);
+                node = ROOT;
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Finds the rows matching a query.
+     * @param query The text typed by the user.
+     * @return The matching rows in ascending order; all rows if the query has no letters or digits.
+     */
+    public int[] search(String query) {
+        int words = (rowCount + 63) >>> 6;
+        if (matches.length < words) {
+            matches = new long[words];
+            wordMatches = new long[words];
+        }
+        boolean firstWord = true;
+        int node = ROOT;
+        for (int i = 0, length = query.length(); i <= length; i++) {
+            char c = i < length ? query.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                node = child(node, Character.toLowerCase(c), false);
+                if (node == NONE) {
+                    return NO_ROWS;
+                }
+                continue;
+            }
+            if (node == ROOT) {
+                continue;
+            }
+            if (firstWord) {
+                Arrays.fill(matches, 0, words, 0L);
+                collect(node, matches);
+                firstWord = false;
+            } else {
+                Arrays.fill(wordMatches, 0, words, 0L);
+                collect(node, wordMatches);
+                for (int w = 0; w < words; w++) {
+                    matches[w] &= wordMatches[w];
+                }
+            }
+            node = ROOT;
+        }
+        if (firstWord) {
+            int[] all = new int[rowCount];
+            for (int row = 0; row < rowCount; row++) {
+                all[row] = row;
+            }
+            return all;
+        }
+        return toRows(matches, words);
+    }
+
+    /**
+     * Marks the rows of all words in the subtree of a node.
+     */
+    private void collect(int node, long[] rows) {
+        int top = 0;
+        stack[top++] = node;
+        while (top > 0) {
+            int current = stack[--top] * NODE_FIELDS;
+            int block = nodes[current + BLOCK];
+            int fill = nodes[current + BLOCK_FILL];
+            while (block != NONE) {
+                for (int i = block + BLOCK_HEADER, end = i + fill; i < end; i++) {
+                    int row = blocks[i];
+                    rows[row >>> 6] |= 1L << row;
+                }
+                block = blocks[block];
+                if (block != NONE) {
+                    fill = blocks[block + 1];
+                }
+            }
+            for (int c = nodes[current + FIRST_CHILD]; c != NONE; c = nodes[c * NODE_FIELDS + NEXT_SIBLING]) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                }
+                stack[top++] = c;
+            }
+        }
+    }
+
+    private static int[] toRows(long[] rows, int words) {
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(rows[w]);
+        }
+        if (count == 0) {
+            return NO_ROWS;
+        }
+        int[] result = new int[count];
+        int n = 0;
+        for (int w = 0; w < words; w++) {
+            long bits = rows[w];
+            while (bits != 0) {
+                result[n++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the child of a node for a character.
+     * @param create true to add the child if it does not exist.
+     * @return The child, or NONE if it does not exist and create is false.
+     */
+    private int child(int node, char c, boolean create) {
+        for (int n = nodes[node * NODE_FIELDS + FIRST_CHILD]; n != NONE; n = nodes[n * NODE_FIELDS + NEXT_SIBLING]) {
+            if (nodeChar[n] == c) {
+                return n;
+            }
+        }
+        if (!create) {
+            return NONE;
+        }
+        int created = newNode(c);
+        nodes[created * NODE_FIELDS + NEXT_SIBLING] = nodes[node * NODE_FIELDS + FIRST_CHILD];
+        nodes[node * NODE_FIELDS + FIRST_CHILD] = created;
+        return created;
+    }
+
+    private int newNode(char c) {
+        if (nodeCount == nodeChar.length) {
+            nodeChar = Arrays.copyOf(nodeChar, nodeCount * 2);
+            nodes = Arrays.copyOf(nodes, nodeCount * 2 * NODE_FIELDS);
+        }
+        int node = nodeCount++;
+        nodeChar[node] = c;
+        int base = node * NODE_FIELDS;
+        nodes[base + FIRST_CHILD] = NONE;
+        nodes[base + NEXT_SIBLING] = NONE;
+        nodes[base + BLOCK] = NONE;
+        nodes[base + BLOCK_FILL] = 0;
+        return node;
+    }
+
+    /**
+     * Appends a row to the rows of the word ending at a node, starting a block twice the size
+     * of the last one when it is full. Rows arrive in ascending order, so a word that occurs
+     * twice in a filename is recognised by the last row of the block.
+     */
+    private void addPosting(int node, int row) {
+        int base = node * NODE_FIELDS;
+        int block = nodes[base + BLOCK];
+        int fill = nodes[base + BLOCK_FILL];
+        if (block != NONE && blocks[block + BLOCK_HEADER + fill - 1] == row) {
+            return;
+        }
+        if (block == NONE || fill == blocks[block + 1]) {
+            int capacity = block == NONE ? FIRST_BLOCK_SIZE : Math.min(MAX_BLOCK_SIZE, blocks[block + 1] * 2);
+            int created = blocksUsed;
+            if (created + BLOCK_HEADER + capacity > blocks.length) {
+                blocks = Arrays.copyOf(blocks, Math.max(blocks.length * 2, created + BLOCK_HEADER + capacity));
+            }
+            blocksUsed += BLOCK_HEADER + capacity;
+            blocks[created] = block;
+            blocks[created + 1] = capacity;
+            nodes[base + BLOCK] = created;
+            block = created;
+            fill = 0;
+        }
+        blocks[block + BLOCK_HEADER + fill] = row;
+        nodes[base + BLOCK_FILL] = fill + 1;
+    }
+
+    /**
+     * @return The number of rows added since the last clear.
+     */
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * @return The number of trie nodes.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return The total time spent adding rows since the last clear, in nanoseconds.
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * @return The size of the arrays held by the index, in bytes.
+     */
+    public long getMemoryBytes() {
+        return nodeChar.length * 2L
+                + nodes.length * 4L
+                + blocks.length * 4L
+                + (matches.length + wordMatches.length) * 8L
+                + stack.length * 4L;
+    }
+}
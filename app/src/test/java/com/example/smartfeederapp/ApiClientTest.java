@@ -14,13 +14,20 @@ import android.util.Log;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.lang.reflect.Field;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
 
 /**
  * Unit tests for the {@link ApiClient} class.
@@ -90,164 +97,229 @@ public class ApiClientTest {
         instanceField.setAccessible(false);
     }
 
-    @Test
-    public void getApiService_whenAddressNotSetInitially_returnsNullAndLogsWarning() {
-
+    private ApiClient createClient(String address) {
         reset(mockSettingsManager, mockAppContext, mockContext);
-        when(mockSettingsManager.getServerAddress()).thenReturn(null);
+        when(mockSettingsManager.getServerAddress()).thenReturn(address);
         when(mockContext.getApplicationContext()).thenReturn(mockAppContext);
+        return new ApiClient(mockContext);
+    }
 
-        apiClient = new ApiClient(mockContext);
+    private SettingsManager.ServerAddressListener captureAddressListener() {
+        ArgumentCaptor<SettingsManager.ServerAddressListener> captor = ArgumentCaptor.forClass(SettingsManager.ServerAddressListener.class);
+        verify(mockSettingsManager).addServerAddressListener(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    public void getApiService_whenAddressNotSetInitially_returnsNullAndLogsWarning() {
+        apiClient = createClient(null);
 
         ApiService service = apiClient.getApiService();
 
         assertNull("Service should be null when address is not set", service);
         verify(mockContext, times(1)).getApplicationContext();
         verify(mockAppContext, never()).getSharedPreferences(anyString(), anyInt());
-
-        reset(mockSettingsManager);
-        when(mockSettingsManager.getServerAddress()).thenReturn(null);
-        apiClient = new ApiClient(mockContext);
-        apiClient.getApiService();
-        verify(mockSettingsManager, times(3)).getServerAddress();
-
-        // mockedLog.verify(() -> Log.w(eq(ApiClient.class.getSimpleName()), contains("Server address not configured")), atLeastOnce());
-        // mockedLog.verify(() -> Log.w(eq(ApiClient.class.getSimpleName()), contains("Server address is not set. ApiService cannot be used.")), atLeastOnce());
+        verify(mockSettingsManager, times(1)).getServerAddress();
+        mockedLog.verify(() -> Log.w(eq(ApiClient.class.getSimpleName()), contains("Server address not configured")), atLeastOnce());
     }
 
     @Test
     public void getApiService_whenAddressIsEmptyInitially_returnsNullAndLogsWarning() {
-        reset(mockSettingsManager, mockAppContext, mockContext);
-        when(mockSettingsManager.getServerAddress()).thenReturn("");
-        when(mockContext.getApplicationContext()).thenReturn(mockAppContext);
-
-        apiClient = new ApiClient(mockContext);
+        apiClient = createClient("");
 
         ApiService service = apiClient.getApiService();
 
         assertNull("Service should be null when address is empty", service);
-        verify(mockSettingsManager, times(3)).getServerAddress();
+        assertNull(apiClient.getBaseUrl());
+        verify(mockSettingsManager, times(1)).getServerAddress();
         verify(mockAppContext, never()).getSharedPreferences(anyString(), anyInt());
-
-        // mockedLog.verify(() -> Log.w(eq(ApiClient.class.getSimpleName()), contains("Server address not configured")), atLeast(2)); // Called by both init calls
-        // mockedLog.verify(() -> Log.w(eq(ApiClient.class.getSimpleName()), contains("Server address is not set. ApiService cannot be used.")), atLeastOnce()); // Log from getApiService check
     }
 
     @Test
-    public void getApiService_whenAddressSetCorrectly_returnsServiceAndLogsSuccess() throws Exception {
-        reset(mockSettingsManager, mockAppContext, mockContext);
-        when(mockSettingsManager.getServerAddress()).thenReturn(TEST_ADDRESS_1);
-        when(mockContext.getApplicationContext()).thenReturn(mockAppContext);
-
-        apiClient = new ApiClient(mockContext);
+    public void getApiService_whenAddressSetCorrectly_returnsServiceAndLogsSuccess() {
+        apiClient = createClient(TEST_ADDRESS_1);
 
         ApiService service = apiClient.getApiService();
 
         assertNotNull("Service should not be null", service);
-        verify(mockSettingsManager, times(2)).getServerAddress();
+        verify(mockSettingsManager, times(1)).getServerAddress();
         verify(mockAppContext, never()).getSharedPreferences(anyString(), anyInt());
-
         mockedLog.verify(() -> Log.d(eq(ApiClient.class.getSimpleName()), contains("ApiService initialized successfully for URL: " + EXPECTED_BASE_URL_1)), atLeastOnce());
-
-        Field baseUrlField = ApiClient.class.getDeclaredField("currentBaseUrl");
-        baseUrlField.setAccessible(true);
-        assertEquals(EXPECTED_BASE_URL_1, baseUrlField.get(apiClient));
+        assertEquals(EXPECTED_BASE_URL_1, apiClient.getBaseUrl());
     }
 
     @Test
-    public void getApiService_calledTwiceWithSameAddress_returnsSameInternalInstance() throws Exception {
-        reset(mockSettingsManager, mockAppContext, mockContext);
-        when(mockSettingsManager.getServerAddress()).thenReturn(TEST_ADDRESS_1);
-        when(mockContext.getApplicationContext()).thenReturn(mockAppContext);
-
-        apiClient = new ApiClient(mockContext);
+    public void getApiService_calledTwiceWithSameAddress_returnsSameInstanceWithoutReadingSettings() {
+        apiClient = createClient(TEST_ADDRESS_1);
 
         ApiService service1 = apiClient.getApiService();
-        Field apiServiceField = ApiClient.class.getDeclaredField("apiService");
-        apiServiceField.setAccessible(true);
-        Object internalService1 = apiServiceField.get(apiClient);
         ApiService service2 = apiClient.getApiService();
-        Object internalService2 = apiServiceField.get(apiClient);
 
         assertNotNull("First service call should return non-null", service1);
-        assertNotNull("Second service call should return non-null", service2);
-        assertNotNull("Internal service should exist after first call", internalService1);
-        assertSame("Internal ApiService instance should be the same on second call", internalService1, internalService2);
-        verify(mockSettingsManager, times(3)).getServerAddress();
-        verify(mockAppContext, never()).getSharedPreferences(anyString(), anyInt());
+        assertSame("ApiService instance should be the same on second call", service1, service2);
+        verify(mockSettingsManager, times(1)).getServerAddress();
         mockedLog.verify(() -> Log.d(eq(ApiClient.class.getSimpleName()), contains("ApiService initialized successfully")), times(1));
     }
 
     @Test
-    public void getApiService_whenAddressChanges_reinitializesServiceAndLogs() throws Exception {
-        reset(mockSettingsManager, mockAppContext, mockContext);
-        when(mockSettingsManager.getServerAddress()).thenReturn(TEST_ADDRESS_1);
-        when(mockContext.getApplicationContext()).thenReturn(mockAppContext);
-
-        apiClient = new ApiClient(mockContext);
+    public void getApiService_whenAddressChanges_reinitializesServiceAndLogs() {
+        apiClient = createClient(TEST_ADDRESS_1);
         ApiService service1 = apiClient.getApiService();
         assertNotNull(service1);
         mockedLog.verify(() -> Log.d(eq(ApiClient.class.getSimpleName()), contains(EXPECTED_BASE_URL_1)), times(1));
 
-        Field apiServiceField = ApiClient.class.getDeclaredField("apiService");
-        apiServiceField.setAccessible(true);
-        Object internalService1 = apiServiceField.get(apiClient);
-        assertNotNull(internalService1);
-
-        when(mockSettingsManager.getServerAddress()).thenReturn(TEST_ADDRESS_2);
+        captureAddressListener().onServerAddressChanged(TEST_ADDRESS_2);
         ApiService service2 = apiClient.getApiService();
 
         assertNotNull("Service should not be null after address change", service2);
-        Object internalService2 = apiServiceField.get(apiClient);
-        assertNotNull(internalService2);
-        assertNotSame("Internal ApiService instance should be different after URL change", internalService1, internalService2);
-        Field baseUrlField = ApiClient.class.getDeclaredField("currentBaseUrl");
-        baseUrlField.setAccessible(true);
-        assertEquals(EXPECTED_BASE_URL_2, baseUrlField.get(apiClient));
-        mockedLog.verify(() -> Log.d(eq(ApiClient.class.getSimpleName()), contains("ApiService is not ready or URL changed")), times(1));
+        assertNotSame("ApiService instance should be different after URL change", service1, service2);
+        assertEquals(EXPECTED_BASE_URL_2, apiClient.getBaseUrl());
         mockedLog.verify(() -> Log.d(eq(ApiClient.class.getSimpleName()), contains("ApiService initialized successfully for URL: " + EXPECTED_BASE_URL_2)), times(1));
-        verify(mockSettingsManager, times(4)).getServerAddress();
+        verify(mockSettingsManager, times(1)).getServerAddress();
         verify(mockAppContext, never()).getSharedPreferences(anyString(), anyInt());
     }
 
     @Test
-    public void getApiService_whenAddressBecomesInvalid_logsErrorButMayReturnService() throws Exception {
-        reset(mockSettingsManager, mockAppContext, mockContext);
-        when(mockSettingsManager.getServerAddress()).thenReturn(TEST_ADDRESS_1);
-        when(mockContext.getApplicationContext()).thenReturn(mockAppContext);
+    public void getApiService_whenSameAddressSavedAgain_keepsService() {
+        apiClient = createClient(TEST_ADDRESS_1);
+        ApiService service1 = apiClient.getApiService();
 
-        apiClient = new ApiClient(mockContext);
+        captureAddressListener().onServerAddressChanged(TEST_ADDRESS_1);
+
+        assertSame(service1, apiClient.getApiService());
+        mockedLog.verify(() -> Log.d(eq(ApiClient.class.getSimpleName()), contains("ApiService initialized successfully")), times(1));
+    }
+
+    @Test
+    public void getApiService_whenAddressBecomesInvalid_logsErrorButMayReturnService() {
+        apiClient = createClient(TEST_ADDRESS_1);
         ApiService service1 = apiClient.getApiService();
         assertNotNull(service1);
 
-        when(mockSettingsManager.getServerAddress()).thenReturn(INVALID_ADDRESS_FORMAT);
-        ApiService service2 = apiClient.getApiService();
+        captureAddressListener().onServerAddressChanged(INVALID_ADDRESS_FORMAT);
+        apiClient.getApiService();
 
-        // mockedLog.verify(() -> Log.d(eq(ApiClient.class.getSimpleName()), contains("ApiService is not ready or URL changed")), times(1));
-        // mockedLog.verify(() -> Log.e(eq(ApiClient.class.getSimpleName()), contains("Invalid server address format"), any(IllegalArgumentException.class)), times(1));
-        verify(mockSettingsManager, times(4)).getServerAddress();
+        verify(mockSettingsManager, times(1)).getServerAddress();
         verify(mockAppContext, never()).getSharedPreferences(anyString(), anyInt());
     }
 
     @Test
-    public void getApiService_whenAddressCleared_returnsNullAndLogsWarning() throws Exception {
-        reset(mockSettingsManager, mockAppContext, mockContext);
-        when(mockSettingsManager.getServerAddress()).thenReturn(TEST_ADDRESS_1);
-        when(mockContext.getApplicationContext()).thenReturn(mockAppContext);
-
-        apiClient = new ApiClient(mockContext);
+    public void getApiService_whenAddressCleared_returnsNullAndLogsWarning() {
+        apiClient = createClient(TEST_ADDRESS_1);
         ApiService service1 = apiClient.getApiService();
         assertNotNull(service1);
 
-        when(mockSettingsManager.getServerAddress()).thenReturn(null);
+        captureAddressListener().onServerAddressChanged(null);
         ApiService service2 = apiClient.getApiService();
 
         assertNull("Service should become null after address is cleared", service2);
-        Field apiServiceField = ApiClient.class.getDeclaredField("apiService");
-        apiServiceField.setAccessible(true);
-        assertNull("apiService field should be null after address is cleared", apiServiceField.get(apiClient));
-        mockedLog.verify(() -> Log.w(eq(ApiClient.class.getSimpleName()), contains("Server address is not set. ApiService cannot be used.")), times(1));
-        verify(mockSettingsManager, times(3)).getServerAddress();
-        verify(mockAppContext, never()).getSharedPreferences(anyString(), anyInt()); 
-    }
-}
\ No newline at end of file
+        assertNull(apiClient.getBaseUrl());
+        mockedLog.verify(() -> Log.w(eq(ApiClient.class.getSimpleName()), contains("Server address not configured")), atLeastOnce());
+        verify(mockSettingsManager, times(1)).getServerAddress();
+    }
+
+    @Test
+    public void release_unregistersAddressListener() {
+        apiClient = createClient(TEST_ADDRESS_1);
+        SettingsManager.ServerAddressListener listener = captureAddressListener();
+
+        apiClient.release();
+
+        verify(mockSettingsManager).removeServerAddressListener(listener);
+    }
+
+    @Test
+    public void response_withCapabilitiesHeader_recordsBootstrapSupportForServer() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("[\"feeder-1\"]").setHeader(ApiClient.CAPABILITIES_HEADER, "delta, Bootstrap"));
+        server.enqueue(new MockResponse().setBody("[]"));
+        server.start();
+        try {
+            String address = server.getHostName() + ":" + server.getPort();
+            apiClient = createClient(address);
+
+            assertTrue(apiClient.getApiService().getFeeders().execute().isSuccessful());
+            assertTrue(apiClient.getApiService().getFeeders().execute().isSuccessful());
+
+            verify(mockSettingsManager, times(1)).setCapabilitySupported(address, ApiClient.CAPABILITY_BOOTSTRAP, true);
+            verify(mockSettingsManager, times(1)).setCapabilitySupported(address, ApiClient.CAPABILITY_THUMBNAILS, false);
+            verify(mockSettingsManager, times(1)).setCapabilitySupported(address, ApiClient.CAPABILITY_SPRITES, false);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void hasCapability_matchesListEntriesOnly() {
+        assertTrue(ApiClient.hasCapability("bootstrap", ApiClient.CAPABILITY_BOOTSTRAP));
+        assertTrue(ApiClient.hasCapability(" delta ,BOOTSTRAP", ApiClient.CAPABILITY_BOOTSTRAP));
+        assertFalse(ApiClient.hasCapability("bootstrap-v2, delta", ApiClient.CAPABILITY_BOOTSTRAP));
+        assertFalse(ApiClient.hasCapability("", ApiClient.CAPABILITY_BOOTSTRAP));
+    }
+
+    /**
+     * Compares the snapshot read with the previous lookup (a synchronized method that reads
+     * the address and builds the base URL string on every call) with several threads
+     * hammering both at once.
+     */
+    @Test
+    @Category(Benchmark.class)
+    public void getApiService_underContention_outperformsLockedLookup() throws Exception {
+        apiClient = createClient(TEST_ADDRESS_1);
+        final ApiService expected = apiClient.getApiService();
+        final Object lock = new Object();
+        final String[] address = {TEST_ADDRESS_1};
+        final String[] currentBaseUrl = {EXPECTED_BASE_URL_1};
+        final int threads = 4;
+        final int iterations = 2_000_000;
+
+        Runnable locked = () -> {
+            for (int i = 0; i < iterations; i++) {
+                synchronized (lock) {
+                    String baseUrl = "http://" + address[0] + "/";
+                    if (!baseUrl.equals(currentBaseUrl[0])) {
+                        fail("Base URL changed");
+                    }
+                }
+            }
+        };
+        Runnable lockFree = () -> {
+            for (int i = 0; i < iterations; i++) {
+                if (apiClient.getApiService() != expected) {
+                    fail("Service changed");
+                }
+            }
+        };
+
+        runConcurrently(locked, threads);
+        runConcurrently(lockFree, threads);
+        long lockedNanos = runConcurrently(locked, threads);
+        long lockFreeNanos = runConcurrently(lockFree, threads);
+
+        assertTrue("Snapshot read " + lockFreeNanos + " ns vs locked " + lockedNanos + " ns", lockFreeNanos < lockedNanos);
+    }
+
+    private static long runConcurrently(Runnable task, int threads) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicLong failures = new AtomicLong();
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable t) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        assertEquals(0, failures.get());
+        return elapsed;
+    }
+}
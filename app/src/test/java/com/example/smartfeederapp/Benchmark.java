@@ -0,0 +1,9 @@
+package com.example.smartfeederapp;
+
+/**
+ * JUnit category of the tests that measure time or retained heap.
+ * Their results depend on the machine and they take seconds each, so the default unit
+ * test run excludes them; run them with {@code ./gradlew testDebugUnitTest -Pbenchmarks}.
+ */
+public interface Benchmark {
+}
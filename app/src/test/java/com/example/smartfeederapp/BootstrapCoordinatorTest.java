@@ -0,0 +1,153 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the {@link BootstrapCoordinator} class.
+ * Tasks are completed by hand and time comes from a fake clock.
+ */
+public class BootstrapCoordinatorTest {
+
+    private MockedStatic<Log> mockedLog;
+    private final long[] now = {1000};
+    private BootstrapCoordinator coordinator;
+    private BootstrapCoordinator.Listener listener;
+
+    /**
+     * A task whose completion is triggered by the test.
+     */
+    private static class ManualTask implements BootstrapCoordinator.Task {
+        BootstrapCoordinator.TaskCallback callback;
+        boolean cancelled;
+
+        @Override
+        public BootstrapCoordinator.Cancellable start(BootstrapCoordinator.TaskCallback callback) {
+            this.callback = callback;
+            return () -> cancelled = true;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        mockedLog = Mockito.mockStatic(Log.class);
+        mockedLog.when(() -> Log.d(anyString(), anyString())).thenReturn(0);
+        mockedLog.when(() -> Log.i(anyString(), anyString())).thenReturn(0);
+        coordinator = new BootstrapCoordinator(() -> now[0]);
+        listener = mock(BootstrapCoordinator.Listener.class);
+    }
+
+    @After
+    public void tearDown() {
+        if (mockedLog != null) mockedLog.close();
+    }
+
+    @Test
+    public void start_runsAllTasksBeforeAnyCompletes() {
+        ManualTask catalog = new ManualTask();
+        ManualTask feeders = new ManualTask();
+        coordinator.addTask("catalog", catalog).addTask("feeders", feeders);
+
+        coordinator.start(listener);
+
+        assertNotNull(catalog.callback);
+        assertNotNull(feeders.callback);
+        assertTrue(coordinator.isRunning());
+        verifyNoInteractions(listener);
+    }
+
+    @Test
+    public void timeToInteractive_isMaxOfTasksNotSum() {
+        ManualTask catalog = new ManualTask();
+        ManualTask feeders = new ManualTask();
+        ManualTask clientId = new ManualTask();
+        coordinator.addTask("catalog", catalog).addTask("feeders", feeders).addTask("client-id", clientId);
+        coordinator.start(listener);
+
+        now[0] = 1120;
+        feeders.callback.onComplete(true);
+        now[0] = 1300;
+        clientId.callback.onComplete(false);
+        now[0] = 1450;
+        catalog.callback.onComplete(true);
+
+        verify(listener).onProgress(1, 3);
+        verify(listener).onProgress(2, 3);
+        verify(listener).onProgress(3, 3);
+        BootstrapCoordinator.Report report = captureReport();
+        assertEquals(450, report.getTimeToInteractiveMs());
+        assertEquals(450 + 120 + 300, report.getSequentialMs());
+        assertEquals("catalog", report.getTasks().get(0).name);
+        assertEquals(450, report.getTasks().get(0).durationMs);
+        assertEquals(120, report.getTasks().get(1).durationMs);
+        assertFalse(report.getTasks().get(2).success);
+        assertFalse(report.isSuccessful());
+        assertSame(report, BootstrapCoordinator.getLastReport());
+        assertFalse(coordinator.isRunning());
+    }
+
+    @Test
+    public void cancel_cancelsUnfinishedTasksAndSilencesListener() {
+        ManualTask catalog = new ManualTask();
+        ManualTask feeders = new ManualTask();
+        coordinator.addTask("catalog", catalog).addTask("feeders", feeders);
+        coordinator.start(listener);
+        feeders.callback.onComplete(true);
+
+        coordinator.cancel();
+        catalog.callback.onComplete(true);
+
+        assertTrue(catalog.cancelled);
+        assertFalse("Finished tasks are not cancelled", feeders.cancelled);
+        verify(listener).onProgress(1, 2);
+        verify(listener, never()).onFinished(any());
+        assertFalse(coordinator.isRunning());
+    }
+
+    @Test
+    public void synchronousCompletion_andDuplicateCallbacksAreHandled() {
+        coordinator.addTask("instant", callback -> {
+            callback.onComplete(false);
+            callback.onComplete(true);
+            return null;
+        });
+        coordinator.start(listener);
+
+        verify(listener, times(1)).onProgress(1, 1);
+        assertEquals(0, captureReport().getTimeToInteractiveMs());
+    }
+
+    @Test
+    public void noTasks_finishesImmediately() {
+        long recordedBefore = BootstrapCoordinator.getTimeToInteractiveHistogram().getCount();
+
+        coordinator.start(listener);
+
+        assertTrue(captureReport().getTasks().isEmpty());
+        assertEquals(recordedBefore + 1, BootstrapCoordinator.getTimeToInteractiveHistogram().getCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addTask_afterStart_throws() {
+        coordinator.start(listener);
+        coordinator.addTask("late", new ManualTask());
+    }
+
+    private BootstrapCoordinator.Report captureReport() {
+        List<BootstrapCoordinator.Report> reports = new ArrayList<>();
+        verify(listener).onFinished(argThat(r -> reports.add(r)));
+        return reports.get(0);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import android.util.Log;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for the {@link CircuitBreaker} class.
+ */
+public class CircuitBreakerTest {
+
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    private MockedStatic<Log> mockedLog;
+    private final long[] now = {0};
+    private CircuitBreaker breaker;
+
+    @Before
+    public void setUp() {
+        mockedLog = Mockito.mockStatic(Log.class);
+        mockedLog.when(() -> Log.d(anyString(), anyString())).thenReturn(0);
+        breaker = new CircuitBreaker(2, 1000, () -> now[0]);
+    }
+
+    @After
+    public void tearDown() {
+        if (mockedLog != null) {
+            mockedLog.close();
+        }
+    }
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getCurrentState());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getCurrentState());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState().getValue());
+        assertFalse(breaker.allowRequest());
+        assertEquals(1000, breaker.getRetryAfterMillis());
+    }
+
+    @Test
+    public void successResetsFailureCount() {
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getCurrentState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void halfOpen_admitsSingleTrial() {
+        breaker.onFailure();
+        breaker.onFailure();
+        now[0] = 1000;
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getCurrentState());
+        assertFalse("Only one trial request at a time", breaker.allowRequest());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState().getValue());
+    }
+
+    @Test
+    public void failedTrial_reopensForFullPeriod() {
+        breaker.onFailure();
+        breaker.onFailure();
+        now[0] = 1500;
+        assertTrue(breaker.allowRequest());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getCurrentState());
+        assertEquals(1000, breaker.getRetryAfterMillis());
+    }
+
+    @Test
+    public void abandonedTrial_allowsAnotherTrial() {
+        breaker.onFailure();
+        breaker.onFailure();
+        now[0] = 1000;
+        assertTrue(breaker.allowRequest());
+
+        breaker.onAbandoned();
+
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void reset_closesBreaker() {
+        breaker.onFailure();
+        breaker.onFailure();
+
+        breaker.reset();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getCurrentState());
+        assertTrue(breaker.allowRequest());
+    }
+}
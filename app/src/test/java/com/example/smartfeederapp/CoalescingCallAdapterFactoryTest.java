@@ -0,0 +1,193 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Unit tests for the {@link CoalescingCallAdapterFactory} class.
+ * Uses a MockWebServer with delayed responses so that calls overlap.
+ */
+public class CoalescingCallAdapterFactoryTest {
+
+    private MockWebServer server;
+    private MockedStatic<Log> mockedLog;
+    private CoalescingCallAdapterFactory coalescer;
+    private ApiService service;
+
+    @Before
+    public void setUp() throws Exception {
+        mockedLog = Mockito.mockStatic(Log.class);
+        mockedLog.when(() -> Log.d(anyString(), anyString())).thenReturn(0);
+
+        server = new MockWebServer();
+        server.start();
+        coalescer = new CoalescingCallAdapterFactory();
+        service = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient())
+                .addCallAdapterFactory(coalescer)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        if (mockedLog != null) {
+            mockedLog.close();
+        }
+    }
+
+    @Test
+    public void identicalConcurrentCalls_shareOneNetworkRequest() throws Exception {
+        server.enqueue(new MockResponse().setBody("[\"feeder-1\",\"feeder-2\"]").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        Recorder<List<String>> first = new Recorder<>();
+        Recorder<List<String>> second = new Recorder<>();
+        Recorder<List<String>> third = new Recorder<>();
+        service.getFeeders().enqueue(first);
+        service.getFeeders().enqueue(second);
+        service.getFeeders().enqueue(third);
+
+        assertEquals(2, first.await().body().size());
+        assertEquals("feeder-2", second.await().body().get(1));
+        assertEquals("feeder-1", third.await().body().get(0));
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, coalescer.getMissCount());
+        assertEquals(2, coalescer.getHitCount());
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    public void callAfterCompletion_startsNewRequest() throws Exception {
+        server.enqueue(new MockResponse().setBody("[]"));
+        server.enqueue(new MockResponse().setBody("[]"));
+
+        Recorder<List<VideoItem>> first = new Recorder<>();
+        service.getVideos().enqueue(first);
+        first.await();
+        Recorder<List<VideoItem>> second = new Recorder<>();
+        service.getVideos().enqueue(second);
+        second.await();
+
+        assertEquals(2, server.getRequestCount());
+        assertEquals(2, coalescer.getMissCount());
+        assertEquals(0, coalescer.getHitCount());
+    }
+
+    @Test
+    public void differentQueryParameters_areNotCoalesced() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"items\":[]}").setHeadersDelay(200, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("{\"items\":[]}").setHeadersDelay(200, TimeUnit.MILLISECONDS));
+
+        Recorder<VideoPage> first = new Recorder<>();
+        Recorder<VideoPage> second = new Recorder<>();
+        service.getVideosPage(null, 50).enqueue(first);
+        service.getVideosPage("c2", 50).enqueue(second);
+        first.await();
+        second.await();
+
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, coalescer.getHitCount());
+    }
+
+    @Test
+    public void errorResponse_everyCallerCanReadErrorBody() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503).setBody("busy").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        Recorder<List<String>> first = new Recorder<>();
+        Recorder<List<String>> second = new Recorder<>();
+        service.getFeeders().enqueue(first);
+        service.getFeeders().enqueue(second);
+
+        assertEquals("busy", first.await().errorBody().string());
+        assertEquals("busy", second.await().errorBody().string());
+        assertEquals(503, second.await().code());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void cancelingOneCaller_keepsSharedRequestForOthers() throws Exception {
+        server.enqueue(new MockResponse().setBody("[\"feeder-1\"]").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        Recorder<List<String>> first = new Recorder<>();
+        Recorder<List<String>> second = new Recorder<>();
+        Call<List<String>> firstCall = service.getFeeders();
+        firstCall.enqueue(first);
+        service.getFeeders().enqueue(second);
+        firstCall.cancel();
+
+        assertEquals("feeder-1", second.await().body().get(0));
+        assertTrue(firstCall.isCanceled());
+        assertEquals(1, first.latch.getCount());
+    }
+
+    @Test
+    public void streamingBody_isNeverCoalesced() throws Exception {
+        server.enqueue(new MockResponse().setBody("[]").setHeadersDelay(200, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("[]").setHeadersDelay(200, TimeUnit.MILLISECONDS));
+
+        Recorder<ResponseBody> first = new Recorder<>();
+        Recorder<ResponseBody> second = new Recorder<>();
+        service.getVideosStream().enqueue(first);
+        service.getVideosStream().enqueue(second);
+        first.await().body().close();
+        second.await().body().close();
+
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, coalescer.getMissCount());
+    }
+
+    /**
+     * Callback that records the response and lets the test wait for it.
+     */
+    private static class Recorder<T> implements Callback<T> {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Response<T>> response = new AtomicReference<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        @Override
+        public void onResponse(@NonNull Call<T> call, @NonNull Response<T> r) {
+            response.set(r);
+            latch.countDown();
+        }
+
+        @Override
+        public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+            failure.set(t);
+            latch.countDown();
+        }
+
+        Response<T> await() throws InterruptedException {
+            assertTrue("Callback not invoked", latch.await(5, TimeUnit.SECONDS));
+            assertNull(failure.get());
+            return response.get();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Unit tests for the {@link ConnectionPrewarmer} class.
+ * Runs warm-ups against a MockWebServer that answers like a Socket.IO server.
+ */
+public class ConnectionPrewarmerTest {
+
+    private MockWebServer server;
+    private MockedStatic<Log> mockedLog;
+    private HttpClientProvider provider;
+    private ConnectionPrewarmer prewarmer;
+    private final AtomicInteger closePackets = new AtomicInteger();
+    private volatile String handshakeBody = "0{\"sid\":\"abc123\",\"upgrades\":[\"websocket\"],\"pingInterval\":25000,\"pingTimeout\":20000}";
+
+    @Before
+    public void setUp() throws Exception {
+        mockedLog = Mockito.mockStatic(Log.class);
+        mockedLog.when(() -> Log.d(anyString(), anyString())).thenReturn(0);
+
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                if (path.startsWith("/socket.io/")) {
+                    if ("POST".equals(request.getMethod())) {
+                        if ("1".equals(request.getBody().readUtf8())) {
+                            closePackets.incrementAndGet();
+                        }
+                        return new MockResponse().setBody("ok");
+                    }
+                    return new MockResponse().setBody(handshakeBody);
+                }
+                if ("HEAD".equals(request.getMethod())) {
+                    return new MockResponse();
+                }
+                return new MockResponse().setBody("[\"feeder-1\"]");
+            }
+        });
+        server.start();
+        provider = new HttpClientProvider(new HttpClientProvider.Config());
+        prewarmer = new ConnectionPrewarmer(provider.getClient(false), provider.getClient(true));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        if (mockedLog != null) {
+            mockedLog.close();
+        }
+    }
+
+    private int prewarmAndWait(String address) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger(-1);
+        prewarmer.prewarm(address, false, (serverAddress, count) -> {
+            succeeded.set(count);
+            done.countDown();
+        });
+        assertTrue("Warm-up did not finish", done.await(5, TimeUnit.SECONDS));
+        return succeeded.get();
+    }
+
+    private String address() {
+        return server.getHostName() + ":" + server.getPort();
+    }
+
+    @Test
+    public void prewarm_opensApiAndSocketIoConnectionsAndClosesHandshakeSession() throws Exception {
+        int succeeded = prewarmAndWait(address());
+
+        assertEquals(2, succeeded);
+        assertEquals(3, server.getRequestCount());
+        assertEquals(1, closePackets.get());
+        HttpClientProvider.ConnectionStats stats = provider.getConnectionStats();
+        assertEquals(2, stats.getPrewarmedConnectionCount());
+        assertEquals(2, provider.getClient().connectionPool().idleConnectionCount());
+        assertEquals(-1, stats.getFirstPrewarmSavedMillis());
+    }
+
+    @Test
+    public void firstRealRequest_reusesWarmConnectionAndReportsSavedTime() throws Exception {
+        prewarmAndWait(address());
+        HttpClientProvider.ConnectionStats stats = provider.getConnectionStats();
+        long connectsBefore = stats.getNewConnectionCount();
+
+        try (Response response = provider.getClient().newCall(new Request.Builder().url(server.url("/feeders")).build()).execute()) {
+            assertEquals("[\"feeder-1\"]", response.body().string());
+        }
+
+        assertEquals("No new TCP handshake for the real request", connectsBefore, stats.getNewConnectionCount());
+        assertEquals(1, stats.getPrewarmedConnectionsUsedCount());
+        assertTrue(stats.getFirstPrewarmSavedMillis() >= 0);
+        assertEquals(stats.getFirstPrewarmSavedMillis(), stats.getPrewarmSavedMillis());
+        assertTrue(stats.toString(), stats.toString().contains("prewarmUsed=1"));
+    }
+
+    @Test
+    public void prewarm_whenSocketIoMissing_skipsSessionClose() throws Exception {
+        handshakeBody = "Not Found";
+
+        int succeeded = prewarmAndWait(address());
+
+        assertEquals(2, succeeded);
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, closePackets.get());
+    }
+
+    @Test
+    public void prewarm_whenServerUnreachable_reportsNoSuccess() throws Exception {
+        String address = address();
+        server.shutdown();
+
+        assertEquals(0, prewarmAndWait(address));
+        assertEquals(0, provider.getConnectionStats().getPrewarmedConnectionCount());
+    }
+
+    @Test
+    public void prewarm_withoutAddress_doesNothing() {
+        prewarmer.prewarm(null, false);
+        prewarmer.prewarm("  ", false);
+
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void engineIoUrl_andSessionIdParsing() {
+        HttpUrl base = HttpUrl.get("http://10.0.0.5:5000/");
+
+        assertEquals("http://10.0.0.5:5000/socket.io/?EIO=4&transport=polling", ConnectionPrewarmer.engineIoUrl(base, null).toString());
+        assertEquals("http://10.0.0.5:5000/socket.io/?EIO=4&transport=polling&sid=s1", ConnectionPrewarmer.engineIoUrl(base, "s1").toString());
+        assertEquals("abc", ConnectionPrewarmer.parseSessionId("0{\"sid\":\"abc\"}"));
+        assertNull(ConnectionPrewarmer.parseSessionId("0{broken"));
+        assertNull(ConnectionPrewarmer.parseSessionId("40"));
+        assertNull(ConnectionPrewarmer.parseSessionId(null));
+    }
+
+    @Test
+    public void socketIoClient_sharesPoolButNotCache() {
+        OkHttpClient socketClient = ConnectionPrewarmer.createSocketIoClient(provider.getClient());
+
+        assertSame(provider.getClient().connectionPool(), socketClient.connectionPool());
+        assertNull(socketClient.cache());
+        assertEquals(60_000, socketClient.readTimeoutMillis());
+    }
+}
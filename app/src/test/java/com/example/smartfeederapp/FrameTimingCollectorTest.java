@@ -0,0 +1,116 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import com.example.smartfeederapp.FrameTimingCollector.UiState;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for the {@link FrameTimingCollector} class.
+ * Frames are recorded directly, as the frame metrics listener needs a window.
+ */
+public class FrameTimingCollectorTest {
+
+    private static final long BUDGET = TimeUnit.MILLISECONDS.toNanos(16);
+
+    private final FrameTimingCollector collector = new FrameTimingCollector();
+
+    private static long ms(double millis) {
+        return (long) (millis * 1_000_000);
+    }
+
+    @Test
+    public void record_classifiesSlowAndFrozenFrames() {
+        int mask = FrameTimingCollector.mask(UiState.LIST_SCROLLING);
+        collector.record(mask, ms(8), BUDGET);
+        collector.record(mask, ms(16), BUDGET);
+        collector.record(mask, ms(17), BUDGET);
+        collector.record(mask, ms(700), BUDGET);
+        collector.record(mask, ms(701), BUDGET);
+
+        FrameTimingCollector.StateStats stats = collector.get(UiState.LIST_SCROLLING);
+        assertEquals(5, stats.getFrameCount());
+        assertEquals(2, stats.getSlowCount());
+        assertEquals(1, stats.getFrozenCount());
+        assertEquals(701_000, stats.getFrameMicros().getMax());
+    }
+
+    @Test
+    public void frames_areAttributedToExactCombinationOfStates() {
+        collector.setState(UiState.LIST_SCROLLING, true);
+        collector.setState(UiState.STREAM_PLAYING, true);
+        collector.record(collector.currentStates(System.nanoTime()), ms(30), BUDGET);
+        collector.setState(UiState.LIST_SCROLLING, false);
+        collector.record(collector.currentStates(System.nanoTime()), ms(5), BUDGET);
+        collector.setState(UiState.STREAM_PLAYING, false);
+        collector.record(collector.currentStates(System.nanoTime()), ms(5), BUDGET);
+
+        assertEquals(1, collector.get(UiState.LIST_SCROLLING, UiState.STREAM_PLAYING).getSlowCount());
+        assertEquals(0, collector.get(UiState.LIST_SCROLLING).getFrameCount());
+        assertEquals(1, collector.get(UiState.STREAM_PLAYING).getFrameCount());
+        assertEquals(1, collector.get().getFrameCount());
+    }
+
+    @Test
+    public void markTransition_activatesTransitionStateForOneSecond() {
+        long now = System.nanoTime();
+        int transition = FrameTimingCollector.mask(UiState.FULLSCREEN_TRANSITION);
+        assertEquals(0, collector.currentStates(now));
+
+        collector.markTransition();
+
+        assertEquals(transition, collector.currentStates(System.nanoTime()));
+        assertEquals(0, collector.currentStates(now + FrameTimingCollector.TRANSITION_WINDOW_NANOS + ms(100)));
+    }
+
+    @Test
+    public void stateName_joinsActiveStates() {
+        assertEquals("idle", FrameTimingCollector.stateName(0));
+        assertEquals("stream_playing", FrameTimingCollector.stateName(FrameTimingCollector.mask(UiState.STREAM_PLAYING)));
+        assertEquals("list_scrolling+fullscreen_transition", FrameTimingCollector.stateName(
+                FrameTimingCollector.mask(UiState.FULLSCREEN_TRANSITION, UiState.LIST_SCROLLING)));
+    }
+
+    @Test
+    public void formatReport_listsStatesWithFrames() {
+        assertEquals("No frames recorded yet.\n", collector.formatReport());
+
+        collector.record(FrameTimingCollector.mask(UiState.STREAM_PLAYING), ms(20), BUDGET);
+
+        String report = collector.formatReport();
+        assertTrue(report, report.startsWith("stream_playing: 1 frames, 1 slow (100.0%), 0 frozen"));
+        assertFalse(report, report.contains("idle"));
+    }
+
+    @Test
+    public void formatJson_exportsCountsAndPercentilesPerState() {
+        collector.record(0, ms(4), BUDGET);
+        collector.record(FrameTimingCollector.mask(UiState.LIST_SCROLLING), ms(800), BUDGET);
+
+        JsonObject json = JsonParser.parseString(collector.formatJson()).getAsJsonObject();
+        JsonObject states = json.getAsJsonObject("states");
+
+        assertEquals(2, states.size());
+        assertEquals(1, states.getAsJsonObject("idle").get("frames").getAsLong());
+        JsonObject scrolling = states.getAsJsonObject("list_scrolling");
+        assertEquals(1, scrolling.get("frozen").getAsLong());
+        assertEquals(800.0, scrolling.get("max_ms").getAsDouble(), 0.001);
+        assertEquals(0, json.get("dropped_reports").getAsLong());
+    }
+
+    @Test
+    public void reset_clearsAllStates() {
+        collector.record(0, ms(20), BUDGET);
+        collector.record(FrameTimingCollector.mask(UiState.LIST_SCROLLING), ms(20), BUDGET);
+
+        collector.reset();
+
+        assertEquals(0, collector.get().getFrameCount());
+        assertEquals(0, collector.get(UiState.LIST_SCROLLING).getSlowCount());
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Unit tests for the {@link GsonProvider} class and the hand-written adapters it registers.
+ * Also compares them against Gson's reflective binding on large payloads.
+ */
+public class GsonProviderTest {
+
+    private static final Type VIDEO_LIST_TYPE = new TypeToken<List<VideoItem>>() {}.getType();
+    private static final Type PLAIN_VIDEO_LIST_TYPE = new TypeToken<List<PlainVideoItem>>() {}.getType();
+
+    /**
+     * The mutable two-field shape VideoItem had before it became immutable, which is what
+     * Gson's reflective binding needs; used as the reflective baseline.
+     */
+    private static final class PlainVideoItem {
+        String filename;
+        String url;
+    }
+
+    @Test
+    public void videoItem_roundTrips() {
+        Gson gson = GsonProvider.getGson();
+        VideoItem item = new VideoItem("video_20240101_120000.mp4", "http://h/videos/video_20240101_120000.mp4");
+
+        String json = gson.toJson(item);
+        VideoItem decoded = gson.fromJson(json, VideoItem.class);
+
+        assertEquals("{\"filename\":\"video_20240101_120000.mp4\",\"url\":\"http://h/videos/video_20240101_120000.mp4\"}", json);
+        assertEquals(item.getFilename(), decoded.getFilename());
+        assertEquals(item.getUrl(), decoded.getUrl());
+    }
+
+    @Test
+    public void videoItem_skipsUnknownFieldsAndNulls() {
+        VideoItem decoded = GsonProvider.getGson().fromJson(
+                "{\"size\":123,\"filename\":\"a.mp4\",\"meta\":{\"x\":[1,2]},\"url\":null}", VideoItem.class);
+
+        assertEquals("a.mp4", decoded.getFilename());
+        assertNull(decoded.getUrl());
+    }
+
+    @Test
+    public void feederList_usesStringListAdapter() {
+        Gson gson = GsonProvider.getGson();
+
+        List<String> feeders = gson.fromJson("[\"feeder-1\",null,\"feeder-2\"]", GsonProvider.STRING_LIST_TYPE);
+
+        assertTrue(gson.getAdapter(TypeToken.get(GsonProvider.STRING_LIST_TYPE)) instanceof StringListTypeAdapter);
+        assertEquals(Arrays.asList("feeder-1", null, "feeder-2"), feeders);
+        assertEquals("[\"feeder-1\",null,\"feeder-2\"]", gson.toJson(feeders, GsonProvider.STRING_LIST_TYPE));
+        assertNull(gson.fromJson("null", GsonProvider.STRING_LIST_TYPE));
+    }
+
+    @Test
+    public void videoPage_picksUpVideoItemAdapterForItems() {
+        VideoPage page = GsonProvider.getGson().fromJson(
+                "{\"items\":[{\"filename\":\"a.mp4\",\"url\":\"u\",\"extra\":1}],\"next_cursor\":\"c\",\"total\":7}", VideoPage.class);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("a.mp4", page.getItems().get(0).getFilename());
+        assertEquals("c", page.getNextCursor());
+        assertEquals(7, page.getTotal());
+        assertTrue(GsonProvider.getGson().getAdapter(VideoItem.class) instanceof VideoItemTypeAdapter);
+    }
+
+    @Test
+    public void bootstrapResponse_bindsCatalogFeedersAndClientId() {
+        BootstrapResponse response = GsonProvider.getGson().fromJson(
+                "{\"catalog\":{\"items\":[{\"filename\":\"a.mp4\",\"url\":\"u\"}],\"next_cursor\":\"c\",\"total\":9,\"sync_token\":\"t\"},"
+                        + "\"feeders\":[\"feeder-1\"],\"client_id\":\"client-7\",\"server_time\":1}", BootstrapResponse.class);
+
+        assertEquals("a.mp4", response.getCatalog().getItems().get(0).getFilename());
+        assertEquals("t", response.getCatalog().getSyncToken());
+        assertEquals(Arrays.asList("feeder-1"), response.getFeeders());
+        assertEquals("client-7", response.getClientId());
+
+        BootstrapResponse empty = GsonProvider.getGson().fromJson("{}", BootstrapResponse.class);
+        assertNull(empty.getCatalog());
+        assertTrue(empty.getFeeders().isEmpty());
+        assertNull(empty.getClientId());
+    }
+
+    /**
+     * Decodes 1k, 10k and 100k item catalogs with a reflective Gson and with the shared
+     * Gson, and checks that the shared Gson allocates no more per item.
+     * Allocations are measured on the current thread where the JVM supports it.
+     */
+    @Test
+    @Category(Benchmark.class)
+    public void benchmark_handWrittenVsReflective() {
+        Gson reflective = new Gson();
+        Gson handWritten = GsonProvider.getGson();
+
+        for (int size : new int[]{1_000, 10_000, 100_000}) {
+            String json = catalogJson(size);
+            int rounds = Math.max(3, 300_000 / size);
+
+            List<PlainVideoItem> expected = reflective.fromJson(json, PLAIN_VIDEO_LIST_TYPE);
+            List<VideoItem> actual = handWritten.fromJson(json, VIDEO_LIST_TYPE);
+            assertEquals(size, actual.size());
+            assertEquals(expected.get(size - 1).filename, actual.get(size - 1).getFilename());
+            assertEquals(expected.get(size - 1).url, actual.get(size - 1).getUrl());
+
+            double reflectiveBytes = bytesPerItem(reflective, PLAIN_VIDEO_LIST_TYPE, json, size, rounds);
+            double handWrittenBytes = bytesPerItem(handWritten, VIDEO_LIST_TYPE, json, size, rounds);
+            if (handWrittenBytes >= 0) {
+                assertTrue("Hand-written adapter allocates " + handWrittenBytes + " B/item, reflective "
+                                + reflectiveBytes,
+                        handWrittenBytes <= reflectiveBytes * 1.1);
+            }
+        }
+    }
+
+    private static double bytesPerItem(Gson gson, Type listType, String json, int size, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            gson.fromJson(json, listType);
+        }
+        long allocatedBefore = allocatedBytes();
+        int decoded = 0;
+        for (int i = 0; i < rounds; i++) {
+            List<?> items = gson.fromJson(json, listType);
+            decoded += items.size();
+        }
+        long allocatedAfter = allocatedBytes();
+        assertEquals((long) size * rounds, decoded);
+        return allocatedBefore < 0 ? -1 : (double) (allocatedAfter - allocatedBefore) / decoded;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static String catalogJson(int size) {
+        StringBuilder json = new StringBuilder(size * 120).append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) json.append(',');
+            String name = String.format(Locale.US, "video_2024%02d%02d_%06d.mp4", 1 + i % 12, 1 + i % 28, i % 1_000_000);
+            json.append("{\"filename\":\"").append(name)
+                    .append("\",\"url\":\"http://192.168.1.10:5000/videos/").append(name).append("\"}");
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Arrays;
+
+/**
+ * Heap measurements shared by the memory benchmarks.
+ */
+final class HeapMeasurements {
+
+    interface Builder {
+        Object build();
+    }
+
+    private HeapMeasurements() {
+    }
+
+    /**
+     * Measures the heap still used by the built object after garbage collection, as the
+     * median of three runs.
+     * @param builder Builds the object to measure; called once per run.
+     * @return The retained bytes.
+     */
+    static long retainedBytes(Builder builder) {
+        long[] samples = new long[3];
+        for (int run = 0; run < samples.length; run++) {
+            long before = usedHeapAfterGc();
+            Object built = builder.build();
+            long after = usedHeapAfterGc();
+            samples[run] = after - before;
+            assertNotNull(built);
+        }
+        Arrays.sort(samples);
+        return samples[1];
+    }
+
+    /**
+     * @return The used heap after several collections, the lowest value seen.
+     */
+    static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,381 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Unit tests for the {@link HttpClientProvider} class.
+ * Verifies that API and media requests share one pooled connection and that
+ * catalog responses are revalidated from the disk cache.
+ */
+public class HttpClientProviderTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private MockedStatic<Log> mockedLog;
+    private HttpClientProvider provider;
+
+    @Before
+    public void setUp() throws Exception {
+        mockedLog = Mockito.mockStatic(Log.class);
+        mockedLog.when(() -> Log.d(anyString(), anyString())).thenReturn(0);
+
+        server = new MockWebServer();
+        server.start();
+        provider = new HttpClientProvider(new HttpClientProvider.Config());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        if (mockedLog != null) {
+            mockedLog.close();
+        }
+    }
+
+    @Test
+    public void videoListThenMediaFetch_useSingleTcpHandshake() throws Exception {
+        server.enqueue(new MockResponse().setBody("[{\"filename\":\"video_1.mp4\",\"url\":\"" + server.url("/videos/video_1.mp4") + "\"}]"));
+        server.enqueue(new MockResponse().setBody("fake-mp4-bytes"));
+
+        ApiService service = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(provider.getClient())
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.getGson()))
+                .build()
+                .create(ApiService.class);
+
+        List<VideoItem> videos = service.getVideos().execute().body();
+        assertNotNull(videos);
+        assertEquals(1, videos.size());
+
+        // ExoPlayer's OkHttpDataSource issues plain calls on the same client.
+        Request mediaRequest = new Request.Builder().url(videos.get(0).getUrl()).build();
+        try (okhttp3.Response response = provider.getClient().newCall(mediaRequest).execute()) {
+            assertEquals("fake-mp4-bytes", response.body().string());
+        }
+
+        HttpClientProvider.ConnectionStats stats = provider.getConnectionStats();
+        assertEquals("Only one TCP handshake expected", 1, stats.getNewConnectionCount());
+        assertEquals("Second request should reuse the pooled connection", 1, stats.getReusedConnectionCount());
+        assertEquals(2, stats.getAcquiredConnectionCount());
+        assertEquals(0, stats.getFailedConnectionCount());
+    }
+
+    @Test
+    public void derivedClient_sharesPoolAndCounters() throws Exception {
+        server.enqueue(new MockResponse().setBody("a"));
+        server.enqueue(new MockResponse().setBody("b"));
+
+        OkHttpClient derived = provider.getClient().newBuilder().build();
+        provider.getClient().newCall(new Request.Builder().url(server.url("/a")).build()).execute().close();
+        derived.newCall(new Request.Builder().url(server.url("/b")).build()).execute().close();
+
+        assertSame(provider.getClient().connectionPool(), derived.connectionPool());
+        assertEquals(1, provider.getConnectionStats().getNewConnectionCount());
+        assertEquals(1, provider.getConnectionStats().getReusedConnectionCount());
+    }
+
+    @Test
+    public void config_isAppliedToDispatcher() {
+        HttpClientProvider custom = new HttpClientProvider(new HttpClientProvider.Config()
+                .setMaxRequests(4)
+                .setMaxRequestsPerHost(2));
+
+        assertEquals(4, custom.getClient().dispatcher().getMaxRequests());
+        assertEquals(2, custom.getClient().dispatcher().getMaxRequestsPerHost());
+    }
+
+    @Test
+    public void reset_clearsCounters() throws Exception {
+        server.enqueue(new MockResponse().setBody("a"));
+        provider.getClient().newCall(new Request.Builder().url(server.url("/a")).build()).execute().close();
+
+        provider.getConnectionStats().reset();
+
+        assertEquals(0, provider.getConnectionStats().getNewConnectionCount());
+        assertEquals(0, provider.getConnectionStats().getAcquiredConnectionCount());
+    }
+
+    @Test
+    public void videoList_unchanged_isRevalidatedWithEtagAndServedFromCache() throws Exception {
+        String catalog = "[{\"filename\":\"video_20240101_120000.mp4\",\"url\":\"http://host/videos/video_20240101_120000.mp4\"}]";
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(catalog));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        HttpClientProvider cached = new HttpClientProvider(new HttpClientProvider.Config(), tempFolder.newFolder("http"));
+        ApiService service = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(cached.getClient())
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.getGson()))
+                .build()
+                .create(ApiService.class);
+
+        List<VideoItem> first = service.getVideos().execute().body();
+        retrofit2.Response<List<VideoItem>> second = service.getVideos().execute();
+
+        server.takeRequest();
+        RecordedRequest revalidation = server.takeRequest();
+        assertEquals("\"v1\"", revalidation.getHeader("If-None-Match"));
+
+        assertNotNull(second.body());
+        assertEquals(first.size(), second.body().size());
+        assertEquals(first.get(0).getFilename(), second.body().get(0).getFilename());
+        assertEquals(304, second.raw().networkResponse().code());
+        assertEquals(2, cached.getCache().networkCount());
+        assertEquals(1, cached.getCache().hitCount());
+    }
+
+    @Test
+    public void feeders_withExplicitMaxAge_areNotForcedToRevalidate() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"f1\"").setHeader("Cache-Control", "max-age=60").setBody("[\"feeder-1\"]"));
+
+        HttpClientProvider cached = new HttpClientProvider(new HttpClientProvider.Config(), tempFolder.newFolder("http"));
+        ApiService service = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(cached.getClient())
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.getGson()))
+                .build()
+                .create(ApiService.class);
+
+        assertEquals("feeder-1", service.getFeeders().execute().body().get(0));
+        assertEquals("feeder-1", service.getFeeders().execute().body().get(0));
+
+        assertEquals("Fresh response should be served without touching the network", 1, server.getRequestCount());
+    }
+
+    @Test
+    public void isCatalogPath_matchesOnlyCatalogEndpoints() {
+        assertTrue(HttpClientProvider.CatalogRevalidationInterceptor.isCatalogPath("/videos"));
+        assertTrue(HttpClientProvider.CatalogRevalidationInterceptor.isCatalogPath("/feeders/"));
+        assertTrue(HttpClientProvider.CatalogRevalidationInterceptor.isCatalogPath("/api/videos"));
+        assertFalse(HttpClientProvider.CatalogRevalidationInterceptor.isCatalogPath("/videos/video_1.mp4"));
+        assertFalse(HttpClientProvider.CatalogRevalidationInterceptor.isCatalogPath("/"));
+    }
+
+    @Test
+    public void h2cClient_multiplexesConcurrentRequestsOverOneConnection() throws Exception {
+        MockWebServer h2cServer = new MockWebServer();
+        h2cServer.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        h2cServer.setDispatcher(delayedDispatcher(20));
+        h2cServer.start();
+        try {
+            executeOnce(provider.getClient(true), h2cServer);
+            BenchmarkResult result = runConcurrent(provider.getClient(true), h2cServer, 20);
+
+            assertEquals(20, result.succeeded);
+            assertEquals("All requests should share one HTTP/2 connection", 1, provider.getConnectionStats().getNewConnectionCount());
+            assertEquals(Protocol.H2_PRIOR_KNOWLEDGE, result.protocol);
+        } finally {
+            h2cServer.shutdown();
+        }
+    }
+
+    @Test
+    public void h2cClient_fallsBackToHttp1WhenServerRefuses() throws Exception {
+        server.setDispatcher(delayedDispatcher(0));
+        OkHttpClient h2c = provider.getClient(true);
+        Request request = new Request.Builder().url(server.url("/feeders")).build();
+
+        try (okhttp3.Response first = h2c.newCall(request).execute()) {
+            assertEquals(Protocol.HTTP_1_1, first.protocol());
+            assertEquals("ok", first.body().string());
+        }
+        try (okhttp3.Response second = h2c.newCall(request).execute()) {
+            assertEquals(Protocol.HTTP_1_1, second.protocol());
+        }
+
+        HttpClientProvider.H2cFallbackInterceptor fallback = null;
+        for (okhttp3.Interceptor interceptor : h2c.interceptors()) {
+            if (interceptor instanceof HttpClientProvider.H2cFallbackInterceptor) {
+                fallback = (HttpClientProvider.H2cFallbackInterceptor) interceptor;
+            }
+        }
+        assertNotNull(fallback);
+        assertTrue(fallback.isHttp1Only(request.url()));
+    }
+
+    @Test
+    public void h2cClient_unreachableServer_isNotMarkedHttp1Only() throws Exception {
+        okhttp3.HttpUrl url = server.url("/feeders");
+        server.shutdown();
+        OkHttpClient h2c = provider.getClient(true);
+
+        try {
+            h2c.newCall(new Request.Builder().url(url).build()).execute();
+            fail("Expected IOException");
+        } catch (java.io.IOException expected) {
+            // Neither protocol can connect.
+        }
+
+        for (okhttp3.Interceptor interceptor : h2c.interceptors()) {
+            if (interceptor instanceof HttpClientProvider.H2cFallbackInterceptor) {
+                assertFalse(((HttpClientProvider.H2cFallbackInterceptor) interceptor).isHttp1Only(url));
+            }
+        }
+    }
+
+    @Test
+    public void h2cFallback_http1OnlyMarkExpires() throws Exception {
+        server.setDispatcher(delayedDispatcher(0));
+        long[] now = {0};
+        HttpClientProvider.H2cFallbackInterceptor fallback =
+                new HttpClientProvider.H2cFallbackInterceptor(new OkHttpClient(), () -> now[0]);
+        OkHttpClient h2c = new OkHttpClient.Builder()
+                .protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE))
+                .addInterceptor(fallback)
+                .build();
+        Request request = new Request.Builder().url(server.url("/feeders")).build();
+
+        h2c.newCall(request).execute().close();
+        assertTrue(fallback.isHttp1Only(request.url()));
+
+        now[0] = HttpClientProvider.H2cFallbackInterceptor.HTTP1_ONLY_MILLIS - 1;
+        assertTrue(fallback.isHttp1Only(request.url()));
+        now[0] = HttpClientProvider.H2cFallbackInterceptor.HTTP1_ONLY_MILLIS;
+        assertFalse(fallback.isHttp1Only(request.url()));
+    }
+
+    @Test
+    public void h2cFallback_timeoutServedOverHttp1_isNotMarkedHttp1Only() throws Exception {
+        server.setDispatcher(delayedDispatcher(0));
+        HttpClientProvider.H2cFallbackInterceptor fallback = new HttpClientProvider.H2cFallbackInterceptor(new OkHttpClient());
+        OkHttpClient h2c = new OkHttpClient.Builder()
+                .addInterceptor(fallback)
+                .addInterceptor(chain -> {
+                    throw new SocketTimeoutException("timeout");
+                })
+                .build();
+        Request request = new Request.Builder().url(server.url("/feeders")).build();
+
+        try (okhttp3.Response response = h2c.newCall(request).execute()) {
+            assertEquals("ok", response.body().string());
+        }
+        assertFalse(fallback.isHttp1Only(request.url()));
+    }
+
+    /**
+     * Sends 50 concurrent small requests to a local server that answers after 20 ms, once
+     * over HTTP/1.1 and once over h2c, and compares the wall time and the number of TCP
+     * connections used. HTTP/1.1 is limited to a few parallel connections per host,
+     * so requests queue; h2c multiplexes them on one connection. Each client first makes
+     * one request on its own, as after a warm-up, so the concurrent calls find an open
+     * connection instead of racing to create one.
+     */
+    @Test
+    @Category(Benchmark.class)
+    public void benchmark_50ConcurrentRequests_http1VsH2c() throws Exception {
+        int requests = 50;
+        MockWebServer http1Server = new MockWebServer();
+        http1Server.setDispatcher(delayedDispatcher(20));
+        http1Server.start();
+        MockWebServer h2cServer = new MockWebServer();
+        h2cServer.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        h2cServer.setDispatcher(delayedDispatcher(20));
+        h2cServer.start();
+        try {
+            HttpClientProvider http1Provider = new HttpClientProvider(new HttpClientProvider.Config());
+            HttpClientProvider h2cProvider = new HttpClientProvider(new HttpClientProvider.Config());
+            executeOnce(http1Provider.getClient(false), http1Server);
+            executeOnce(h2cProvider.getClient(true), h2cServer);
+            runConcurrent(http1Provider.getClient(false), http1Server, requests);
+            runConcurrent(h2cProvider.getClient(true), h2cServer, requests);
+
+            BenchmarkResult http1 = runConcurrent(http1Provider.getClient(false), http1Server, requests);
+            BenchmarkResult h2c = runConcurrent(h2cProvider.getClient(true), h2cServer, requests);
+
+            assertEquals(requests, http1.succeeded);
+            assertEquals(requests, h2c.succeeded);
+            assertEquals(1, h2cProvider.getConnectionStats().getNewConnectionCount());
+            assertTrue(http1Provider.getConnectionStats().getNewConnectionCount() > 1);
+            assertTrue("h2c wall time " + h2c.wallMillis + " ms vs HTTP/1.1 " + http1.wallMillis + " ms", h2c.wallMillis < http1.wallMillis);
+        } finally {
+            http1Server.shutdown();
+            h2cServer.shutdown();
+        }
+    }
+
+    private static okhttp3.mockwebserver.Dispatcher delayedDispatcher(long delayMillis) {
+        return new okhttp3.mockwebserver.Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody("ok").setHeadersDelay(delayMillis, TimeUnit.MILLISECONDS);
+            }
+        };
+    }
+
+    private static void executeOnce(OkHttpClient client, MockWebServer target) throws java.io.IOException {
+        try (okhttp3.Response response = client.newCall(new Request.Builder().url(target.url("/feeders")).build()).execute()) {
+            response.body().string();
+        }
+    }
+
+    private static final class BenchmarkResult {
+        int succeeded;
+        long wallMillis;
+        Protocol protocol;
+    }
+
+    private static BenchmarkResult runConcurrent(OkHttpClient client, MockWebServer target, int count) throws InterruptedException {
+        BenchmarkResult result = new BenchmarkResult();
+        CountDownLatch done = new CountDownLatch(count);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicReference<Protocol> protocol = new AtomicReference<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            client.newCall(new Request.Builder().url(target.url("/feeders?i=" + i)).build()).enqueue(new okhttp3.Callback() {
+                @Override
+                public void onFailure(okhttp3.Call call, java.io.IOException e) {
+                    done.countDown();
+                }
+
+                @Override
+                public void onResponse(okhttp3.Call call, okhttp3.Response response) throws java.io.IOException {
+                    try (okhttp3.Response r = response) {
+                        r.body().string();
+                        protocol.set(r.protocol());
+                        succeeded.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+        assertTrue("Requests did not finish", done.await(30, TimeUnit.SECONDS));
+        result.wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        result.succeeded = succeeded.get();
+        result.protocol = protocol.get();
+        return result;
+    }
+}
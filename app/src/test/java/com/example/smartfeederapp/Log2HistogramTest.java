@@ -0,0 +1,58 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link Log2Histogram} class.
+ */
+public class Log2HistogramTest {
+
+    @Test
+    public void empty_reportsZero() {
+        Log2Histogram histogram = new Log2Histogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void record_tracksCountSumMeanAndMax() {
+        Log2Histogram histogram = new Log2Histogram();
+        histogram.record(10);
+        histogram.record(30);
+        histogram.record(-5);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(40, histogram.getSum());
+        assertEquals(13, histogram.getMean());
+        assertEquals(30, histogram.getMax());
+    }
+
+    @Test
+    public void percentile_isWithinFactorTwoAndCappedAtMax() {
+        Log2Histogram histogram = new Log2Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        long p50 = histogram.getPercentile(50);
+        assertTrue("p50 " + p50, p50 >= 500 && p50 < 1000);
+        assertEquals(1000, histogram.getPercentile(100));
+        assertTrue(histogram.getPercentile(1) <= 15);
+    }
+
+    @Test
+    public void reset_clearsEverything() {
+        Log2Histogram histogram = new Log2Histogram();
+        histogram.record(Long.MAX_VALUE);
+
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+}
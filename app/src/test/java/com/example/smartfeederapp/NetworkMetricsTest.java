@@ -0,0 +1,173 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Unit tests for the {@link NetworkMetrics} class.
+ */
+public class NetworkMetricsTest {
+
+    private MockWebServer server;
+    private MockedStatic<Log> mockedLog;
+    private HttpClientProvider provider;
+
+    @Before
+    public void setUp() throws Exception {
+        mockedLog = Mockito.mockStatic(Log.class);
+        mockedLog.when(() -> Log.d(anyString(), anyString())).thenReturn(0);
+
+        server = new MockWebServer();
+        server.start();
+        provider = new HttpClientProvider(new HttpClientProvider.Config());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        if (mockedLog != null) {
+            mockedLog.close();
+        }
+    }
+
+    private void get(OkHttpClient client, String path) throws Exception {
+        try (Response response = client.newCall(new Request.Builder().url(server.url(path)).build()).execute()) {
+            response.body().string();
+        }
+    }
+
+    @Test
+    public void calls_areRecordedPerEndpoint() throws Exception {
+        server.enqueue(new MockResponse().setBody("[\"feeder-1\"]"));
+        server.enqueue(new MockResponse().setBody("[\"feeder-1\"]"));
+        server.enqueue(new MockResponse().setBody(new okio.Buffer().write(new byte[4096])));
+
+        get(provider.getClient(), "/feeders");
+        get(provider.getClient(), "/feeders");
+        get(provider.getClient(), "/videos/video_20240101_120000.mp4");
+
+        NetworkMetrics metrics = provider.getNetworkMetrics();
+        NetworkMetrics.EndpointStats feeders = metrics.get(NetworkMetrics.Endpoint.FEEDERS);
+        assertEquals(2, feeders.getCallCount());
+        assertEquals(2, feeders.getPhase(NetworkMetrics.Phase.TTFB).getCount());
+        assertEquals(2, feeders.getPhase(NetworkMetrics.Phase.BODY).getCount());
+        assertEquals(2, feeders.getPhase(NetworkMetrics.Phase.TOTAL).getCount());
+        assertEquals("Only the first call opens a connection", 1, feeders.getPhase(NetworkMetrics.Phase.CONNECT).getCount());
+        assertEquals(1, feeders.getReusedConnectionCount());
+        assertEquals(24, feeders.getResponseBytes().getSum());
+
+        NetworkMetrics.EndpointStats media = metrics.get(NetworkMetrics.Endpoint.MEDIA);
+        assertEquals(1, media.getCallCount());
+        assertEquals(4096, media.getResponseBytes().getMax());
+        assertEquals(0, metrics.get(NetworkMetrics.Endpoint.VIDEOS).getCallCount());
+
+        String report = metrics.formatReport();
+        assertTrue(report, report.contains("feeders: 2 calls"));
+        assertTrue(report, report.contains("media: 1 calls"));
+    }
+
+    @Test
+    public void derivedClient_isMeasuredAndConnectionStatsStillCount() throws Exception {
+        server.enqueue(new MockResponse().setBody("[]"));
+        OkHttpClient derived = provider.getClient().newBuilder().build();
+
+        get(derived, "/videos");
+
+        assertEquals(1, provider.getNetworkMetrics().get(NetworkMetrics.Endpoint.VIDEOS).getCallCount());
+        assertEquals(1, provider.getConnectionStats().getNewConnectionCount());
+        assertEquals(1, provider.getConnectionStats().getAcquiredConnectionCount());
+    }
+
+    @Test
+    public void failedCall_isCounted() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(okhttp3.mockwebserver.SocketPolicy.DISCONNECT_AT_START));
+        server.enqueue(new MockResponse().setSocketPolicy(okhttp3.mockwebserver.SocketPolicy.DISCONNECT_AT_START));
+        OkHttpClient client = provider.getClient().newBuilder().retryOnConnectionFailure(false).build();
+
+        try {
+            get(client, "/feeders");
+            fail("Expected IOException");
+        } catch (java.io.IOException expected) {
+            // Server closed the connection.
+        }
+
+        NetworkMetrics.EndpointStats feeders = provider.getNetworkMetrics().get(NetworkMetrics.Endpoint.FEEDERS);
+        assertEquals(1, feeders.getFailureCount());
+        provider.getNetworkMetrics().reset();
+        assertEquals(0, feeders.getCallCount());
+    }
+
+    @Test
+    public void classify_mapsPathsToEndpoints() {
+        assertEquals(NetworkMetrics.Endpoint.VIDEOS, NetworkMetrics.classify(HttpUrl.get("http://h:5000/videos")));
+        assertEquals(NetworkMetrics.Endpoint.VIDEOS, NetworkMetrics.classify(HttpUrl.get("http://h:5000/api/videos/")));
+        assertEquals(NetworkMetrics.Endpoint.VIDEO_PAGE, NetworkMetrics.classify(HttpUrl.get("http://h/videos/page?cursor=a")));
+        assertEquals(NetworkMetrics.Endpoint.VIDEO_CHANGES, NetworkMetrics.classify(HttpUrl.get("http://h/videos/changes?since=t")));
+        assertEquals(NetworkMetrics.Endpoint.FEEDERS, NetworkMetrics.classify(HttpUrl.get("http://h/feeders")));
+        assertEquals(NetworkMetrics.Endpoint.BOOTSTRAP, NetworkMetrics.classify(HttpUrl.get("http://h/bootstrap?limit=50")));
+        assertEquals(NetworkMetrics.Endpoint.MEDIA, NetworkMetrics.classify(HttpUrl.get("http://h/videos/video_1.mp4")));
+        assertEquals(NetworkMetrics.Endpoint.MEDIA, NetworkMetrics.classify(HttpUrl.get("http://h/static/clip.m3u8")));
+        assertEquals(NetworkMetrics.Endpoint.OTHER, NetworkMetrics.classify(HttpUrl.get("http://h/")));
+        assertEquals(NetworkMetrics.Endpoint.OTHER, NetworkMetrics.classify(HttpUrl.get("http://h/status")));
+    }
+
+    /**
+     * Replays the events of a complete call on a timer many times and reports the
+     * average cost. This is the overhead the instrumentation adds to every request.
+     */
+    @Test
+    @Category(Benchmark.class)
+    public void listenerOverhead_isSmall() {
+        NetworkMetrics metrics = new NetworkMetrics();
+        Call call = new OkHttpClient().newCall(new Request.Builder().url("http://localhost/feeders").build());
+        EventListener.Factory factory = metrics.eventListenerFactory(null);
+        InetSocketAddress address = InetSocketAddress.createUnresolved("localhost", 80);
+
+        int warmup = 20_000;
+        int iterations = 200_000;
+        for (int i = 0; i < warmup; i++) {
+            replayCall(factory.create(call), call, address);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            replayCall(factory.create(call), call, address);
+        }
+        long nanosPerCall = (System.nanoTime() - start) / iterations;
+
+        assertEquals(warmup + iterations, metrics.get(NetworkMetrics.Endpoint.FEEDERS).getCallCount());
+        assertTrue("Overhead per call " + nanosPerCall + " ns", nanosPerCall < 20_000);
+    }
+
+    private static void replayCall(EventListener listener, Call call, InetSocketAddress address) {
+        listener.callStart(call);
+        listener.connectStart(call, address, Proxy.NO_PROXY);
+        listener.connectEnd(call, address, Proxy.NO_PROXY, Protocol.HTTP_1_1);
+        listener.requestHeadersStart(call);
+        listener.responseHeadersStart(call);
+        listener.responseBodyStart(call);
+        listener.responseBodyEnd(call, 1024);
+        listener.callEnd(call);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+/**
+ * Unit tests for the {@link RangeMediaDataSource} class.
+ * Reads a generated file from a MockWebServer that answers range requests like a file server.
+ */
+public class RangeMediaDataSourceTest {
+
+    private static final int FILE_SIZE = RangeMediaDataSource.BLOCK_SIZE * 3 + 100;
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    private MockWebServer server;
+    private final byte[] file = new byte[FILE_SIZE];
+    private final List<RequestScheduler.Priority> priorities = new ArrayList<>();
+    private volatile boolean rangesSupported = true;
+    private Call.Factory callFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        for (int i = 0; i < file.length; i++) {
+            file[i] = (byte) (i * 31);
+        }
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return respond(request.getHeader("Range"));
+            }
+        });
+        server.start();
+        OkHttpClient client = new OkHttpClient();
+        callFactory = request -> {
+            priorities.add(request.tag(RequestScheduler.Priority.class));
+            return client.newCall(request);
+        };
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    private MockResponse respond(String range) {
+        Matcher matcher = range != null ? RANGE.matcher(range) : null;
+        if (!rangesSupported || matcher == null || !matcher.matches()) {
+            return new MockResponse().setBody(new Buffer().write(file));
+        }
+        int start = Integer.parseInt(matcher.group(1));
+        if (start >= file.length) {
+            return new MockResponse().setResponseCode(416);
+        }
+        int end = Math.min(Integer.parseInt(matcher.group(2)), file.length - 1);
+        return new MockResponse()
+                .setResponseCode(206)
+                .setHeader("Content-Range", "bytes " + start + "-" + end + "/" + file.length)
+                .setBody(new Buffer().write(file, start, end - start + 1));
+    }
+
+    private RangeMediaDataSource source(long maxFetchBytes) {
+        return new RangeMediaDataSource(callFactory, server.url("/videos/a.mp4").toString(),
+                RequestScheduler.Priority.BACKGROUND, maxFetchBytes);
+    }
+
+    @Test
+    public void getSize_comesFromContentRangeOfFirstBlock() throws IOException {
+        RangeMediaDataSource source = source(Long.MAX_VALUE);
+
+        assertEquals(FILE_SIZE, source.getSize());
+        assertEquals(1, source.getRequestCount());
+        assertEquals(RangeMediaDataSource.BLOCK_SIZE, source.getFetchedBytes());
+    }
+
+    @Test
+    public void readAt_acrossBlockBoundary_returnsFileBytes() throws IOException {
+        RangeMediaDataSource source = source(Long.MAX_VALUE);
+        int position = RangeMediaDataSource.BLOCK_SIZE - 10;
+        byte[] buffer = new byte[30];
+
+        assertEquals(20, source.readAt(position, buffer, 10, 20));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(file[position + i], buffer[10 + i]);
+        }
+        assertEquals(2, source.getRequestCount());
+        assertEquals(RequestScheduler.Priority.BACKGROUND, priorities.get(0));
+    }
+
+    @Test
+    public void readAt_reusesFetchedBlocks() throws IOException {
+        RangeMediaDataSource source = source(Long.MAX_VALUE);
+        byte[] buffer = new byte[16];
+
+        source.readAt(0, buffer, 0, 16);
+        source.readAt(100, buffer, 0, 16);
+        source.readAt(4000, buffer, 0, 16);
+
+        assertEquals(1, source.getRequestCount());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void readAt_nearEndOfFile_isShortThenEnds() throws IOException {
+        RangeMediaDataSource source = source(Long.MAX_VALUE);
+        byte[] buffer = new byte[200];
+
+        assertEquals(50, source.readAt(FILE_SIZE - 50, buffer, 0, 200));
+        assertEquals(file[FILE_SIZE - 1], buffer[49]);
+        assertEquals(-1, source.readAt(FILE_SIZE, buffer, 0, 200));
+    }
+
+    @Test
+    public void readAt_beyondFetchLimit_fails() throws IOException {
+        RangeMediaDataSource source = source(RangeMediaDataSource.BLOCK_SIZE);
+        byte[] buffer = new byte[16];
+        source.readAt(0, buffer, 0, 16);
+
+        try {
+            source.readAt(RangeMediaDataSource.BLOCK_SIZE, buffer, 0, 16);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("without finding a frame"));
+        }
+        assertEquals(1, source.getRequestCount());
+    }
+
+    @Test
+    public void serverWithoutRangeSupport_isRejectedForLargeFiles() {
+        rangesSupported = false;
+        RangeMediaDataSource source = source(Long.MAX_VALUE);
+
+        try {
+            source.getSize();
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("Server does not support range requests", e.getMessage());
+        }
+    }
+
+    @Test
+    public void afterClose_readsFail() throws IOException {
+        RangeMediaDataSource source = source(Long.MAX_VALUE);
+        source.getSize();
+
+        source.close();
+
+        try {
+            source.readAt(0, new byte[16], 0, 16);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("Data source closed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void parseTotalSize_readsTotalAfterSlash() {
+        assertEquals(1048576, RangeMediaDataSource.parseTotalSize("bytes 0-65535/1048576"));
+        assertEquals(-1, RangeMediaDataSource.parseTotalSize("bytes 0-65535/*"));
+        assertEquals(-1, RangeMediaDataSource.parseTotalSize("bytes 0-65535"));
+        assertEquals(-1, RangeMediaDataSource.parseTotalSize(null));
+    }
+}
@@ -0,0 +1,397 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Unit tests for the {@link RequestScheduler} class.
+ * Runs real calls against a MockWebServer whose responses can be held back, so the
+ * order in which queued calls reach the server can be observed.
+ */
+public class RequestSchedulerTest {
+
+    private MockWebServer server;
+    private MockedStatic<Log> mockedLog;
+    private OkHttpClient client;
+    private final List<String> arrivals = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private final Semaphore gate = new Semaphore(0);
+    private volatile boolean gated = true;
+
+    @Before
+    public void setUp() throws Exception {
+        mockedLog = Mockito.mockStatic(Log.class);
+        mockedLog.when(() -> Log.d(anyString(), anyString())).thenReturn(0);
+
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                arrivals.add(request.getRequestUrl().queryParameter("id"));
+                int now = concurrent.incrementAndGet();
+                maxConcurrent.accumulateAndGet(now, Math::max);
+                try {
+                    if (gated) {
+                        gate.tryAcquire(5, TimeUnit.SECONDS);
+                    }
+                    return new MockResponse().setBody("ok");
+                } finally {
+                    concurrent.decrementAndGet();
+                }
+            }
+        });
+        server.start();
+        client = new HttpClientProvider(new HttpClientProvider.Config().setMaxRequestsPerHost(16)).getClient();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        gate.release(1000);
+        server.shutdown();
+        if (mockedLog != null) {
+            mockedLog.close();
+        }
+    }
+
+    private Request request(String id, RequestScheduler.Priority priority) {
+        Request.Builder builder = new Request.Builder().url(server.url("/feeders?id=" + id));
+        if (priority != null) {
+            builder.tag(RequestScheduler.Priority.class, priority);
+        }
+        return builder.build();
+    }
+
+    private static final class Recorder implements Callback {
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<IOException> failure = new AtomicReference<>();
+        final AtomicReference<Call> reportedCall = new AtomicReference<>();
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            failure.set(e);
+            reportedCall.set(call);
+            done.countDown();
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) throws IOException {
+            try (Response r = response) {
+                r.body().string();
+            }
+            reportedCall.set(call);
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue("Call did not finish", done.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private void awaitArrivals(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (arrivals.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, arrivals.size());
+    }
+
+    @Test
+    public void backgroundCalls_respectClassLimit() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(6, 3, 2);
+        Call.Factory factory = scheduler.callFactory(client);
+        List<Recorder> recorders = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Recorder recorder = new Recorder();
+            recorders.add(recorder);
+            factory.newCall(request("bg" + i, RequestScheduler.Priority.BACKGROUND)).enqueue(recorder);
+        }
+
+        awaitArrivals(2);
+        assertEquals(2, scheduler.getRunningCount(RequestScheduler.Priority.BACKGROUND));
+        assertEquals(3, scheduler.getQueuedCount(RequestScheduler.Priority.BACKGROUND));
+
+        gated = false;
+        gate.release(5);
+        for (Recorder recorder : recorders) {
+            recorder.await();
+            assertNull(recorder.failure.get());
+        }
+        assertEquals(2, maxConcurrent.get());
+        assertEquals(5, scheduler.getStats(RequestScheduler.Priority.BACKGROUND).getStartedCount());
+    }
+
+    @Test
+    public void interactiveCall_startsBeforeQueuedBackgroundWork() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 1, 1);
+        Call.Factory factory = scheduler.callFactory(client);
+        Recorder first = new Recorder();
+        factory.newCall(request("first", RequestScheduler.Priority.BACKGROUND)).enqueue(first);
+        awaitArrivals(1);
+        List<Recorder> rest = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Recorder recorder = new Recorder();
+            rest.add(recorder);
+            factory.newCall(request("bg" + i, RequestScheduler.Priority.BACKGROUND)).enqueue(recorder);
+        }
+        Recorder prefetch = new Recorder();
+        factory.newCall(request("prefetch", RequestScheduler.Priority.VISIBLE_PREFETCH)).enqueue(prefetch);
+        Recorder interactive = new Recorder();
+        Call interactiveCall = factory.newCall(request("tap", null));
+        interactiveCall.enqueue(interactive);
+
+        gated = false;
+        gate.release(10);
+        interactive.await();
+        prefetch.await();
+        for (Recorder recorder : rest) {
+            recorder.await();
+        }
+
+        assertEquals(Arrays.asList("first", "tap", "prefetch", "bg0", "bg1", "bg2"), arrivals);
+        assertSame("Callbacks receive the scheduled call", interactiveCall, interactive.reportedCall.get());
+        assertEquals(1, scheduler.getStats(RequestScheduler.Priority.INTERACTIVE).getQueueDelayMs().getCount());
+        assertEquals(4, scheduler.getStats(RequestScheduler.Priority.BACKGROUND).getQueueDelayMs().getCount());
+        assertTrue(scheduler.getStats(RequestScheduler.Priority.BACKGROUND).getQueueDelayMs().getMax()
+                >= scheduler.getStats(RequestScheduler.Priority.INTERACTIVE).getQueueDelayMs().getMax());
+    }
+
+    @Test
+    public void backgroundWork_leavesSlotForInteractiveCall() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(3, 3, 3);
+        Call.Factory factory = scheduler.callFactory(client);
+        List<Recorder> background = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Recorder recorder = new Recorder();
+            background.add(recorder);
+            factory.newCall(request("bg" + i, RequestScheduler.Priority.BACKGROUND)).enqueue(recorder);
+        }
+        awaitArrivals(2);
+        Thread.sleep(50);
+        assertEquals("Background work must not take the reserved slot", 2, arrivals.size());
+        assertEquals(2, scheduler.getQueuedCount(RequestScheduler.Priority.BACKGROUND));
+
+        Recorder interactive = new Recorder();
+        factory.newCall(request("tap", null)).enqueue(interactive);
+
+        awaitArrivals(3);
+        assertEquals("tap", arrivals.get(2));
+        gated = false;
+        gate.release(10);
+        interactive.await();
+        for (Recorder recorder : background) {
+            recorder.await();
+        }
+        assertEquals(3, maxConcurrent.get());
+    }
+
+    @Test
+    public void cancel_failsWaitingCallsWithoutSendingThem() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 1, 1);
+        Call.Factory factory = scheduler.callFactory(client);
+        Recorder running = new Recorder();
+        factory.newCall(request("running", RequestScheduler.Priority.BACKGROUND)).enqueue(running);
+        awaitArrivals(1);
+        Recorder queuedA = new Recorder();
+        Recorder queuedB = new Recorder();
+        Call callA = factory.newCall(request("a", RequestScheduler.Priority.BACKGROUND));
+        callA.enqueue(queuedA);
+        Call callB = factory.newCall(request("b", RequestScheduler.Priority.BACKGROUND));
+        callB.enqueue(queuedB);
+
+        callA.cancel();
+        callB.cancel();
+
+        queuedA.await();
+        queuedB.await();
+        assertEquals("Canceled", queuedA.failure.get().getMessage());
+        assertTrue(callA.isCanceled());
+        gated = false;
+        gate.release();
+        running.await();
+        assertNull(running.failure.get());
+        assertEquals(Collections.singletonList("running"), arrivals);
+        assertEquals(2, scheduler.getStats(RequestScheduler.Priority.BACKGROUND).getCancelledInQueueCount());
+        assertEquals(0, scheduler.getRunningCount(RequestScheduler.Priority.BACKGROUND));
+    }
+
+    @Test
+    public void execute_waitsForSlotAndReleasesIt() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 1, 1);
+        Call.Factory factory = scheduler.callFactory(client);
+        Recorder running = new Recorder();
+        factory.newCall(request("running", null)).enqueue(running);
+        awaitArrivals(1);
+
+        AtomicReference<String> body = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try (Response response = factory.newCall(request("sync", null)).execute()) {
+                body.set(response.body().string());
+            } catch (IOException e) {
+                body.set(e.toString());
+            }
+        });
+        caller.start();
+        Thread.sleep(50);
+        assertEquals("Synchronous call must wait for the slot", 1, arrivals.size());
+        assertEquals(1, scheduler.getQueuedCount(RequestScheduler.Priority.INTERACTIVE));
+
+        gated = false;
+        gate.release(2);
+        caller.join(5000);
+        running.await();
+        assertEquals("ok", body.get());
+        assertEquals(0, scheduler.getRunningCount(RequestScheduler.Priority.INTERACTIVE));
+    }
+
+    @Test
+    public void execute_whenCancelledWhileQueued_throws() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 1, 1);
+        Call.Factory factory = scheduler.callFactory(client);
+        factory.newCall(request("running", null)).enqueue(new Recorder());
+        awaitArrivals(1);
+        Call queued = factory.newCall(request("sync", null));
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                queued.execute().close();
+            } catch (Throwable t) {
+                thrown.set(t);
+            }
+        });
+        caller.start();
+        Thread.sleep(50);
+
+        queued.cancel();
+        caller.join(5000);
+
+        assertTrue(thrown.get() instanceof IOException);
+        assertEquals(1, arrivals.size());
+    }
+
+    @Test
+    public void execute_interruptedWhileBeingAdmitted_releasesSlot() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 1, 1);
+        Call.Factory factory = scheduler.callFactory(client);
+        Call runningDelegate = mock(Call.class);
+        new RequestScheduler.ScheduledCall(scheduler, runningDelegate, RequestScheduler.Priority.INTERACTIVE)
+                .enqueue(new Recorder());
+        ArgumentCaptor<Callback> runningCallback = ArgumentCaptor.forClass(Callback.class);
+        verify(runningDelegate).enqueue(runningCallback.capture());
+        gated = false;
+        Thread caller = new Thread(() -> {
+            try {
+                factory.newCall(request("sync", null)).execute().close();
+            } catch (IOException e) {
+                // Interrupted while queued.
+            }
+        });
+        caller.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (caller.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // The running call completes and admits the waiting caller while it is being interrupted.
+        synchronized (scheduler.lock) {
+            caller.interrupt();
+            runningCallback.getValue().onFailure(runningDelegate, new IOException("done"));
+        }
+        caller.join(5000);
+
+        assertFalse(caller.isAlive());
+        assertEquals(0, scheduler.getRunningCount(RequestScheduler.Priority.INTERACTIVE));
+        Recorder after = new Recorder();
+        factory.newCall(request("after", null)).enqueue(after);
+        after.await();
+        assertNull(after.failure.get());
+    }
+
+    @Test
+    public void priorityOf_derivesClassFromEndpoint() {
+        HttpUrl base = HttpUrl.get("http://h:5000/");
+
+        assertEquals(RequestScheduler.Priority.INTERACTIVE, RequestScheduler.priorityOf(new Request.Builder().url(base.resolve("videos/page?limit=50")).build()));
+        assertEquals(RequestScheduler.Priority.VISIBLE_PREFETCH, RequestScheduler.priorityOf(new Request.Builder().url(base.resolve("videos/page?cursor=c&limit=50")).build()));
+        assertEquals(RequestScheduler.Priority.BACKGROUND, RequestScheduler.priorityOf(new Request.Builder().url(base.resolve("videos/changes?since=t")).build()));
+        assertEquals(RequestScheduler.Priority.INTERACTIVE, RequestScheduler.priorityOf(new Request.Builder().url(base.resolve("videos/a.mp4")).build()));
+        assertEquals(RequestScheduler.Priority.BACKGROUND, RequestScheduler.priorityOf(new Request.Builder().url(base.resolve("feeders"))
+                .tag(RequestScheduler.Priority.class, RequestScheduler.Priority.BACKGROUND).build()));
+    }
+
+    /**
+     * Queues 30 background refreshes, then issues one interactive request, with and without
+     * the scheduler in front of a dispatcher limited to 4 parallel calls. The server answers
+     * each call after 20 ms. Compares how long the interactive call took in both setups.
+     */
+    @Test
+    @Category(Benchmark.class)
+    public void benchmark_interactiveLatencyBehindBackgroundBacklog() throws Exception {
+        gated = false;
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody("ok").setHeadersDelay(20, TimeUnit.MILLISECONDS);
+            }
+        });
+        OkHttpClient limited = new HttpClientProvider(new HttpClientProvider.Config().setMaxRequestsPerHost(4)).getClient();
+        Call.Factory scheduled = new RequestScheduler(4, 2, 2).callFactory(limited);
+
+        long plainMs = interactiveLatency(limited);
+        long scheduledMs = interactiveLatency(scheduled);
+
+        assertTrue("scheduled " + scheduledMs + " ms vs plain " + plainMs + " ms", scheduledMs < plainMs);
+    }
+
+    private long interactiveLatency(Call.Factory factory) throws InterruptedException {
+        List<Recorder> background = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Recorder recorder = new Recorder();
+            background.add(recorder);
+            factory.newCall(request("bg" + i, RequestScheduler.Priority.BACKGROUND)).enqueue(recorder);
+        }
+        Recorder interactive = new Recorder();
+        long start = System.nanoTime();
+        factory.newCall(request("tap", RequestScheduler.Priority.INTERACTIVE)).enqueue(interactive);
+        interactive.await();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        for (Recorder recorder : background) {
+            recorder.await();
+        }
+        return elapsed;
+    }
+}
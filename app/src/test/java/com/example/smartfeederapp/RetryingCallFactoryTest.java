@@ -0,0 +1,387 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+/**
+ * Unit tests for the {@link RetryingCallFactory} class.
+ * Delays are recorded instead of slept; scheduled retries run right away on the thread
+ * that scheduled them. The breaker runs on a fake clock.
+ */
+public class RetryingCallFactoryTest {
+
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    private MockWebServer server;
+    private MockedStatic<Log> mockedLog;
+    private final List<Long> sleeps = new ArrayList<>();
+    private final List<Long> scheduled = new ArrayList<>();
+    private final RetryingCallFactory.Delays delays = new RetryingCallFactory.Delays() {
+        @Override
+        public void sleep(long millis) {
+            sleeps.add(millis);
+        }
+
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            scheduled.add(delayMs);
+            task.run();
+        }
+    };
+    private final long[] now = {0};
+    private CircuitBreaker breaker;
+
+    @Before
+    public void setUp() throws Exception {
+        mockedLog = Mockito.mockStatic(Log.class);
+        mockedLog.when(() -> Log.d(anyString(), anyString())).thenReturn(0);
+
+        server = new MockWebServer();
+        server.start();
+        breaker = new CircuitBreaker(3, 10_000, () -> now[0]);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        if (mockedLog != null) {
+            mockedLog.close();
+        }
+    }
+
+    /**
+     * Runs OkHttp's asynchronous calls on the calling thread, where Log is mocked.
+     */
+    private static class DirectExecutorService extends AbstractExecutorService {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @NonNull
+        @Override
+        public List<Runnable> shutdownNow() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, @NonNull TimeUnit unit) {
+            return false;
+        }
+    }
+
+    private Call.Factory client(RetryingCallFactory.Policy policy) {
+        return client(new OkHttpClient(), policy);
+    }
+
+    private Call.Factory client(OkHttpClient okHttpClient, RetryingCallFactory.Policy policy) {
+        return new RetryingCallFactory(okHttpClient, policy, breaker, new Random(42), delays);
+    }
+
+    private Response get(Call.Factory client) throws IOException {
+        return client.newCall(new Request.Builder().url(server.url("/feeders")).build()).execute();
+    }
+
+    @Test
+    public void transientErrors_areRetriedUntilSuccess() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(new MockResponse().setBody("[]"));
+
+        try (Response response = get(client(new RetryingCallFactory.Policy()))) {
+            assertEquals(200, response.code());
+            assertEquals("[]", response.body().string());
+        }
+
+        assertEquals(3, server.getRequestCount());
+        assertEquals(2, sleeps.size());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getCurrentState());
+    }
+
+    @Test
+    public void retriesExhausted_returnLastErrorResponse() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(504));
+        }
+        breaker = new CircuitBreaker(10, 10_000, () -> now[0]);
+
+        try (Response response = get(client(new RetryingCallFactory.Policy().setMaxRetries(2)))) {
+            assertEquals(504, response.code());
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void clientErrors_areNotRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        try (Response response = get(client(new RetryingCallFactory.Policy()))) {
+            assertEquals(404, response.code());
+        }
+        assertEquals(1, server.getRequestCount());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    public void connectionFailure_isRetried() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        server.enqueue(new MockResponse().setBody("ok"));
+        Call.Factory client = client(new OkHttpClient.Builder().retryOnConnectionFailure(false).build(), new RetryingCallFactory.Policy());
+
+        try (Response response = get(client)) {
+            assertEquals("ok", response.body().string());
+        }
+        assertEquals(1, sleeps.size());
+    }
+
+    @Test
+    public void readTimeout_isNotRetriedAndDoesNotOpenBreaker() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        }
+        Call.Factory client = client(new OkHttpClient.Builder().readTimeout(100, TimeUnit.MILLISECONDS).build(),
+                new RetryingCallFactory.Policy());
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                get(client).close();
+                fail("Expected SocketTimeoutException");
+            } catch (SocketTimeoutException expected) {
+                // The server accepted the request but never answered.
+            }
+        }
+
+        assertEquals(3, server.getRequestCount());
+        assertTrue(sleeps.isEmpty());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getCurrentState());
+    }
+
+    @Test
+    public void refusedConnections_areRetriedAndOpenBreaker() throws Exception {
+        MockWebServer stopped = new MockWebServer();
+        stopped.start();
+        Request request = new Request.Builder().url(stopped.url("/feeders")).build();
+        stopped.shutdown();
+
+        try {
+            client(new RetryingCallFactory.Policy().setMaxRetries(2)).newCall(request).execute().close();
+            fail("Expected ConnectException");
+        } catch (ConnectException expected) {
+            // Nothing listens on the port any more.
+        }
+
+        assertEquals(2, sleeps.size());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getCurrentState());
+    }
+
+    @Test
+    public void isConnectFailure_separatesConnectFromReadFailures() {
+        assertTrue(RetryingCallFactory.isConnectFailure(new ConnectException("Failed to connect")));
+        assertTrue(RetryingCallFactory.isConnectFailure(new UnknownHostException("feeder.local")));
+        assertTrue(RetryingCallFactory.isConnectFailure(new SocketTimeoutException("connect timed out")));
+        assertFalse(RetryingCallFactory.isConnectFailure(new SocketTimeoutException("timeout")));
+        assertFalse(RetryingCallFactory.isConnectFailure(new IOException("unexpected end of stream")));
+        assertTrue(RetryingCallFactory.isReadTimeout(new SocketTimeoutException("Read timed out")));
+        assertTrue(RetryingCallFactory.isReadTimeout(new InterruptedIOException("timeout")));
+        assertFalse(RetryingCallFactory.isReadTimeout(new SocketTimeoutException("failed to connect to /10.0.0.2 after 10000ms")));
+    }
+
+    @Test
+    public void post_isNotRetriedWithoutIdempotencyKey() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        RequestBody body = RequestBody.create("{}", MediaType.parse("application/json"));
+
+        Request post = new Request.Builder().url(server.url("/command")).post(body).build();
+        try (Response response = client(new RetryingCallFactory.Policy()).newCall(post).execute()) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(1, server.getRequestCount());
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("done"));
+        Request keyed = post.newBuilder().header(RetryingCallFactory.IDEMPOTENCY_KEY_HEADER, "abc").build();
+        try (Response response = client(new RetryingCallFactory.Policy()).newCall(keyed).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void retryAfterHeader_isHonouredAndCapped() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "2"));
+        server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "120"));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        get(client(new RetryingCallFactory.Policy().setMaxDelayMs(5000))).close();
+
+        assertEquals(Long.valueOf(2000), sleeps.get(0));
+        assertEquals(Long.valueOf(5000), sleeps.get(1));
+    }
+
+    @Test
+    public void computeDelay_growsExponentiallyWithJitterBelowCap() {
+        RetryingCallFactory factory = new RetryingCallFactory(new OkHttpClient(),
+                new RetryingCallFactory.Policy().setBaseDelayMs(100).setMaxDelayMs(1000), breaker, new Random(7), delays);
+
+        for (int attempt = 0; attempt < 40; attempt++) {
+            long cap = Math.min(1000, 100L << Math.min(attempt, 30));
+            long delay = factory.computeDelay(attempt);
+            assertTrue("attempt " + attempt + ": " + delay, delay >= 0 && delay < cap);
+        }
+    }
+
+    @Test
+    public void openBreaker_failsFastWithoutNetwork() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+        Call.Factory client = client(new RetryingCallFactory.Policy().setMaxRetries(5));
+
+        try {
+            get(client);
+            fail("Expected CircuitOpenException");
+        } catch (RetryingCallFactory.CircuitOpenException e) {
+            assertEquals(10_000, e.getRetryAfterMillis());
+        }
+        assertEquals(3, server.getRequestCount());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getCurrentState());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState().getValue());
+
+        try {
+            get(client);
+            fail("Expected CircuitOpenException");
+        } catch (RetryingCallFactory.CircuitOpenException expected) {
+            // No request reaches the server while the breaker is open.
+        }
+        assertEquals(3, server.getRequestCount());
+
+        now[0] = 10_000;
+        server.enqueue(new MockResponse().setBody("[]"));
+        try (Response response = get(client)) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getCurrentState());
+    }
+
+    @Test
+    public void enqueue_schedulesRetriesInsteadOfSleeping() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("[]"));
+        Call.Factory client = client(new OkHttpClient.Builder().retryOnConnectionFailure(false)
+                .dispatcher(new Dispatcher(new DirectExecutorService())).build(), new RetryingCallFactory.Policy());
+        BlockingQueue<Object> results = new LinkedBlockingQueue<>();
+
+        Call call = client.newCall(new Request.Builder().url(server.url("/feeders")).build());
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call failed, @NonNull IOException e) {
+                results.add(e);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call answered, @NonNull Response response) throws IOException {
+                results.add(answered == call ? response.body().string() : "wrong call");
+            }
+        });
+
+        assertEquals("[]", results.poll(5, TimeUnit.SECONDS));
+        assertEquals(3, server.getRequestCount());
+        assertEquals(2, scheduled.size());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    public void enqueue_withOpenBreaker_failsWithoutRequest() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        BlockingQueue<Object> results = new LinkedBlockingQueue<>();
+
+        client(new RetryingCallFactory.Policy()).newCall(new Request.Builder().url(server.url("/feeders")).build())
+                .enqueue(new Callback() {
+                    @Override
+                    public void onFailure(@NonNull Call failed, @NonNull IOException e) {
+                        results.add(e);
+                    }
+
+                    @Override
+                    public void onResponse(@NonNull Call answered, @NonNull Response response) {
+                        results.add(response);
+                    }
+                });
+
+        assertTrue(results.poll(5, TimeUnit.SECONDS) instanceof RetryingCallFactory.CircuitOpenException);
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void isIdempotent_checksMethodAndHeader() {
+        Request get = new Request.Builder().url("http://host/videos").build();
+        Request post = get.newBuilder().post(RequestBody.create("", null)).build();
+
+        assertTrue(RetryingCallFactory.isIdempotent(get));
+        assertTrue(RetryingCallFactory.isIdempotent(get.newBuilder().delete().build()));
+        assertFalse(RetryingCallFactory.isIdempotent(post));
+        assertTrue(RetryingCallFactory.isIdempotent(post.newBuilder().header("Idempotency-Key", "k").build()));
+    }
+
+    @Test
+    public void parseRetryAfterMillis_acceptsOnlySeconds() {
+        assertEquals(3000, RetryingCallFactory.parseRetryAfterMillis("3"));
+        assertEquals(-1, RetryingCallFactory.parseRetryAfterMillis(null));
+        assertEquals(-1, RetryingCallFactory.parseRetryAfterMillis("Wed, 21 Oct 2015 07:28:00 GMT"));
+    }
+}
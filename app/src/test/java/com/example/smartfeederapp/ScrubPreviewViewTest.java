@@ -0,0 +1,37 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the time label of the {@link ScrubPreviewView} class.
+ */
+public class ScrubPreviewViewTest {
+
+    private static String format(long positionMs) {
+        char[] out = new char[16];
+        return new String(out, 0, ScrubPreviewView.formatTime(positionMs, out));
+    }
+
+    @Test
+    public void formatTime_belowAnHour_isMinutesAndSeconds() {
+        assertEquals("0:00", format(0));
+        assertEquals("0:00", format(999));
+        assertEquals("0:07", format(7_500));
+        assertEquals("1:05", format(65_000));
+        assertEquals("59:59", format(3_599_999));
+    }
+
+    @Test
+    public void formatTime_fromAnHour_includesHours() {
+        assertEquals("1:00:00", format(3_600_000));
+        assertEquals("2:03:04", format(7_384_000));
+        assertEquals("100:00:00", format(360_000_000));
+    }
+
+    @Test
+    public void formatTime_negativePosition_isZero() {
+        assertEquals("0:00", format(-5_000));
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -145,4 +146,86 @@ public class SettingsManagerTest {
         SettingsManager secondInstance = SettingsManager.getInstance(mockContext);
         assertSame("getInstance should return the same instance", settingsManager, secondInstance);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void serverAddressListener_notifiedOnlyForServerAddressChanges() {
+        ArgumentCaptor<SharedPreferences.OnSharedPreferenceChangeListener> captor =
+                ArgumentCaptor.forClass(SharedPreferences.OnSharedPreferenceChangeListener.class);
+        verify(mockSharedPreferences).registerOnSharedPreferenceChangeListener(captor.capture());
+        SettingsManager.ServerAddressListener listener = mock(SettingsManager.ServerAddressListener.class);
+        settingsManager.addServerAddressListener(listener);
+        when(mockSharedPreferences.getString(KEY_SERVER_ADDRESS, null)).thenReturn(TEST_SERVER_ADDRESS);
+
+        captor.getValue().onSharedPreferenceChanged(mockSharedPreferences, KEY_CLIENT_ID);
+        captor.getValue().onSharedPreferenceChanged(mockSharedPreferences, KEY_SERVER_ADDRESS);
+        settingsManager.removeServerAddressListener(listener);
+        captor.getValue().onSharedPreferenceChanged(mockSharedPreferences, KEY_SERVER_ADDRESS);
+
+        verify(listener, times(1)).onServerAddressChanged(TEST_SERVER_ADDRESS);
+    }
+
+    @Test
+    public void h2cPriorKnowledge_isStoredPerServerAddress() {
+        when(mockEditor.putBoolean(anyString(), anyBoolean())).thenReturn(mockEditor);
+        when(mockSharedPreferences.getBoolean("h2c_prior_knowledge:" + TEST_SERVER_ADDRESS, false)).thenReturn(true);
+        when(mockSharedPreferences.getString(KEY_SERVER_ADDRESS, null)).thenReturn(TEST_SERVER_ADDRESS);
+
+        settingsManager.setH2cPriorKnowledgeEnabled(TEST_SERVER_ADDRESS, true);
+
+        verify(mockEditor).putBoolean("h2c_prior_knowledge:" + TEST_SERVER_ADDRESS, true);
+        assertTrue(settingsManager.isH2cPriorKnowledgeEnabled());
+        assertFalse(settingsManager.isH2cPriorKnowledgeEnabled("10.0.0.1:5000"));
+        assertFalse(settingsManager.isH2cPriorKnowledgeEnabled(null));
+    }
+
+    @Test
+    public void bootstrapSupported_isStoredPerServerAndOnlyWrittenOnChange() {
+        when(mockEditor.putBoolean(anyString(), anyBoolean())).thenReturn(mockEditor);
+        when(mockSharedPreferences.getString(KEY_SERVER_ADDRESS, null)).thenReturn(TEST_SERVER_ADDRESS);
+        when(mockSharedPreferences.getBoolean("bootstrap_supported:" + TEST_SERVER_ADDRESS, false)).thenReturn(false, true);
+
+        settingsManager.setCapabilitySupported(TEST_SERVER_ADDRESS, ApiClient.CAPABILITY_BOOTSTRAP, true);
+        settingsManager.setCapabilitySupported(TEST_SERVER_ADDRESS, ApiClient.CAPABILITY_BOOTSTRAP, true);
+
+        verify(mockEditor, times(1)).putBoolean("bootstrap_supported:" + TEST_SERVER_ADDRESS, true);
+        assertTrue(settingsManager.isCapabilitySupported(ApiClient.CAPABILITY_BOOTSTRAP));
+        assertFalse(settingsManager.isCapabilitySupported(null, ApiClient.CAPABILITY_BOOTSTRAP));
+    }
+
+    @Test
+    public void bootstrapSupported_isFoundForAddressWithoutPortOrInUppercase() {
+        when(mockEditor.putBoolean(anyString(), anyBoolean())).thenReturn(mockEditor);
+        when(mockSharedPreferences.getBoolean("bootstrap_supported:feeder.local:80", false)).thenReturn(true);
+        when(mockSharedPreferences.getString(KEY_SERVER_ADDRESS, null)).thenReturn("Feeder.Local");
+
+        assertTrue(settingsManager.isCapabilitySupported(ApiClient.CAPABILITY_BOOTSTRAP));
+        assertTrue(settingsManager.isCapabilitySupported("feeder.local:80", ApiClient.CAPABILITY_BOOTSTRAP));
+
+        settingsManager.setCapabilitySupported(" Feeder.Local ", ApiClient.CAPABILITY_BOOTSTRAP, false);
+        verify(mockEditor).putBoolean("bootstrap_supported:feeder.local:80", false);
+    }
+
+    @Test
+    public void thumbnailsSupported_isStoredPerServerAndOnlyWrittenOnChange() {
+        when(mockEditor.putBoolean(anyString(), anyBoolean())).thenReturn(mockEditor);
+        when(mockSharedPreferences.getBoolean("thumbnails_supported:" + TEST_SERVER_ADDRESS, false)).thenReturn(false, true);
+
+        settingsManager.setCapabilitySupported(TEST_SERVER_ADDRESS, ApiClient.CAPABILITY_THUMBNAILS, true);
+        settingsManager.setCapabilitySupported(TEST_SERVER_ADDRESS, ApiClient.CAPABILITY_THUMBNAILS, true);
+
+        verify(mockEditor, times(1)).putBoolean("thumbnails_supported:" + TEST_SERVER_ADDRESS, true);
+        assertFalse(settingsManager.isCapabilitySupported(null, ApiClient.CAPABILITY_THUMBNAILS));
+    }
+
+    @Test
+    public void spriteSheetsSupported_isStoredPerServerAndOnlyWrittenOnChange() {
+        when(mockEditor.putBoolean(anyString(), anyBoolean())).thenReturn(mockEditor);
+        when(mockSharedPreferences.getBoolean("sprites_supported:" + TEST_SERVER_ADDRESS, false)).thenReturn(false, true);
+
+        settingsManager.setCapabilitySupported(TEST_SERVER_ADDRESS, ApiClient.CAPABILITY_SPRITES, true);
+        settingsManager.setCapabilitySupported(TEST_SERVER_ADDRESS, ApiClient.CAPABILITY_SPRITES, true);
+
+        verify(mockEditor, times(1)).putBoolean("sprites_supported:" + TEST_SERVER_ADDRESS, true);
+        assertFalse(settingsManager.isCapabilitySupported(null, ApiClient.CAPABILITY_SPRITES));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import android.graphics.Bitmap;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link SpriteSheetCache} class.
+ * Sheets hold mocked bitmaps that only report their size.
+ */
+public class SpriteSheetCacheTest {
+
+    private static SpriteSheet sheet(int bytes) {
+        Bitmap bitmap = mock(Bitmap.class);
+        when(bitmap.getAllocationByteCount()).thenReturn(bytes);
+        return new SpriteSheet(bitmap, 6, 100, 50, 30, 2000);
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsedBeyondMaxBytes() {
+        SpriteSheetCache cache = new SpriteSheetCache(3000);
+        SpriteSheet a = sheet(1000);
+        cache.put("a", a);
+        cache.put("b", sheet(1000));
+        cache.put("c", sheet(1000));
+        assertSame(a, cache.get("a"));
+
+        cache.put("d", sheet(1000));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertNotNull(cache.get("d"));
+        assertEquals(3000, cache.getSizeBytes());
+    }
+
+    @Test
+    public void put_replacingSheet_updatesSize() {
+        SpriteSheetCache cache = new SpriteSheetCache(3000);
+        cache.put("a", sheet(1000));
+
+        cache.put("a", sheet(2000));
+
+        assertEquals(1, cache.getCount());
+        assertEquals(2000, cache.getSizeBytes());
+    }
+
+    @Test
+    public void put_sheetLargerThanCache_isNotCached() {
+        SpriteSheetCache cache = new SpriteSheetCache(3000);
+        cache.put("a", sheet(1000));
+
+        cache.put("huge", sheet(4000));
+
+        assertNull(cache.get("huge"));
+        assertNotNull(cache.get("a"));
+        assertEquals(1000, cache.getSizeBytes());
+    }
+
+    @Test
+    public void clear_evictsEverything() {
+        SpriteSheetCache cache = new SpriteSheetCache(3000);
+        cache.put("a", sheet(1000));
+        cache.put("b", sheet(1000));
+
+        cache.clear();
+
+        assertEquals(0, cache.getCount());
+        assertEquals(0, cache.getSizeBytes());
+        assertTrue(cache.formatStats().startsWith("0 sheets, 0 KB"));
+    }
+}
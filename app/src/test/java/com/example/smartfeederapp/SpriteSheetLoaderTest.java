@@ -0,0 +1,124 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+/**
+ * Unit tests for the {@link SpriteSheetLoader} class.
+ * Work is queued instead of run, so the tests can check which jobs start and which are skipped;
+ * the encoding of sheets and the sampling of generated sheets are tested directly.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SpriteSheetLoaderTest {
+
+    private static final String URL = "http://192.168.1.10:5000/videos/feeder-1/a.mp4";
+
+    @Mock
+    private ThumbnailDiskCache diskCache;
+    @Mock
+    private SettingsManager settingsManager;
+    @Mock
+    private ThumbnailLoader.CallFactoryProvider callFactories;
+    @Mock
+    private SpriteSheetLoader.Callback callback1;
+    @Mock
+    private SpriteSheetLoader.Callback callback2;
+
+    private final Queue<Runnable> work = new ArrayDeque<>();
+    private SpriteSheetLoader loader;
+
+    @Before
+    public void setUp() {
+        loader = new SpriteSheetLoader(new SpriteSheetCache(1024 * 1024), diskCache, settingsManager, callFactories,
+                work::add, Runnable::run, 320, 180);
+    }
+
+    @Test
+    public void load_forSameVideo_sharesOneJob() {
+        loader.load(URL, callback1);
+        loader.load(URL, callback2);
+
+        assertEquals(1, work.size());
+    }
+
+    @Test
+    public void cancel_byEveryCallback_skipsJobBeforeItStarts() {
+        loader.load(URL, callback1);
+        loader.load(URL, callback2);
+
+        loader.cancel(URL, callback1);
+        loader.cancel(URL, callback2);
+        work.poll().run();
+
+        verifyNoInteractions(diskCache, callback1, callback2);
+        assertNull(loader.get(URL));
+    }
+
+    @Test
+    public void encode_thenReadHeader_returnsGrid() {
+        byte[] image = {1, 2, 3, 4};
+
+        byte[] data = SpriteSheetLoader.encode(new SpriteSheetLoader.Header(6, 21, 3000), image);
+        SpriteSheetLoader.Header header = SpriteSheetLoader.readHeader(data);
+
+        assertEquals(SpriteSheetLoader.HEADER_SIZE + image.length, data.length);
+        assertArrayEquals(image, Arrays.copyOfRange(data, SpriteSheetLoader.HEADER_SIZE, data.length));
+        assertEquals(6, header.columns);
+        assertEquals(21, header.frameCount);
+        assertEquals(3000, header.intervalMs);
+    }
+
+    @Test
+    public void readHeader_ofOtherData_isNull() {
+        byte[] data = SpriteSheetLoader.encode(new SpriteSheetLoader.Header(6, 21, 3000), new byte[]{1});
+        data[0] ^= 1;
+
+        assertNull(SpriteSheetLoader.readHeader(data));
+        assertNull(SpriteSheetLoader.readHeader(new byte[SpriteSheetLoader.HEADER_SIZE]));
+    }
+
+    @Test
+    public void parseHeaders_requiresPositiveNumbers() {
+        SpriteSheetLoader.Header header = SpriteSheetLoader.parseHeaders("10", " 100 ", "5000");
+        assertEquals(10, header.columns);
+        assertEquals(100, header.frameCount);
+        assertEquals(5000, header.intervalMs);
+
+        assertNull(SpriteSheetLoader.parseHeaders(null, "100", "5000"));
+        assertNull(SpriteSheetLoader.parseHeaders("0", "100", "5000"));
+        assertNull(SpriteSheetLoader.parseHeaders("10", "many", "5000"));
+        assertNull(SpriteSheetLoader.parseHeaders("10", "100", "-1"));
+    }
+
+    @Test
+    public void spriteSheetUrl_replacesVideosSegment() {
+        assertEquals("http://192.168.1.10:5000/sprites/feeder-1/a.mp4", SpriteSheetLoader.spriteSheetUrl(URL));
+        assertNull(SpriteSheetLoader.spriteSheetUrl("http://192.168.1.10:5000/media/a.mp4"));
+        assertNull(SpriteSheetLoader.spriteSheetUrl("not a url"));
+    }
+
+    @Test
+    public void generatedSheets_coverRecordingWithAtMostMaxFrames() {
+        assertEquals(SpriteSheetLoader.MIN_INTERVAL_MS, SpriteSheetLoader.intervalFor(0));
+        assertEquals(1, SpriteSheetLoader.frameCount(0, SpriteSheetLoader.MIN_INTERVAL_MS));
+
+        assertEquals(2000, SpriteSheetLoader.intervalFor(5_000));
+        assertEquals(3, SpriteSheetLoader.frameCount(5_000, 2000));
+
+        assertEquals(3000, SpriteSheetLoader.intervalFor(61_000));
+        assertEquals(21, SpriteSheetLoader.frameCount(61_000, 3000));
+
+        assertEquals(20_000, SpriteSheetLoader.intervalFor(600_000));
+        assertEquals(SpriteSheetLoader.MAX_FRAMES, SpriteSheetLoader.frameCount(600_000, 20_000));
+    }
+}
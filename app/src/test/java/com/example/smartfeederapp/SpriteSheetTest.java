@@ -0,0 +1,56 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link SpriteSheet} class.
+ * A 6-column sheet of 14 frames, 100x50 pixels each, taken every 2 seconds.
+ */
+public class SpriteSheetTest {
+
+    private final SpriteSheet sheet = new SpriteSheet(null, 6, 100, 50, 14, 2000);
+
+    @Test
+    public void frameAt_isLastFrameTakenAtOrBeforePosition() {
+        assertEquals(0, sheet.frameAt(-5));
+        assertEquals(0, sheet.frameAt(1999));
+        assertEquals(1, sheet.frameAt(2000));
+        assertEquals(6, sheet.frameAt(13_500));
+        assertEquals(13, sheet.frameAt(60_000));
+    }
+
+    @Test
+    public void frameAtFraction_spreadsFramesOverWholeRange() {
+        assertEquals(0, sheet.frameAtFraction(-0.5f));
+        assertEquals(0, sheet.frameAtFraction(0f));
+        assertEquals(7, sheet.frameAtFraction(0.5f));
+        assertEquals(13, sheet.frameAtFraction(0.99f));
+        assertEquals(13, sheet.frameAtFraction(1f));
+        assertEquals(13, sheet.frameAtFraction(2f));
+    }
+
+    @Test
+    public void frameBounds_followGridRowByRow() {
+        assertEquals(0, sheet.frameLeft(0));
+        assertEquals(0, sheet.frameTop(0));
+        assertEquals(500, sheet.frameLeft(5));
+        assertEquals(0, sheet.frameTop(5));
+        assertEquals(0, sheet.frameLeft(6));
+        assertEquals(50, sheet.frameTop(6));
+        assertEquals(100, sheet.frameLeft(13));
+        assertEquals(100, sheet.frameTop(13));
+    }
+
+    @Test
+    public void positionOf_isFrameTimesInterval() {
+        assertEquals(0, sheet.positionOf(0));
+        assertEquals(26_000, sheet.positionOf(13));
+    }
+
+    @Test
+    public void byteCount_withoutBitmap_isZero() {
+        assertEquals(0, sheet.getByteCount());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Unit tests for the {@link ThumbnailDiskCache} class, run against a temporary directory.
+ */
+public class ThumbnailDiskCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+
+    @Before
+    public void setUp() {
+        directory = new File(folder.getRoot(), "thumbnails");
+    }
+
+    private static byte[] data(int size, int value) {
+        byte[] data = new byte[size];
+        Arrays.fill(data, (byte) value);
+        return data;
+    }
+
+    @Test
+    public void put_thenGet_returnsSameBytes() {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, 1000);
+
+        cache.put("http://h/videos/a.mp4", data(10, 1));
+
+        assertArrayEquals(data(10, 1), cache.get("http://h/videos/a.mp4"));
+        assertNull(cache.get("http://h/videos/b.mp4"));
+        assertEquals(1, cache.getCount());
+        assertEquals(10, cache.getSizeBytes());
+    }
+
+    @Test
+    public void put_replacesThumbnailOfSameKey() {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, 1000);
+
+        cache.put("a", data(10, 1));
+        cache.put("a", data(20, 2));
+
+        assertArrayEquals(data(20, 2), cache.get("a"));
+        assertEquals(20, cache.getSizeBytes());
+    }
+
+    @Test
+    public void put_beyondMaxBytes_deletesLeastRecentlyUsed() {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, 300);
+        cache.put("a", data(100, 1));
+        cache.put("b", data(100, 2));
+        cache.put("c", data(100, 3));
+        cache.get("a");
+
+        cache.put("d", data(100, 4));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(3, directory.list().length);
+    }
+
+    @Test
+    public void newInstance_findsFilesOfEarlierRunAndDropsTemporaryFiles() throws IOException {
+        ThumbnailDiskCache first = new ThumbnailDiskCache(directory, 1000);
+        first.put("a", data(100, 1));
+        first.put("b", data(100, 2));
+        new File(directory, ThumbnailDiskCache.fileName("a")).setLastModified(1_000_000L);
+        new File(directory, ThumbnailDiskCache.fileName("b")).setLastModified(2_000_000L);
+        assertTrue(new File(directory, "partial.thumb.tmp").createNewFile());
+
+        ThumbnailDiskCache second = new ThumbnailDiskCache(directory, 150);
+
+        assertEquals(1, second.getCount());
+        assertNull(second.get("a"));
+        assertArrayEquals(data(100, 2), second.get("b"));
+        assertFalse(new File(directory, "partial.thumb.tmp").exists());
+    }
+
+    @Test
+    public void clear_deletesAllFiles() {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, 1000);
+        cache.put("a", data(10, 1));
+        cache.put("b", data(10, 2));
+
+        cache.clear();
+
+        assertEquals(0, cache.getCount());
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void fileName_isHexSha1OfKey() {
+        assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d.thumb", ThumbnailDiskCache.fileName("abc"));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import android.graphics.Bitmap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Unit tests for the {@link ThumbnailLoader} class.
+ * Work is queued instead of run, so the tests can check which jobs start and which are skipped.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ThumbnailLoaderTest {
+
+    private static final String URL_A = "http://192.168.1.10:5000/videos/feeder-1/a.mp4";
+    private static final String URL_B = "http://192.168.1.10:5000/videos/feeder-1/b.mp4";
+
+    @Mock
+    private ThumbnailDiskCache diskCache;
+    @Mock
+    private SettingsManager settingsManager;
+    @Mock
+    private ThumbnailLoader.CallFactoryProvider callFactories;
+    @Mock
+    private ThumbnailLoader.Target target1;
+    @Mock
+    private ThumbnailLoader.Target target2;
+
+    private final Queue<Runnable> work = new ArrayDeque<>();
+    private ThumbnailMemoryCache memoryCache;
+    private ThumbnailLoader loader;
+
+    @Before
+    public void setUp() {
+        memoryCache = new ThumbnailMemoryCache(1024 * 1024, 0);
+        loader = new ThumbnailLoader(memoryCache, diskCache, settingsManager, callFactories,
+                work::add, Runnable::run, 192, 108);
+    }
+
+    @Test
+    public void request_forSameVideo_sharesOneJob() {
+        loader.request(URL_A, target1);
+        loader.request(URL_A, target2);
+        loader.prefetch(URL_A);
+
+        assertEquals(1, work.size());
+    }
+
+    @Test
+    public void cancel_byEveryTarget_skipsJobBeforeItStarts() {
+        loader.request(URL_A, target1);
+        loader.request(URL_A, target2);
+
+        loader.cancel(URL_A, target1);
+        loader.cancel(URL_A, target2);
+        work.poll().run();
+
+        verifyNoInteractions(diskCache, target1, target2);
+    }
+
+    @Test
+    public void prefetch_ofThumbnailInMemory_startsNoJob() {
+        memoryCache.put(URL_A, mock(Bitmap.class));
+
+        loader.prefetch(URL_A);
+
+        assertTrue(work.isEmpty());
+    }
+
+    @Test
+    public void cancelPrefetches_keepsJobsRowsWaitFor() {
+        loader.prefetch(URL_A);
+        loader.request(URL_B, target1);
+
+        assertEquals(1, loader.cancelPrefetches());
+        assertEquals(0, loader.cancelPrefetches());
+
+        // The cancelled prefetch can be started again; the request is still running.
+        loader.prefetch(URL_A);
+        loader.prefetch(URL_B);
+        assertEquals(3, work.size());
+    }
+
+    @Test
+    public void thumbnailUrl_replacesVideosSegment() {
+        assertEquals("http://192.168.1.10:5000/thumbnails/feeder-1/a.mp4?width=192",
+                ThumbnailLoader.thumbnailUrl(URL_A, 192));
+        assertNull(ThumbnailLoader.thumbnailUrl("http://192.168.1.10:5000/media/a.mp4", 192));
+        assertNull(ThumbnailLoader.thumbnailUrl("not a url", 192));
+    }
+
+    @Test
+    public void serverAddress_isHostAndPort() {
+        assertEquals("192.168.1.10:5000", ThumbnailLoader.serverAddress(URL_A));
+        assertEquals("feeder.local:80", ThumbnailLoader.serverAddress("http://feeder.local/videos/a.mp4"));
+        assertNull(ThumbnailLoader.serverAddress("not a url"));
+    }
+
+    @Test
+    public void calculateSampleSize_keepsDecodedImageAtLeastRowSize() {
+        assertEquals(1, ThumbnailLoader.calculateSampleSize(192, 108, 192, 108));
+        assertEquals(1, ThumbnailLoader.calculateSampleSize(383, 215, 192, 108));
+        assertEquals(2, ThumbnailLoader.calculateSampleSize(384, 216, 192, 108));
+        assertEquals(8, ThumbnailLoader.calculateSampleSize(1920, 1080, 192, 108));
+        assertEquals(1, ThumbnailLoader.calculateSampleSize(100, 50, 192, 108));
+    }
+
+    @Test
+    public void scaledSize_coversRowAndKeepsAspectRatio() {
+        assertArrayEquals(new int[]{192, 108}, ThumbnailLoader.scaledSize(1920, 1080, 192, 108));
+        assertArrayEquals(new int[]{192, 144}, ThumbnailLoader.scaledSize(640, 480, 192, 108));
+        assertArrayEquals(new int[]{100, 50}, ThumbnailLoader.scaledSize(100, 50, 192, 108));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import android.graphics.Bitmap;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ThumbnailMemoryCache} class.
+ * Bitmaps are mocks that only report their size, config and mutability.
+ */
+public class ThumbnailMemoryCacheTest {
+
+    private static Bitmap bitmap(int bytes) {
+        return bitmap(bytes, true);
+    }
+
+    private static Bitmap bitmap(int bytes, boolean mutable) {
+        Bitmap bitmap = mock(Bitmap.class);
+        when(bitmap.getAllocationByteCount()).thenReturn(bytes);
+        when(bitmap.getConfig()).thenReturn(Bitmap.Config.RGB_565);
+        when(bitmap.isMutable()).thenReturn(mutable);
+        return bitmap;
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsedBeyondMaxBytes() {
+        ThumbnailMemoryCache cache = new ThumbnailMemoryCache(300, 0);
+        cache.put("a", bitmap(100));
+        cache.put("b", bitmap(100));
+        cache.put("c", bitmap(100));
+        cache.release(cache.acquire("a"));
+
+        cache.put("d", bitmap(100));
+
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+        assertTrue(cache.contains("d"));
+        assertEquals(300, cache.getSizeBytes());
+    }
+
+    @Test
+    public void acquire_countsHitsAndMisses() {
+        ThumbnailMemoryCache cache = new ThumbnailMemoryCache(300, 0);
+        Bitmap a = bitmap(100);
+        cache.put("a", a);
+
+        assertSame(a, cache.acquire("a"));
+        assertNull(cache.acquire("b"));
+        assertTrue(cache.formatStats().contains("1 hits, 1 misses"));
+    }
+
+    @Test
+    public void evictedBitmap_isPooledOnlyAfterLastRowReleasesIt() {
+        ThumbnailMemoryCache cache = new ThumbnailMemoryCache(100, 1000);
+        Bitmap a = bitmap(100);
+        cache.put("a", a);
+        cache.acquire("a");
+        cache.acquire("a");
+
+        cache.put("b", bitmap(100));
+        assertFalse(cache.contains("a"));
+        assertNull(cache.obtainReusable(100, Bitmap.Config.RGB_565));
+
+        cache.release(a);
+        assertNull(cache.obtainReusable(100, Bitmap.Config.RGB_565));
+        cache.release(a);
+        assertSame(a, cache.obtainReusable(100, Bitmap.Config.RGB_565));
+        assertEquals(0, cache.getPoolBytes());
+    }
+
+    @Test
+    public void obtainReusable_picksSmallestFittingBitmapOfSameConfig() {
+        ThumbnailMemoryCache cache = new ThumbnailMemoryCache(0, 1000);
+        Bitmap small = bitmap(50);
+        Bitmap medium = bitmap(120);
+        Bitmap large = bitmap(400);
+        Bitmap otherConfig = bitmap(110);
+        when(otherConfig.getConfig()).thenReturn(Bitmap.Config.ARGB_8888);
+        cache.put("large", large);
+        cache.put("small", small);
+        cache.put("other", otherConfig);
+        cache.put("medium", medium);
+
+        assertSame(medium, cache.obtainReusable(100, Bitmap.Config.RGB_565));
+        assertSame(large, cache.obtainReusable(100, Bitmap.Config.RGB_565));
+        assertNull(cache.obtainReusable(100, Bitmap.Config.RGB_565));
+        assertSame(small, cache.obtainReusable(50, Bitmap.Config.RGB_565));
+    }
+
+    @Test
+    public void pool_dropsOldestBitmapsAndSkipsImmutableOnes() {
+        ThumbnailMemoryCache cache = new ThumbnailMemoryCache(0, 200);
+        Bitmap first = bitmap(100);
+        Bitmap second = bitmap(100);
+        Bitmap third = bitmap(100);
+        cache.put("first", first);
+        cache.put("immutable", bitmap(100, false));
+        cache.put("second", second);
+        cache.put("third", third);
+
+        assertEquals(200, cache.getPoolBytes());
+        assertSame(second, cache.obtainReusable(100, Bitmap.Config.RGB_565));
+        assertSame(third, cache.obtainReusable(100, Bitmap.Config.RGB_565));
+        assertNull(cache.obtainReusable(100, Bitmap.Config.RGB_565));
+    }
+
+    @Test
+    public void clear_keepsShownBitmapsUntilReleased() {
+        ThumbnailMemoryCache cache = new ThumbnailMemoryCache(1000, 1000);
+        Bitmap shown = bitmap(100);
+        cache.put("shown", shown);
+        cache.put("idle", bitmap(100));
+        cache.acquire("shown");
+
+        cache.clear();
+
+        assertEquals(0, cache.getCount());
+        assertEquals(0, cache.getPoolBytes());
+        cache.release(shown);
+        assertSame(shown, cache.obtainReusable(100, Bitmap.Config.RGB_565));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the {@link ThumbnailPrefetcher} class.
+ * The list shows 30 videos; the tests move its visible rows and check what is prefetched.
+ * Runs on Robolectric because the prefetcher reads the rows from a real VideoAdapter.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ThumbnailPrefetcherTest {
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private LinearLayoutManager layoutManager;
+    @Mock
+    private ThumbnailLoader loader;
+    @Mock
+    private RecyclerView recyclerView;
+
+    private ThumbnailPrefetcher prefetcher;
+
+    @Before
+    public void setUp() {
+        List<VideoItem> items = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            items.add(new VideoItem("video_" + i + ".mp4", url(i)));
+        }
+        VideoAdapter adapter = new VideoAdapter(Runnable::run, Runnable::run);
+        adapter.setFirstPage(items, 30);
+        prefetcher = new ThumbnailPrefetcher(layoutManager, adapter, loader, 4);
+    }
+
+    private static String url(int i) {
+        return "http://example.com/videos/video_" + i + ".mp4";
+    }
+
+    private void scroll(int first, int last, int dy) {
+        when(layoutManager.findFirstVisibleItemPosition()).thenReturn(first);
+        when(layoutManager.findLastVisibleItemPosition()).thenReturn(last);
+        prefetcher.onScrolled(recyclerView, 0, dy);
+    }
+
+    @Test
+    public void scrollDown_prefetchesRowsBelowNearestFirst() {
+        scroll(5, 9, 10);
+
+        InOrder inOrder = inOrder(loader);
+        for (int i = 10; i < 14; i++) {
+            inOrder.verify(loader).prefetch(url(i));
+        }
+        verify(loader, never()).prefetch(url(4));
+    }
+
+    @Test
+    public void furtherScroll_onlyPrefetchesRowsNewToTheWindow() {
+        scroll(5, 9, 10);
+        clearInvocations(loader);
+
+        scroll(6, 10, 10);
+
+        verify(loader).prefetch(url(14));
+        verify(loader, times(1)).prefetch(anyString());
+        verify(loader, never()).cancelPrefetches();
+    }
+
+    @Test
+    public void directionChange_cancelsPrefetchesAndPrefetchesRowsAboveNearestFirst() {
+        scroll(5, 9, 10);
+        clearInvocations(loader);
+
+        scroll(5, 9, -10);
+
+        InOrder inOrder = inOrder(loader);
+        inOrder.verify(loader).cancelPrefetches();
+        for (int i = 4; i >= 1; i--) {
+            inOrder.verify(loader).prefetch(url(i));
+        }
+        verify(loader, never()).prefetch(url(0));
+    }
+
+    @Test
+    public void horizontalOrNoScroll_prefetchesNothing() {
+        prefetcher.onScrolled(recyclerView, 10, 0);
+
+        verifyNoInteractions(loader, layoutManager);
+    }
+
+    @Test
+    public void prefetchWindow_isClampedToList() {
+        assertArrayEquals(new int[]{10, 22}, ThumbnailPrefetcher.prefetchWindow(5, 9, 1, 12, 100));
+        assertArrayEquals(new int[]{95, 100}, ThumbnailPrefetcher.prefetchWindow(90, 94, 1, 12, 100));
+        assertArrayEquals(new int[]{100, 100}, ThumbnailPrefetcher.prefetchWindow(95, 99, 1, 12, 100));
+        assertArrayEquals(new int[]{38, 50}, ThumbnailPrefetcher.prefetchWindow(50, 54, -1, 12, 100));
+        assertArrayEquals(new int[]{0, 3}, ThumbnailPrefetcher.prefetchWindow(3, 7, -1, 12, 100));
+    }
+}
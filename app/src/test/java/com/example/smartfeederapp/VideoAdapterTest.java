@@ -0,0 +1,324 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Unit tests for the row updates of the {@link VideoAdapter} class: background diffs,
+ * stable IDs and row subsets.
+ * Notifications are replayed on a list of item IDs, which must end up equal to the IDs of
+ * the rows shown.
+ * Runs on Robolectric because registering an observer needs a real RecyclerView.Adapter.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class VideoAdapterTest {
+
+    private VideoAdapter adapter;
+    private final List<String> notifications = new ArrayList<>();
+    private final List<Long> screen = new ArrayList<>();
+    private final Deque<Runnable> diffTasks = new ArrayDeque<>();
+    private final Deque<Runnable> mainTasks = new ArrayDeque<>();
+
+    private static List<VideoItem> videos(int count) {
+        List<VideoItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new VideoItem("vid" + i + ".mp4", "http://h/videos/vid" + i + ".mp4"));
+        }
+        return items;
+    }
+
+    @Before
+    public void setUp() {
+        adapter = new VideoAdapter(diffTasks::add, mainTasks::add);
+        adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onChanged() {
+                notifications.add("changed");
+                resetScreen();
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                notifications.add("insert " + positionStart + "+" + itemCount);
+                for (int i = 0; i < itemCount; i++) {
+                    screen.add(positionStart + i, adapter.getItemId(positionStart + i));
+                }
+            }
+
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+                notifications.add("change " + positionStart + "+" + itemCount);
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                notifications.add("remove " + positionStart + "+" + itemCount);
+                screen.subList(positionStart, positionStart + itemCount).clear();
+            }
+        });
+    }
+
+    private void resetScreen() {
+        screen.clear();
+        for (int position = 0; position < adapter.getItemCount(); position++) {
+            screen.add(adapter.getItemId(position));
+        }
+    }
+
+    /**
+     * @return The IDs of the rows the adapter shows now.
+     */
+    private List<Long> shownIds() {
+        List<Long> ids = new ArrayList<>();
+        for (int position = 0; position < adapter.getItemCount(); position++) {
+            ids.add(adapter.getItemId(position));
+        }
+        return ids;
+    }
+
+    private static void runAll(Deque<Runnable> tasks) {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    @Test
+    public void itemIds_areStableAndDerivedFromFilename() {
+        List<VideoItem> items = videos(3);
+        adapter.setVideoList(items);
+        long id = adapter.getItemId(1);
+
+        adapter.setVisibleRows(new int[]{1});
+        VideoCatalog catalog = new VideoCatalog.Builder(3).addAll(items).build();
+
+        assertTrue(adapter.hasStableIds());
+        assertEquals(id, adapter.getItemId(0));
+        assertEquals(id, new VideoAdapter(diffTasks::add, mainTasks::add) {{ setCatalog(catalog); }}.getItemId(1));
+        assertNotEquals(adapter.getItemId(0), new VideoAdapter(diffTasks::add, mainTasks::add) {{ setCatalog(catalog); }}.getItemId(0));
+        assertTrue(id >= 0);
+    }
+
+    @Test
+    public void placeholders_haveNegativeIds() {
+        adapter.setFirstPage(videos(2), 4);
+
+        assertTrue(adapter.getItemId(1) >= 0);
+        assertEquals(-1L, adapter.getItemId(2));
+        assertEquals(-2L, adapter.getItemId(3));
+    }
+
+    @Test
+    public void refresh_withThreeNewClips_insertsThreeRowsAfterBackgroundDiff() {
+        List<VideoItem> items = videos(20);
+        adapter.setVideoList(items);
+        notifications.clear();
+        List<VideoItem> refreshed = new ArrayList<>(items);
+        refreshed.addAll(0, Arrays.asList(new VideoItem("new1.mp4", "u1"), new VideoItem("new2.mp4", "u2"),
+                new VideoItem("new3.mp4", "u3")));
+
+        adapter.setVideoList(refreshed);
+
+        assertTrue(notifications.isEmpty());
+        assertEquals(20, adapter.getItemCount());
+        runAll(diffTasks);
+        assertTrue(notifications.isEmpty());
+        runAll(mainTasks);
+        assertEquals(Collections.singletonList("insert 0+3"), notifications);
+        assertEquals(shownIds(), screen);
+    }
+
+    @Test
+    public void firstPageRefresh_resizesPlaceholdersAndDiffsLoadedRows() {
+        adapter.setFirstPage(videos(10), 30);
+        notifications.clear();
+        List<VideoItem> page = new ArrayList<>(videos(8));
+        page.add(0, new VideoItem("new.mp4", "u"));
+
+        adapter.setFirstPage(page, 31);
+        runAll(diffTasks);
+        runAll(mainTasks);
+
+        assertEquals(Arrays.asList("insert 30+2", "remove 8+2", "insert 0+1"), notifications);
+        assertEquals(31, adapter.getItemCount());
+        assertEquals(shownIds().subList(0, 9), screen.subList(0, 9));
+        assertEquals(31, screen.size());
+    }
+
+    @Test
+    public void changeWhileDiffPending_showsPendingRowsFirst() {
+        adapter.setVideoList(videos(5));
+        adapter.setVideoList(videos(3));
+        runAll(diffTasks);
+        notifications.clear();
+
+        adapter.appendPage(Collections.singletonList(new VideoItem("x.mp4", "x")), 4);
+        runAll(mainTasks);
+
+        assertEquals(Arrays.asList("changed", "insert 3+1"), notifications);
+        assertEquals(4, adapter.getItemCount());
+        assertEquals(shownIds(), screen);
+    }
+
+    @Test
+    public void newerSubmission_dropsOlderDiff() {
+        adapter.setVideoList(videos(5));
+        adapter.setVideoList(videos(4));
+        adapter.setVideoList(videos(2));
+        notifications.clear();
+
+        runAll(diffTasks);
+        runAll(mainTasks);
+
+        assertEquals(Collections.singletonList("remove 2+3"), notifications);
+        assertEquals(2, adapter.getItemCount());
+    }
+
+    @Test
+    public void refresh_10kWithOnePercentChurn_keepsMainThreadWorkSmall() {
+        List<VideoItem> items = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            items.add(new VideoItem(String.format(Locale.US, "video_%05d.mp4", 10_000 - i), "u" + i));
+        }
+        Random random = new Random(8);
+        List<VideoItem> refreshed = new ArrayList<>(items);
+        for (int i = 0; i < 50; i++) {
+            refreshed.remove(random.nextInt(refreshed.size()));
+        }
+        for (int i = 0; i < 50; i++) {
+            refreshed.add(0, new VideoItem("new_" + i + ".mp4", "n" + i));
+        }
+
+        adapter.setVideoList(items);
+        runAll(diffTasks);
+        runAll(mainTasks);
+        notifications.clear();
+
+        adapter.setVideoList(refreshed);
+        runAll(diffTasks);
+        runAll(mainTasks);
+
+        assertEquals(shownIds(), screen);
+        assertFalse(notifications.contains("changed"));
+        assertTrue(notifications.size() <= 51);
+    }
+
+    @Test
+    public void setVisibleRows_notifiesOnlyChangedRanges() {
+        adapter.setVideoList(videos(10));
+        notifications.clear();
+
+        adapter.setVisibleRows(new int[]{1, 2, 5, 9});
+        assertEquals(Arrays.asList("remove 0+1", "remove 2+2", "remove 3+3"), notifications);
+        assertEquals(4, adapter.getItemCount());
+        notifications.clear();
+
+        adapter.setVisibleRows(new int[]{0, 2, 3, 9});
+        assertEquals(Arrays.asList("insert 0+1", "remove 1+1", "insert 2+1", "remove 3+1"), notifications);
+        notifications.clear();
+
+        adapter.setVisibleRows(null);
+        assertEquals(Arrays.asList("insert 1+1", "insert 4+5"), notifications);
+        assertEquals(10, screen.size());
+        assertEquals(10, adapter.getItemCount());
+    }
+
+    @Test
+    public void setVisibleRows_replayedNotifications_matchItemCount() {
+        adapter.setFirstPage(videos(40), 100);
+        Random random = new Random(5);
+        for (int round = 0; round < 50; round++) {
+            int[] rows = random.nextInt(5) == 0 ? null : randomRows(random, 40);
+            adapter.setVisibleRows(rows);
+            assertEquals(adapter.getItemCount(), screen.size());
+        }
+    }
+
+    @Test
+    public void subset_hidesPlaceholdersAndPagesWithoutNotifying() {
+        adapter.setFirstPage(videos(2), 5);
+        adapter.setVisibleRows(new int[]{1});
+        assertEquals(Arrays.asList("insert 0+5", "remove 2+3", "remove 0+1"), notifications);
+        notifications.clear();
+
+        adapter.appendPage(videos(2), 5);
+
+        assertTrue(notifications.isEmpty());
+        assertEquals(1, adapter.getItemCount());
+        assertEquals(1, adapter.getLoadedCount());
+        adapter.setVisibleRows(null);
+        assertEquals(5, adapter.getItemCount());
+        assertEquals(5, screen.size());
+    }
+
+    @Test
+    public void applyChanges_whileSubsetShown_showsAllRowsAgain() {
+        adapter.setVideoList(videos(4));
+        adapter.setVisibleRows(new int[]{3});
+        notifications.clear();
+
+        adapter.applyChanges(Collections.singletonList(new VideoItem("new.mp4", "http://h/videos/new.mp4")),
+                Collections.singletonList("vid0.mp4"));
+
+        assertEquals(Collections.singletonList("changed"), notifications);
+        assertEquals(4, adapter.getItemCount());
+        assertEquals("new.mp4", adapter.getLoadedItems().get(0).getFilename());
+    }
+
+    @Test
+    public void getItemAt_resolvesShownRowsOnly() {
+        List<VideoItem> items = videos(3);
+        adapter.setFirstPage(items, 5);
+
+        assertSame(items.get(1), adapter.getItemAt(1));
+        assertNull(adapter.getItemAt(3));
+        assertNull(adapter.getItemAt(RecyclerView.NO_POSITION));
+        adapter.setVisibleRows(new int[]{2});
+        assertSame(items.get(2), adapter.getItemAt(0));
+        assertNull(adapter.getItemAt(1));
+
+        adapter.setCatalog(new VideoCatalog.Builder(3).addAll(items).build());
+        assertEquals("vid1.mp4", adapter.getItemAt(1).getFilename());
+    }
+
+    @Test
+    public void getUrlAt_readsCatalogRowsAndSkipsPlaceholders() {
+        List<VideoItem> items = videos(3);
+        adapter.setFirstPage(items, 5);
+
+        assertEquals("http://h/videos/vid1.mp4", adapter.getUrlAt(1));
+        assertNull(adapter.getUrlAt(3));
+        adapter.setCatalog(new VideoCatalog.Builder(3).addAll(items).build());
+        adapter.setVisibleRows(new int[]{2});
+        assertEquals("http://h/videos/vid2.mp4", adapter.getUrlAt(0));
+        assertNull(adapter.getUrlAt(1));
+    }
+
+    private static int[] randomRows(Random random, int loaded) {
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 0; row < loaded; row++) {
+            if (random.nextBoolean()) {
+                rows.add(row);
+            }
+        }
+        int[] result = new int[rows.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = rows.get(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Unit tests for the {@link VideoCatalog} class.
+ * Also compares it against a List of VideoItems on a 100k-video catalog.
+ */
+public class VideoCatalogTest {
+
+    private static final String BASE_URL = "http://192.168.1.20:5000/videos/";
+    private static final int BENCHMARK_SIZE = 100_000;
+    private static final int FEEDER_COUNT = 8;
+
+    private static VideoItem video(String filename, String feederId) {
+        String folder = feederId.isEmpty() ? BASE_URL : BASE_URL + feederId + "/";
+        return new VideoItem(filename, folder + filename);
+    }
+
+    private static List<VideoItem> sample() {
+        return Arrays.asList(
+                video("video_20240101_120000.mp4", "feeder-1"),
+                video("video_20240301_080000.mp4", "feeder-2"),
+                video("clip.mp4", ""),
+                video("video_20240201_100000.mp4", "feeder-1"),
+                new VideoItem("video_20240115_090000.mp4", BASE_URL + "stream?id=15"),
+                new VideoItem(null, null));
+    }
+
+    @Test
+    public void rows_matchTheItemsTheyWereBuiltFrom() {
+        List<VideoItem> items = sample();
+        VideoCatalog catalog = new VideoCatalog.Builder(2).addAll(items).build();
+
+        assertEquals(items.size(), catalog.size());
+        for (int row = 0; row < items.size(); row++) {
+            VideoItem item = items.get(row);
+            String filename = item.getFilename() != null ? item.getFilename() : "";
+            assertEquals(filename, catalog.getFilename(row));
+            char[] buffer = new char[catalog.getNameLength(row)];
+            assertEquals(filename, new String(buffer, 0, catalog.getName(row, buffer)));
+            assertEquals(item.getUrl(), catalog.getUrl(row));
+            assertEquals(item.getRecordedAtMillis(), catalog.getRecordedAtMillis(row));
+            assertEquals(item.getFeederId(), catalog.getFeederId(row));
+            assertEquals(item.getUrl(), catalog.getItem(row).getUrl());
+            assertEquals(item.getFeederId(), catalog.asList().get(row).getFeederId());
+        }
+    }
+
+    @Test
+    public void nonLatin1Names_switchPoolToChars() {
+        List<VideoItem> items = Arrays.asList(video("video_20240101_120000.mp4", "feeder-1"),
+                video("\u0432\u0438\u0434\u0435\u043e_\u043a\u043e\u0440\u043c\u0443\u0448\u043a\u0430.mp4", "feeder-1"), video("video_20240102_120000.mp4", "feeder-1"));
+        VideoCatalog catalog = new VideoCatalog.Builder(2).addAll(items).build();
+
+        for (int row = 0; row < items.size(); row++) {
+            assertEquals(items.get(row).getFilename(), catalog.getFilename(row));
+        }
+        VideoCatalog sorted = catalog.sortedNewestFirst();
+        assertEquals("video_20240102_120000.mp4", sorted.getFilename(0));
+        assertEquals("\u0432\u0438\u0434\u0435\u043e_\u043a\u043e\u0440\u043c\u0443\u0448\u043a\u0430.mp4", sorted.getFilename(2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rowOutOfRange_throws() {
+        new VideoCatalog.Builder(4).addAll(sample()).build().getFilename(6);
+    }
+
+    @Test
+    public void sortedNewestFirst_matchesListComparator() {
+        List<VideoItem> items = new ArrayList<>(sample());
+        VideoCatalog sorted = new VideoCatalog.Builder(items.size()).addAll(items).build().sortedNewestFirst();
+        Collections.sort(items, VideoItem.NEWEST_FIRST);
+
+        assertTrue(sorted.isNewestFirst());
+        assertSame(sorted, sorted.sortedNewestFirst());
+        for (int row = 0; row < items.size(); row++) {
+            String expected = items.get(row).getFilename() != null ? items.get(row).getFilename() : "";
+            assertEquals(expected, sorted.getFilename(row));
+        }
+    }
+
+    @Test
+    public void filterByFeeder_keepsOrderOfMatchingRows() {
+        VideoCatalog catalog = new VideoCatalog.Builder(8).addAll(sample()).build();
+
+        VideoCatalog feeder1 = catalog.filterByFeeder("feeder-1");
+        VideoCatalog unknown = catalog.filterByFeeder("feeder-9");
+
+        assertEquals(2, feeder1.size());
+        assertEquals("video_20240101_120000.mp4", feeder1.getFilename(0));
+        assertEquals("video_20240201_100000.mp4", feeder1.getFilename(1));
+        assertEquals(BASE_URL + "feeder-1/video_20240201_100000.mp4", feeder1.getUrl(1));
+        assertEquals(0, unknown.size());
+    }
+
+    @Test
+    public void binarySearch_findsTimeRanges() {
+        VideoCatalog sorted = new VideoCatalog.Builder(8).addAll(sample()).build().sortedNewestFirst();
+        long january15 = VideoNameParser.parseRecordedAt("video_20240115_090000.mp4");
+        long february1 = VideoNameParser.parseRecordedAt("video_20240201_100000.mp4");
+
+        assertEquals(0, sorted.indexAtOrBefore(Long.MAX_VALUE));
+        assertEquals(1, sorted.indexAtOrBefore(february1));
+        assertEquals(2, sorted.indexAtOrBefore(february1 - 1));
+        VideoCatalog range = sorted.range(january15, february1);
+        assertEquals(2, range.size());
+        assertEquals("video_20240201_100000.mp4", range.getFilename(0));
+        assertEquals("video_20240115_090000.mp4", range.getFilename(1));
+        assertEquals(0, sorted.range(february1 + 1, february1).size());
+    }
+
+    @Test
+    public void sortedNewestFirst_withSubSecondTimes_usesRowSortAndStaysStable() {
+        List<VideoItem> items = new ArrayList<>();
+        VideoCatalog.Builder builder = new VideoCatalog.Builder(64);
+        Random random = new Random(3);
+        for (int i = 0; i < 200; i++) {
+            VideoItem source = video(String.format(Locale.US, "video_2024%02d%02d_120000.mp4", 1 + random.nextInt(2), 1 + random.nextInt(3)), "f");
+            VideoItem item = new VideoItem(source.getFilename(), source.getUrlPrefix(), null,
+                    source.getRecordedAtMillis() + random.nextInt(2) * 500, source.getFeederId());
+            items.add(item);
+            builder.add(item);
+        }
+
+        VideoCatalog sorted = builder.build().sortedNewestFirst();
+        Collections.sort(items, VideoItem.NEWEST_FIRST);
+
+        for (int row = 0; row < items.size(); row++) {
+            assertEquals(items.get(row).getRecordedAtMillis(), sorted.getRecordedAtMillis(row));
+            assertEquals(items.get(row).getFilename(), sorted.getFilename(row));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void binarySearch_onUnsortedCatalog_throws() {
+        new VideoCatalog.Builder(8).addAll(sample()).build().indexAtOrBefore(0);
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void benchmark_100kCatalog_listVersusColumns() {
+        List<String> names = new ArrayList<>(BENCHMARK_SIZE);
+        List<String> urls = new ArrayList<>(BENCHMARK_SIZE);
+        Random random = new Random(7);
+        for (int i = 0; i < BENCHMARK_SIZE; i++) {
+            String name = String.format(Locale.US, "video_2024%02d%02d_%02d%02d%02d.mp4",
+                    1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60));
+            names.add(name);
+            urls.add(BASE_URL + "feeder-" + (i % FEEDER_COUNT) + "/" + name);
+        }
+        long listBytes = HeapMeasurements.retainedBytes(() -> load(names, urls));
+        long columnBytes = HeapMeasurements.retainedBytes(() -> new VideoCatalog.Builder(BENCHMARK_SIZE).addAll(load(names, urls)).build());
+
+        assertEquals(runList(names, urls), runColumns(names, urls));
+        assertTrue("columns " + columnBytes + " B vs list " + listBytes + " B", columnBytes < listBytes * 0.6);
+    }
+
+    /**
+     * Creates the items as the JSON decoder would, with a new filename String per item.
+     */
+    private static List<VideoItem> load(List<String> names, List<String> urls) {
+        List<VideoItem> items = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            items.add(new VideoItem(new String(names.get(i).toCharArray()), urls.get(i)));
+        }
+        return items;
+    }
+
+    /**
+     * Sorts, filters and binds the rows as a List and returns a checksum of the result.
+     */
+    private static long runList(List<String> names, List<String> urls) {
+        List<VideoItem> sorted = new ArrayList<>(load(names, urls));
+        Collections.sort(sorted, VideoItem.NEWEST_FIRST);
+        List<VideoItem> filtered = new ArrayList<>();
+        for (VideoItem item : sorted) {
+            if (item.getFeederId().equals("feeder-3")) {
+                filtered.add(item);
+            }
+        }
+        long checksum = filtered.size();
+        StringBuilder text = new StringBuilder(32);
+        for (VideoItem item : sorted) {
+            text.setLength(0);
+            text.append(item.getFilename());
+            checksum += text.charAt(text.length() - 5);
+        }
+        return checksum;
+    }
+
+    /**
+     * Does the same as {@link #runList} on a VideoCatalog.
+     */
+    private static long runColumns(List<String> names, List<String> urls) {
+        VideoCatalog sorted = new VideoCatalog.Builder(BENCHMARK_SIZE).addAll(load(names, urls)).build().sortedNewestFirst();
+        long checksum = sorted.filterByFeeder("feeder-3").size();
+        StringBuilder text = new StringBuilder(32);
+        char[] buffer = new char[64];
+        for (int row = 0; row < sorted.size(); row++) {
+            text.setLength(0);
+            text.append(buffer, 0, sorted.getName(row, buffer));
+            checksum += text.charAt(text.length() - 5);
+        }
+        return checksum;
+    }
+}
@@ -3,19 +3,27 @@ package com.example.smartfeederapp;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * Unit tests for the {@link VideoItem} class.
- * Verifies the constructor, getters, and setters.
+ * Verifies the constructor, getters, the fields parsed from the filename and URL,
+ * and the memory used by the compact URL representation.
  */
 public class VideoItemTest {
 
     private static final String INITIAL_FILENAME = "initial_video.mp4";
     private static final String INITIAL_URL = "http://example.com/initial";
-    private static final String UPDATED_FILENAME = "updated_video.avi";
-    private static final String UPDATED_URL = "http://example.com/updated";
     private static final String NULL_FILENAME = null;
     private static final String NULL_URL = null;
+    private static final String BASE_URL = "http://192.168.1.20:5000/videos/";
+    private static final int CATALOG_SIZE = 100_000;
 
     @Test
     public void constructor_setsInitialValuesCorrectly() {
@@ -34,60 +42,94 @@ public class VideoItemTest {
     }
 
     @Test
-    public void setFilename_updatesFilenameCorrectly() {
-        VideoItem item = new VideoItem(INITIAL_FILENAME, INITIAL_URL);
-
-        item.setFilename(UPDATED_FILENAME);
-
-        assertEquals("setFilename should update the filename", UPDATED_FILENAME, item.getFilename());
-        assertEquals("URL should remain unchanged after setting filename", INITIAL_URL, item.getUrl());
+    public void getUrl_rebuildsEveryUrlShape() {
+        String[][] cases = {
+                {"video_20240101_120000.mp4", BASE_URL + "video_20240101_120000.mp4"},
+                {"video_20240101_120000.mp4", BASE_URL + "feeder-1/video_20240101_120000.mp4"},
+                {"video_20240101_120000.mp4", BASE_URL + "other_name.mp4?token=1"},
+                {"video_20240101_120000.mp4", BASE_URL},
+                {"vid1.mp4", "url1"},
+                {"url1", "url1"},
+                {null, BASE_URL + "orphan.mp4"},
+        };
+        for (String[] c : cases) {
+            assertEquals(c[1], new VideoItem(c[0], c[1]).getUrl());
+        }
     }
 
     @Test
-    public void setFilename_handlesNullValue() {
-        VideoItem item = new VideoItem(INITIAL_FILENAME, INITIAL_URL);
-
-        item.setFilename(NULL_FILENAME);
-
-        assertNull("setFilename should handle null value", item.getFilename());
+    public void items_areImmutableAndShareTheirUrlPrefix() throws Exception {
+        for (Field field : VideoItem.class.getDeclaredFields()) {
+            assertTrue(field.getName() + " should be final", Modifier.isFinal(field.getModifiers()));
+        }
+        VideoItem first = new VideoItem("a.mp4", new String(BASE_URL + "a.mp4"));
+        VideoItem second = new VideoItem("b.mp4", new String(BASE_URL + "b.mp4"));
+        Field prefix = VideoItem.class.getDeclaredField("urlPrefix");
+        Field suffix = VideoItem.class.getDeclaredField("urlSuffix");
+        prefix.setAccessible(true);
+        suffix.setAccessible(true);
+
+        assertSame(prefix.get(first), prefix.get(second));
+        assertNull("A suffix equal to the filename is not stored", suffix.get(first));
     }
 
     @Test
-    public void setUrl_updatesUrlCorrectly() {
-        VideoItem item = new VideoItem(INITIAL_FILENAME, INITIAL_URL);
+    public void constructor_parsesRecordingTimeAndFeeder() {
+        VideoItem item = new VideoItem("video_20240307_180509.mp4", "http://10.0.0.5:5000/videos/feeder-2/video_20240307_180509.mp4");
 
-        item.setUrl(UPDATED_URL);
-
-        assertEquals("setUrl should update the URL", UPDATED_URL, item.getUrl());
-        assertEquals("Filename should remain unchanged after setting URL", INITIAL_FILENAME, item.getFilename());
+        assertEquals(VideoNameParser.parseRecordedAt("video_20240307_180509.mp4"), item.getRecordedAtMillis());
+        assertNotEquals(VideoNameParser.UNKNOWN_TIME, item.getRecordedAtMillis());
+        assertEquals("feeder-2", item.getFeederId());
     }
 
     @Test
-    public void setUrl_handlesNullValue() {
+    public void constructor_unknownNameAndFolder_useFallbacks() {
         VideoItem item = new VideoItem(INITIAL_FILENAME, INITIAL_URL);
 
-        item.setUrl(NULL_URL);
-
-        assertNull("setUrl should handle null value", item.getUrl());
+        assertEquals(VideoNameParser.UNKNOWN_TIME, item.getRecordedAtMillis());
+        assertEquals("", item.getFeederId());
     }
 
     @Test
-    public void getFilename_returnsCorrectValueAfterSet() {
-        VideoItem item = new VideoItem(null, null);
-
-        item.setFilename(UPDATED_FILENAME);
-        String retrievedFilename = item.getFilename();
-
-        assertEquals("getFilename should return the value set by setFilename", UPDATED_FILENAME, retrievedFilename);
+    @Category(Benchmark.class)
+    public void retainedHeap_100kCatalog_compactVersusFullUrls() {
+        long legacyBytes = HeapMeasurements.retainedBytes(() -> {
+            List<LegacyVideoItem> catalog = new ArrayList<>(CATALOG_SIZE);
+            for (int i = 0; i < CATALOG_SIZE; i++) {
+                String filename = filename(i);
+                catalog.add(new LegacyVideoItem(filename, BASE_URL + filename));
+            }
+            return catalog;
+        });
+        long compactBytes = HeapMeasurements.retainedBytes(() -> {
+            List<VideoItem> catalog = new ArrayList<>(CATALOG_SIZE);
+            for (int i = 0; i < CATALOG_SIZE; i++) {
+                String filename = filename(i);
+                catalog.add(new VideoItem(filename, BASE_URL + filename));
+            }
+            return catalog;
+        });
+
+        assertTrue("compact " + compactBytes + " B vs full URLs " + legacyBytes + " B", compactBytes < legacyBytes * 0.7);
     }
 
-    @Test
-    public void getUrl_returnsCorrectValueAfterSet() {
-        VideoItem item = new VideoItem(null, null);
-
-        item.setUrl(UPDATED_URL);
-        String retrievedUrl = item.getUrl();
+    private static String filename(int i) {
+        return String.format(Locale.US, "video_2024%02d%02d_%02d%02d%02d.mp4",
+                1 + i / 8640 % 12, 1 + i / 288 % 28, i / 12 % 24, i % 12 * 5, i % 60);
+    }
 
-        assertEquals("getUrl should return the value set by setUrl", UPDATED_URL, retrievedUrl);
+    /** The layout VideoItem had before the compact URL: a full URL String per item. */
+    private static final class LegacyVideoItem {
+        final String filename;
+        final String url;
+        final long recordedAtMillis;
+        final String feederId;
+
+        LegacyVideoItem(String filename, String url) {
+            this.filename = filename;
+            this.url = url;
+            this.recordedAtMillis = VideoNameParser.parseRecordedAt(filename);
+            this.feederId = VideoNameParser.parseFeederId(url);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,192 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Unit tests for the {@link VideoListDiff} class.
+ * Updates are replayed on a copy of the old list, which must end up equal to the new list.
+ */
+public class VideoListDiffTest {
+
+    private static final int BENCHMARK_SIZE = 100_000;
+
+    private static final class NameRows implements VideoListDiff.Rows {
+        final List<String> names;
+        final List<String> urls;
+
+        NameRows(List<String> names) {
+            this(names, names);
+        }
+
+        NameRows(List<String> names, List<String> urls) {
+            this.names = names;
+            this.urls = urls;
+        }
+
+        @Override
+        public int size() {
+            return names.size();
+        }
+
+        @Override
+        public String getFilename(int row) {
+            return names.get(row);
+        }
+
+        @Override
+        public String getUrl(int row) {
+            return urls.get(row);
+        }
+    }
+
+    /**
+     * Replays updates on a list of names; inserted rows take their names from the new list.
+     */
+    private static final class Replay implements ListUpdateCallback {
+        final List<String> rows;
+        final List<String> target;
+        final List<String> log = new ArrayList<>();
+
+        Replay(List<String> rows, List<String> target) {
+            this.rows = new ArrayList<>(rows);
+            this.target = target;
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            log.add("insert " + position + "+" + count);
+            rows.addAll(position, target.subList(position, position + count));
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            log.add("remove " + position + "+" + count);
+            rows.subList(position, position + count).clear();
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            fail("moves are reported as remove and insert");
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            log.add("change " + position + "+" + count);
+        }
+    }
+
+    private static Replay replay(List<String> oldNames, List<String> newNames) {
+        Replay replay = new Replay(oldNames, newNames);
+        VideoListDiff.calculate(new NameRows(oldNames), new NameRows(newNames)).dispatchUpdatesTo(replay);
+        assertEquals(newNames, replay.rows);
+        return replay;
+    }
+
+    @Test
+    public void newVideosAtTheTop_areOneInsertion() {
+        List<String> oldNames = Arrays.asList("e", "d", "c", "b", "a");
+        List<String> newNames = Arrays.asList("h", "g", "f", "e", "d", "c", "b", "a");
+
+        assertEquals(Collections.singletonList("insert 0+3"), replay(oldNames, newNames).log);
+    }
+
+    @Test
+    public void removedVideos_areRemovedBackToFrontInRanges() {
+        List<String> oldNames = Arrays.asList("a", "b", "c", "d", "e", "f");
+        List<String> newNames = Arrays.asList("a", "d", "f");
+
+        assertEquals(Arrays.asList("remove 4+1", "remove 1+2"), replay(oldNames, newNames).log);
+    }
+
+    @Test
+    public void movedVideo_isRemovedAndInserted() {
+        List<String> oldNames = Arrays.asList("a", "b", "c", "d");
+        List<String> newNames = Arrays.asList("b", "c", "d", "a");
+
+        assertEquals(Arrays.asList("remove 0+1", "insert 3+1"), replay(oldNames, newNames).log);
+    }
+
+    @Test
+    public void changedUrl_isReportedAtNewPosition() {
+        List<String> oldNames = Arrays.asList("a", "b", "c");
+        List<String> newNames = Arrays.asList("n", "a", "b", "c");
+        Replay replay = new Replay(oldNames, newNames);
+
+        VideoListDiff.calculate(new NameRows(oldNames),
+                new NameRows(newNames, Arrays.asList("n", "a", "b2", "c2"))).dispatchUpdatesTo(replay);
+
+        assertEquals(Arrays.asList("insert 0+1", "change 2+2"), replay.log);
+    }
+
+    @Test
+    public void sameRows_giveNoUpdates() {
+        List<String> names = Arrays.asList("a", "b", "c");
+
+        assertTrue(VideoListDiff.calculate(new NameRows(names), new NameRows(new ArrayList<>(names))).isEmpty());
+    }
+
+    @Test
+    public void duplicateFilenames_stillReplayToNewList() {
+        replay(Arrays.asList("a", "b", "a", "c"), Arrays.asList("a", "a", "c", "b", "b"));
+    }
+
+    @Test
+    public void randomEdits_replayToNewList() {
+        Random random = new Random(21);
+        for (int round = 0; round < 200; round++) {
+            List<String> oldNames = new ArrayList<>();
+            for (int i = 0; i < random.nextInt(40); i++) {
+                oldNames.add("v" + round + "_" + i);
+            }
+            List<String> newNames = new ArrayList<>();
+            for (String name : oldNames) {
+                if (random.nextInt(4) > 0) {
+                    newNames.add(name);
+                }
+            }
+            for (int i = 0; i < random.nextInt(6); i++) {
+                newNames.add(random.nextInt(newNames.size() + 1), "n" + round + "_" + i);
+            }
+            if (newNames.size() > 2 && random.nextBoolean()) {
+                Collections.swap(newNames, random.nextInt(newNames.size()), random.nextInt(newNames.size()));
+            }
+            replay(oldNames, newNames);
+        }
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void benchmark_100kRefreshWithOnePercentChurn() {
+        List<String> oldNames = new ArrayList<>(BENCHMARK_SIZE);
+        for (int i = 0; i < BENCHMARK_SIZE; i++) {
+            oldNames.add(String.format(Locale.US, "video_%08d.mp4", BENCHMARK_SIZE - i));
+        }
+        Random random = new Random(4);
+        List<String> newNames = new ArrayList<>(oldNames);
+        for (int i = 0; i < BENCHMARK_SIZE / 200; i++) {
+            newNames.remove(random.nextInt(newNames.size()));
+        }
+        for (int i = 0; i < BENCHMARK_SIZE / 200; i++) {
+            newNames.add(0, String.format(Locale.US, "video_new_%05d.mp4", i));
+        }
+
+        VideoListDiff diff = VideoListDiff.calculate(new NameRows(oldNames), new NameRows(newNames));
+        Replay replay = new Replay(oldNames, newNames);
+        diff.dispatchUpdatesTo(replay);
+
+        assertEquals(newNames, replay.rows);
+        assertTrue(replay.log.size() <= BENCHMARK_SIZE / 200 + 1);
+    }
+}
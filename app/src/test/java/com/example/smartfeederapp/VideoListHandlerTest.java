@@ -1,5 +1,6 @@
 package com.example.smartfeederapp;
 
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Mockito.*;
 import static org.junit.Assert.*;
 
@@ -46,11 +47,15 @@ public class VideoListHandlerTest {
     @Mock private RecyclerView mockRecyclerView;
     @Mock private VideoAdapter mockVideoAdapter;
     @Mock private ProgressBar mockProgressBar;
-    @Mock private Call<List<VideoItem>> mockCall;
+    @Mock private Call<ResponseBody> mockCall;
+    @Mock private Call<VideoPage> mockPageCall;
+    @Mock private Call<VideoDelta> mockDeltaCall;
     @Mock private Toast mockToastInstance;
     @Mock private VideoAdapter.OnVideoActionListener mockVideoActionListener;
 
-    @Captor private ArgumentCaptor<Callback<List<VideoItem>>> callbackCaptor;
+    @Captor private ArgumentCaptor<Callback<ResponseBody>> callbackCaptor;
+    @Captor private ArgumentCaptor<Callback<VideoPage>> pageCallbackCaptor;
+    @Captor private ArgumentCaptor<Callback<VideoDelta>> deltaCallbackCaptor;
     @Captor private ArgumentCaptor<List<VideoItem>> videoListCaptor;
     @Captor private ArgumentCaptor<VideoAdapter.OnVideoActionListener> actionListenerCaptor;
     private MockedStatic<Log> mockedLog;
@@ -82,9 +87,11 @@ public class VideoListHandlerTest {
 
         when(mockApiClient.getApiService()).thenReturn(mockApiService);
 
-        when(mockApiService.getVideos()).thenReturn(mockCall);
+        when(mockApiService.getVideosStream()).thenReturn(mockCall);
+        when(mockApiService.getVideosPage(any(), anyInt())).thenReturn(mockPageCall);
 
-        videoListHandler = new VideoListHandler(mockContext, mockApiClient, mockRecyclerView, mockVideoAdapter, mockProgressBar);
+        videoListHandler = new VideoListHandler(mockContext, mockApiClient, mockRecyclerView, mockVideoAdapter, mockProgressBar,
+                Runnable::run, Runnable::run);
     }
 
     @After
@@ -94,14 +101,96 @@ public class VideoListHandlerTest {
     }
 
     @Test
-    public void loadVideos_whenApiAvailable_showsProgressAndEnqueuesCall() {
+    public void loadVideos_whenApiAvailable_showsProgressAndRequestsFirstPage() {
         videoListHandler.loadVideos();
 
-        InOrder inOrder = inOrder(mockApiClient, mockProgressBar, mockApiService, mockCall);
+        InOrder inOrder = inOrder(mockApiClient, mockProgressBar, mockApiService, mockPageCall);
 
         inOrder.verify(mockApiClient).getApiService();
         inOrder.verify(mockProgressBar).setVisibility(View.VISIBLE);
-        inOrder.verify(mockApiService).getVideos();
+        inOrder.verify(mockApiService).getVideosPage(isNull(), eq(VideoPagingSource.DEFAULT_PAGE_SIZE));
+        inOrder.verify(mockPageCall).enqueue(pageCallbackCaptor.capture());
+
+        assertNotNull(pageCallbackCaptor.getValue());
+        verify(mockApiService, never()).getVideosStream();
+    }
+
+    @Test
+    public void loadVideos_onFirstPage_setsFirstPageWithPlaceholderTotal() {
+        videoListHandler.loadVideos();
+        verify(mockPageCall).enqueue(pageCallbackCaptor.capture());
+
+        pageCallbackCaptor.getValue().onResponse(mockPageCall, Response.success(new VideoPage(testVideoList, "c2", 500)));
+
+        verify(mockProgressBar).setVisibility(View.GONE);
+        verify(mockVideoAdapter).setFirstPage(testVideoList, 500);
+        mockedToast.verify(() -> Toast.makeText(eq(mockContext), contains("Found 500 videos"), eq(Toast.LENGTH_SHORT)));
+    }
+
+    @Test
+    public void loadVideos_whenPagedEndpointMissing_fallsBackToFullList() {
+        videoListHandler.loadVideos();
+        verify(mockPageCall).enqueue(pageCallbackCaptor.capture());
+
+        ResponseBody notFound = ResponseBody.create(MediaType.parse("text/html"), "Not Found");
+        pageCallbackCaptor.getValue().onResponse(mockPageCall, Response.error(404, notFound));
+
+        verify(mockApiService).getVideosStream();
+        verify(mockCall).enqueue(callbackCaptor.capture());
+        callbackCaptor.getValue().onResponse(mockCall, Response.success(jsonBody(testVideoList)));
+        verify(mockVideoAdapter).setFirstPage(anyList(), eq(2));
+
+        videoListHandler.loadVideos();
+        verify(mockApiService, times(1)).getVideosPage(any(), anyInt());
+        verify(mockApiService, times(2)).getVideosStream();
+    }
+
+    @Test
+    public void loadVideos_withSyncToken_appliesDeltaInsteadOfReloading() {
+        when(mockApiService.getVideoChanges("t1")).thenReturn(mockDeltaCall);
+        videoListHandler.loadVideos();
+        verify(mockPageCall).enqueue(pageCallbackCaptor.capture());
+        pageCallbackCaptor.getValue().onResponse(mockPageCall, Response.success(new VideoPage(testVideoList, null, 2, "t1")));
+
+        videoListHandler.loadVideos();
+
+        verify(mockApiService, times(1)).getVideosPage(any(), anyInt());
+        verify(mockDeltaCall).enqueue(deltaCallbackCaptor.capture());
+        List<VideoItem> added = Collections.singletonList(new VideoItem("vid3.mp4", "url3"));
+        List<VideoItem> removed = Collections.singletonList(new VideoItem("vid1.mp4", "url1"));
+        deltaCallbackCaptor.getValue().onResponse(mockDeltaCall, Response.success(new VideoDelta(added, removed, "t2", false)));
+
+        verify(mockVideoAdapter).applyChanges(added, Collections.singletonList("vid1.mp4"));
+        mockedToast.verify(() -> Toast.makeText(eq(mockContext), eq("1 new, 1 removed videos"), eq(Toast.LENGTH_SHORT)));
+
+        when(mockApiService.getVideoChanges("t2")).thenReturn(mockDeltaCall);
+        videoListHandler.loadVideos();
+        verify(mockApiService).getVideoChanges("t2");
+    }
+
+    @Test
+    public void loadVideos_whenSyncTokenReset_reloadsFirstPage() {
+        when(mockApiService.getVideoChanges("t1")).thenReturn(mockDeltaCall);
+        videoListHandler.loadVideos();
+        verify(mockPageCall).enqueue(pageCallbackCaptor.capture());
+        pageCallbackCaptor.getValue().onResponse(mockPageCall, Response.success(new VideoPage(testVideoList, null, 2, "t1")));
+
+        videoListHandler.loadVideos();
+        verify(mockDeltaCall).enqueue(deltaCallbackCaptor.capture());
+        deltaCallbackCaptor.getValue().onResponse(mockDeltaCall, Response.success(new VideoDelta(null, null, null, true)));
+
+        verify(mockApiService, times(2)).getVideosPage(isNull(), anyInt());
+        verify(mockVideoAdapter, never()).applyChanges(any(), any());
+    }
+
+    @Test
+    public void loadFullList_showsProgressAndEnqueuesCall() {
+        videoListHandler.loadFullList(mockApiService);
+
+        InOrder inOrder = inOrder(mockProgressBar, mockApiService, mockCall);
+
+        inOrder.verify(mockProgressBar).setVisibility(View.VISIBLE);
+        inOrder.verify(mockApiService).getVideosStream();
         inOrder.verify(mockCall).enqueue(callbackCaptor.capture());
 
         assertNotNull(callbackCaptor.getValue());
@@ -116,7 +205,7 @@ public class VideoListHandlerTest {
         videoListHandler.loadVideos();
 
         verify(mockProgressBar, never()).setVisibility(eq(View.VISIBLE));
-        verify(mockApiService, never()).getVideos();
+        verify(mockApiService, never()).getVideosStream();
         verify(mockCall, never()).enqueue(any());
         mockedToast.verify(() -> Toast.makeText(eq(mockContext), contains("API not available"), eq(Toast.LENGTH_SHORT)));
         verify(mockToastInstance).show();
@@ -124,33 +213,30 @@ public class VideoListHandlerTest {
     }
 
     @Test
-    public void loadVideos_onSuccessfulResponse_hidesProgressUpdatesAdapterAndShowsToast() {
-        videoListHandler.loadVideos();
+    public void loadFullList_onSuccessfulResponse_updatesAdapterHidesProgressAndShowsToast() {
+        videoListHandler.loadFullList(mockApiService);
         verify(mockCall).enqueue(callbackCaptor.capture());
-        Callback<List<VideoItem>> callback = callbackCaptor.getValue();
-
-        Response<List<VideoItem>> successResponse = Response.success(testVideoList);
+        Callback<ResponseBody> callback = callbackCaptor.getValue();
 
-        callback.onResponse(mockCall, successResponse);
+        callback.onResponse(mockCall, Response.success(jsonBody(testVideoList)));
 
         InOrder inOrder = inOrder(mockProgressBar, mockVideoAdapter, mockToastInstance);
 
+        inOrder.verify(mockVideoAdapter).setFirstPage(videoListCaptor.capture(), eq(2));
+        assertEquals("vid1.mp4", videoListCaptor.getValue().get(0).getFilename());
+        assertEquals("url2", videoListCaptor.getValue().get(1).getUrl());
         inOrder.verify(mockProgressBar).setVisibility(View.GONE);
-        inOrder.verify(mockVideoAdapter).setVideoList(videoListCaptor.capture());
-        assertEquals(testVideoList, videoListCaptor.getValue());
         inOrder.verify(mockToastInstance).show();
         mockedToast.verify(() -> Toast.makeText(eq(mockContext), contains("Loaded " + testVideoList.size() + " videos"), eq(Toast.LENGTH_SHORT)));
     }
 
     @Test
-    public void loadVideos_onSuccessfulEmptyResponse_hidesProgressUpdatesAdapterAndShowsEmptyToast() {
-        videoListHandler.loadVideos();
+    public void loadFullList_onSuccessfulEmptyResponse_hidesProgressUpdatesAdapterAndShowsEmptyToast() {
+        videoListHandler.loadFullList(mockApiService);
         verify(mockCall).enqueue(callbackCaptor.capture());
-        Callback<List<VideoItem>> callback = callbackCaptor.getValue();
-        List<VideoItem> emptyList = Collections.emptyList();
-        Response<List<VideoItem>> successEmptyResponse = Response.success(emptyList);
+        Callback<ResponseBody> callback = callbackCaptor.getValue();
 
-        callback.onResponse(mockCall, successEmptyResponse);
+        callback.onResponse(mockCall, Response.success(jsonBody(Collections.emptyList())));
 
         InOrder inOrder = inOrder(mockProgressBar, mockVideoAdapter, mockToastInstance);
         inOrder.verify(mockProgressBar).setVisibility(View.GONE);
@@ -161,20 +247,20 @@ public class VideoListHandlerTest {
     }
 
     @Test
-    public void loadVideos_onApiErrorResponse_hidesProgressLogsErrorAndShowsErrorToast() {
-        videoListHandler.loadVideos();
+    public void loadFullList_onApiErrorResponse_hidesProgressLogsErrorAndShowsErrorToast() {
+        videoListHandler.loadFullList(mockApiService);
         verify(mockCall).enqueue(callbackCaptor.capture());
-        Callback<List<VideoItem>> callback = callbackCaptor.getValue();
+        Callback<ResponseBody> callback = callbackCaptor.getValue();
 
         ResponseBody errorBody = ResponseBody.create(MediaType.parse("application/json"), "{\"error\":\"Not Found\"}");
-        Response<List<VideoItem>> errorResponse = Response.error(404, errorBody);
+        Response<ResponseBody> errorResponse = Response.error(404, errorBody);
 
         callback.onResponse(mockCall, errorResponse);
 
         InOrder inOrder = inOrder(mockProgressBar, mockToastInstance);
         inOrder.verify(mockProgressBar).setVisibility(View.GONE);
 
-        verify(mockVideoAdapter, never()).setVideoList(any());
+        verify(mockVideoAdapter, never()).setFirstPage(any(), anyInt());
 
         mockedLog.verify(() -> Log.e(eq("VideoListHandler"), contains("Error loading videos: 404")));
 
@@ -183,22 +269,338 @@ public class VideoListHandlerTest {
     }
 
     @Test
-    public void loadVideos_onNetworkFailure_hidesProgressLogsErrorAndShowsErrorToast() {
-        videoListHandler.loadVideos();
+    public void loadFullList_onNetworkFailure_hidesProgressLogsErrorAndShowsErrorToast() {
+        videoListHandler.loadFullList(mockApiService);
         verify(mockCall).enqueue(callbackCaptor.capture());
-        Callback<List<VideoItem>> callback = callbackCaptor.getValue();
+        Callback<ResponseBody> callback = callbackCaptor.getValue();
         IOException networkException = new IOException("Network timeout");
 
         callback.onFailure(mockCall, networkException);
 
         InOrder inOrder = inOrder(mockProgressBar, mockToastInstance);
         inOrder.verify(mockProgressBar).setVisibility(View.GONE);
-        verify(mockVideoAdapter, never()).setVideoList(any());
+        verify(mockVideoAdapter, never()).setFirstPage(any(), anyInt());
         mockedLog.verify(() -> Log.e(eq("VideoListHandler"), eq("Network error loading videos"), eq(networkException)));
         inOrder.verify(mockToastInstance).show();
         mockedToast.verify(() -> Toast.makeText(eq(mockContext), contains("Network error: " + networkException.getMessage()), eq(Toast.LENGTH_SHORT)));
     }
 
+    @Test
+    public void loadFullList_largeResponse_isAppliedInBatches() {
+        List<VideoItem> videos = new ArrayList<>();
+        for (int i = 0; i < 450; i++) {
+            videos.add(new VideoItem("vid" + i + ".mp4", "url" + i));
+        }
+        videoListHandler.loadFullList(mockApiService);
+        verify(mockCall).enqueue(callbackCaptor.capture());
+
+        callbackCaptor.getValue().onResponse(mockCall, Response.success(jsonBody(videos)));
+
+        ArgumentCaptor<Integer> totalCaptor = ArgumentCaptor.forClass(Integer.class);
+        verify(mockVideoAdapter).setFirstPage(videoListCaptor.capture(), anyInt());
+        verify(mockVideoAdapter, atLeastOnce()).appendPage(anyList(), totalCaptor.capture());
+        assertTrue(videoListCaptor.getValue().size() <= VideoListStreamDecoder.DEFAULT_BATCH_SIZE);
+        assertEquals(Integer.valueOf(450), totalCaptor.getValue());
+        mockedToast.verify(() -> Toast.makeText(eq(mockContext), eq("Loaded 450 videos"), eq(Toast.LENGTH_SHORT)));
+    }
+
+    @Test
+    public void loadFullList_hugeResponse_endsInColumnarCatalog() {
+        List<VideoItem> videos = new ArrayList<>();
+        for (int i = 0; i < VideoListHandler.COLUMNAR_CATALOG_THRESHOLD; i++) {
+            videos.add(new VideoItem("vid" + i + ".mp4", "http://h/videos/vid" + i + ".mp4"));
+        }
+        videoListHandler.loadFullList(mockApiService);
+        verify(mockCall).enqueue(callbackCaptor.capture());
+
+        callbackCaptor.getValue().onResponse(mockCall, Response.success(jsonBody(videos)));
+
+        ArgumentCaptor<VideoCatalog> catalogCaptor = ArgumentCaptor.forClass(VideoCatalog.class);
+        verify(mockVideoAdapter).setCatalog(catalogCaptor.capture());
+        VideoCatalog catalog = catalogCaptor.getValue();
+        assertEquals(VideoListHandler.COLUMNAR_CATALOG_THRESHOLD, catalog.size());
+        assertEquals("vid0.mp4", catalog.getFilename(0));
+        assertEquals("http://h/videos/vid9999.mp4", catalog.getUrl(catalog.size() - 1));
+    }
+
+    @Test
+    public void loadFullList_hugeRefresh_handsOverCatalogOnly() {
+        List<VideoItem> videos = new ArrayList<>();
+        for (int i = 0; i < VideoListHandler.COLUMNAR_CATALOG_THRESHOLD + 1; i++) {
+            videos.add(new VideoItem("vid" + i + ".mp4", "http://h/videos/vid" + i + ".mp4"));
+        }
+        when(mockVideoAdapter.getLoadedCount()).thenReturn(2);
+        videoListHandler.loadFullList(mockApiService);
+        verify(mockCall).enqueue(callbackCaptor.capture());
+
+        callbackCaptor.getValue().onResponse(mockCall, Response.success(jsonBody(videos)));
+
+        ArgumentCaptor<VideoCatalog> catalogCaptor = ArgumentCaptor.forClass(VideoCatalog.class);
+        verify(mockVideoAdapter).setCatalog(catalogCaptor.capture());
+        assertEquals(VideoListHandler.COLUMNAR_CATALOG_THRESHOLD + 1, catalogCaptor.getValue().size());
+        assertEquals("vid10000.mp4", catalogCaptor.getValue().getFilename(VideoListHandler.COLUMNAR_CATALOG_THRESHOLD));
+        verify(mockVideoAdapter, never()).setVideoList(anyList());
+    }
+
+    @Test
+    public void loadFullList_whenListShown_submitsWholeListOnce() {
+        List<VideoItem> videos = new ArrayList<>();
+        for (int i = 0; i < 450; i++) {
+            videos.add(new VideoItem("vid" + i + ".mp4", "url" + i));
+        }
+        when(mockVideoAdapter.getLoadedCount()).thenReturn(2);
+        videoListHandler.loadFullList(mockApiService);
+        verify(mockCall).enqueue(callbackCaptor.capture());
+
+        callbackCaptor.getValue().onResponse(mockCall, Response.success(jsonBody(videos)));
+
+        verify(mockVideoAdapter, never()).setFirstPage(anyList(), anyInt());
+        verify(mockVideoAdapter, never()).appendPage(anyList(), anyInt());
+        verify(mockVideoAdapter).setVideoList(videoListCaptor.capture());
+        assertEquals(450, videoListCaptor.getValue().size());
+        assertEquals("vid449.mp4", videoListCaptor.getValue().get(449).getFilename());
+    }
+
+    @Test
+    public void loadFullList_malformedBody_showsErrorToast() {
+        videoListHandler.loadFullList(mockApiService);
+        verify(mockCall).enqueue(callbackCaptor.capture());
+
+        callbackCaptor.getValue().onResponse(mockCall, Response.success(
+                ResponseBody.create(MediaType.parse("application/json"), "[{\"filename\":\"vid1.mp4\"")));
+
+        verify(mockProgressBar).setVisibility(View.GONE);
+        mockedLog.verify(() -> Log.e(eq("VideoListHandler"), eq("Error decoding video list"), any(Throwable.class)));
+        mockedToast.verify(() -> Toast.makeText(eq(mockContext), startsWith("Error loading videos"), eq(Toast.LENGTH_SHORT)));
+    }
+
+    @Test
+    public void loadFullList_whileInFlight_joinsRunningRequest() {
+        videoListHandler.loadFullList(mockApiService);
+        videoListHandler.loadFullList(mockApiService);
+
+        verify(mockApiService, times(1)).getVideosStream();
+        verify(mockCall).enqueue(callbackCaptor.capture());
+        callbackCaptor.getValue().onResponse(mockCall, Response.success(jsonBody(testVideoList)));
+
+        verify(mockVideoAdapter).setFirstPage(anyList(), eq(2));
+        videoListHandler.loadFullList(mockApiService);
+        verify(mockApiService, times(2)).getVideosStream();
+    }
+
+    @Test
+    public void loadFullList_staleResponseAfterPagedReload_isIgnored() {
+        videoListHandler.loadFullList(mockApiService);
+        verify(mockCall).enqueue(callbackCaptor.capture());
+        videoListHandler.loadVideos();
+
+        callbackCaptor.getValue().onResponse(mockCall, Response.success(jsonBody(testVideoList)));
+
+        verify(mockVideoAdapter, never()).setFirstPage(any(), anyInt());
+        verify(mockProgressBar, never()).setVisibility(View.GONE);
+    }
+
+    @Test
+    public void loadVideos_withListener_reportsCompletionAndLeavesProgressToCaller() {
+        VideoListHandler.LoadListener listener = mock(VideoListHandler.LoadListener.class);
+        videoListHandler.loadVideos(listener);
+        verify(mockPageCall).enqueue(pageCallbackCaptor.capture());
+
+        pageCallbackCaptor.getValue().onResponse(mockPageCall, Response.success(new VideoPage(testVideoList, null, 2)));
+
+        verify(listener).onLoadFinished(true);
+        verify(mockProgressBar, never()).setVisibility(anyInt());
+    }
+
+    @Test
+    public void loadVideos_withListener_reportsFailure() {
+        VideoListHandler.LoadListener listener = mock(VideoListHandler.LoadListener.class);
+        videoListHandler.loadVideos(listener);
+        verify(mockPageCall).enqueue(pageCallbackCaptor.capture());
+
+        pageCallbackCaptor.getValue().onFailure(mockPageCall, new IOException("offline"));
+
+        verify(listener).onLoadFinished(false);
+    }
+
+    @Test
+    public void cancel_cancelsInFlightCallsAndDropsListener() {
+        VideoListHandler.LoadListener listener = mock(VideoListHandler.LoadListener.class);
+        videoListHandler.loadVideos(listener);
+        verify(mockPageCall).enqueue(pageCallbackCaptor.capture());
+        videoListHandler.loadFullList(mockApiService);
+        verify(mockCall).enqueue(callbackCaptor.capture());
+
+        videoListHandler.cancel();
+        callbackCaptor.getValue().onFailure(mockCall, new IOException("Canceled"));
+
+        verify(mockPageCall).cancel();
+        verify(mockCall).cancel();
+        verify(listener, never()).onLoadFinished(anyBoolean());
+        verify(mockVideoAdapter, never()).setFirstPage(any(), anyInt());
+        mockedToast.verify(() -> Toast.makeText(any(Context.class), startsWith("Error"), anyInt()), never());
+    }
+
+    @Test
+    public void showFirstPage_showsBootstrapPageWithoutRequestAndSyncsFromItsToken() {
+        VideoListHandler.LoadListener listener = mock(VideoListHandler.LoadListener.class);
+        when(mockApiService.getVideoChanges("t1")).thenReturn(mockDeltaCall);
+
+        videoListHandler.showFirstPage(new VideoPage(testVideoList, "cursor-2", 40, "t1"), listener);
+
+        verify(mockVideoAdapter).setFirstPage(testVideoList, 40);
+        verify(listener).onLoadFinished(true);
+        verify(mockApiService, never()).getVideosPage(any(), anyInt());
+
+        videoListHandler.loadVideos();
+        verify(mockApiService).getVideoChanges("t1");
+    }
+
+    @Test
+    public void loadVideos_withStoredCatalog_showsItAndSyncsDeltaWithoutProgress() {
+        VideoCatalogStore store = mock(VideoCatalogStore.class);
+        VideoListHandler.LoadListener listener = mock(VideoListHandler.LoadListener.class);
+        when(mockApiClient.getBaseUrl()).thenReturn("http://10.0.0.5:5000/");
+        when(store.count()).thenReturn(2);
+        when(store.getSyncToken()).thenReturn("t1");
+        when(store.loadNewest(isNull(), anyInt())).thenReturn(testVideoList);
+        when(store.loadNewest(same(testVideoList.get(1)), anyInt())).thenReturn(Collections.emptyList());
+        when(mockApiService.getVideoChanges("t1")).thenReturn(mockDeltaCall);
+        VideoListHandler handler = new VideoListHandler(mockContext, mockApiClient, mockRecyclerView, mockVideoAdapter,
+                mockProgressBar, Runnable::run, Runnable::run, store);
+
+        handler.loadVideos(listener);
+
+        verify(store).bindServer("http://10.0.0.5:5000/");
+        verify(mockVideoAdapter).setFirstPage(testVideoList, 2);
+        verify(listener).onLoadFinished(true);
+        verify(mockApiService, never()).getVideosPage(any(), anyInt());
+        verify(mockDeltaCall).enqueue(deltaCallbackCaptor.capture());
+        verify(mockProgressBar, never()).setVisibility(View.VISIBLE);
+
+        List<VideoItem> added = Collections.singletonList(new VideoItem("vid3.mp4", "url3"));
+        deltaCallbackCaptor.getValue().onResponse(mockDeltaCall, Response.success(new VideoDelta(added, null, "t2", false)));
+
+        verify(mockVideoAdapter).applyChanges(eq(added), anyList());
+        verify(store).applyChanges(eq(added), anyList(), eq("t2"), anyLong());
+    }
+
+    @Test
+    public void loadVideos_withEmptyStore_loadsFromServerAndStoresCompletedPass() {
+        VideoCatalogStore store = mock(VideoCatalogStore.class);
+        when(store.loadNewest(isNull(), anyInt())).thenReturn(Collections.emptyList());
+        VideoListHandler handler = new VideoListHandler(mockContext, mockApiClient, mockRecyclerView, mockVideoAdapter,
+                mockProgressBar, Runnable::run, Runnable::run, store);
+
+        handler.loadVideos();
+        verify(mockPageCall).enqueue(pageCallbackCaptor.capture());
+        pageCallbackCaptor.getValue().onResponse(mockPageCall, Response.success(new VideoPage(testVideoList, null, 2, "t1")));
+
+        verify(mockVideoAdapter).setFirstPage(testVideoList, 2);
+        ArgumentCaptor<Long> pass = ArgumentCaptor.forClass(Long.class);
+        verify(store).upsert(eq(testVideoList), pass.capture());
+        verify(store).completePass(pass.getValue(), "t1");
+    }
+
+    @Test
+    public void loadVideos_whenServerReplacesStoredRows_dropsRemainingStoredBatches() {
+        VideoCatalogStore store = mock(VideoCatalogStore.class);
+        List<Runnable> decodeTasks = new ArrayList<>();
+        when(mockApiClient.getBaseUrl()).thenReturn("http://10.0.0.5:5000/");
+        when(store.loadNewest(isNull(), anyInt())).thenReturn(testVideoList);
+        when(store.loadNewest(same(testVideoList.get(1)), anyInt())).thenReturn(Collections.emptyList());
+        VideoListHandler handler = new VideoListHandler(mockContext, mockApiClient, mockRecyclerView, mockVideoAdapter,
+                mockProgressBar, decodeTasks::add, Runnable::run, store);
+
+        handler.loadVideos();
+        handler.showFirstPage(new VideoPage(testVideoList, null, 2, "t1"), null);
+        decodeTasks.get(0).run();
+
+        verify(mockVideoAdapter, times(1)).setFirstPage(anyList(), anyInt());
+        verify(mockApiService, never()).getVideosPage(any(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void loadVideos_afterServerAddressChange_storesRowsUnderNewServer() {
+        VideoCatalogStore store = mock(VideoCatalogStore.class);
+        when(store.loadNewest(isNull(), anyInt())).thenReturn(Collections.emptyList());
+        when(mockApiClient.getBaseUrl()).thenReturn("http://10.0.0.5:5000/");
+        VideoListHandler handler = new VideoListHandler(mockContext, mockApiClient, mockRecyclerView, mockVideoAdapter,
+                mockProgressBar, Runnable::run, Runnable::run, store);
+        handler.loadVideos();
+        verify(mockPageCall).enqueue(pageCallbackCaptor.capture());
+        pageCallbackCaptor.getValue().onResponse(mockPageCall, Response.success(new VideoPage(testVideoList, null, 2, "t1")));
+
+        ApiService otherService = mock(ApiService.class);
+        Call<VideoPage> otherPageCall = mock(Call.class);
+        when(mockApiClient.getApiService()).thenReturn(otherService);
+        when(mockApiClient.getBaseUrl()).thenReturn("http://10.0.0.6:5000/");
+        when(otherService.getVideosPage(any(), anyInt())).thenReturn(otherPageCall);
+        handler.loadVideos();
+        verify(otherPageCall).enqueue(pageCallbackCaptor.capture());
+        List<VideoItem> otherRows = Collections.singletonList(new VideoItem("other.mp4", "url-other"));
+        pageCallbackCaptor.getValue().onResponse(otherPageCall, Response.success(new VideoPage(otherRows, null, 1, "b1")));
+
+        InOrder inOrder = inOrder(store);
+        inOrder.verify(store).bindServer("http://10.0.0.5:5000/");
+        inOrder.verify(store).completePass(anyLong(), eq("t1"));
+        inOrder.verify(store).bindServer("http://10.0.0.6:5000/");
+        inOrder.verify(store).upsert(eq(otherRows), anyLong());
+        inOrder.verify(store).completePass(anyLong(), eq("b1"));
+        verify(otherService, never()).getVideoChanges(any());
+    }
+
+    @Test
+    public void search_narrowsLoadedRowsAndClearsWhenBlank() {
+        videoListHandler.loadVideos();
+        verify(mockPageCall).enqueue(pageCallbackCaptor.capture());
+        pageCallbackCaptor.getValue().onResponse(mockPageCall, Response.success(new VideoPage(testVideoList, "c2", 500)));
+
+        videoListHandler.search("VID2");
+        videoListHandler.search(" vid2 ");
+        videoListHandler.search("");
+
+        InOrder inOrder = inOrder(mockVideoAdapter);
+        inOrder.verify(mockVideoAdapter).setVisibleRows(aryEq(new int[]{1}));
+        inOrder.verify(mockVideoAdapter).setVisibleRows(isNull());
+        verify(mockVideoAdapter, times(2)).setVisibleRows(any());
+    }
+
+    @Test
+    public void search_isReappliedToRowsLoadedLater() {
+        videoListHandler.search("vid1");
+
+        videoListHandler.loadVideos();
+        verify(mockPageCall).enqueue(pageCallbackCaptor.capture());
+        pageCallbackCaptor.getValue().onResponse(mockPageCall, Response.success(new VideoPage(testVideoList, null, 2)));
+
+        InOrder inOrder = inOrder(mockVideoAdapter);
+        inOrder.verify(mockVideoAdapter).setFirstPage(testVideoList, 2);
+        inOrder.verify(mockVideoAdapter).setVisibleRows(aryEq(new int[]{0}));
+    }
+
+    @Test
+    public void search_afterDeltaSync_rebuildsIndexFromAdapterRows() {
+        when(mockApiService.getVideoChanges(anyString())).thenReturn(mockDeltaCall);
+        videoListHandler.loadVideos();
+        verify(mockPageCall).enqueue(pageCallbackCaptor.capture());
+        pageCallbackCaptor.getValue().onResponse(mockPageCall, Response.success(new VideoPage(testVideoList, null, 2, "t1")));
+        videoListHandler.search("vid");
+        when(mockVideoAdapter.getLoadedItems()).thenReturn(Arrays.asList(
+                new VideoItem("vid3.mp4", "url3"), new VideoItem("other.mp4", "url0"), testVideoList.get(1)));
+
+        videoListHandler.loadVideos();
+        verify(mockDeltaCall).enqueue(deltaCallbackCaptor.capture());
+        deltaCallbackCaptor.getValue().onResponse(mockDeltaCall, Response.success(new VideoDelta(
+                Collections.singletonList(new VideoItem("vid3.mp4", "url3")), Collections.singletonList(testVideoList.get(0)), "t2", false)));
+
+        InOrder inOrder = inOrder(mockVideoAdapter);
+        inOrder.verify(mockVideoAdapter).setVisibleRows(aryEq(new int[]{0, 1}));
+        inOrder.verify(mockVideoAdapter).applyChanges(anyList(), anyCollection());
+        inOrder.verify(mockVideoAdapter).setVisibleRows(aryEq(new int[]{0, 2}));
+    }
+
     @Test
     public void setVideoActionListener_callsAdapterMethod() {
         videoListHandler.setVideoActionListener(mockVideoActionListener);
@@ -206,4 +608,14 @@ public class VideoListHandlerTest {
         verify(mockVideoAdapter).setOnVideoActionListener(actionListenerCaptor.capture());
         assertSame(mockVideoActionListener, actionListenerCaptor.getValue());
     }
-}
\ No newline at end of file
+
+    private static ResponseBody jsonBody(List<VideoItem> videos) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < videos.size(); i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"filename\":\"").append(videos.get(i).getFilename())
+                    .append("\",\"url\":\"").append(videos.get(i).getUrl()).append("\"}");
+        }
+        return ResponseBody.create(MediaType.parse("application/json"), json.append(']').toString());
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the {@link VideoListStreamDecoder} class.
+ */
+public class VideoListStreamDecoderTest {
+
+    private static final int LARGE_CATALOG_SIZE = 100_000;
+
+    @Test
+    public void decode_splitsIntoBatchesOfMaxSize() throws IOException {
+        List<Integer> batchSizes = new ArrayList<>();
+
+        int count = VideoListStreamDecoder.decode(new CatalogFixtureReader(450), 200, Long.MAX_VALUE / 2_000_000, batch -> {
+            batchSizes.add(batch.size());
+            return true;
+        });
+
+        assertEquals(450, count);
+        assertEquals(3, batchSizes.size());
+        assertEquals(Integer.valueOf(200), batchSizes.get(0));
+        assertEquals(Integer.valueOf(200), batchSizes.get(1));
+        assertEquals(Integer.valueOf(50), batchSizes.get(2));
+    }
+
+    @Test
+    public void decode_zeroInterval_flushesEveryItem() throws IOException {
+        List<Integer> batchSizes = new ArrayList<>();
+
+        VideoListStreamDecoder.decode(new CatalogFixtureReader(5), 200, 0, batch -> {
+            batchSizes.add(batch.size());
+            return true;
+        });
+
+        assertEquals(5, batchSizes.size());
+    }
+
+    @Test
+    public void decode_readsFieldsAndSkipsUnknownAndNull() throws IOException {
+        String json = "[{\"filename\":\"video_20240101_120000.mp4\",\"size\":123,\"meta\":{\"a\":[1,2]},"
+                + "\"url\":\"http://host/videos/video_20240101_120000.mp4\"},{\"filename\":null,\"url\":\"u\"}]";
+        List<VideoItem> items = new ArrayList<>();
+
+        VideoListStreamDecoder.decode(new StringReader(json), 10, 1000, batch -> {
+            items.addAll(batch);
+            return true;
+        });
+
+        assertEquals(2, items.size());
+        assertEquals("video_20240101_120000.mp4", items.get(0).getFilename());
+        assertEquals("http://host/videos/video_20240101_120000.mp4", items.get(0).getUrl());
+        assertNull(items.get(1).getFilename());
+        assertEquals("u", items.get(1).getUrl());
+    }
+
+    @Test
+    public void decode_emptyArray_deliversNoBatch() throws IOException {
+        int[] batches = {0};
+
+        int count = VideoListStreamDecoder.decode(new StringReader("[]"), 200, 16, batch -> {
+            batches[0]++;
+            return true;
+        });
+
+        assertEquals(0, count);
+        assertEquals(0, batches[0]);
+    }
+
+    @Test
+    public void decode_listenerReturnsFalse_stopsEarly() throws IOException {
+        int count = VideoListStreamDecoder.decode(new CatalogFixtureReader(1000), 100, 1000, batch -> false);
+
+        assertEquals(100, count);
+    }
+
+    @Test(expected = IOException.class)
+    public void decode_truncatedBody_throws() throws IOException {
+        VideoListStreamDecoder.decode(new StringReader("[{\"filename\":\"a.mp4\""), 200, 16, batch -> true);
+    }
+
+    /**
+     * Decodes a 100k-item catalog that is generated on the fly, so the fixture itself
+     * never sits in memory. Batches are dropped after being counted, which is what the
+     * decoder holds at most; retained heap sampled during decoding must stay far below
+     * what the fully materialised list would need.
+     */
+    @Test
+    @Category(Benchmark.class)
+    public void decode_100kItems_keepsRetainedHeapBounded() throws IOException {
+        long baseline = HeapMeasurements.usedHeapAfterGc();
+        long[] peak = {0};
+        int[] batches = {0};
+
+        int count = VideoListStreamDecoder.decode(new CatalogFixtureReader(LARGE_CATALOG_SIZE),
+                VideoListStreamDecoder.DEFAULT_BATCH_SIZE, VideoListStreamDecoder.DEFAULT_BATCH_INTERVAL_MS, batch -> {
+                    if (++batches[0] % 50 == 0) {
+                        peak[0] = Math.max(peak[0], HeapMeasurements.usedHeapAfterGc() - baseline);
+                    }
+                    return true;
+                });
+
+        assertEquals(LARGE_CATALOG_SIZE, count);
+        assertTrue("Expected at least " + (LARGE_CATALOG_SIZE / VideoListStreamDecoder.DEFAULT_BATCH_SIZE) + " batches",
+                batches[0] >= LARGE_CATALOG_SIZE / VideoListStreamDecoder.DEFAULT_BATCH_SIZE);
+        // 100k VideoItems with their strings retain well over 20 MiB when materialised.
+        assertTrue("Retained heap grew by " + (peak[0] / 1024) + " KiB", peak[0] < 4L * 1024 * 1024);
+    }
+
+    /**
+     * Produces the JSON of a catalog with the given number of items without
+     * building the whole string.
+     */
+    private static class CatalogFixtureReader extends Reader {
+        private final int itemCount;
+        private int nextItem = 0;
+        private String chunk = "[";
+        private int chunkPos = 0;
+        private boolean closed = false;
+
+        CatalogFixtureReader(int itemCount) {
+            this.itemCount = itemCount;
+        }
+
+        @Override
+        public int read(char[] buf, int off, int len) {
+            if (chunkPos == chunk.length()) {
+                if (!nextChunk()) {
+                    return -1;
+                }
+            }
+            int n = Math.min(len, chunk.length() - chunkPos);
+            chunk.getChars(chunkPos, chunkPos + n, buf, off);
+            chunkPos += n;
+            return n;
+        }
+
+        private boolean nextChunk() {
+            if (closed) {
+                return false;
+            }
+            if (nextItem == itemCount) {
+                chunk = "]";
+                closed = true;
+            } else {
+                int day = nextItem / 86_400;
+                int second = nextItem % 86_400;
+                String name = String.format(java.util.Locale.US, "video_202401%02d_%02d%02d%02d.mp4",
+                        1 + day, second / 3600, (second / 60) % 60, second % 60);
+                chunk = (nextItem == 0 ? "" : ",") + "{\"filename\":\"" + name
+                        + "\",\"url\":\"http://192.168.1.10:5000/videos/" + name + "\"}";
+                nextItem++;
+            }
+            chunkPos = 0;
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
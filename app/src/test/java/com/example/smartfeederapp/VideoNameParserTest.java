@@ -0,0 +1,185 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Unit tests for the {@link VideoNameParser} class and the fields it fills in {@link VideoItem}.
+ */
+public class VideoNameParserTest {
+
+    private static final int BENCHMARK_SIZE = 100_000;
+
+    @Test
+    public void parseFeederId_readsFolderBeforeFilename() {
+        assertEquals("feeder-1", VideoNameParser.parseFeederId("http://10.0.0.5:5000/videos/feeder-1/video_20240101_120000.mp4"));
+        assertEquals("", VideoNameParser.parseFeederId("http://10.0.0.5:5000/videos/video_20240101_120000.mp4"));
+        assertEquals("", VideoNameParser.parseFeederId("http://10.0.0.5:5000/video_20240101_120000.mp4"));
+        assertEquals("", VideoNameParser.parseFeederId("video_20240101_120000.mp4"));
+        assertEquals("", VideoNameParser.parseFeederId("http://example.com/initial"));
+        assertEquals("", VideoNameParser.parseFeederId(null));
+    }
+
+    @Test
+    public void parseFeederId_returnsSameInstanceForEachFeeder() {
+        String first = VideoNameParser.parseFeederId("http://10.0.0.5:5000/videos/feeder-7/a.mp4");
+        String second = VideoNameParser.parseFeederId("http://10.0.0.5:5000/videos/feeder-7/b.mp4");
+
+        assertEquals("feeder-7", first);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void parseRecordedAt_matchesCalendarInDeviceTimeZone() {
+        Calendar expected = Calendar.getInstance();
+        expected.clear();
+        expected.set(2024, Calendar.MARCH, 7, 18, 5, 9);
+
+        assertEquals(expected.getTimeInMillis(), VideoNameParser.parseRecordedAt("video_20240307_180509.mp4"));
+    }
+
+    @Test
+    public void parseRecordedAt_appliesZoneOffsetIncludingDaylightSaving() {
+        TimeZone berlin = TimeZone.getTimeZone("Europe/Berlin");
+        for (String name : new String[]{"video_19991231_235959.mp4", "video_20240229_000000.mp4", "video_20240715_120000.mp4"}) {
+            Calendar expected = Calendar.getInstance(berlin);
+            expected.clear();
+            expected.set(Integer.parseInt(name.substring(6, 10)), Integer.parseInt(name.substring(10, 12)) - 1,
+                    Integer.parseInt(name.substring(12, 14)), Integer.parseInt(name.substring(15, 17)),
+                    Integer.parseInt(name.substring(17, 19)), Integer.parseInt(name.substring(19, 21)));
+
+            assertEquals(name, expected.getTimeInMillis(), VideoNameParser.parseRecordedAt(name, berlin));
+        }
+    }
+
+    @Test
+    public void parseRecordedAt_unknownName_returnsUnknownTime() {
+        assertEquals(VideoNameParser.UNKNOWN_TIME, VideoNameParser.parseRecordedAt("clip.mp4"));
+        assertEquals(VideoNameParser.UNKNOWN_TIME, VideoNameParser.parseRecordedAt("video_2024XX07_180509.mp4"));
+        assertEquals(VideoNameParser.UNKNOWN_TIME, VideoNameParser.parseRecordedAt("video_20240307-180509.mp4"));
+        assertEquals(VideoNameParser.UNKNOWN_TIME, VideoNameParser.parseRecordedAt("video_20241307_180509.mp4"));
+        assertEquals(VideoNameParser.UNKNOWN_TIME, VideoNameParser.parseRecordedAt(null));
+    }
+
+    @Test
+    public void parseRecordedAt_dayBeyondMonthLength_returnsUnknownTime() {
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+
+        assertEquals(VideoNameParser.UNKNOWN_TIME, VideoNameParser.parseRecordedAt("video_20240231_120000.mp4", utc));
+        assertEquals(VideoNameParser.UNKNOWN_TIME, VideoNameParser.parseRecordedAt("video_20230229_120000.mp4", utc));
+        assertEquals(VideoNameParser.UNKNOWN_TIME, VideoNameParser.parseRecordedAt("video_19000229_120000.mp4", utc));
+        assertEquals(VideoNameParser.UNKNOWN_TIME, VideoNameParser.parseRecordedAt("video_20240431_120000.mp4", utc));
+        assertNotEquals(VideoNameParser.UNKNOWN_TIME, VideoNameParser.parseRecordedAt("video_20240229_120000.mp4", utc));
+        assertNotEquals(VideoNameParser.UNKNOWN_TIME, VideoNameParser.parseRecordedAt("video_20000229_120000.mp4", utc));
+        assertNotEquals(VideoNameParser.UNKNOWN_TIME, VideoNameParser.parseRecordedAt("video_20240131_120000.mp4", utc));
+    }
+
+    @Test
+    public void parseRecordedAt_followsDefaultTimeZoneChanges() {
+        TimeZone original = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            long utc = VideoNameParser.parseRecordedAt("video_20240307_180509.mp4");
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+            long tokyo = VideoNameParser.parseRecordedAt("video_20240307_180509.mp4");
+
+            assertEquals(9 * 3_600_000L, utc - tokyo);
+        } finally {
+            TimeZone.setDefault(original);
+        }
+    }
+
+    @Test
+    public void newestFirst_sortsByTimeThenFilenameWithUnknownNamesLast() {
+        List<VideoItem> items = new ArrayList<>();
+        items.add(new VideoItem("clip_b.mp4", "u"));
+        items.add(new VideoItem("video_20240101_120000.mp4", "u"));
+        items.add(new VideoItem("clip_a.mp4", "u"));
+        items.add(new VideoItem("video_20240301_080000.mp4", "u"));
+
+        Collections.sort(items, VideoItem.NEWEST_FIRST);
+
+        assertEquals("video_20240301_080000.mp4", items.get(0).getFilename());
+        assertEquals("video_20240101_120000.mp4", items.get(1).getFilename());
+        assertEquals("clip_b.mp4", items.get(2).getFilename());
+        assertEquals("clip_a.mp4", items.get(3).getFilename());
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void benchmark_parseAndSort100kItems() {
+        List<String> names = new ArrayList<>(BENCHMARK_SIZE);
+        List<String> urls = new ArrayList<>(BENCHMARK_SIZE);
+        Random random = new Random(42);
+        for (int i = 0; i < BENCHMARK_SIZE; i++) {
+            String name = String.format(Locale.US, "video_2024%02d%02d_%02d%02d%02d.mp4",
+                    1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60));
+            names.add(name);
+            urls.add("http://10.0.0.5:5000/videos/feeder-" + (i % 8) + "/" + name);
+        }
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < BENCHMARK_SIZE; i++) {
+                VideoNameParser.parseRecordedAt(names.get(i));
+                VideoNameParser.parseFeederId(urls.get(i));
+                calendarParse(names.get(i));
+            }
+        }
+
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (String name : names) {
+            checksum += VideoNameParser.parseRecordedAt(name);
+        }
+        long parseNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (String name : names) {
+            checksum -= calendarParse(name);
+        }
+        long calendarNanos = System.nanoTime() - start;
+
+        List<VideoItem> items = new ArrayList<>(BENCHMARK_SIZE);
+        for (int i = 0; i < BENCHMARK_SIZE; i++) {
+            items.add(new VideoItem(names.get(i), urls.get(i)));
+        }
+
+        List<VideoItem> primitive = new ArrayList<>(items);
+        start = System.nanoTime();
+        Collections.sort(primitive, VideoItem.NEWEST_FIRST);
+        long primitiveSortMs = (System.nanoTime() - start) / 1_000_000;
+
+        List<VideoItem> reparsing = new ArrayList<>(items);
+        Comparator<VideoItem> byParsedName = (a, b) -> Long.compare(calendarParse(b.getFilename()), calendarParse(a.getFilename()));
+        start = System.nanoTime();
+        Collections.sort(reparsing, byParsedName);
+        long reparsingSortMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("Both parsers agree", 0, checksum);
+        assertTrue("parse " + parseNanos + " ns vs Calendar " + calendarNanos + " ns", parseNanos < calendarNanos);
+        for (int i = 1; i < primitive.size(); i++) {
+            assertTrue(primitive.get(i - 1).getRecordedAtMillis() >= primitive.get(i).getRecordedAtMillis());
+        }
+        assertTrue("parsed " + primitiveSortMs + " ms vs re-parsing " + reparsingSortMs + " ms", primitiveSortMs < reparsingSortMs);
+    }
+
+    /** The substring and Calendar parse the parser replaces, as a baseline. */
+    private static long calendarParse(String name) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(Integer.parseInt(name.substring(6, 10)), Integer.parseInt(name.substring(10, 12)) - 1,
+                Integer.parseInt(name.substring(12, 14)), Integer.parseInt(name.substring(15, 17)),
+                Integer.parseInt(name.substring(17, 19)), Integer.parseInt(name.substring(19, 21)));
+        return calendar.getTimeInMillis();
+    }
+}
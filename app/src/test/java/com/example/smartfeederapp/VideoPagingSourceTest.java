@@ -0,0 +1,146 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Unit tests for the {@link VideoPagingSource} class.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class VideoPagingSourceTest {
+    @Mock private ApiService mockApiService;
+    @Mock private Call<VideoPage> mockFirstCall;
+    @Mock private Call<VideoPage> mockSecondCall;
+    @Mock private VideoPagingSource.Listener mockListener;
+
+    @Captor private ArgumentCaptor<Callback<VideoPage>> callbackCaptor;
+
+    private MockedStatic<Log> mockedLog;
+    private VideoPagingSource pagingSource;
+
+    private final List<VideoItem> page1 = Arrays.asList(new VideoItem("a.mp4", "ua"), new VideoItem("b.mp4", "ub"));
+    private final List<VideoItem> page2 = Collections.singletonList(new VideoItem("c.mp4", "uc"));
+
+    @Before
+    public void setUp() {
+        mockedLog = Mockito.mockStatic(Log.class);
+        mockedLog.when(() -> Log.d(anyString(), anyString())).thenReturn(0);
+
+        when(mockApiService.getVideosPage(isNull(), eq(2))).thenReturn(mockFirstCall);
+        pagingSource = new VideoPagingSource(2, mockListener);
+    }
+
+    @After
+    public void tearDown() {
+        if (mockedLog != null) mockedLog.close();
+    }
+
+    @Test
+    public void start_requestsFirstPageAndReportsTotal() {
+        pagingSource.start(mockApiService);
+        assertTrue(pagingSource.isLoading());
+        verify(mockFirstCall).enqueue(callbackCaptor.capture());
+
+        callbackCaptor.getValue().onResponse(mockFirstCall, Response.success(new VideoPage(page1, "cursor-2", 3)));
+
+        verify(mockListener).onPageLoaded(page1, 3, true);
+        assertFalse(pagingSource.isLoading());
+        assertTrue(pagingSource.hasMore());
+        assertEquals(2, pagingSource.getLoadedCount());
+    }
+
+    @Test
+    public void loadNextPage_usesCursorAndStopsAtLastPage() {
+        when(mockApiService.getVideosPage(eq("cursor-2"), eq(2))).thenReturn(mockSecondCall);
+        pagingSource.start(mockApiService);
+        verify(mockFirstCall).enqueue(callbackCaptor.capture());
+        callbackCaptor.getValue().onResponse(mockFirstCall, Response.success(new VideoPage(page1, "cursor-2", 3)));
+
+        assertTrue(pagingSource.loadNextPage());
+        assertFalse("Only one page request may be in flight", pagingSource.loadNextPage());
+        verify(mockSecondCall).enqueue(callbackCaptor.capture());
+        callbackCaptor.getValue().onResponse(mockSecondCall, Response.success(new VideoPage(page2, null, 3)));
+
+        verify(mockListener).onPageLoaded(page2, 3, false);
+        assertFalse(pagingSource.hasMore());
+        assertFalse(pagingSource.loadNextPage());
+    }
+
+    @Test
+    public void lastPage_shrinksTotalToLoadedCount() {
+        pagingSource.start(mockApiService);
+        verify(mockFirstCall).enqueue(callbackCaptor.capture());
+
+        callbackCaptor.getValue().onResponse(mockFirstCall, Response.success(new VideoPage(page1, null, 10)));
+
+        verify(mockListener).onPageLoaded(page1, 2, true);
+    }
+
+    @Test
+    public void restart_ignoresResponsesFromPreviousLoad() {
+        pagingSource.start(mockApiService);
+        pagingSource.start(mockApiService);
+        verify(mockFirstCall, times(2)).enqueue(callbackCaptor.capture());
+        Callback<VideoPage> stale = callbackCaptor.getAllValues().get(0);
+
+        stale.onResponse(mockFirstCall, Response.success(new VideoPage(page1, "cursor-2", 3)));
+        stale.onFailure(mockFirstCall, new IOException("late"));
+
+        verifyNoInteractions(mockListener);
+        assertTrue(pagingSource.isLoading());
+    }
+
+    @Test
+    public void notFound_reportsPagingUnsupported() {
+        mockedLog.when(() -> Log.w(anyString(), anyString())).thenReturn(0);
+        pagingSource.start(mockApiService);
+        verify(mockFirstCall).enqueue(callbackCaptor.capture());
+
+        callbackCaptor.getValue().onResponse(mockFirstCall, Response.error(404, okhttp3.ResponseBody.create(null, "")));
+
+        verify(mockListener).onPagingUnsupported();
+        assertFalse(pagingSource.hasMore());
+    }
+
+    @Test
+    public void startWithFirstPage_cancelsRunningLoadAndContinuesFromItsCursor() {
+        when(mockApiService.getVideosPage(eq("cursor-2"), eq(2))).thenReturn(mockSecondCall);
+        pagingSource.start(mockApiService);
+        verify(mockFirstCall).enqueue(callbackCaptor.capture());
+        Callback<VideoPage> stale = callbackCaptor.getValue();
+
+        pagingSource.startWithFirstPage(mockApiService, new VideoPage(page1, "cursor-2", 3, "token-1"));
+        stale.onResponse(mockFirstCall, Response.success(new VideoPage(page2, null, 1)));
+
+        verify(mockFirstCall).cancel();
+        verify(mockListener).onPageLoaded(page1, 3, true);
+        assertEquals("token-1", pagingSource.getSyncToken());
+        assertFalse(pagingSource.isLoading());
+        assertTrue(pagingSource.loadNextPage());
+        verify(mockSecondCall).enqueue(any());
+        verifyNoMoreInteractions(mockListener);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.smartfeederapp;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Unit tests for the {@link VideoSearchIndex} class.
+ * Also measures build time, memory and per-keystroke search time on a 100k-video catalog.
+ */
+public class VideoSearchIndexTest {
+
+    private static final int BENCHMARK_SIZE = 100_000;
+    private static final long KEYSTROKE_BUDGET_NANOS = 4_000_000;
+
+    private static VideoSearchIndex index(String... filenames) {
+        VideoSearchIndex index = new VideoSearchIndex();
+        for (String filename : filenames) {
+            index.add(filename);
+        }
+        return index;
+    }
+
+    @Test
+    public void search_matchesWordPrefixesInRowOrder() {
+        VideoSearchIndex index = index("video_20240307_181500.mp4", "video_20240308_090000.mp4",
+                "Clip-Garden.MOV", "video_20240307_090000.mp4");
+
+        assertArrayEquals(new int[]{0, 1, 3}, index.search("video"));
+        assertArrayEquals(new int[]{0, 3}, index.search("20240307"));
+        assertArrayEquals(new int[]{0, 3}, index.search("20240307 mp4"));
+        assertArrayEquals(new int[]{1, 3}, index.search("0900"));
+        assertArrayEquals(new int[]{2}, index.search("garden"));
+        assertArrayEquals(new int[]{2}, index.search("CLIP mov"));
+        assertArrayEquals(new int[0], index.search("0307"));
+        assertArrayEquals(new int[0], index.search("audio"));
+    }
+
+    @Test
+    public void search_withSeveralWords_requiresAllOfThem() {
+        VideoSearchIndex index = index("video_20240307_181500.mp4", "video_20240308_181500.mp4", "video_20240307_090000.mp4");
+
+        assertArrayEquals(new int[]{0}, index.search("20240307_18"));
+        assertArrayEquals(new int[]{0, 1}, index.search("video 1815"));
+        assertArrayEquals(new int[0], index.search("20240308 0900"));
+    }
+
+    @Test
+    public void search_withoutWords_matchesAllRows() {
+        VideoSearchIndex index = index("a.mp4", null, "b.mp4");
+
+        assertArrayEquals(new int[]{0, 1, 2}, index.search(" _ "));
+        assertArrayEquals(new int[]{0, 2}, index.search("mp4"));
+    }
+
+    @Test
+    public void repeatedWord_isReportedOnce() {
+        VideoSearchIndex index = index("cam_cam_cam.mp4", "cam.mp4");
+
+        assertArrayEquals(new int[]{0, 1}, index.search("ca"));
+    }
+
+    @Test
+    public void clear_startsRowsAgainFromZero() {
+        VideoSearchIndex index = index("a.mp4", "b.mp4");
+
+        index.clear();
+        index.addAll(Arrays.asList(new VideoItem("b.mp4", "http://h/videos/b.mp4")));
+
+        assertEquals(1, index.size());
+        assertArrayEquals(new int[]{0}, index.search("b"));
+        assertArrayEquals(new int[0], index.search("a"));
+    }
+
+    @Test
+    public void nonLatinNames_areMatchedIgnoringCase() {
+        VideoSearchIndex index = index("\u041a\u043e\u0440\u043c\u0443\u0448\u043a\u0430_1.mp4", "video_1.mp4");
+
+        assertArrayEquals(new int[]{0}, index.search("\u043a\u043e\u0440\u043c"));
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void benchmark_100kNames_buildAndKeystrokes() {
+        List<VideoItem> items = new ArrayList<>(BENCHMARK_SIZE);
+        Random random = new Random(11);
+        for (int i = 0; i < BENCHMARK_SIZE; i++) {
+            String name = String.format(Locale.US, "video_2024%02d%02d_%02d%02d%02d.mp4",
+                    1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60));
+            items.add(new VideoItem(name, "http://192.168.1.20:5000/videos/feeder-" + (i % 8) + "/" + name));
+        }
+        String typed = "video 20240307 18";
+        VideoSearchIndex index = new VideoSearchIndex();
+        for (int round = 0; round < 3; round++) {
+            index.clear();
+            for (int start = 0; start < items.size(); start += 1000) {
+                index.addAll(items.subList(start, start + 1000));
+            }
+        }
+        for (int round = 0; round < 100; round++) {
+            for (int length = 1; length <= typed.length(); length++) {
+                index.search(typed.substring(0, length));
+            }
+        }
+
+        long worstNanos = 0;
+        int[] rows = null;
+        for (int length = 1; length <= typed.length(); length++) {
+            String query = typed.substring(0, length);
+            long[] samples = new long[5];
+            for (int run = 0; run < samples.length; run++) {
+                long start = System.nanoTime();
+                rows = index.search(query);
+                samples[run] = System.nanoTime() - start;
+            }
+            Arrays.sort(samples);
+            worstNanos = Math.max(worstNanos, samples[2]);
+        }
+
+        int expected = 0;
+        for (VideoItem item : items) {
+            if (item.getFilename().startsWith("video_20240307_18")) {
+                expected++;
+            }
+        }
+        assertEquals(expected, rows.length);
+        assertTrue("slowest keystroke took " + worstNanos + " ns", worstNanos < KEYSTROKE_BUDGET_NANOS);
+    }
+}
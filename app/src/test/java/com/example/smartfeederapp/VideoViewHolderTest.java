@@ -7,20 +7,32 @@ import android.view.View;
 import android.widget.ImageButton;
 import android.widget.TextView;
 
+import androidx.recyclerview.widget.RecyclerView;
+
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
-import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
 
 /**
  * Unit tests for the {@link VideoAdapter.VideoViewHolder} class.
- * Focuses on verifying the behavior of the {@code bind} method.
+ * Focuses on verifying the behavior of the {@code bind} methods and of the click listeners,
+ * which are set once and resolve the video by the holder's adapter position.
+ * Runs on Robolectric because the holder reads its rows from a real VideoAdapter.
  */
-@RunWith(MockitoJUnitRunner.class)
+@RunWith(RobolectricTestRunner.class)
 public class VideoViewHolderTest {
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
     @Mock
     private View mockItemView;
     @Mock
@@ -36,59 +48,88 @@ public class VideoViewHolderTest {
     private ArgumentCaptor<View.OnClickListener> downloadClickListenerCaptor;
 
     private VideoItem testVideoItem;
+    private VideoItem secondVideoItem;
+    private VideoAdapter adapter;
+    private int position;
 
     private VideoAdapter.VideoViewHolder viewHolder;
 
     @Before
     public void setUp() {
         testVideoItem = new VideoItem("test_video_01.mp4", "http://example.com/video1.mp4");
+        secondVideoItem = new VideoItem("test_video_02.mp4", "http://example.com/video2.mp4");
+        adapter = new VideoAdapter(Runnable::run, Runnable::run);
+        adapter.setFirstPage(Arrays.asList(testVideoItem, secondVideoItem), 3);
+        adapter.setOnVideoActionListener(mockListener);
 
         when(mockItemView.findViewById(R.id.tvVideoName)).thenReturn(mockTextView);
         when(mockItemView.findViewById(R.id.btnDownloadVideo)).thenReturn(mockDownloadButton);
 
-        viewHolder = new VideoAdapter.VideoViewHolder(mockItemView);
+        viewHolder = new VideoAdapter.VideoViewHolder(mockItemView, adapter) {
+            @Override
+            int adapterPosition() {
+                return position;
+            }
+        };
+        verify(mockItemView).setOnClickListener(itemViewClickListenerCaptor.capture());
+        verify(mockDownloadButton).setOnClickListener(downloadClickListenerCaptor.capture());
     }
 
     @Test
     public void bind_setsVideoFileNameCorrectly() {
-        viewHolder.bind(testVideoItem, mockListener);
+        viewHolder.bind(testVideoItem);
         verify(mockTextView).setText(testVideoItem.getFilename());
+        verify(mockDownloadButton).setVisibility(View.VISIBLE);
     }
 
     @Test
-    public void bind_setsItemViewClickListener_andCallsListenerOnClick() {
-        viewHolder.bind(testVideoItem, mockListener);
+    public void bind_doesNotSetClickListeners() {
+        viewHolder.bind(testVideoItem);
+        viewHolder.bind(secondVideoItem);
+        viewHolder.bindPlaceholder();
 
-        verify(mockItemView).setOnClickListener(itemViewClickListenerCaptor.capture());
+        verify(mockItemView, times(1)).setOnClickListener(any());
+        verify(mockDownloadButton, times(1)).setOnClickListener(any());
+    }
+
+    @Test
+    public void itemViewClick_callsListenerWithItemAtCurrentPosition() {
         assertNotNull("ClickListener should be set on itemView", itemViewClickListenerCaptor.getValue());
 
+        itemViewClickListenerCaptor.getValue().onClick(mockItemView);
+        position = 1;
         itemViewClickListenerCaptor.getValue().onClick(mockItemView);
 
         verify(mockListener).onVideoPlayClick(testVideoItem);
+        verify(mockListener).onVideoPlayClick(secondVideoItem);
         verify(mockListener, never()).onVideoDownloadClick(any(VideoItem.class));
     }
 
     @Test
-    public void bind_setsDownloadButtonClickListener_andCallsListenerOnClick() {
-        viewHolder.bind(testVideoItem, mockListener);
-
-        verify(mockDownloadButton).setOnClickListener(downloadClickListenerCaptor.capture());
+    public void downloadButtonClick_callsListenerWithItemAtCurrentPosition() {
         assertNotNull("ClickListener should be set on downloadButton", downloadClickListenerCaptor.getValue());
+        position = 1;
 
         downloadClickListenerCaptor.getValue().onClick(mockDownloadButton);
 
-        verify(mockListener).onVideoDownloadClick(testVideoItem);
+        verify(mockListener).onVideoDownloadClick(secondVideoItem);
         verify(mockListener, never()).onVideoPlayClick(any(VideoItem.class));
     }
 
     @Test
-    public void bind_withNullListener_doesNotCrashOnClick() {
-        viewHolder.bind(testVideoItem, null);
+    public void click_onPlaceholderOrUnknownPosition_isIgnored() {
+        position = 2;
+        itemViewClickListenerCaptor.getValue().onClick(mockItemView);
+        position = RecyclerView.NO_POSITION;
+        itemViewClickListenerCaptor.getValue().onClick(mockItemView);
+        downloadClickListenerCaptor.getValue().onClick(mockDownloadButton);
 
-        verify(mockItemView).setOnClickListener(itemViewClickListenerCaptor.capture());
-        verify(mockDownloadButton).setOnClickListener(downloadClickListenerCaptor.capture());
-        assertNotNull(itemViewClickListenerCaptor.getValue());
-        assertNotNull(downloadClickListenerCaptor.getValue());
+        verifyNoInteractions(mockListener);
+    }
+
+    @Test
+    public void click_withNullListener_doesNotCrash() {
+        adapter.setOnVideoActionListener(null);
 
         try {
             itemViewClickListenerCaptor.getValue().onClick(mockItemView);
@@ -99,4 +140,4 @@ public class VideoViewHolderTest {
 
         verifyNoInteractions(mockListener);
     }
-}
\ No newline at end of file
+}